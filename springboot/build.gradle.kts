@@ -3,6 +3,7 @@ plugins {
     id("io.spring.dependency-management") version "1.1.7"
     id("org.flywaydb.flyway") version "9.22.3"
     id("com.diffplug.spotless") version "7.0.2"
+    id("me.champeau.jmh") version "0.7.2"
     java
 }
 
@@ -30,6 +31,7 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter")
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-actuator")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-cache")
     implementation("org.springframework.boot:spring-boot-starter-mail")
@@ -78,10 +80,15 @@ tasks.named<Test>("test") {
 
 tasks.register<Test>("perfTest") {
     group = "verification"
-    description = "Runs performance guardrail tests."
+    description = "Runs performance guardrail tests (SQL statement counts, latency percentiles)."
     useJUnitPlatform {
         includeTags("perf")
     }
+    // print the statement-count and latency reports
+    testLogging {
+        showStandardStreams = true
+    }
+    outputs.upToDateWhen { false }
     shouldRunAfter(tasks.named("test"))
 }
 
@@ -94,13 +101,26 @@ tasks.register<Test>("slowTest") {
     shouldRunAfter(tasks.named("test"))
 }
 
+// Microbenchmarks in src/jmh/java: ./gradlew jmh [-PjmhIncludes=Sanitizer]
+jmh {
+    jmhVersion.set("1.37")
+    (findProperty("jmhIncludes") as String?)?.let { includes.add(it) }
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+    // the benchmark jar bundles the whole runtime classpath, past the plain zip entry limit
+    zip64.set(true)
+}
+
 tasks.named<org.springframework.boot.gradle.tasks.bundling.BootJar>("bootJar") {
     archiveBaseName.set("meer")
 }
 
 spotless {
     java {
-        target("src/main/java/**/*.java", "src/test/java/**/*.java")
+        target("src/main/java/**/*.java", "src/test/java/**/*.java", "src/jmh/java/**/*.java")
         googleJavaFormat("1.24.0")
         removeUnusedImports()
         trimTrailingWhitespace()
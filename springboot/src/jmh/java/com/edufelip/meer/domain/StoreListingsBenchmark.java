@@ -0,0 +1,75 @@
+package com.edufelip.meer.domain;
+
+import com.edufelip.meer.core.auth.AuthUser;
+import com.edufelip.meer.core.store.ThriftStore;
+import com.edufelip.meer.service.StoreFeedbackService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Item assembly of {@link GetStoreListingsUseCase} for one page: rating lookup, favorite check
+ * against the user's favorites and distance from the query point, per store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StoreListingsBenchmark {
+
+  @Param({"10", "50"})
+  public int pageSize;
+
+  @Param({"0", "20", "200"})
+  public int favorites;
+
+  private List<ThriftStore> page;
+  private Map<UUID, StoreFeedbackService.Summary> summaries;
+  private AuthUser user;
+
+  @Setup
+  public void setup() {
+    page = new ArrayList<>();
+    summaries = new HashMap<>();
+    for (int i = 0; i < pageSize; i++) {
+      ThriftStore store = store(i);
+      page.add(store);
+      if (i % 2 == 0) summaries.put(store.getId(), new StoreFeedbackService.Summary(4.2, 17L));
+    }
+
+    Set<ThriftStore> favoriteStores = new HashSet<>();
+    for (int i = 0; i < favorites; i++) {
+      // every other favorite is on this page, the rest elsewhere
+      favoriteStores.add(i % 2 == 0 && i / 2 < pageSize ? page.get(i / 2) : store(1_000 + i));
+    }
+    user = new AuthUser();
+    user.setId(UUID.randomUUID());
+    user.setFavorites(favoriteStores);
+  }
+
+  @Benchmark
+  public List<GetStoreListingsUseCase.StoreListItem> toItems() {
+    return GetStoreListingsUseCase.toItems(page, summaries, user, -23.55, -46.65);
+  }
+
+  private static ThriftStore store(int i) {
+    ThriftStore store = new ThriftStore();
+    store.setId(UUID.randomUUID());
+    store.setName("Store " + i);
+    store.setLatitude(-23.55 + i * 0.001);
+    store.setLongitude(-46.65 - i * 0.001);
+    return store;
+  }
+}
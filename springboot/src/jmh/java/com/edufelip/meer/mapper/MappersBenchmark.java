@@ -0,0 +1,102 @@
+package com.edufelip.meer.mapper;
+
+import com.edufelip.meer.core.content.GuideContent;
+import com.edufelip.meer.core.store.ThriftStore;
+import com.edufelip.meer.core.store.ThriftStorePhoto;
+import com.edufelip.meer.domain.GuideContentSummary;
+import com.edufelip.meer.domain.StoreRatingView;
+import com.edufelip.meer.dto.GuideContentDto;
+import com.edufelip.meer.dto.StoreRatingDto;
+import com.edufelip.meer.dto.ThriftStoreDto;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** The {@link Mappers#toDto} overloads behind the store, content and ratings endpoints. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappersBenchmark {
+
+  private ThriftStore store;
+  private GuideContent content;
+  private GuideContentSummary summary;
+  private StoreRatingView rating;
+
+  @Setup
+  public void setup() {
+    Instant now = Instant.parse("2026-01-01T00:00:00Z");
+    store = new ThriftStore();
+    store.setId(UUID.randomUUID());
+    store.setName("Brechó da Ana");
+    store.setAddressLine("Rua Augusta, 1000");
+    store.setLatitude(-23.55);
+    store.setLongitude(-46.65);
+    store.setCategories(List.of("roupas", "vintage", "acessorios"));
+    store.setCreatedAt(now);
+    List<ThriftStorePhoto> photos = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      photos.add(new ThriftStorePhoto(store, "https://cdn.example.com/p" + i + ".jpg", i));
+    }
+    store.setPhotos(photos);
+
+    List<GuideContent> contents = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      GuideContent c =
+          new GuideContent(
+              i, "Guide " + i, "Body " + i, "tips", "article", "https://cdn/g.jpg", store);
+      c.setCreatedAt(now);
+      contents.add(c);
+    }
+    store.setContents(contents);
+    content = contents.get(0);
+
+    summary =
+        new GuideContentSummary(
+            1,
+            "Guide",
+            "Body",
+            "https://cdn/g.jpg",
+            store.getId(),
+            store.getName(),
+            null,
+            now,
+            12L,
+            3L);
+    rating = new StoreRatingView(1, store.getId(), 5, "Great", "Ana", null, now);
+  }
+
+  @Benchmark
+  public ThriftStoreDto storeListItem() {
+    return Mappers.toDto(store, false, false, 4.5, 12, 850.0);
+  }
+
+  @Benchmark
+  public ThriftStoreDto storeWithContents() {
+    return Mappers.toDto(store, true);
+  }
+
+  @Benchmark
+  public GuideContentDto contentEntity() {
+    return Mappers.toDto(content, 12L, 3L, true);
+  }
+
+  @Benchmark
+  public GuideContentDto contentSummary() {
+    return Mappers.toDto(summary);
+  }
+
+  @Benchmark
+  public StoreRatingDto rating() {
+    return Mappers.toDto(rating);
+  }
+}
@@ -0,0 +1,46 @@
+package com.edufelip.meer.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * {@link TokenBucketRateLimiter#tryAcquire} from 8 threads, either all on one key (every call
+ * contends on the same bucket) or spread over many keys (the usual per-client case).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class TokenBucketRateLimiterBenchmark {
+
+  @Param({"1", "10000"})
+  public int keys;
+
+  private TokenBucketRateLimiter limiter;
+  private String[] keyNames;
+
+  @Setup
+  public void setup() {
+    limiter = new TokenBucketRateLimiter(1_000, Duration.ofSeconds(1), 100_000, Clock.systemUTC());
+    keyNames = new String[keys];
+    for (int i = 0; i < keys; i++) {
+      keyNames[i] = "10.0." + (i / 256) + "." + (i % 256);
+    }
+  }
+
+  @Benchmark
+  public boolean tryAcquire() {
+    return limiter.tryAcquire(keyNames[ThreadLocalRandom.current().nextInt(keys)]);
+  }
+}
@@ -0,0 +1,107 @@
+package com.edufelip.meer.service.moderation;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.coobird.thumbnailator.Thumbnails;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Preprocessing a phone-sized upload, decoded either to packed ints or to the 3-byte BGR layout
+ * ImageIO produces for JPEGs, into the 224x224 model input. {@code perPixelGetRgb} is the original
+ * implementation (fresh array, one {@code getRGB(x, y)} and two divisions per channel per pixel);
+ * {@code bulkIntoDirectBuffer} is {@link ImagePreprocessor#writeNchwFloatRgb} into a reused direct
+ * buffer, as the inference service runs it. {@code ...AtModelSize} skips the resize to isolate the
+ * pixel conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ImagePreprocessorBenchmark {
+
+  private static final float[] MEAN = {0.485f, 0.456f, 0.406f};
+  private static final float[] STD = {0.229f, 0.224f, 0.225f};
+  private static final int SIZE = 224;
+
+  @Param({"INT_RGB", "3BYTE_BGR"})
+  public String imageType;
+
+  private final ImagePreprocessor preprocessor = new ImagePreprocessor();
+  private final FloatBuffer direct =
+      ByteBuffer.allocateDirect(3 * SIZE * SIZE * Float.BYTES)
+          .order(ByteOrder.nativeOrder())
+          .asFloatBuffer();
+  private BufferedImage image;
+  private BufferedImage modelSized;
+
+  @Setup
+  public void setup() {
+    int type =
+        "INT_RGB".equals(imageType) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_3BYTE_BGR;
+    image = randomImage(1280, 960, type);
+    modelSized = randomImage(SIZE, SIZE, type);
+  }
+
+  @Benchmark
+  public float[] perPixelGetRgb() throws IOException {
+    return perPixel(Thumbnails.of(image).forceSize(SIZE, SIZE).asBufferedImage());
+  }
+
+  @Benchmark
+  public FloatBuffer bulkIntoDirectBuffer() throws IOException {
+    preprocessor.writeNchwFloatRgb(image, SIZE, SIZE, direct);
+    return direct;
+  }
+
+  @Benchmark
+  public float[] perPixelGetRgbAtModelSize() {
+    return perPixel(modelSized);
+  }
+
+  @Benchmark
+  public FloatBuffer bulkIntoDirectBufferAtModelSize() throws IOException {
+    preprocessor.writeNchwFloatRgb(modelSized, SIZE, SIZE, direct);
+    return direct;
+  }
+
+  private static float[] perPixel(BufferedImage resized) {
+    int hw = SIZE * SIZE;
+    float[] chw = new float[3 * hw];
+    int idx = 0;
+    for (int y = 0; y < SIZE; y++) {
+      for (int x = 0; x < SIZE; x++) {
+        int rgb = resized.getRGB(x, y);
+        float r = ((rgb >> 16) & 0xFF) / 255.0f;
+        float g = ((rgb >> 8) & 0xFF) / 255.0f;
+        float b = (rgb & 0xFF) / 255.0f;
+        int i = idx++;
+        chw[i] = (r - MEAN[0]) / STD[0];
+        chw[hw + i] = (g - MEAN[1]) / STD[1];
+        chw[2 * hw + i] = (b - MEAN[2]) / STD[2];
+      }
+    }
+    return chw;
+  }
+
+  private static BufferedImage randomImage(int width, int height, int type) {
+    BufferedImage image = new BufferedImage(width, height, type);
+    Random random = new Random(42);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        image.setRGB(x, y, random.nextInt(0x1000000));
+      }
+    }
+    return image;
+  }
+}
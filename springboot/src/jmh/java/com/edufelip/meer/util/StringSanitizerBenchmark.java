@@ -0,0 +1,49 @@
+package com.edufelip.meer.util;
+
+import com.edufelip.meer.security.Sanitizer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Both sanitizers on the inputs they see: plain ASCII (the fast path), text with markup, and
+ * non-ASCII text that needs NFKC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StringSanitizerBenchmark {
+
+  @Param({"plain", "markup", "unicode"})
+  public String kind;
+
+  private String input;
+
+  @Setup
+  public void setup() {
+    input =
+        switch (kind) {
+          case "plain" -> "  Great store, friendly staff and fair prices.\nWill come back!  ";
+          case "markup" ->
+              "Nice <b>finds</b> &amp; deals<script>alert(1)</script>\n\n\n\n\nSee you <i>soon</i>";
+          case "unicode" -> "Brechó ótimo, peças únicas ﬁnas\u0007 e preço justo — recomendo!";
+          default -> throw new IllegalArgumentException(kind);
+        };
+  }
+
+  @Benchmark
+  public String stringSanitizer() {
+    return StringSanitizer.sanitize(input);
+  }
+
+  @Benchmark
+  public String requestSanitizer() {
+    return Sanitizer.sanitize(input);
+  }
+}
@@ -0,0 +1,31 @@
+package com.edufelip.meer.util;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class Uuid7Benchmark {
+
+  @Benchmark
+  public UUID next() {
+    return Uuid7.next();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public UUID nextContended() {
+    return Uuid7.next();
+  }
+
+  /** Baseline: the JDK's random (v4) UUID. */
+  @Benchmark
+  public UUID randomUuid() {
+    return UUID.randomUUID();
+  }
+}
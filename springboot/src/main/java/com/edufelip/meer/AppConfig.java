@@ -24,7 +24,9 @@ import com.edufelip.meer.domain.ReplaceStorePhotosUseCase;
 import com.edufelip.meer.domain.RequestGuideContentImageUploadUseCase;
 import com.edufelip.meer.domain.RequestStorePhotoUploadsUseCase;
 import com.edufelip.meer.domain.StoreDeletionService;
+import com.edufelip.meer.domain.StoreGeoIndex;
 import com.edufelip.meer.domain.StoreOwnershipService;
+import com.edufelip.meer.domain.StoreSearchIndex;
 import com.edufelip.meer.domain.UnlikeGuideContentUseCase;
 import com.edufelip.meer.domain.UpdateCategoryUseCase;
 import com.edufelip.meer.domain.UpdateGuideContentCommentUseCase;
@@ -56,11 +58,17 @@ import com.edufelip.meer.domain.repo.PasswordResetTokenRepository;
 import com.edufelip.meer.domain.repo.PushTokenRepository;
 import com.edufelip.meer.domain.repo.StoreFeedbackRepository;
 import com.edufelip.meer.domain.repo.ThriftStoreRepository;
+import com.edufelip.meer.logging.RequestLoggingProperties;
 import com.edufelip.meer.logging.RequestResponseLoggingFilter;
+import com.edufelip.meer.metrics.RequestMetricsFilter;
+import com.edufelip.meer.metrics.RequestMetricsProperties;
+import com.edufelip.meer.security.AuthUserStatusCache;
 import com.edufelip.meer.security.DashboardAdminGuardFilter;
 import com.edufelip.meer.security.GoogleClientProperties;
 import com.edufelip.meer.security.JwtProperties;
 import com.edufelip.meer.security.PasswordResetProperties;
+import com.edufelip.meer.security.RateLimitFilter;
+import com.edufelip.meer.security.RateLimitProperties;
 import com.edufelip.meer.security.RequestGuardsFilter;
 import com.edufelip.meer.security.SecurityProperties;
 import com.edufelip.meer.security.token.JwtTokenProvider;
@@ -89,6 +97,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
   JwtProperties.class,
   GoogleClientProperties.class,
   PasswordResetProperties.class,
+  RateLimitProperties.class,
+  RequestLoggingProperties.class,
+  RequestMetricsProperties.class,
   FirebaseProperties.class,
   TermsProperties.class
 })
@@ -99,14 +110,30 @@ public class AppConfig {
     return new GetThriftStoreUseCase(repo);
   }
 
+  @Bean
+  public StoreGeoIndex storeGeoIndex(
+      @org.springframework.beans.factory.annotation.Value(
+              "${meer.geo-index.cell-size-degrees:0.05}")
+          double cellSizeDegrees) {
+    return new StoreGeoIndex(cellSizeDegrees);
+  }
+
+  @Bean
+  public StoreSearchIndex storeSearchIndex() {
+    return new StoreSearchIndex();
+  }
+
   @Bean
   public GetThriftStoresUseCase getThriftStoresUseCase(
       ThriftStoreRepository repo,
       @org.springframework.beans.factory.annotation.Value("${spring.datasource.url:}")
           String datasourceUrl,
       @org.springframework.beans.factory.annotation.Value("${meer.postgis.enabled:false}")
-          boolean postgisEnabled) {
-    return new GetThriftStoresUseCase(repo, datasourceUrl, postgisEnabled);
+          boolean postgisEnabled,
+      StoreGeoIndex storeGeoIndex,
+      StoreSearchIndex storeSearchIndex) {
+    return new GetThriftStoresUseCase(
+        repo, datasourceUrl, postgisEnabled, storeGeoIndex, storeSearchIndex);
   }
 
   @Bean
@@ -117,8 +144,11 @@ public class AppConfig {
 
   @Bean
   public CreateThriftStoreUseCase createThriftStoreUseCase(
-      ThriftStoreRepository repo, AuthUserRepository authUserRepository) {
-    return new CreateThriftStoreUseCase(repo, authUserRepository);
+      ThriftStoreRepository repo,
+      AuthUserRepository authUserRepository,
+      StoreGeoIndex storeGeoIndex,
+      StoreSearchIndex storeSearchIndex) {
+    return new CreateThriftStoreUseCase(repo, authUserRepository, storeGeoIndex, storeSearchIndex);
   }
 
   @Bean
@@ -144,18 +174,30 @@ public class AppConfig {
       GetThriftStoreUseCase getThriftStoreUseCase,
       StoreFeedbackService storeFeedbackService,
       StoreFeedbackRepository storeFeedbackRepository,
-      GetStoreContentsUseCase getStoreContentsUseCase) {
+      GetStoreContentsUseCase getStoreContentsUseCase,
+      @org.springframework.beans.factory.annotation.Qualifier("storeDetailsExecutor")
+          java.util.concurrent.Executor storeDetailsExecutor,
+      org.springframework.transaction.PlatformTransactionManager transactionManager,
+      @org.springframework.beans.factory.annotation.Value(
+              "${meer.store-details.parallel.enabled:true}")
+          boolean parallel) {
     return new GetStoreDetailsUseCase(
         getThriftStoreUseCase,
         storeFeedbackService,
         storeFeedbackRepository,
-        getStoreContentsUseCase);
+        getStoreContentsUseCase,
+        parallel ? storeDetailsExecutor : null,
+        transactionManager);
   }
 
   @Bean
   public UpdateThriftStoreUseCase updateThriftStoreUseCase(
-      ThriftStoreRepository thriftStoreRepository, StoreOwnershipService storeOwnershipService) {
-    return new UpdateThriftStoreUseCase(thriftStoreRepository, storeOwnershipService);
+      ThriftStoreRepository thriftStoreRepository,
+      StoreOwnershipService storeOwnershipService,
+      StoreGeoIndex storeGeoIndex,
+      StoreSearchIndex storeSearchIndex) {
+    return new UpdateThriftStoreUseCase(
+        thriftStoreRepository, storeOwnershipService, storeGeoIndex, storeSearchIndex);
   }
 
   @Bean
@@ -194,7 +236,9 @@ public class AppConfig {
       GuideContentRepository guideContentRepository,
       GuideContentCommentRepository guideContentCommentRepository,
       GuideContentLikeRepository guideContentLikeRepository,
-      AssetDeletionQueuePort assetDeletionQueuePort) {
+      AssetDeletionQueuePort assetDeletionQueuePort,
+      StoreGeoIndex storeGeoIndex,
+      StoreSearchIndex storeSearchIndex) {
     return new StoreDeletionService(
         thriftStoreRepository,
         authUserRepository,
@@ -202,7 +246,9 @@ public class AppConfig {
         guideContentRepository,
         guideContentCommentRepository,
         guideContentLikeRepository,
-        assetDeletionQueuePort);
+        assetDeletionQueuePort,
+        storeGeoIndex,
+        storeSearchIndex);
   }
 
   @Bean
@@ -445,33 +491,114 @@ public class AppConfig {
     return new JwtTokenProvider(props, clock);
   }
 
+  /**
+   * Opens the request's EntityManager before the guard filters (instead of in the dispatcher), so
+   * the user a guard loads into {@link com.edufelip.meer.security.AuthPrincipal} stays managed and
+   * its lazy associations stay readable in controllers.
+   */
+  @Bean
+  @org.springframework.boot.autoconfigure.condition.ConditionalOnProperty(
+      name = "spring.jpa.open-in-view",
+      havingValue = "true",
+      matchIfMissing = true)
+  public FilterRegistrationBean<org.springframework.orm.jpa.support.OpenEntityManagerInViewFilter>
+      openEntityManagerInViewFilter() {
+    FilterRegistrationBean<org.springframework.orm.jpa.support.OpenEntityManagerInViewFilter>
+        registration =
+            new FilterRegistrationBean<>(
+                new org.springframework.orm.jpa.support.OpenEntityManagerInViewFilter());
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1); // before the guards
+    return registration;
+  }
+
+  /**
+   * The dispatcher-level counterpart Boot backs off from once the filter above exists. It joins the
+   * filter's EntityManager when one is bound, and opens one for dispatches the filter skips (error
+   * dispatches, MockMvc without filters), as Boot's own interceptor did.
+   */
+  @Bean
+  @org.springframework.boot.autoconfigure.condition.ConditionalOnProperty(
+      name = "spring.jpa.open-in-view",
+      havingValue = "true",
+      matchIfMissing = true)
+  public org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor
+      openEntityManagerInViewInterceptor() {
+    return new org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor();
+  }
+
+  @Bean
+  @org.springframework.boot.autoconfigure.condition.ConditionalOnProperty(
+      name = "spring.jpa.open-in-view",
+      havingValue = "true",
+      matchIfMissing = true)
+  public org.springframework.web.servlet.config.annotation.WebMvcConfigurer
+      openEntityManagerInViewInterceptorConfigurer(
+          org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor interceptor) {
+    return new org.springframework.web.servlet.config.annotation.WebMvcConfigurer() {
+      @Override
+      public void addInterceptors(
+          org.springframework.web.servlet.config.annotation.InterceptorRegistry registry) {
+        registry.addWebRequestInterceptor(interceptor);
+      }
+    };
+  }
+
+  @Bean
+  public FilterRegistrationBean<RequestMetricsFilter> requestMetricsFilter(
+      io.micrometer.core.instrument.MeterRegistry meterRegistry,
+      RequestMetricsProperties properties) {
+    FilterRegistrationBean<RequestMetricsFilter> registration =
+        new FilterRegistrationBean<>(new RequestMetricsFilter(meterRegistry, properties));
+    // outermost of the registered filters, so the guards' queries are counted too
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+
   @Bean
   public FilterRegistrationBean<RequestGuardsFilter> requestGuardsFilter(
       SecurityProperties securityProps,
       TokenProvider tokenProvider,
-      AuthUserRepository authUserRepository) {
+      AuthUserRepository authUserRepository,
+      AuthUserStatusCache userStatusCache) {
     FilterRegistrationBean<RequestGuardsFilter> registration =
         new FilterRegistrationBean<>(
-            new RequestGuardsFilter(securityProps, tokenProvider, authUserRepository));
-    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            new RequestGuardsFilter(
+                securityProps, tokenProvider, authUserRepository, userStatusCache));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
     return registration;
   }
 
   @Bean
-  public FilterRegistrationBean<RequestResponseLoggingFilter> requestResponseLoggingFilter() {
+  public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitPort rateLimitPort) {
+    FilterRegistrationBean<RateLimitFilter> registration =
+        new FilterRegistrationBean<>(new RateLimitFilter(rateLimitPort));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+    return registration;
+  }
+
+  @Bean
+  public FilterRegistrationBean<RequestResponseLoggingFilter> requestResponseLoggingFilter(
+      RequestLoggingProperties properties,
+      @org.springframework.beans.factory.annotation.Qualifier("requestLogExecutor")
+          java.util.concurrent.Executor requestLogExecutor) {
     FilterRegistrationBean<RequestResponseLoggingFilter> registration =
-        new FilterRegistrationBean<>(new RequestResponseLoggingFilter());
-    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1); // run right after guards
+        new FilterRegistrationBean<>(
+            new RequestResponseLoggingFilter(properties, requestLogExecutor));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 3); // run right after guards
     return registration;
   }
 
   @Bean
   public FilterRegistrationBean<DashboardAdminGuardFilter> dashboardAdminGuardFilter(
-      TokenProvider tokenProvider, AuthUserRepository authUserRepository) {
+      TokenProvider tokenProvider,
+      AuthUserRepository authUserRepository,
+      AuthUserStatusCache userStatusCache,
+      SecurityProperties securityProps) {
     FilterRegistrationBean<DashboardAdminGuardFilter> registration =
         new FilterRegistrationBean<>(
-            new DashboardAdminGuardFilter(tokenProvider, authUserRepository));
-    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2); // after logging
+            new DashboardAdminGuardFilter(
+                tokenProvider, authUserRepository, userStatusCache, securityProps));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 4); // after logging
     return registration;
   }
 }
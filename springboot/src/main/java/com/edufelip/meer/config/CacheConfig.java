@@ -17,16 +17,14 @@ public class CacheConfig {
   @Bean
   public CacheManager cacheManager(
       @Value("classpath:caffeine-cache.properties") org.springframework.core.io.Resource config) {
-    Properties props = new Properties();
-    try (var in = config.getInputStream()) {
-      props.load(in);
-    } catch (Exception ignored) {
-    }
+    Properties props = loadProperties(config);
 
     var featuredTtl = parseDuration(props.getProperty("featuredTop10", "expireAfterWrite=10m"));
     var guideTtl = parseDuration(props.getProperty("guideTop10", "expireAfterWrite=10m"));
-    var ratingsTtl = parseDuration(props.getProperty("storeRatings", "expireAfterWrite=5m"));
     var categoriesTtl = parseDuration(props.getProperty("categoriesAll", "expireAfterWrite=60m"));
+    var homeFeedTtl = parseDuration(props.getProperty("homeFeed", "expireAfterWrite=3m"));
+    var authUserStatusTtl =
+        parseDuration(props.getProperty("authUserStatus", "expireAfterWrite=5s"));
 
     var manager = new SimpleCacheManager();
     manager.setCaches(
@@ -37,15 +35,30 @@ public class CacheConfig {
             new CaffeineCache(
                 "guideTop10",
                 Caffeine.newBuilder().expireAfterWrite(guideTtl).maximumSize(10).build()),
-            new CaffeineCache(
-                "storeRatings",
-                Caffeine.newBuilder().expireAfterWrite(ratingsTtl).maximumSize(200).build()),
             new CaffeineCache(
                 "categoriesAll",
-                Caffeine.newBuilder().expireAfterWrite(categoriesTtl).maximumSize(5).build())));
+                Caffeine.newBuilder().expireAfterWrite(categoriesTtl).maximumSize(5).build()),
+            new CaffeineCache(
+                "homeFeed",
+                Caffeine.newBuilder().expireAfterWrite(homeFeedTtl).maximumSize(1).build()),
+            new CaffeineCache(
+                "authUserStatus",
+                Caffeine.newBuilder()
+                    .expireAfterWrite(authUserStatusTtl)
+                    .maximumSize(10_000)
+                    .build())));
     return manager;
   }
 
+  private Properties loadProperties(org.springframework.core.io.Resource config) {
+    Properties props = new Properties();
+    try (var in = config.getInputStream()) {
+      props.load(in);
+    } catch (Exception ignored) {
+    }
+    return props;
+  }
+
   private Duration parseDuration(String spec) {
     // expects format expireAfterWrite=Nm or Ns
     var parts = spec.split("=");
@@ -0,0 +1,31 @@
+package com.edufelip.meer.config;
+
+import com.edufelip.meer.metrics.QueryCountingDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Wraps the pool so per-request JDBC counters see every statement. */
+@Configuration
+@ConditionalOnProperty(
+    name = "meer.request-metrics.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class JdbcMetricsConfig {
+
+  // static: post-processors are created before the rest of this configuration
+  @Bean
+  public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof QueryCountingDataSource)) {
+          return new QueryCountingDataSource(dataSource);
+        }
+        return bean;
+      }
+    };
+  }
+}
@@ -46,9 +46,10 @@ public class ModerationAsyncConfig {
     executor.setAllowCoreThreadTimeOut(true);
     executor.setKeepAliveSeconds(60);
 
-    // Reject policy: caller runs (back-pressure mechanism)
-    executor.setRejectedExecutionHandler(
-        new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+    // Reject policy: abort rather than run on the dispatcher or scheduler thread. Admission
+    // control in ModerationDispatcher keeps submissions within capacity; rejected ids go back to
+    // PENDING
+    executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
 
     executor.initialize();
     return executor;
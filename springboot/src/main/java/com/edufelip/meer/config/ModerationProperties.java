@@ -1,5 +1,6 @@
 package com.edufelip.meer.config;
 
+import ai.onnxruntime.OrtSession;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
@@ -12,6 +13,9 @@ public class ModerationProperties {
   private Threshold threshold = new Threshold();
   private Model model = new Model();
   private Worker worker = new Worker();
+  private Batch batch = new Batch();
+  private Session session = new Session();
+  private Dispatch dispatch = new Dispatch();
 
   public String getModelPath() {
     return modelPath;
@@ -53,6 +57,30 @@ public class ModerationProperties {
     this.worker = worker;
   }
 
+  public Batch getBatch() {
+    return batch;
+  }
+
+  public void setBatch(Batch batch) {
+    this.batch = batch;
+  }
+
+  public Session getSession() {
+    return session;
+  }
+
+  public void setSession(Session session) {
+    this.session = session;
+  }
+
+  public Dispatch getDispatch() {
+    return dispatch;
+  }
+
+  public void setDispatch(Dispatch dispatch) {
+    this.dispatch = dispatch;
+  }
+
   public static class Threshold {
     private double allow = 0.30;
     private double review = 0.70;
@@ -107,6 +135,8 @@ public class ModerationProperties {
   public static class Worker {
     private int queueCapacity = 1000;
     private int threadPoolSize = 2;
+    // claimed rows allowed between claim and completion (queued on the executor or running)
+    private int maxInFlight = 16;
 
     public int getQueueCapacity() {
       return queueCapacity;
@@ -123,5 +153,193 @@ public class ModerationProperties {
     public void setThreadPoolSize(int threadPoolSize) {
       this.threadPoolSize = threadPoolSize;
     }
+
+    public int getMaxInFlight() {
+      return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+      this.maxInFlight = maxInFlight;
+    }
+  }
+
+  /**
+   * Micro-batching of inference: concurrent images are run as one tensor of up to {@code maxSize}
+   * images, waiting at most {@code maxWaitMs} for a batch to fill. {@code maxSize} is capped at the
+   * worker threads per session, the most callers a batch can ever collect. Off by default: a batch
+   * runs on the session's intra-op threads, so it only pays off once those are raised with it.
+   */
+  public static class Batch {
+    private int maxSize = 1;
+    private long maxWaitMs = 20;
+
+    public int getMaxSize() {
+      return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    public long getMaxWaitMs() {
+      return maxWaitMs;
+    }
+
+    public void setMaxWaitMs(long maxWaitMs) {
+      this.maxWaitMs = maxWaitMs;
+    }
+  }
+
+  /**
+   * ONNX Runtime session tuning. Peak inference CPU is roughly {@code poolSize * intraOpThreads}
+   * cores, on top of the worker threads that download and preprocess images.
+   */
+  public static class Session {
+    private int intraOpThreads = 1;
+    private int interOpThreads = 1;
+    private OrtSession.SessionOptions.OptLevel optimizationLevel =
+        OrtSession.SessionOptions.OptLevel.ALL_OPT;
+    private OrtSession.SessionOptions.ExecutionMode executionMode =
+        OrtSession.SessionOptions.ExecutionMode.SEQUENTIAL;
+    private boolean memoryArena = true;
+    private boolean memoryPattern = true;
+    private int poolSize = 1;
+    private boolean warmUp = true;
+
+    public int getIntraOpThreads() {
+      return intraOpThreads;
+    }
+
+    public void setIntraOpThreads(int intraOpThreads) {
+      this.intraOpThreads = intraOpThreads;
+    }
+
+    public int getInterOpThreads() {
+      return interOpThreads;
+    }
+
+    public void setInterOpThreads(int interOpThreads) {
+      this.interOpThreads = interOpThreads;
+    }
+
+    public OrtSession.SessionOptions.OptLevel getOptimizationLevel() {
+      return optimizationLevel;
+    }
+
+    public void setOptimizationLevel(OrtSession.SessionOptions.OptLevel optimizationLevel) {
+      this.optimizationLevel = optimizationLevel;
+    }
+
+    public OrtSession.SessionOptions.ExecutionMode getExecutionMode() {
+      return executionMode;
+    }
+
+    public void setExecutionMode(OrtSession.SessionOptions.ExecutionMode executionMode) {
+      this.executionMode = executionMode;
+    }
+
+    public boolean isMemoryArena() {
+      return memoryArena;
+    }
+
+    public void setMemoryArena(boolean memoryArena) {
+      this.memoryArena = memoryArena;
+    }
+
+    public boolean isMemoryPattern() {
+      return memoryPattern;
+    }
+
+    public void setMemoryPattern(boolean memoryPattern) {
+      this.memoryPattern = memoryPattern;
+    }
+
+    public int getPoolSize() {
+      return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+      this.poolSize = poolSize;
+    }
+
+    public boolean isWarmUp() {
+      return warmUp;
+    }
+
+    public void setWarmUp(boolean warmUp) {
+      this.warmUp = warmUp;
+    }
+  }
+
+  /**
+   * Push-based dispatch: enqueued ids go to a bounded in-memory queue after commit and reach other
+   * nodes through Postgres {@code LISTEN/NOTIFY}. The PENDING poll is only a safety net; its batch
+   * grows from {@code pollMinBatch} to {@code pollMaxBatch} while it keeps finding full batches.
+   * PROCESSING rows claimed more than {@code leaseTimeoutMs} ago go back to PENDING.
+   */
+  public static class Dispatch {
+    private int queueCapacity = 1000;
+    private int claimBatchSize = 20;
+    private boolean listenNotify = true;
+    private String channel = "image_moderation_pending";
+    private int pollMinBatch = 10;
+    private int pollMaxBatch = 200;
+    private long leaseTimeoutMs = 600_000;
+
+    public int getQueueCapacity() {
+      return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+      this.queueCapacity = queueCapacity;
+    }
+
+    public int getClaimBatchSize() {
+      return claimBatchSize;
+    }
+
+    public void setClaimBatchSize(int claimBatchSize) {
+      this.claimBatchSize = claimBatchSize;
+    }
+
+    public boolean isListenNotify() {
+      return listenNotify;
+    }
+
+    public void setListenNotify(boolean listenNotify) {
+      this.listenNotify = listenNotify;
+    }
+
+    public String getChannel() {
+      return channel;
+    }
+
+    public void setChannel(String channel) {
+      this.channel = channel;
+    }
+
+    public int getPollMinBatch() {
+      return pollMinBatch;
+    }
+
+    public void setPollMinBatch(int pollMinBatch) {
+      this.pollMinBatch = pollMinBatch;
+    }
+
+    public int getPollMaxBatch() {
+      return pollMaxBatch;
+    }
+
+    public void setPollMaxBatch(int pollMaxBatch) {
+      this.pollMaxBatch = pollMaxBatch;
+    }
+
+    public long getLeaseTimeoutMs() {
+      return leaseTimeoutMs;
+    }
+
+    public void setLeaseTimeoutMs(long leaseTimeoutMs) {
+      this.leaseTimeoutMs = leaseTimeoutMs;
+    }
   }
 }
@@ -1,11 +1,15 @@
 package com.edufelip.meer.config;
 
 import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
+import com.edufelip.meer.service.moderation.OrtSessionPool;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -39,16 +43,12 @@ public class OnnxRuntimeConfig {
   }
 
   @Bean(destroyMethod = "close")
-  public OrtSession ortSession(OrtEnvironment env) throws Exception {
+  public OrtSessionPool ortSessionPool(OrtEnvironment env) throws Exception {
     String modelPath = moderationProperties.getModelPath();
     log.info("Loading ONNX model from path: {}", modelPath);
 
-    OrtSession.SessionOptions opts = new OrtSession.SessionOptions();
-    // Use conservative thread settings for low-priority background tasks
-    opts.setIntraOpNumThreads(1);
-    opts.setInterOpNumThreads(1);
-
     // Load model - handle both classpath and file system paths
+    String sessionPath = modelPath;
     if (modelPath.startsWith("classpath:")) {
       String resourcePath = modelPath.substring("classpath:".length());
       Resource resource = resourceLoader.getResource("classpath:" + resourcePath);
@@ -66,14 +66,50 @@ public class OnnxRuntimeConfig {
       }
 
       log.info("Model copied to temporary location: {}", tempFile);
-      OrtSession session = env.createSession(tempFile.toString(), opts);
-      logModelInfo(session);
-      return session;
-    } else {
-      // Direct file path
-      OrtSession session = env.createSession(modelPath, opts);
-      logModelInfo(session);
-      return session;
+      sessionPath = tempFile.toString();
+    }
+
+    ModerationProperties.Session settings = moderationProperties.getSession();
+    int poolSize = Math.max(1, settings.getPoolSize());
+    List<OrtSession> sessions = new ArrayList<>(poolSize);
+    try (OrtSession.SessionOptions opts = sessionOptions(settings)) {
+      for (int i = 0; i < poolSize; i++) {
+        sessions.add(env.createSession(sessionPath, opts));
+      }
+    } catch (OrtException | RuntimeException e) {
+      if (!sessions.isEmpty()) {
+        new OrtSessionPool(sessions).close();
+      }
+      throw e;
+    }
+    log.info(
+        "Created {} ONNX session(s): intraOpThreads={}, interOpThreads={}, optLevel={}, "
+            + "executionMode={}, memoryArena={}, memoryPattern={}",
+        poolSize,
+        settings.getIntraOpThreads(),
+        settings.getInterOpThreads(),
+        settings.getOptimizationLevel(),
+        settings.getExecutionMode(),
+        settings.isMemoryArena(),
+        settings.isMemoryPattern());
+    logModelInfo(sessions.get(0));
+    return new OrtSessionPool(sessions);
+  }
+
+  private static OrtSession.SessionOptions sessionOptions(ModerationProperties.Session settings)
+      throws OrtException {
+    OrtSession.SessionOptions opts = new OrtSession.SessionOptions();
+    try {
+      opts.setIntraOpNumThreads(settings.getIntraOpThreads());
+      opts.setInterOpNumThreads(settings.getInterOpThreads());
+      opts.setOptimizationLevel(settings.getOptimizationLevel());
+      opts.setExecutionMode(settings.getExecutionMode());
+      opts.setCPUArenaAllocator(settings.isMemoryArena());
+      opts.setMemoryPatternOptimization(settings.isMemoryPattern());
+      return opts;
+    } catch (OrtException | RuntimeException e) {
+      opts.close();
+      throw e;
     }
   }
 
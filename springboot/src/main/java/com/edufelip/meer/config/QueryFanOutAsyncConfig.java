@@ -0,0 +1,51 @@
+package com.edufelip.meer.config;
+
+import com.edufelip.meer.metrics.JdbcRequestStats;
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Small bounded pools for read paths that run independent lookups concurrently and join them, so
+ * request latency follows the slowest lookup rather than the sum. Each pool falls back to running
+ * on the request thread when saturated.
+ */
+@Configuration
+public class QueryFanOutAsyncConfig {
+
+  /** Nearby section of {@code GET /home}, computed while the request reads the shared sections. */
+  @Bean(name = "homeFeedExecutor")
+  public Executor homeFeedExecutor(
+      @Value("${meer.home-feed.nearby-threads:4}") int threads,
+      @Value("${meer.home-feed.nearby-queue-capacity:100}") int queueCapacity) {
+    return boundedExecutor("home-feed-", threads, queueCapacity);
+  }
+
+  /** Store page lookups ({@code GET /stores/{id}}) that do not depend on the loaded store. */
+  @Bean(name = "storeDetailsExecutor")
+  public Executor storeDetailsExecutor(
+      @Value("${meer.store-details.parallel.threads:8}") int threads,
+      @Value("${meer.store-details.parallel.queue-capacity:200}") int queueCapacity) {
+    return boundedExecutor("store-details-", threads, queueCapacity);
+  }
+
+  private Executor boundedExecutor(String threadNamePrefix, int threads, int queueCapacity) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix(threadNamePrefix);
+
+    // Count the lookups' queries against the request that submitted them
+    executor.setTaskDecorator(JdbcRequestStats::propagate);
+
+    // Saturated: run on the request thread, i.e. fall back to the sequential path
+    executor.setRejectedExecutionHandler(
+        new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+
+    executor.initialize();
+    return executor;
+  }
+}
@@ -0,0 +1,35 @@
+package com.edufelip.meer.config;
+
+import com.edufelip.meer.logging.RequestLoggingProperties;
+import java.util.concurrent.Executor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Single writer thread for request/response log records, so request threads never format or write
+ * log lines themselves.
+ */
+@Configuration
+public class RequestLoggingAsyncConfig {
+
+  @Bean(name = "requestLogExecutor")
+  public Executor requestLogExecutor(RequestLoggingProperties properties) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.setQueueCapacity(properties.getQueueCapacity());
+    executor.setThreadNamePrefix("request-log-");
+    executor.setDaemon(true);
+
+    // Full queue: reject, and the filter drops the record instead of blocking the request
+    executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+
+    // Flush what is queued on shutdown, briefly
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(5);
+
+    executor.initialize();
+    return executor;
+  }
+}
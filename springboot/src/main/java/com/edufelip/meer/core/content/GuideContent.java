@@ -28,10 +28,11 @@ public class GuideContent {
   @Column(nullable = false, length = 512)
   private String imageUrl;
 
-  @Column(name = "like_count", nullable = false)
+  // Maintained by GuideContentRepository increments; never written back from a loaded entity.
+  @Column(name = "like_count", nullable = false, updatable = false)
   private Long likeCount = 0L;
 
-  @Column(name = "comment_count", nullable = false)
+  @Column(name = "comment_count", nullable = false, updatable = false)
   private Long commentCount = 0L;
 
   @ManyToOne(fetch = FetchType.LAZY)
@@ -62,6 +62,10 @@ public class ImageModeration {
   @Column(nullable = true)
   private Instant cleanupAt;
 
+  /** When a worker claimed the row as PROCESSING; the lease runs from here. */
+  @Column(nullable = true)
+  private Instant claimedAt;
+
   @Column(nullable = true, length = 255)
   private String reviewedBy;
 
@@ -164,6 +168,14 @@ public class ImageModeration {
     this.cleanupAt = cleanupAt;
   }
 
+  public Instant getClaimedAt() {
+    return claimedAt;
+  }
+
+  public void setClaimedAt(Instant claimedAt) {
+    this.claimedAt = claimedAt;
+  }
+
   public String getReviewedBy() {
     return reviewedBy;
   }
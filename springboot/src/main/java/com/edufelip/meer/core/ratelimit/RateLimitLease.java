@@ -0,0 +1,48 @@
+package com.edufelip.meer.core.ratelimit;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * Tokens of one rate-limit window handed out to the app's nodes so far. Written only through the
+ * native statements of {@code RateLimitLeaseRepository}; rows are purged once their window ends.
+ */
+@Entity
+@Table(name = "rate_limit_lease")
+public class RateLimitLease {
+  /** {@code policy|key|window index}. */
+  @Id
+  @Column(name = "bucket_id", length = 512)
+  private String bucketId;
+
+  @Column(name = "window_end", nullable = false)
+  private Instant windowEnd;
+
+  @Column(nullable = false)
+  private int granted;
+
+  /** How many tokens the latest reservation got; read back in the same transaction. */
+  @Column(name = "last_grant", nullable = false)
+  private int lastGrant;
+
+  public RateLimitLease() {}
+
+  public String getBucketId() {
+    return bucketId;
+  }
+
+  public Instant getWindowEnd() {
+    return windowEnd;
+  }
+
+  public int getGranted() {
+    return granted;
+  }
+
+  public int getLastGrant() {
+    return lastGrant;
+  }
+}
@@ -51,6 +51,14 @@ public class ThriftStore {
   @Column(length = 1000)
   private String description;
 
+  // Running totals over scored feedback, written only through ThriftStoreRepository bulk updates;
+  // read-only on the entity (no setters), so a managed store never appears to change them.
+  @Column(name = "rating_sum", nullable = false, updatable = false)
+  private Long ratingSum = 0L;
+
+  @Column(name = "rating_count", nullable = false, updatable = false)
+  private Long ratingCount = 0L;
+
   @CreationTimestamp
   @Column(name = "created_at", updatable = false, nullable = false)
   private Instant createdAt;
@@ -171,6 +179,14 @@ public class ThriftStore {
     return description;
   }
 
+  public Long getRatingSum() {
+    return ratingSum;
+  }
+
+  public Long getRatingCount() {
+    return ratingCount;
+  }
+
   public Instant getCreatedAt() {
     return createdAt;
   }
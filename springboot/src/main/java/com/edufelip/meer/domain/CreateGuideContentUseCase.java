@@ -15,7 +15,9 @@ public class CreateGuideContentUseCase {
     this.thriftStoreRepository = thriftStoreRepository;
   }
 
-  @CacheEvict(cacheNames = "guideTop10", allEntries = true)
+  @CacheEvict(
+      cacheNames = {"guideTop10", "homeFeed"},
+      allEntries = true)
   public GuideContent execute(GuideContent guideContent) {
     if (guideContent.getThriftStore() != null && guideContent.getThriftStore().getId() != null) {
       var thrift =
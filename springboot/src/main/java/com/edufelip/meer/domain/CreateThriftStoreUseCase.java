@@ -12,6 +12,8 @@ import org.springframework.web.server.ResponseStatusException;
 public class CreateThriftStoreUseCase {
   private final ThriftStoreRepository thriftStoreRepository;
   private final AuthUserRepository authUserRepository;
+  private final StoreGeoIndex storeGeoIndex;
+  private final StoreSearchIndex storeSearchIndex;
 
   public record SocialInput(String facebook, String instagram, String website, String whatsapp) {}
 
@@ -30,12 +32,19 @@ public class CreateThriftStoreUseCase {
       SocialInput social) {}
 
   public CreateThriftStoreUseCase(
-      ThriftStoreRepository thriftStoreRepository, AuthUserRepository authUserRepository) {
+      ThriftStoreRepository thriftStoreRepository,
+      AuthUserRepository authUserRepository,
+      StoreGeoIndex storeGeoIndex,
+      StoreSearchIndex storeSearchIndex) {
     this.thriftStoreRepository = thriftStoreRepository;
     this.authUserRepository = authUserRepository;
+    this.storeGeoIndex = storeGeoIndex;
+    this.storeSearchIndex = storeSearchIndex;
   }
 
-  @CacheEvict(cacheNames = "featuredTop10", allEntries = true)
+  @CacheEvict(
+      cacheNames = {"featuredTop10", "homeFeed"},
+      allEntries = true)
   public ThriftStore execute(AuthUser user, Command command) {
     validateCreate(command);
     try {
@@ -65,6 +74,8 @@ public class CreateThriftStoreUseCase {
     var saved = thriftStoreRepository.save(store);
     user.setOwnedThriftStore(saved);
     authUserRepository.save(user);
+    storeGeoIndex.upsert(saved.getId(), saved.getLatitude(), saved.getLongitude());
+    storeSearchIndex.upsert(StoreSearchIndex.Document.of(saved));
     return saved;
   }
 
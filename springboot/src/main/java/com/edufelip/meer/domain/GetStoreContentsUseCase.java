@@ -22,8 +22,7 @@ public class GetStoreContentsUseCase {
 
   public List<ContentItem> execute(UUID storeId, UUID userId) {
     var contents = getGuideContentsByThriftStoreUseCase.execute(storeId);
-    var contentIds = contents.stream().map(GuideContent::getId).toList();
-    var engagement = guideContentEngagementService.getEngagement(contentIds, userId);
+    var engagement = guideContentEngagementService.getEngagement(contents, userId);
     return contents.stream()
         .map(
             content ->
@@ -8,7 +8,19 @@ import com.edufelip.meer.domain.repo.StoreFeedbackRepository;
 import com.edufelip.meer.service.StoreFeedbackService;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Loads everything the store page shows. Sequential by default; given an executor, once the store
+ * is known to exist the lookups that need only its id (the caller's rating and the store's
+ * contents) run concurrently, each in its own read-only transaction, while the request thread
+ * builds the rest of the page.
+ */
 public class GetStoreDetailsUseCase {
 
   public record StoreDetails(
@@ -23,36 +35,89 @@ public class GetStoreDetailsUseCase {
   private final StoreFeedbackService storeFeedbackService;
   private final StoreFeedbackRepository storeFeedbackRepository;
   private final GetStoreContentsUseCase getStoreContentsUseCase;
+  private final Executor fanOutExecutor;
+  private final TransactionTemplate readOnlyTransaction;
 
   public GetStoreDetailsUseCase(
       GetThriftStoreUseCase getThriftStoreUseCase,
       StoreFeedbackService storeFeedbackService,
       StoreFeedbackRepository storeFeedbackRepository,
       GetStoreContentsUseCase getStoreContentsUseCase) {
+    this(
+        getThriftStoreUseCase,
+        storeFeedbackService,
+        storeFeedbackRepository,
+        getStoreContentsUseCase,
+        null,
+        null);
+  }
+
+  public GetStoreDetailsUseCase(
+      GetThriftStoreUseCase getThriftStoreUseCase,
+      StoreFeedbackService storeFeedbackService,
+      StoreFeedbackRepository storeFeedbackRepository,
+      GetStoreContentsUseCase getStoreContentsUseCase,
+      Executor fanOutExecutor,
+      PlatformTransactionManager transactionManager) {
     this.getThriftStoreUseCase = getThriftStoreUseCase;
     this.storeFeedbackService = storeFeedbackService;
     this.storeFeedbackRepository = storeFeedbackRepository;
     this.getStoreContentsUseCase = getStoreContentsUseCase;
+    this.fanOutExecutor = fanOutExecutor;
+    if (fanOutExecutor != null && transactionManager != null) {
+      this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+      this.readOnlyTransaction.setReadOnly(true);
+    } else {
+      this.readOnlyTransaction = null;
+    }
   }
 
   public StoreDetails execute(UUID storeId, AuthUser user) {
+    // the store stays on the request thread: the response mapping reads its lazy collections
     ThriftStore store = getThriftStoreUseCase.execute(storeId);
     if (store == null) return null;
-    var summary = storeFeedbackService.getSummaries(List.of(store.getId())).get(store.getId());
+
+    UUID userId = user != null ? user.getId() : null;
+    Supplier<Integer> myRating = () -> userId != null ? findMyRating(userId, storeId) : null;
+    Supplier<List<ContentItem>> contents = () -> getStoreContentsUseCase.execute(storeId, userId);
+    if (fanOutExecutor != null) {
+      CompletableFuture<Integer> pendingRating =
+          userId != null ? async(myRating) : CompletableFuture.completedFuture(null);
+      CompletableFuture<List<ContentItem>> pendingContents = async(contents);
+      myRating = () -> await(pendingRating);
+      contents = () -> await(pendingContents);
+    }
+
+    var summary = storeFeedbackService.getSummaries(List.of(store)).get(store.getId());
     Double rating = summary != null ? summary.rating() : null;
     Integer reviewCount =
         summary != null && summary.reviewCount() != null ? summary.reviewCount().intValue() : null;
     boolean isFav =
         user != null && user.getFavorites().stream().anyMatch(f -> f.getId().equals(store.getId()));
-    Integer myRating =
-        user != null
-            ? storeFeedbackRepository
-                .findByUserIdAndThriftStoreId(user.getId(), store.getId())
-                .map(StoreFeedback::getScore)
-                .orElse(null)
-            : null;
-    var contents =
-        getStoreContentsUseCase.execute(store.getId(), user != null ? user.getId() : null);
-    return new StoreDetails(store, rating, reviewCount, isFav, myRating, contents);
+    return new StoreDetails(store, rating, reviewCount, isFav, myRating.get(), contents.get());
+  }
+
+  private Integer findMyRating(UUID userId, UUID storeId) {
+    return storeFeedbackRepository
+        .findByUserIdAndThriftStoreId(userId, storeId)
+        .map(StoreFeedback::getScore)
+        .orElse(null);
+  }
+
+  private <T> CompletableFuture<T> async(Supplier<T> lookup) {
+    Supplier<T> task =
+        readOnlyTransaction != null
+            ? () -> readOnlyTransaction.execute(status -> lookup.get())
+            : lookup;
+    return CompletableFuture.supplyAsync(task, fanOutExecutor);
+  }
+
+  private static <T> T await(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) throw cause;
+      throw ex;
+    }
   }
 }
@@ -6,15 +6,25 @@ import com.edufelip.meer.domain.repo.CategoryRepository;
 import com.edufelip.meer.domain.repo.ThriftStoreRepository;
 import com.edufelip.meer.service.StoreFeedbackService;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 public class GetStoreListingsUseCase {
 
   public record ListingQuery(
-      String type, String categoryId, String q, Double lat, Double lng, int page, int pageSize) {}
+      String type,
+      String categoryId,
+      String q,
+      Double lat,
+      Double lng,
+      int page,
+      int pageSize,
+      String cursor) {}
 
   public record StoreListItem(
       ThriftStore store,
@@ -23,7 +33,7 @@ public class GetStoreListingsUseCase {
       boolean isFavorite,
       Double distanceMeters) {}
 
-  public record StoreListResult(List<StoreListItem> items, boolean hasNext) {}
+  public record StoreListResult(List<StoreListItem> items, boolean hasNext, String nextCursor) {}
 
   private final GetThriftStoresUseCase getThriftStoresUseCase;
   private final ThriftStoreRepository thriftStoreRepository;
@@ -44,62 +54,89 @@ public class GetStoreListingsUseCase {
   public StoreListResult execute(ListingQuery query, AuthUser user) {
     validateQuery(query);
     var pageable = PageRequest.of(query.page() - 1, query.pageSize());
-    var result =
+    Slice<ThriftStore> result =
         "nearby".equalsIgnoreCase(query.type())
             ? getThriftStoresUseCase.executeNearby(
                 query.lat(), query.lng(), query.page() - 1, query.pageSize())
             : null;
     if (result == null && query.q() != null && !query.q().isBlank()) {
-      result = thriftStoreRepository.searchRanked(query.q().trim(), pageable);
+      result =
+          getThriftStoresUseCase.executeSearch(
+              query.q().trim(), query.page() - 1, query.pageSize());
     }
     if (result == null && query.categoryId() != null) {
       result = thriftStoreRepository.findByCategoryId(query.categoryId(), pageable);
     }
-    if (result == null) {
+    boolean defaultListing = result == null;
+    if (defaultListing && query.cursor() != null) {
+      result =
+          getThriftStoresUseCase.executeNewestAfter(
+              KeysetCursor.fromRequest(query.cursor(), UUID::fromString), query.pageSize());
+    } else if (defaultListing) {
       result = getThriftStoresUseCase.executePaged(query.page() - 1, query.pageSize());
     }
 
     var storesPage = result.getContent();
-    var ids = storesPage.stream().map(ThriftStore::getId).toList();
-    var summaries = storeFeedbackService.getSummaries(ids);
-    Set<ThriftStore> favorites = user != null ? user.getFavorites() : Set.of();
-
     var items =
-        storesPage.stream()
-            .map(
-                store -> {
-                  var summary = summaries.get(store.getId());
-                  Double rating = summary != null ? summary.rating() : null;
-                  Integer reviewCount =
-                      summary != null && summary.reviewCount() != null
-                          ? summary.reviewCount().intValue()
-                          : null;
-                  boolean isFav =
-                      user != null
-                          && favorites.stream().anyMatch(f -> f.getId().equals(store.getId()));
-                  Double distanceMeters =
-                      (query.lat() != null
-                              && query.lng() != null
-                              && store.getLatitude() != null
-                              && store.getLongitude() != null)
-                          ? distanceKm(
-                                  query.lat(),
-                                  query.lng(),
-                                  store.getLatitude(),
-                                  store.getLongitude())
-                              * 1000
-                          : null;
-                  return new StoreListItem(store, rating, reviewCount, isFav, distanceMeters);
-                })
-            .toList();
+        toItems(
+            storesPage,
+            storeFeedbackService.getSummaries(storesPage),
+            user,
+            query.lat(),
+            query.lng());
+
+    String nextCursor = null;
+    if (defaultListing && result.hasNext() && !storesPage.isEmpty()) {
+      ThriftStore last = storesPage.get(storesPage.size() - 1);
+      if (last.getCreatedAt() != null) {
+        nextCursor = new KeysetCursor<>(last.getCreatedAt(), last.getId()).encode();
+      }
+    }
+    return new StoreListResult(items, result.hasNext(), nextCursor);
+  }
 
-    return new StoreListResult(items, result.hasNext());
+  /** One list item per store: rating summary, favorite flag and distance from the query point. */
+  static List<StoreListItem> toItems(
+      List<ThriftStore> storesPage,
+      Map<UUID, StoreFeedbackService.Summary> summaries,
+      AuthUser user,
+      Double lat,
+      Double lng) {
+    Set<ThriftStore> favorites = user != null ? user.getFavorites() : Set.of();
+    return storesPage.stream()
+        .map(
+            store -> {
+              var summary = summaries.get(store.getId());
+              Double rating = summary != null ? summary.rating() : null;
+              Integer reviewCount =
+                  summary != null && summary.reviewCount() != null
+                      ? summary.reviewCount().intValue()
+                      : null;
+              boolean isFav =
+                  user != null && favorites.stream().anyMatch(f -> f.getId().equals(store.getId()));
+              Double distanceMeters =
+                  (lat != null
+                          && lng != null
+                          && store.getLatitude() != null
+                          && store.getLongitude() != null)
+                      ? distanceKm(lat, lng, store.getLatitude(), store.getLongitude()) * 1000
+                      : null;
+              return new StoreListItem(store, rating, reviewCount, isFav, distanceMeters);
+            })
+        .toList();
   }
 
   private void validateQuery(ListingQuery query) {
     if (query.page() < 1 || query.pageSize() < 1 || query.pageSize() > 100) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid pagination params");
     }
+    if (query.cursor() != null
+        && ("nearby".equalsIgnoreCase(query.type())
+            || (query.q() != null && !query.q().isBlank())
+            || query.categoryId() != null)) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "cursor is only supported for the default listing");
+    }
     if ("nearby".equalsIgnoreCase(query.type())) {
       if (query.lat() == null || query.lng() == null) {
         throw new ResponseStatusException(
@@ -114,7 +151,7 @@ public class GetStoreListingsUseCase {
     }
   }
 
-  private double distanceKm(double lat1, double lon1, Double lat2, Double lon2) {
+  private static double distanceKm(double lat1, double lon1, Double lat2, Double lon2) {
     if (lat2 == null || lon2 == null) return Double.MAX_VALUE;
     double R = 6371.0;
     double dLat = Math.toRadians(lat2 - lat1);
@@ -2,33 +2,53 @@ package com.edufelip.meer.domain;
 
 import com.edufelip.meer.core.store.ThriftStore;
 import com.edufelip.meer.domain.repo.ThriftStoreRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataAccessException;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 public class GetThriftStoresUseCase {
   private final ThriftStoreRepository thriftStoreRepository;
   private final boolean preferPostgres;
   private final boolean postgisEnabled;
+  private final StoreGeoIndex storeGeoIndex;
+  private final StoreSearchIndex storeSearchIndex;
 
   public GetThriftStoresUseCase(
       ThriftStoreRepository thriftStoreRepository,
       @Value("${spring.datasource.url:}") String datasourceUrl,
-      @Value("${meer.postgis.enabled:false}") boolean postgisEnabled) {
+      @Value("${meer.postgis.enabled:false}") boolean postgisEnabled,
+      StoreGeoIndex storeGeoIndex,
+      StoreSearchIndex storeSearchIndex) {
     this.thriftStoreRepository = thriftStoreRepository;
     this.preferPostgres = datasourceUrl != null && datasourceUrl.contains("postgresql");
     this.postgisEnabled = postgisEnabled;
+    this.storeGeoIndex = storeGeoIndex;
+    this.storeSearchIndex = storeSearchIndex;
   }
 
   public List<ThriftStore> execute() {
     return thriftStoreRepository.findAll();
   }
 
-  public Page<ThriftStore> executePaged(int page, int pageSize) {
-    return thriftStoreRepository.findAll(PageRequest.of(page, pageSize));
+  /** Offset page of the newest-first listing; a slice, so no count query runs. */
+  public Slice<ThriftStore> executePaged(int page, int pageSize) {
+    return thriftStoreRepository.findAllByOrderByCreatedAtDescIdDesc(
+        PageRequest.of(page, pageSize));
+  }
+
+  /** Keyset page of the newest-first listing: the stores after {@code cursor}. */
+  public Slice<ThriftStore> executeNewestAfter(KeysetCursor<UUID> cursor, int pageSize) {
+    return thriftStoreRepository.findNewestBefore(
+        cursor.createdAt(), cursor.id(), PageRequest.of(0, pageSize));
   }
 
   @Cacheable("featuredTop10")
@@ -36,7 +56,10 @@ public class GetThriftStoresUseCase {
     return thriftStoreRepository.findTop10ByOrderByCreatedAtDesc();
   }
 
-  public Page<ThriftStore> executeNearby(double lat, double lng, int page, int pageSize) {
+  public Slice<ThriftStore> executeNearby(double lat, double lng, int page, int pageSize) {
+    if (storeGeoIndex != null && storeGeoIndex.isWarm()) {
+      return executeNearbyFromIndex(lat, lng, PageRequest.of(page, pageSize));
+    }
     if (preferPostgres && postgisEnabled) {
       try {
         // Prefer PostGIS geography KNN if extension + index are present
@@ -52,4 +75,70 @@ public class GetThriftStoresUseCase {
     }
     return thriftStoreRepository.findNearbyHaversine(lat, lng, PageRequest.of(page, pageSize));
   }
+
+  /**
+   * Accent-insensitive text search ranked by relevance: the trigram-indexed native queries on
+   * Postgres, the in-memory {@link StoreSearchIndex} elsewhere, and the portable JPQL ranking while
+   * the index is cold. When nothing matches literally, the first two fall back to stores whose name
+   * or neighborhood is trigram-similar to the query, so a typo still finds the store.
+   */
+  public Slice<ThriftStore> executeSearch(String q, int page, int pageSize) {
+    PageRequest pageable = PageRequest.of(page, pageSize);
+    if (preferPostgres) {
+      String normalized = StoreSearchIndex.normalize(q);
+      try {
+        var result = thriftStoreRepository.searchTrigram(normalized, pageable);
+        if (result.hasContent() || normalized.length() < 3) return result;
+        // an empty later page only means "no literal matches" if the first page is empty too
+        if (page > 0
+            && thriftStoreRepository.searchTrigram(normalized, PageRequest.of(0, 1)).hasContent()) {
+          return result;
+        }
+        return thriftStoreRepository.searchTrigramSimilar(normalized, pageable);
+      } catch (DataAccessException ex) {
+        // fall through to the portable query if pg_trgm/unaccent are unavailable
+      }
+    } else if (storeSearchIndex != null && storeSearchIndex.isWarm()) {
+      var result = storeSearchIndex.search(q, (int) pageable.getOffset(), pageable.getPageSize());
+      return toSlice(
+          loadInOrder(result.storeIds(), storeSearchIndex::remove), pageable, result.total());
+    }
+    return thriftStoreRepository.searchRanked(q, pageable);
+  }
+
+  /** Autocomplete over store names and neighborhoods; empty until the search index is warm. */
+  public List<StoreSearchIndex.Suggestion> suggest(String q, int limit) {
+    if (storeSearchIndex == null) return List.of();
+    return storeSearchIndex.suggest(q, limit);
+  }
+
+  private Slice<ThriftStore> executeNearbyFromIndex(double lat, double lng, PageRequest pageable) {
+    var nearby =
+        storeGeoIndex.nearest(lat, lng, (int) pageable.getOffset(), pageable.getPageSize());
+    return toSlice(loadInOrder(nearby.storeIds(), storeGeoIndex::remove), pageable, nearby.total());
+  }
+
+  private static Slice<ThriftStore> toSlice(
+      List<ThriftStore> content, PageRequest pageable, long total) {
+    return new SliceImpl<>(
+        content, pageable, pageable.getOffset() + pageable.getPageSize() < total);
+  }
+
+  /** Loads stores by id in the given order; ids that no longer exist go to {@code onMissing}. */
+  private List<ThriftStore> loadInOrder(List<UUID> ids, Consumer<UUID> onMissing) {
+    if (ids.isEmpty()) return List.of();
+    Map<UUID, ThriftStore> byId = new HashMap<>();
+    thriftStoreRepository.findAllById(ids).forEach(s -> byId.put(s.getId(), s));
+    List<ThriftStore> ordered = new ArrayList<>(ids.size());
+    for (UUID id : ids) {
+      ThriftStore store = byId.get(id);
+      if (store == null) {
+        // deleted outside the store use cases; drop it until the next rebuild
+        onMissing.accept(id);
+        continue;
+      }
+      ordered.add(store);
+    }
+    return ordered;
+  }
 }
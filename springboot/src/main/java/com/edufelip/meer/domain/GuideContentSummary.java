@@ -11,4 +11,6 @@ public record GuideContentSummary(
     UUID thriftStoreId,
     String thriftStoreName,
     String thriftStoreCoverImageUrl,
-    Instant createdAt) {}
+    Instant createdAt,
+    Long likeCount,
+    Long commentCount) {}
@@ -0,0 +1,48 @@
+package com.edufelip.meer.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.function.Function;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Keyset position in a newest-first (or oldest-first) feed: the {@code (createdAt, id)} of the last
+ * row a client has seen. Exposed to clients only as an opaque URL-safe token; the id type is that
+ * of the feed (store UUIDs, guide content integers).
+ */
+public record KeysetCursor<I>(Instant createdAt, I id) {
+
+  public String encode() {
+    String raw = createdAt + "|" + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @throws IllegalArgumentException when the token was not produced by {@link #encode()}
+   */
+  public static <I> KeysetCursor<I> decode(String token, Function<String, I> idParser) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int separator = raw.indexOf('|');
+      if (separator < 0) throw new IllegalArgumentException("Invalid cursor");
+      return new KeysetCursor<>(
+          Instant.parse(raw.substring(0, separator)), idParser.apply(raw.substring(separator + 1)));
+    } catch (DateTimeParseException ex) {
+      throw new IllegalArgumentException("Invalid cursor", ex);
+    }
+  }
+
+  /** {@link #decode} for a cursor sent by a client; a malformed token is a 400. */
+  public static <I> KeysetCursor<I> fromRequest(String token, Function<String, I> idParser) {
+    try {
+      return decode(token, idParser);
+    } catch (IllegalArgumentException ex) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+  }
+}
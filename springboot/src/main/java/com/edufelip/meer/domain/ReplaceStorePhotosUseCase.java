@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -39,6 +40,9 @@ public class ReplaceStorePhotosUseCase {
     this.moderationPolicyService = moderationPolicyService;
   }
 
+  @CacheEvict(
+      cacheNames = {"featuredTop10", "homeFeed"},
+      allEntries = true)
   public ThriftStore execute(AuthUser user, UUID storeId, Command command) {
     var store =
         thriftStoreRepository
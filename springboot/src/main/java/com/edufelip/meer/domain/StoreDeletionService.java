@@ -14,6 +14,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import org.springframework.cache.annotation.CacheEvict;
 
 public class StoreDeletionService {
   private final ThriftStoreRepository thriftStoreRepository;
@@ -23,6 +24,8 @@ public class StoreDeletionService {
   private final GuideContentCommentRepository guideContentCommentRepository;
   private final GuideContentLikeRepository guideContentLikeRepository;
   private final AssetDeletionQueuePort assetDeletionQueuePort;
+  private final StoreGeoIndex storeGeoIndex;
+  private final StoreSearchIndex storeSearchIndex;
 
   public StoreDeletionService(
       ThriftStoreRepository thriftStoreRepository,
@@ -31,7 +34,9 @@ public class StoreDeletionService {
       GuideContentRepository guideContentRepository,
       GuideContentCommentRepository guideContentCommentRepository,
       GuideContentLikeRepository guideContentLikeRepository,
-      AssetDeletionQueuePort assetDeletionQueuePort) {
+      AssetDeletionQueuePort assetDeletionQueuePort,
+      StoreGeoIndex storeGeoIndex,
+      StoreSearchIndex storeSearchIndex) {
     this.thriftStoreRepository = thriftStoreRepository;
     this.authUserRepository = authUserRepository;
     this.storeFeedbackRepository = storeFeedbackRepository;
@@ -39,8 +44,14 @@ public class StoreDeletionService {
     this.guideContentCommentRepository = guideContentCommentRepository;
     this.guideContentLikeRepository = guideContentLikeRepository;
     this.assetDeletionQueuePort = assetDeletionQueuePort;
+    this.storeGeoIndex = storeGeoIndex;
+    this.storeSearchIndex = storeSearchIndex;
   }
 
+  // the store's guide contents go with it, so the content lists are evicted too
+  @CacheEvict(
+      cacheNames = {"featuredTop10", "guideTop10", "homeFeed"},
+      allEntries = true)
   public void deleteStoreWithAssets(ThriftStore store, Set<UUID> processed, String sourceType) {
     if (store == null || store.getId() == null) return;
     if (!processed.add(store.getId())) return;
@@ -76,6 +87,8 @@ public class StoreDeletionService {
     assetDeletionQueuePort.enqueueAll(List.copyOf(assetUrls), sourceType, store.getId().toString());
 
     thriftStoreRepository.delete(store);
+    storeGeoIndex.remove(store.getId());
+    storeSearchIndex.remove(store.getId());
   }
 
   private Set<String> collectStoreAssetUrls(ThriftStore store) {
@@ -0,0 +1,303 @@
+package com.edufelip.meer.domain;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-process grid index of store coordinates used to answer nearby pages without sorting the whole
+ * {@code thrift_store} table per request. Coordinates are bucketed into fixed-size lat/lng cells; a
+ * query walks rings of cells around the origin until it holds enough neighbours and no unvisited
+ * cell can contain a closer store.
+ *
+ * <p>The index stays cold (and callers fall back to the database) until the first {@link
+ * #rebuild(Supplier)}. A single-store write only touches the cells it leaves and enters.
+ */
+public class StoreGeoIndex {
+
+  public record GeoPoint(UUID storeId, double latitude, double longitude) {}
+
+  public record NearbyPage(List<UUID> storeIds, long total) {}
+
+  private record Candidate(UUID storeId, double distanceKm) {}
+
+  /** Everything derived from the indexed points; replaced wholesale by a rebuild. */
+  private final class Content {
+    private final Map<UUID, GeoPoint> points = new HashMap<>();
+    private final Map<Long, Set<UUID>> cells = new HashMap<>();
+
+    void put(GeoPoint point) {
+      GeoPoint previous = points.put(point.storeId(), point);
+      if (previous != null) {
+        removeFromCell(previous);
+      }
+      cells.computeIfAbsent(cellKey(point), k -> new HashSet<>()).add(point.storeId());
+    }
+
+    void remove(UUID storeId) {
+      GeoPoint previous = points.remove(storeId);
+      if (previous != null) {
+        removeFromCell(previous);
+      }
+    }
+
+    private void removeFromCell(GeoPoint point) {
+      long key = cellKey(point);
+      Set<UUID> ids = cells.get(key);
+      if (ids == null) return;
+      ids.remove(point.storeId());
+      if (ids.isEmpty()) cells.remove(key);
+    }
+  }
+
+  public static final double DEFAULT_CELL_SIZE_DEGREES = 0.05;
+
+  private static final double EARTH_RADIUS_KM = 6371.0;
+  private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+  private static final int MAX_RINGS = 64;
+  private static final Comparator<Candidate> BY_DISTANCE =
+      Comparator.comparingDouble(Candidate::distanceKm).thenComparing(Candidate::storeId);
+
+  private final double cellSizeDegrees;
+  private final long lngCells;
+  // Cells are updated in place (a copy per write would be proportional to the index), so reads and
+  // writes are guarded by a read/write lock, as in StoreSearchIndex.
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Object rebuildLock = new Object();
+  private Content content = new Content();
+  // writes made while a rebuild is loading, replayed on top of what it loaded; null value = removed
+  private Map<UUID, GeoPoint> writesDuringRebuild;
+  private volatile boolean warm;
+
+  public StoreGeoIndex() {
+    this(DEFAULT_CELL_SIZE_DEGREES);
+  }
+
+  public StoreGeoIndex(double cellSizeDegrees) {
+    if (cellSizeDegrees <= 0) {
+      throw new IllegalArgumentException("cellSizeDegrees must be positive");
+    }
+    this.cellSizeDegrees = cellSizeDegrees;
+    this.lngCells = (long) Math.ceil(360.0 / cellSizeDegrees) + 1;
+  }
+
+  public boolean isWarm() {
+    return warm;
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return content.points.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Replaces the whole index content and marks it warm. */
+  public void rebuild(Collection<GeoPoint> points) {
+    rebuild(() -> points);
+  }
+
+  /**
+   * Replaces the whole index content with what {@code loader} returns and marks it warm. Upserts
+   * and removals that happen while the loader runs are applied on top of the loaded points, so a
+   * write racing a slow load is not lost. A failing loader leaves the current content in place.
+   */
+  public void rebuild(Supplier<? extends Collection<GeoPoint>> loader) {
+    synchronized (rebuildLock) {
+      lock.writeLock().lock();
+      try {
+        writesDuringRebuild = new HashMap<>();
+      } finally {
+        lock.writeLock().unlock();
+      }
+      Content fresh = new Content();
+      try {
+        Collection<GeoPoint> points = loader.get();
+        if (points != null) {
+          for (GeoPoint point : points) {
+            if (point != null && point.storeId() != null) {
+              fresh.put(point);
+            }
+          }
+        }
+      } catch (RuntimeException ex) {
+        lock.writeLock().lock();
+        try {
+          writesDuringRebuild = null;
+        } finally {
+          lock.writeLock().unlock();
+        }
+        throw ex;
+      }
+      lock.writeLock().lock();
+      try {
+        writesDuringRebuild.forEach(
+            (storeId, point) -> {
+              if (point == null) {
+                fresh.remove(storeId);
+              } else {
+                fresh.put(point);
+              }
+            });
+        writesDuringRebuild = null;
+        content = fresh;
+        warm = true;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  /** Adds or moves a store; stores without coordinates are dropped from the index. */
+  public void upsert(UUID storeId, Double latitude, Double longitude) {
+    if (storeId == null) return;
+    if (latitude == null || longitude == null) {
+      remove(storeId);
+      return;
+    }
+    GeoPoint point = new GeoPoint(storeId, latitude, longitude);
+    lock.writeLock().lock();
+    try {
+      if (writesDuringRebuild != null) {
+        writesDuringRebuild.put(storeId, point);
+      }
+      if (!point.equals(content.points.get(storeId))) {
+        content.put(point);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(UUID storeId) {
+    if (storeId == null) return;
+    lock.writeLock().lock();
+    try {
+      if (writesDuringRebuild != null) {
+        writesDuringRebuild.put(storeId, null);
+      }
+      content.remove(storeId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the ids of the stores ranked {@code offset .. offset + limit - 1} by distance from the
+   * origin, plus the number of indexed stores so callers can build a page without a count query.
+   */
+  public NearbyPage nearest(double lat, double lng, int offset, int limit) {
+    int total;
+    int wanted;
+    List<Candidate> ranked;
+    lock.readLock().lock();
+    try {
+      total = content.points.size();
+      wanted = (int) Math.min(total, (long) offset + limit);
+      if (offset < 0 || limit <= 0 || wanted <= offset) {
+        return new NearbyPage(List.of(), total);
+      }
+      ranked = collect(content, lat, lng, wanted);
+    } finally {
+      lock.readLock().unlock();
+    }
+    ranked.sort(BY_DISTANCE);
+    List<UUID> ids = new ArrayList<>(wanted - offset);
+    for (int i = offset; i < Math.min(wanted, ranked.size()); i++) {
+      ids.add(ranked.get(i).storeId());
+    }
+    return new NearbyPage(ids, total);
+  }
+
+  private List<Candidate> collect(Content current, double lat, double lng, int wanted) {
+    PriorityQueue<Candidate> best = new PriorityQueue<>(wanted, BY_DISTANCE.reversed());
+    int originLat = cellIndex(lat);
+    int originLng = cellIndex(lng);
+    int visited = 0;
+    for (int ring = 0; ring <= MAX_RINGS; ring++) {
+      for (int dLat = -ring; dLat <= ring; dLat++) {
+        int step = Math.abs(dLat) == ring ? 1 : 2 * ring;
+        for (int dLng = -ring; dLng <= ring; dLng += step) {
+          Set<UUID> ids = current.cells.get(cellKey(originLat + dLat, originLng + dLng));
+          if (ids == null) continue;
+          for (UUID id : ids) {
+            GeoPoint point = current.points.get(id);
+            offer(best, new Candidate(id, distanceKm(lat, lng, point)), wanted);
+            visited++;
+          }
+        }
+      }
+      if (visited >= current.points.size()) {
+        return new ArrayList<>(best);
+      }
+      if (best.size() >= wanted && best.peek().distanceKm() <= minDistanceBeyondRing(lat, ring)) {
+        return new ArrayList<>(best);
+      }
+    }
+    // The origin is far from every indexed store; a linear scan beats walking more empty rings.
+    best.clear();
+    for (GeoPoint point : current.points.values()) {
+      offer(best, new Candidate(point.storeId(), distanceKm(lat, lng, point)), wanted);
+    }
+    return new ArrayList<>(best);
+  }
+
+  private void offer(PriorityQueue<Candidate> best, Candidate candidate, int wanted) {
+    if (best.size() < wanted) {
+      best.add(candidate);
+    } else if (BY_DISTANCE.compare(candidate, best.peek()) < 0) {
+      best.poll();
+      best.add(candidate);
+    }
+  }
+
+  /**
+   * Lower bound for the distance between the origin and any store outside the rings visited so far:
+   * such a store is at least {@code ring} whole cells away in latitude or in longitude.
+   */
+  private double minDistanceBeyondRing(double lat, int ring) {
+    double gapDegrees = ring * cellSizeDegrees;
+    double maxLat = Math.min(89.0, Math.abs(lat) + gapDegrees);
+    return gapDegrees * KM_PER_DEGREE * Math.cos(Math.toRadians(maxLat));
+  }
+
+  private long cellKey(GeoPoint point) {
+    return cellKey(cellIndex(point.latitude()), cellIndex(point.longitude()));
+  }
+
+  private int cellIndex(double degrees) {
+    return (int) Math.floor(degrees / cellSizeDegrees);
+  }
+
+  /**
+   * Row-major cell key. Packing both indexes into the high/low words would make {@link
+   * Long#hashCode()} collapse to {@code lat ^ lng} and pile neighbouring cells into one bucket.
+   */
+  private long cellKey(int latIndex, int lngIndex) {
+    return latIndex * lngCells + lngIndex;
+  }
+
+  private static double distanceKm(double lat1, double lon1, GeoPoint point) {
+    double dLat = Math.toRadians(point.latitude() - lat1);
+    double dLon = Math.toRadians(point.longitude() - lon1);
+    double a =
+        Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1))
+                * Math.cos(Math.toRadians(point.latitude()))
+                * Math.sin(dLon / 2)
+                * Math.sin(dLon / 2);
+    return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+  }
+}
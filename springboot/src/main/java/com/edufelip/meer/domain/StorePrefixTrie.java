@@ -0,0 +1,157 @@
+package com.edufelip.meer.domain;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Character trie mapping normalized keys to values, answering "top values under this prefix".
+ *
+ * <p>Each node caches its best {@code capacity} values once asked, so a lookup (one per keystroke)
+ * costs a walk down the prefix. Writes drop the caches of the nodes on the written key's path only,
+ * and a dropped cache is rebuilt from the children's caches rather than the whole subtree.
+ *
+ * <p>Not thread-safe for writes: callers serialize writes against reads (see {@link
+ * StoreSearchIndex}). Concurrent readers may fill a node cache at the same time; they compute the
+ * same list from the same, unchanging subtree, so the race is benign.
+ */
+final class StorePrefixTrie<V> {
+
+  private static final class Node<V> {
+    private final Map<Character, Node<V>> children = new HashMap<>();
+    private final Set<V> values = new HashSet<>();
+    private volatile List<V> top;
+  }
+
+  // must be consistent with equals: merging relies on equal values comparing as 0
+  private final Comparator<V> order;
+  private final int capacity;
+  private final Node<V> root = new Node<>();
+
+  StorePrefixTrie(Comparator<V> order, int capacity) {
+    this.order = order;
+    this.capacity = capacity;
+  }
+
+  void insert(String key, V value) {
+    Node<V> node = root;
+    node.top = null;
+    for (int i = 0; i < key.length(); i++) {
+      node = node.children.computeIfAbsent(key.charAt(i), c -> new Node<>());
+      node.top = null;
+    }
+    node.values.add(value);
+  }
+
+  void delete(String key, V value) {
+    List<Node<V>> path = new ArrayList<>(key.length() + 1);
+    Node<V> node = root;
+    path.add(node);
+    for (int i = 0; i < key.length(); i++) {
+      node = node.children.get(key.charAt(i));
+      if (node == null) return;
+      path.add(node);
+    }
+    node.values.remove(value);
+    for (Node<V> onPath : path) {
+      onPath.top = null;
+    }
+    // prune branches left without values
+    for (int i = key.length(); i > 0; i--) {
+      Node<V> child = path.get(i);
+      if (!child.values.isEmpty() || !child.children.isEmpty()) break;
+      path.get(i - 1).children.remove(key.charAt(i - 1));
+    }
+  }
+
+  /** Best values (per {@code order}) stored under keys starting with {@code prefix}. */
+  List<V> complete(String prefix, int limit) {
+    Node<V> node = root;
+    for (int i = 0; i < prefix.length() && node != null; i++) {
+      node = node.children.get(prefix.charAt(i));
+    }
+    if (node == null) return List.of();
+    List<V> top = top(node);
+    return top.size() <= limit ? top : top.subList(0, limit);
+  }
+
+  /**
+   * Like {@link #complete} but for keys whose prefix is within {@code maxEdits} Levenshtein edits
+   * of {@code prefix}. Walks the trie carrying one row of the edit-distance matrix and prunes
+   * branches that can no longer get within the bound.
+   */
+  List<V> completeFuzzy(String prefix, int maxEdits, int limit) {
+    int[] firstRow = new int[prefix.length() + 1];
+    for (int i = 0; i < firstRow.length; i++) firstRow[i] = i;
+    List<Node<V>> matches = new ArrayList<>();
+    for (Map.Entry<Character, Node<V>> child : root.children.entrySet()) {
+      collectFuzzy(child.getValue(), child.getKey(), prefix, firstRow, maxEdits, matches);
+    }
+    Set<V> merged = new HashSet<>();
+    for (Node<V> match : matches) {
+      merged.addAll(top(match));
+    }
+    return merged.stream().sorted(order).limit(limit).toList();
+  }
+
+  private void collectFuzzy(
+      Node<V> node, char c, String prefix, int[] previous, int maxEdits, List<Node<V>> matches) {
+    int[] row = new int[previous.length];
+    row[0] = previous[0] + 1;
+    int best = row[0];
+    for (int i = 1; i < row.length; i++) {
+      int substitution = previous[i - 1] + (prefix.charAt(i - 1) == c ? 0 : 1);
+      row[i] = Math.min(Math.min(row[i - 1] + 1, previous[i] + 1), substitution);
+      best = Math.min(best, row[i]);
+    }
+    if (row[row.length - 1] <= maxEdits) {
+      // the whole subtree completes this prefix; deeper nodes add nothing new
+      matches.add(node);
+      return;
+    }
+    if (best > maxEdits) return;
+    for (Map.Entry<Character, Node<V>> child : node.children.entrySet()) {
+      collectFuzzy(child.getValue(), child.getKey(), prefix, row, maxEdits, matches);
+    }
+  }
+
+  private List<V> top(Node<V> node) {
+    List<V> top = node.top;
+    if (top == null) {
+      // the best values of a subtree are among its own values and its children's best values,
+      // all of which are already sorted, so a bounded merge is enough
+      top = node.values.stream().sorted(order).limit(capacity).toList();
+      for (Node<V> child : node.children.values()) {
+        top = merge(top, top(child));
+      }
+      node.top = top;
+    }
+    return top;
+  }
+
+  /** Merges two sorted lists into one of at most {@code capacity}, dropping duplicates. */
+  private List<V> merge(List<V> a, List<V> b) {
+    if (b.isEmpty()) return a;
+    List<V> merged = new ArrayList<>(Math.min(capacity, a.size() + b.size()));
+    int i = 0;
+    int j = 0;
+    while (merged.size() < capacity && (i < a.size() || j < b.size())) {
+      if (j == b.size()) {
+        merged.add(a.get(i++));
+      } else if (i == a.size()) {
+        merged.add(b.get(j++));
+      } else {
+        int cmp = order.compare(a.get(i), b.get(j));
+        if (cmp <= 0) merged.add(a.get(i++));
+        else merged.add(b.get(j++));
+        // the same value can sit under several keys of one subtree
+        if (cmp == 0) j++;
+      }
+    }
+    return merged;
+  }
+}
@@ -0,0 +1,465 @@
+package com.edufelip.meer.domain;
+
+import com.edufelip.meer.core.store.ThriftStore;
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * In-process trigram index over store name, neighborhood and description, used for text search when
+ * the database has no trigram support (H2, local runs), plus a prefix trie over store names and
+ * neighborhoods that serves autocomplete on every database. All text is {@linkplain
+ * #normalize(String) normalized} (lowercase, accents stripped), so "brecho" finds "Brechó".
+ *
+ * <p>A query intersects the posting lists of its trigrams, verifies the surviving candidates with a
+ * substring check and ranks only those, so the cost follows the number of matches rather than the
+ * number of stores. Ranking mirrors {@code ThriftStoreRepository.searchRanked}: exact name, name
+ * prefix, name substring, description, neighborhood; then earlier match position in the name,
+ * shorter name and newest first. Queries shorter than a trigram fall back to scanning every entry.
+ * When nothing matches literally, stores whose name or neighborhood words are trigram-similar to
+ * the query (in the spirit of pg_trgm's {@code word_similarity}) are returned instead, most similar
+ * first.
+ *
+ * <p>The index stays cold until the first {@link #rebuild(Supplier)}; writes made while cold and no
+ * rebuild is loading are ignored because the rebuild will pick them up.
+ */
+public class StoreSearchIndex {
+
+  public record Document(
+      UUID storeId, String name, String neighborhood, String description, Instant createdAt) {
+    public static Document of(ThriftStore store) {
+      return new Document(
+          store.getId(),
+          store.getName(),
+          store.getNeighborhood(),
+          store.getDescription(),
+          store.getCreatedAt());
+    }
+  }
+
+  public record SearchPage(List<UUID> storeIds, long total) {}
+
+  public enum SuggestionType {
+    STORE,
+    NEIGHBORHOOD
+  }
+
+  /** An autocomplete entry; {@code storeId} is null for neighborhoods. */
+  public record Suggestion(SuggestionType type, String label, UUID storeId) {}
+
+  private record Entry(
+      UUID storeId,
+      String name,
+      String neighborhood,
+      String description,
+      Instant createdAt,
+      Suggestion suggestion,
+      String neighborhoodLabel) {}
+
+  private record Match(Entry entry, int tier, double similarity, int namePosition) {}
+
+  /** Suggestions sharing one normalized neighborhood, counted by the stores that reference it. */
+  private static final class NeighborhoodTerm {
+    private final Suggestion suggestion;
+    private int stores;
+
+    private NeighborhoodTerm(Suggestion suggestion) {
+      this.suggestion = suggestion;
+    }
+  }
+
+  public static final int MAX_SUGGESTIONS = 20;
+  private static final int GRAM = 3;
+  private static final int FUZZY_TIER = 5;
+  // pg_trgm's default similarity threshold
+  private static final double FUZZY_THRESHOLD = 0.3;
+  private static final int FUZZY_SUGGEST_MIN_LENGTH = 4;
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern SPACES = Pattern.compile("\\s+");
+  private static final Comparator<Match> BY_RELEVANCE =
+      Comparator.comparingInt(Match::tier)
+          .thenComparing(Comparator.comparingDouble(Match::similarity).reversed())
+          .thenComparingInt(Match::namePosition)
+          .thenComparingInt(m -> m.entry().name().length())
+          .thenComparing(
+              m -> m.entry().createdAt(), Comparator.nullsLast(Comparator.reverseOrder()))
+          .thenComparing(m -> m.entry().storeId());
+
+  // shorter completions first: they are closest to what has been typed so far
+  private static final Comparator<Suggestion> SUGGESTION_ORDER =
+      Comparator.comparingInt((Suggestion s) -> s.label().length())
+          .thenComparing(Suggestion::label)
+          .thenComparing(Suggestion::type)
+          .thenComparing(Suggestion::storeId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+  /** Everything derived from the indexed documents; replaced wholesale by a rebuild. */
+  private static final class Content {
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final Map<String, Set<UUID>> postings = new HashMap<>();
+    private final Map<String, NeighborhoodTerm> neighborhoods = new HashMap<>();
+    private final StorePrefixTrie<Suggestion> suggestions =
+        new StorePrefixTrie<>(SUGGESTION_ORDER, MAX_SUGGESTIONS);
+
+    void add(Entry entry) {
+      entries.put(entry.storeId(), entry);
+      for (String gram : entryGrams(entry)) {
+        postings.computeIfAbsent(gram, k -> new HashSet<>()).add(entry.storeId());
+      }
+      if (entry.suggestion() != null) {
+        for (String key : wordSuffixes(entry.name())) {
+          suggestions.insert(key, entry.suggestion());
+        }
+      }
+      if (!entry.neighborhood().isEmpty()) {
+        NeighborhoodTerm term = neighborhoods.get(entry.neighborhood());
+        if (term == null) {
+          term =
+              new NeighborhoodTerm(
+                  new Suggestion(SuggestionType.NEIGHBORHOOD, entry.neighborhoodLabel(), null));
+          neighborhoods.put(entry.neighborhood(), term);
+          for (String key : wordSuffixes(entry.neighborhood())) {
+            suggestions.insert(key, term.suggestion);
+          }
+        }
+        term.stores++;
+      }
+    }
+
+    void removeEntry(UUID storeId) {
+      Entry previous = entries.remove(storeId);
+      if (previous == null) return;
+      for (String gram : entryGrams(previous)) {
+        Set<UUID> ids = postings.get(gram);
+        if (ids == null) continue;
+        ids.remove(storeId);
+        if (ids.isEmpty()) postings.remove(gram);
+      }
+      if (previous.suggestion() != null) {
+        for (String key : wordSuffixes(previous.name())) {
+          suggestions.delete(key, previous.suggestion());
+        }
+      }
+      NeighborhoodTerm term = neighborhoods.get(previous.neighborhood());
+      if (term != null && --term.stores == 0) {
+        neighborhoods.remove(previous.neighborhood());
+        for (String key : wordSuffixes(previous.neighborhood())) {
+          suggestions.delete(key, term.suggestion);
+        }
+      }
+    }
+  }
+
+  // Posting lists are updated in place (a copy per write would be proportional to the index), so
+  // reads and writes are guarded by a read/write lock instead of an immutable snapshot. A rebuild
+  // fills a fresh Content outside the lock and only swaps it in under the write lock.
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Object rebuildLock = new Object();
+  private Content content = new Content();
+  // writes made while a rebuild is loading, replayed on top of what it loaded; null value = removed
+  private Map<UUID, Document> writesDuringRebuild;
+  private volatile boolean warm;
+
+  public boolean isWarm() {
+    return warm;
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return content.entries.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Replaces the whole index content and marks it warm. */
+  public void rebuild(Collection<Document> documents) {
+    rebuild(() -> documents);
+  }
+
+  /**
+   * Replaces the whole index content with what {@code loader} returns and marks it warm. Upserts
+   * and removals that happen while the loader runs are applied on top of the loaded documents, so a
+   * write racing a slow load is not lost. A failing loader leaves the current content in place.
+   */
+  public void rebuild(Supplier<? extends Collection<Document>> loader) {
+    synchronized (rebuildLock) {
+      lock.writeLock().lock();
+      try {
+        writesDuringRebuild = new HashMap<>();
+      } finally {
+        lock.writeLock().unlock();
+      }
+      Content fresh = new Content();
+      try {
+        Collection<Document> documents = loader.get();
+        if (documents != null) {
+          for (Document document : documents) {
+            if (document != null && document.storeId() != null) {
+              fresh.add(toEntry(document));
+            }
+          }
+        }
+      } catch (RuntimeException ex) {
+        lock.writeLock().lock();
+        try {
+          writesDuringRebuild = null;
+        } finally {
+          lock.writeLock().unlock();
+        }
+        throw ex;
+      }
+      lock.writeLock().lock();
+      try {
+        writesDuringRebuild.forEach(
+            (storeId, document) -> {
+              fresh.removeEntry(storeId);
+              if (document != null) {
+                fresh.add(toEntry(document));
+              }
+            });
+        writesDuringRebuild = null;
+        content = fresh;
+        warm = true;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  /** Adds or re-indexes a store; ignored while the index is cold and no rebuild is loading. */
+  public void upsert(Document document) {
+    if (document == null || document.storeId() == null) return;
+    lock.writeLock().lock();
+    try {
+      if (writesDuringRebuild != null) {
+        writesDuringRebuild.put(document.storeId(), document);
+      }
+      if (!warm) return;
+      content.removeEntry(document.storeId());
+      content.add(toEntry(document));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(UUID storeId) {
+    if (storeId == null) return;
+    lock.writeLock().lock();
+    try {
+      if (writesDuringRebuild != null) {
+        writesDuringRebuild.put(storeId, null);
+      }
+      content.removeEntry(storeId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the ids of the matches ranked {@code offset .. offset + limit - 1} by relevance, plus
+   * the total number of matches.
+   */
+  public SearchPage search(String query, int offset, int limit) {
+    String q = normalize(query);
+    if (q.isEmpty() || offset < 0 || limit <= 0) return new SearchPage(List.of(), 0);
+    List<Match> matches = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      for (Entry entry : candidates(q)) {
+        Match match = match(entry, q);
+        if (match != null) matches.add(match);
+      }
+      if (matches.isEmpty() && q.length() >= GRAM) {
+        matches = fuzzyMatches(q);
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    matches.sort(BY_RELEVANCE);
+    List<UUID> ids = new ArrayList<>();
+    for (int i = offset; i < Math.min(matches.size(), (long) offset + limit); i++) {
+      ids.add(matches.get(i).entry().storeId());
+    }
+    return new SearchPage(ids, matches.size());
+  }
+
+  /**
+   * Autocomplete over store names and neighborhoods: every word of a label is a key, so "maria"
+   * completes "Brechó da Maria". Falls back to one-typo prefixes when nothing completes the input.
+   */
+  public List<Suggestion> suggest(String prefix, int limit) {
+    String q = normalize(prefix);
+    if (q.isEmpty() || limit <= 0) return List.of();
+    int capped = Math.min(limit, MAX_SUGGESTIONS);
+    lock.readLock().lock();
+    try {
+      List<Suggestion> result = content.suggestions.complete(q, capped);
+      if (result.isEmpty() && q.length() >= FUZZY_SUGGEST_MIN_LENGTH) {
+        result = content.suggestions.completeFuzzy(q, 1, capped);
+      }
+      return List.copyOf(result);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private List<Match> fuzzyMatches(String q) {
+    Set<String> queryGrams = wordGrams(q);
+    Set<UUID> candidates = new HashSet<>();
+    for (String gram : queryGrams) {
+      Set<UUID> ids = content.postings.get(gram);
+      if (ids != null) candidates.addAll(ids);
+    }
+    List<Match> matches = new ArrayList<>();
+    for (UUID id : candidates) {
+      Entry entry = content.entries.get(id);
+      double similarity =
+          Math.max(
+              wordSimilarity(queryGrams, entry.name()),
+              wordSimilarity(queryGrams, entry.neighborhood()));
+      if (similarity >= FUZZY_THRESHOLD) {
+        matches.add(new Match(entry, FUZZY_TIER, similarity, 0));
+      }
+    }
+    return matches;
+  }
+
+  /** Best trigram similarity between the query and the whole text or any single word of it. */
+  private static double wordSimilarity(Set<String> queryGrams, String text) {
+    if (text.isEmpty()) return 0;
+    double best = similarity(queryGrams, wordGrams(text));
+    for (String word : SPACES.split(text)) {
+      best = Math.max(best, similarity(queryGrams, wordGrams(word)));
+    }
+    return best;
+  }
+
+  private static double similarity(Set<String> a, Set<String> b) {
+    if (a.isEmpty() || b.isEmpty()) return 0;
+    int shared = 0;
+    for (String gram : a) {
+      if (b.contains(gram)) shared++;
+    }
+    return (double) shared / (a.size() + b.size() - shared);
+  }
+
+  private Collection<Entry> candidates(String q) {
+    if (q.length() < GRAM) return content.entries.values();
+    List<Set<UUID>> lists = new ArrayList<>();
+    for (String gram : grams(q)) {
+      Set<UUID> ids = content.postings.get(gram);
+      if (ids == null) return List.of();
+      lists.add(ids);
+    }
+    lists.sort(Comparator.comparingInt(Set::size));
+    List<Entry> result = new ArrayList<>();
+    Set<UUID> smallest = lists.get(0);
+    for (UUID id : smallest) {
+      boolean inAll = true;
+      for (int i = 1; i < lists.size() && inAll; i++) {
+        inAll = lists.get(i).contains(id);
+      }
+      if (inAll) result.add(content.entries.get(id));
+    }
+    return result;
+  }
+
+  private static Match match(Entry entry, String q) {
+    int namePosition = entry.name().indexOf(q);
+    int tier;
+    if (entry.name().equals(q)) {
+      tier = 0;
+    } else if (namePosition == 0) {
+      tier = 1;
+    } else if (namePosition > 0) {
+      tier = 2;
+    } else if (entry.description().contains(q)) {
+      tier = 3;
+    } else if (entry.neighborhood().contains(q)) {
+      tier = 4;
+    } else {
+      return null;
+    }
+    // mirrors locate(): 0 when the name does not contain the query
+    return new Match(entry, tier, 0, namePosition + 1);
+  }
+
+  /**
+   * Raw trigrams of each field (substring search) plus space-padded word trigrams (typo-tolerant
+   * search, which compares words the way pg_trgm does).
+   */
+  private static Set<String> entryGrams(Entry entry) {
+    Set<String> grams = new HashSet<>();
+    for (String field : List.of(entry.name(), entry.neighborhood(), entry.description())) {
+      grams.addAll(grams(field));
+      grams.addAll(wordGrams(field));
+    }
+    return grams;
+  }
+
+  private static Set<String> grams(String text) {
+    Set<String> grams = new HashSet<>();
+    for (int i = 0; i + GRAM <= text.length(); i++) {
+      grams.add(text.substring(i, i + GRAM));
+    }
+    return grams;
+  }
+
+  private static Set<String> wordGrams(String text) {
+    Set<String> grams = new HashSet<>();
+    for (String word : SPACES.split(text)) {
+      if (!word.isEmpty()) grams.addAll(grams("  " + word + " "));
+    }
+    return grams;
+  }
+
+  /** The label followed by each of its word-starting suffixes: "a b c", "b c", "c". */
+  private static List<String> wordSuffixes(String label) {
+    List<String> keys = new ArrayList<>();
+    if (label.isEmpty()) return keys;
+    keys.add(label);
+    for (int i = label.indexOf(' '); i >= 0; i = label.indexOf(' ', i + 1)) {
+      keys.add(label.substring(i + 1));
+    }
+    return keys;
+  }
+
+  private static Entry toEntry(Document document) {
+    String name = normalize(document.name());
+    return new Entry(
+        document.storeId(),
+        name,
+        normalize(document.neighborhood()),
+        normalize(document.description()),
+        document.createdAt(),
+        name.isEmpty()
+            ? null
+            : new Suggestion(SuggestionType.STORE, display(document.name()), document.storeId()),
+        display(document.neighborhood()));
+  }
+
+  private static String display(String text) {
+    return text == null ? "" : SPACES.matcher(text.trim()).replaceAll(" ");
+  }
+
+  /** Lowercase, accent-free, single-spaced form used for every comparison in the index. */
+  public static String normalize(String text) {
+    if (text == null) return "";
+    String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+    return SPACES.matcher(stripped.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+  }
+}
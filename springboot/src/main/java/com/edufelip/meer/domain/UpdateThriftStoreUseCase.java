@@ -5,12 +5,15 @@ import com.edufelip.meer.core.store.Social;
 import com.edufelip.meer.core.store.ThriftStore;
 import com.edufelip.meer.domain.repo.ThriftStoreRepository;
 import java.util.UUID;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 public class UpdateThriftStoreUseCase {
   private final ThriftStoreRepository thriftStoreRepository;
   private final StoreOwnershipService storeOwnershipService;
+  private final StoreGeoIndex storeGeoIndex;
+  private final StoreSearchIndex storeSearchIndex;
 
   public record SocialUpdate(
       String facebook,
@@ -37,11 +40,19 @@ public class UpdateThriftStoreUseCase {
       SocialUpdate social) {}
 
   public UpdateThriftStoreUseCase(
-      ThriftStoreRepository thriftStoreRepository, StoreOwnershipService storeOwnershipService) {
+      ThriftStoreRepository thriftStoreRepository,
+      StoreOwnershipService storeOwnershipService,
+      StoreGeoIndex storeGeoIndex,
+      StoreSearchIndex storeSearchIndex) {
     this.thriftStoreRepository = thriftStoreRepository;
     this.storeOwnershipService = storeOwnershipService;
+    this.storeGeoIndex = storeGeoIndex;
+    this.storeSearchIndex = storeSearchIndex;
   }
 
+  @CacheEvict(
+      cacheNames = {"featuredTop10", "homeFeed"},
+      allEntries = true)
   public ThriftStore execute(AuthUser user, UUID id, Command command) {
     ThriftStore store =
         thriftStoreRepository
@@ -93,6 +104,8 @@ public class UpdateThriftStoreUseCase {
     }
 
     thriftStoreRepository.save(store);
+    storeGeoIndex.upsert(store.getId(), store.getLatitude(), store.getLongitude());
+    storeSearchIndex.upsert(StoreSearchIndex.Document.of(store));
     return thriftStoreRepository.findById(id).orElseThrow();
   }
 
@@ -4,6 +4,7 @@ import com.edufelip.meer.core.auth.AuthUser;
 import com.edufelip.meer.domain.repo.AuthUserRepository;
 import java.time.Clock;
 import java.time.Instant;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.util.StringUtils;
 
 public class AcceptTermsUseCase {
@@ -17,6 +18,10 @@ public class AcceptTermsUseCase {
     this.clock = clock;
   }
 
+  @CacheEvict(
+      cacheNames = "authUserStatus",
+      key = "#user.id",
+      condition = "#user != null && #user.id != null")
   public AuthUser execute(AuthUser user, Command command) {
     if (user == null) {
       throw new IllegalArgumentException("User required");
@@ -0,0 +1,7 @@
+package com.edufelip.meer.domain.auth;
+
+import com.edufelip.meer.core.auth.Role;
+import java.util.UUID;
+
+/** The columns of {@code auth_user} the request guards check, without the entity's associations. */
+public record AuthUserStatus(UUID id, Role role, String termsVersion) {}
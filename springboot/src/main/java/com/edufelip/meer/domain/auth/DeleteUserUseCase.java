@@ -18,6 +18,8 @@ import java.util.Set;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 public class DeleteUserUseCase {
@@ -62,6 +64,15 @@ public class DeleteUserUseCase {
   }
 
   @Transactional
+  @Caching(
+      evict = {
+        @CacheEvict(
+            cacheNames = "authUserStatus",
+            key = "#user.id",
+            condition = "#user != null && #user.id != null"),
+        // the user's scores leave the rating totals of the cached featured stores
+        @CacheEvict(cacheNames = "featuredTop10", allEntries = true)
+      })
   public void execute(AuthUser user, String sourceType) {
     if (user == null || user.getId() == null) return;
     AuthUser managedUser = authUserRepository.findById(user.getId()).orElse(null);
@@ -97,6 +108,7 @@ public class DeleteUserUseCase {
     passwordResetTokenRepository.deleteByUserId(managedUser.getId());
     authUserRepository.deleteFavoritesByUserId(managedUser.getId());
 
+    thriftStoreRepository.subtractRatingsByUserId(managedUser.getId());
     storeFeedbackRepository.deleteByUserId(managedUser.getId());
     authUserRepository.delete(managedUser);
   }
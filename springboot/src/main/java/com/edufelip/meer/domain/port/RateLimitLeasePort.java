@@ -0,0 +1,15 @@
+package com.edufelip.meer.domain.port;
+
+import java.time.Instant;
+
+/** Shared token budget for rate limiting across the app's nodes. */
+public interface RateLimitLeasePort {
+
+  /**
+   * Reserves up to {@code requested} tokens of the window {@code bucketId}, which holds {@code
+   * capacity} tokens in total for all nodes and ends at {@code windowEnd}.
+   *
+   * @return the number of tokens reserved; 0 once the window is used up
+   */
+  int reserve(String bucketId, Instant windowEnd, int requested, int capacity);
+}
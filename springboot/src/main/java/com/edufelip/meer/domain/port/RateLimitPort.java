@@ -2,6 +2,14 @@ package com.edufelip.meer.domain.port;
 
 public interface RateLimitPort {
 
+  boolean allowAuthAttempt(String clientKey);
+
+  boolean allowLoginAttempt(String clientKey);
+
+  boolean allowTokenRefresh(String clientKey);
+
+  boolean allowPasswordReset(String clientKey);
+
   boolean allowCommentCreate(String userKey);
 
   boolean allowCommentEdit(String userKey);
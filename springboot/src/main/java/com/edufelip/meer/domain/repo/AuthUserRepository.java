@@ -2,7 +2,9 @@ package com.edufelip.meer.domain.repo;
 
 import com.edufelip.meer.core.auth.AuthUser;
 import com.edufelip.meer.core.auth.Role;
+import com.edufelip.meer.domain.auth.AuthUserStatus;
 import jakarta.transaction.Transactional;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,6 +16,11 @@ import org.springframework.data.repository.query.Param;
 public interface AuthUserRepository extends JpaRepository<AuthUser, UUID> {
   AuthUser findByEmail(String email);
 
+  @Query(
+      "select new com.edufelip.meer.domain.auth.AuthUserStatus(u.id, u.role, u.termsVersion) "
+          + "from AuthUser u where u.id = :id")
+  Optional<AuthUserStatus> findStatusById(@Param("id") UUID id);
+
   @Query("select u from AuthUser u where (u.role <> :admin or u.role is null)")
   Page<AuthUser> findNonAdminUsers(@Param("admin") Role admin, Pageable pageable);
 
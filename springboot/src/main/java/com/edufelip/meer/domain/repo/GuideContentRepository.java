@@ -2,11 +2,14 @@ package com.edufelip.meer.domain.repo;
 
 import com.edufelip.meer.core.content.GuideContent;
 import com.edufelip.meer.domain.GuideContentSummary;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -14,6 +17,14 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 public interface GuideContentRepository extends JpaRepository<GuideContent, Integer> {
+  interface CounterView {
+    Integer getId();
+
+    Long getLikeCount();
+
+    Long getCommentCount();
+  }
+
   java.util.Optional<GuideContent> findByIdAndDeletedAtIsNull(Integer id);
 
   @Modifying
@@ -45,6 +56,8 @@ public interface GuideContentRepository extends JpaRepository<GuideContent, Inte
 
   List<GuideContent> findByThriftStoreId(UUID thriftStoreId);
 
+  // the store page maps each content's store after this read's transaction may have closed
+  @EntityGraph(attributePaths = "thriftStore")
   List<GuideContent> findByThriftStoreIdAndDeletedAtIsNull(UUID thriftStoreId);
 
   List<GuideContent> findTop10ByOrderByCreatedAtDesc();
@@ -69,7 +82,9 @@ public interface GuideContentRepository extends JpaRepository<GuideContent, Inte
                 s.id,
                 s.name,
                 s.coverImageUrl,
-                c.createdAt
+                c.createdAt,
+                c.likeCount,
+                c.commentCount
             )
             from GuideContent c
             left join c.thriftStore s
@@ -87,13 +102,95 @@ public interface GuideContentRepository extends JpaRepository<GuideContent, Inte
                 s.id,
                 s.name,
                 s.coverImageUrl,
-                c.createdAt
+                c.createdAt,
+                c.likeCount,
+                c.commentCount
             )
             from GuideContent c
             left join c.thriftStore s
             """)
   Slice<GuideContentSummary> findAllSummaries(Pageable pageable);
 
+  // Keyset variants of the active feed queries: the page after the (createdAt, id) cursor, served
+  // by the partial (created_at, id) indexes of V18 instead of an OFFSET scan. The cursor test is
+  // written as a range on createdAt plus a tie-break, not as a bare OR, so the planner can use it
+  // as the index range condition and stop after the page.
+  @org.springframework.data.jpa.repository.Query(
+      """
+            select new com.edufelip.meer.domain.GuideContentSummary(
+                c.id,
+                c.title,
+                c.description,
+                c.imageUrl,
+                s.id,
+                s.name,
+                s.coverImageUrl,
+                c.createdAt,
+                c.likeCount,
+                c.commentCount
+            )
+            from GuideContent c
+            left join c.thriftStore s
+            where c.deletedAt is null
+              and c.createdAt <= :createdAt
+              and (c.createdAt < :createdAt or c.id < :id)
+            order by c.createdAt desc, c.id desc
+            """)
+  Slice<GuideContentSummary> findSummariesActiveBefore(
+      @Param("createdAt") Instant createdAt, @Param("id") Integer id, Pageable pageable);
+
+  @org.springframework.data.jpa.repository.Query(
+      """
+            select new com.edufelip.meer.domain.GuideContentSummary(
+                c.id,
+                c.title,
+                c.description,
+                c.imageUrl,
+                s.id,
+                s.name,
+                s.coverImageUrl,
+                c.createdAt,
+                c.likeCount,
+                c.commentCount
+            )
+            from GuideContent c
+            left join c.thriftStore s
+            where c.deletedAt is null
+              and c.createdAt >= :createdAt
+              and (c.createdAt > :createdAt or c.id > :id)
+            order by c.createdAt asc, c.id asc
+            """)
+  Slice<GuideContentSummary> findSummariesActiveAfter(
+      @Param("createdAt") Instant createdAt, @Param("id") Integer id, Pageable pageable);
+
+  @org.springframework.data.jpa.repository.Query(
+      """
+            select new com.edufelip.meer.domain.GuideContentSummary(
+                c.id,
+                c.title,
+                c.description,
+                c.imageUrl,
+                s.id,
+                s.name,
+                s.coverImageUrl,
+                c.createdAt,
+                c.likeCount,
+                c.commentCount
+            )
+            from GuideContent c
+            left join c.thriftStore s
+            where s.id = :storeId
+              and c.deletedAt is null
+              and c.createdAt <= :createdAt
+              and (c.createdAt < :createdAt or c.id < :id)
+            order by c.createdAt desc, c.id desc
+            """)
+  Slice<GuideContentSummary> findSummariesByStoreIdActiveBefore(
+      @Param("storeId") UUID storeId,
+      @Param("createdAt") Instant createdAt,
+      @Param("id") Integer id,
+      Pageable pageable);
+
   @org.springframework.data.jpa.repository.Query(
       """
             select new com.edufelip.meer.domain.GuideContentSummary(
@@ -104,7 +201,37 @@ public interface GuideContentRepository extends JpaRepository<GuideContent, Inte
                 s.id,
                 s.name,
                 s.coverImageUrl,
-                c.createdAt
+                c.createdAt,
+                c.likeCount,
+                c.commentCount
+            )
+            from GuideContent c
+            left join c.thriftStore s
+            where s.id = :storeId
+              and c.deletedAt is null
+              and c.createdAt >= :createdAt
+              and (c.createdAt > :createdAt or c.id > :id)
+            order by c.createdAt asc, c.id asc
+            """)
+  Slice<GuideContentSummary> findSummariesByStoreIdActiveAfter(
+      @Param("storeId") UUID storeId,
+      @Param("createdAt") Instant createdAt,
+      @Param("id") Integer id,
+      Pageable pageable);
+
+  @org.springframework.data.jpa.repository.Query(
+      """
+            select new com.edufelip.meer.domain.GuideContentSummary(
+                c.id,
+                c.title,
+                c.description,
+                c.imageUrl,
+                s.id,
+                s.name,
+                s.coverImageUrl,
+                c.createdAt,
+                c.likeCount,
+                c.commentCount
             )
             from GuideContent c
             left join c.thriftStore s
@@ -124,7 +251,9 @@ public interface GuideContentRepository extends JpaRepository<GuideContent, Inte
                 s.id,
                 s.name,
                 s.coverImageUrl,
-                c.createdAt
+                c.createdAt,
+                c.likeCount,
+                c.commentCount
             )
             from GuideContent c
             left join c.thriftStore s
@@ -143,7 +272,9 @@ public interface GuideContentRepository extends JpaRepository<GuideContent, Inte
                 s.id,
                 s.name,
                 s.coverImageUrl,
-                c.createdAt
+                c.createdAt,
+                c.likeCount,
+                c.commentCount
             )
             from GuideContent c
             left join c.thriftStore s
@@ -164,7 +295,9 @@ public interface GuideContentRepository extends JpaRepository<GuideContent, Inte
                 s.id,
                 s.name,
                 s.coverImageUrl,
-                c.createdAt
+                c.createdAt,
+                c.likeCount,
+                c.commentCount
             )
             from GuideContent c
             left join c.thriftStore s
@@ -184,7 +317,9 @@ public interface GuideContentRepository extends JpaRepository<GuideContent, Inte
                 s.id,
                 s.name,
                 s.coverImageUrl,
-                c.createdAt
+                c.createdAt,
+                c.likeCount,
+                c.commentCount
             )
             from GuideContent c
             left join c.thriftStore s
@@ -210,7 +345,9 @@ public interface GuideContentRepository extends JpaRepository<GuideContent, Inte
                 s.id,
                 s.name,
                 s.coverImageUrl,
-                c.createdAt
+                c.createdAt,
+                c.likeCount,
+                c.commentCount
             )
             from GuideContent c
             left join c.thriftStore s
@@ -224,4 +361,34 @@ public interface GuideContentRepository extends JpaRepository<GuideContent, Inte
       @org.springframework.data.repository.query.Param("storeId") UUID storeId,
       @org.springframework.data.repository.query.Param("q") String q,
       Pageable pageable);
+
+  @Query(
+      "select c.id as id, c.likeCount as likeCount, c.commentCount as commentCount from GuideContent c where c.id in :contentIds")
+  List<CounterView> findCountersByIds(@Param("contentIds") Collection<Integer> contentIds);
+
+  @Query("select c.id from GuideContent c where c.id > :afterId order by c.id")
+  List<Integer> findIdsAfter(@Param("afterId") Integer afterId, Pageable pageable);
+
+  /**
+   * Recounts likes and comments for the contents with ids in {@code [fromId, toId]} and rewrites
+   * the counters that drifted; returns the number of rows fixed.
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          """
+          update guide_content c
+          set like_count =
+                (select count(*) from guide_content_like l where l.content_id = c.id),
+              comment_count =
+                (select count(*) from guide_content_comment m where m.content_id = c.id)
+          where c.id between :fromId and :toId
+            and (c.like_count
+                   <> (select count(*) from guide_content_like l where l.content_id = c.id)
+                 or c.comment_count
+                   <> (select count(*) from guide_content_comment m where m.content_id = c.id))
+          """,
+      nativeQuery = true)
+  int repairCounters(@Param("fromId") Integer fromId, @Param("toId") Integer toId);
 }
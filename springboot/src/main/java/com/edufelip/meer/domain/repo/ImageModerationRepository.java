@@ -75,6 +75,19 @@ public interface ImageModerationRepository extends JpaRepository<ImageModeration
       nativeQuery = true)
   List<Long> lockPendingIdsForProcessing(@Param("limit") int limit);
 
+  /**
+   * Lock and return those of the given IDs that are still pending (multi-instance safe). Used by
+   * the push dispatcher, where several nodes may hear about the same ID.
+   *
+   * @param ids Candidate moderation IDs
+   * @return The subset still PENDING and not locked by another transaction
+   */
+  @Query(
+      value =
+          "SELECT id FROM image_moderation WHERE id IN (:ids) AND status = 'PENDING' FOR UPDATE SKIP LOCKED",
+      nativeQuery = true)
+  List<Long> lockPendingIdsIn(@Param("ids") Collection<Long> ids);
+
   /**
    * Lock and return failed moderation IDs for retry (multi-instance safe)
    *
@@ -88,6 +101,32 @@ public interface ImageModerationRepository extends JpaRepository<ImageModeration
       nativeQuery = true)
   List<Long> lockFailedIdsForRetry(@Param("maxRetries") int maxRetries, @Param("limit") int limit);
 
+  /**
+   * Lock and return PROCESSING moderation IDs whose lease expired (multi-instance safe)
+   *
+   * @param claimedBefore Lease cutoff; rows claimed earlier are considered stuck
+   * @param limit Maximum number of records to return
+   * @return List of stuck moderation IDs
+   */
+  @Query(
+      value =
+          "SELECT id FROM image_moderation WHERE status = 'PROCESSING' AND (claimed_at IS NULL OR claimed_at < :claimedBefore) ORDER BY claimed_at ASC LIMIT :limit FOR UPDATE SKIP LOCKED",
+      nativeQuery = true)
+  List<Long> lockExpiredProcessingIds(
+      @Param("claimedBefore") Instant claimedBefore, @Param("limit") int limit);
+
+  /**
+   * Mark IDs as PROCESSING and start their lease
+   *
+   * @param ids Moderation IDs already locked by the caller
+   * @param claimedAt Lease start
+   * @return number of rows updated
+   */
+  @Modifying(clearAutomatically = true, flushAutomatically = true)
+  @Query(
+      "UPDATE ImageModeration im SET im.status = com.edufelip.meer.core.moderation.ModerationStatus.PROCESSING, im.claimedAt = :claimedAt WHERE im.id IN :ids")
+  int markProcessing(@Param("ids") Collection<Long> ids, @Param("claimedAt") Instant claimedAt);
+
   /**
    * Bulk update status by IDs
    *
@@ -0,0 +1,72 @@
+package com.edufelip.meer.domain.repo;
+
+import com.edufelip.meer.core.ratelimit.RateLimitLease;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface RateLimitLeaseRepository extends JpaRepository<RateLimitLease, String> {
+
+  /**
+   * Creates the window row if needed and grants up to {@code requested} of its remaining tokens in
+   * one round trip; returns the tokens granted. Postgres only.
+   */
+  @Query(
+      value =
+          """
+          insert into rate_limit_lease as l (bucket_id, window_end, granted, last_grant)
+          values (
+              :bucketId,
+              :windowEnd,
+              greatest(0, least(:requested, :capacity)),
+              greatest(0, least(:requested, :capacity)))
+          on conflict (bucket_id) do update
+          set last_grant = greatest(0, least(:requested, :capacity - l.granted)),
+              granted = l.granted + greatest(0, least(:requested, :capacity - l.granted))
+          returning last_grant
+          """,
+      nativeQuery = true)
+  int upsertGrant(
+      @Param("bucketId") String bucketId,
+      @Param("windowEnd") Instant windowEnd,
+      @Param("requested") int requested,
+      @Param("capacity") int capacity);
+
+  @Modifying
+  @Query(
+      value =
+          """
+          insert into rate_limit_lease (bucket_id, window_end, granted, last_grant)
+          values (:bucketId, :windowEnd, 0, 0)
+          on conflict do nothing
+          """,
+      nativeQuery = true)
+  int insertIfAbsent(@Param("bucketId") String bucketId, @Param("windowEnd") Instant windowEnd);
+
+  /** Grants up to {@code requested} of the window's remaining tokens; locks the row. */
+  @Modifying
+  @Query(
+      value =
+          """
+          update rate_limit_lease
+          set last_grant = greatest(0, least(:requested, :capacity - granted)),
+              granted = granted + greatest(0, least(:requested, :capacity - granted))
+          where bucket_id = :bucketId
+          """,
+      nativeQuery = true)
+  int grant(
+      @Param("bucketId") String bucketId,
+      @Param("requested") int requested,
+      @Param("capacity") int capacity);
+
+  @Query(
+      value = "select last_grant from rate_limit_lease where bucket_id = :bucketId",
+      nativeQuery = true)
+  int findLastGrant(@Param("bucketId") String bucketId);
+
+  @Modifying
+  @Query(value = "delete from rate_limit_lease where window_end < :cutoff", nativeQuery = true)
+  int deleteEndedBefore(@Param("cutoff") Instant cutoff);
+}
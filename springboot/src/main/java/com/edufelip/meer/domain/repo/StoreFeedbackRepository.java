@@ -21,13 +21,15 @@ public interface StoreFeedbackRepository extends JpaRepository<StoreFeedback, In
 
     Double getAvgScore();
 
+    Long getScoreSum();
+
     Long getCnt();
   }
 
   void deleteByThriftStoreId(UUID storeId);
 
   @Query(
-      "select f.thriftStore.id as storeId, avg(f.score) as avgScore, count(f) as cnt from StoreFeedback f where f.thriftStore.id in :storeIds and f.score is not null group by f.thriftStore.id")
+      "select f.thriftStore.id as storeId, avg(f.score) as avgScore, sum(f.score) as scoreSum, count(f) as cnt from StoreFeedback f where f.thriftStore.id in :storeIds and f.score is not null group by f.thriftStore.id")
   List<AggregateView> aggregateByStoreIds(@Param("storeIds") List<UUID> storeIds);
 
   @Query(
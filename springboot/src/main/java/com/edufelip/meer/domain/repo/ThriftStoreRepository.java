@@ -1,20 +1,62 @@
 package com.edufelip.meer.domain.repo;
 
 import com.edufelip.meer.core.store.ThriftStore;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface ThriftStoreRepository extends JpaRepository<ThriftStore, UUID> {
 
+  interface GeoPointView {
+    UUID getId();
+
+    Double getLatitude();
+
+    Double getLongitude();
+  }
+
+  interface SearchDocumentView {
+    UUID getId();
+
+    String getName();
+
+    String getNeighborhood();
+
+    String getDescription();
+
+    Instant getCreatedAt();
+  }
+
   @Query(
       "select distinct t from ThriftStore t join t.categories c where lower(c) = lower(:categoryId)")
-  Page<ThriftStore> findByCategoryId(@Param("categoryId") String categoryId, Pageable pageable);
+  Slice<ThriftStore> findByCategoryId(@Param("categoryId") String categoryId, Pageable pageable);
+
+  /** First page(s) of the default listing, newest first. */
+  Slice<ThriftStore> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+  /**
+   * Keyset page of the newest-first listing: the stores strictly after the {@code (createdAt, id)}
+   * of the last store the client has seen, served by idx_thrift_store_created_at_id. The leading
+   * range on createdAt is what the index scan uses; the OR only breaks ties.
+   */
+  @Query(
+      """
+        select t from ThriftStore t
+        where t.createdAt <= :createdAt
+          and (t.createdAt < :createdAt or t.id < :id)
+        order by t.createdAt desc, t.id desc
+        """)
+  Slice<ThriftStore> findNewestBefore(
+      @Param("createdAt") Instant createdAt, @Param("id") UUID id, Pageable pageable);
 
   @EntityGraph(attributePaths = "photos")
   List<ThriftStore> findTop10ByOrderByCreatedAtDesc();
@@ -28,13 +70,8 @@ public interface ThriftStoreRepository extends JpaRepository<ThriftStore, UUID>
                 ORDER BY geography(ST_SetSRID(ST_MakePoint(ts.longitude, ts.latitude), 4326))
                          <-> geography(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326))
                 """,
-      countQuery =
-          """
-                SELECT count(*) FROM thrift_store ts
-                WHERE ts.latitude IS NOT NULL AND ts.longitude IS NOT NULL
-                """,
       nativeQuery = true)
-  Page<ThriftStore> findNearbyGeography(
+  Slice<ThriftStore> findNearbyGeography(
       @Param("lat") double lat, @Param("lng") double lng, Pageable pageable);
 
   /**
@@ -47,13 +84,8 @@ public interface ThriftStoreRepository extends JpaRepository<ThriftStore, UUID>
                 WHERE ts.latitude IS NOT NULL AND ts.longitude IS NOT NULL
                 ORDER BY point(ts.longitude, ts.latitude) <-> point(:lng, :lat)
                 """,
-      countQuery =
-          """
-                SELECT count(*) FROM thrift_store ts
-                WHERE ts.latitude IS NOT NULL AND ts.longitude IS NOT NULL
-                """,
       nativeQuery = true)
-  Page<ThriftStore> findNearbyKnn(
+  Slice<ThriftStore> findNearbyKnn(
       @Param("lat") double lat, @Param("lng") double lng, Pageable pageable);
 
   /**
@@ -70,13 +102,8 @@ public interface ThriftStoreRepository extends JpaRepository<ThriftStore, UUID>
                               sin(radians(:lat)) * sin(radians(ts.latitude))
                     ))) ASC
                 """,
-      countQuery =
-          """
-                SELECT count(*) FROM thrift_store ts
-                WHERE ts.latitude IS NOT NULL AND ts.longitude IS NOT NULL
-                """,
       nativeQuery = true)
-  Page<ThriftStore> findNearbyHaversine(
+  Slice<ThriftStore> findNearbyHaversine(
       @Param("lat") double lat, @Param("lng") double lng, Pageable pageable);
 
   @Query(
@@ -105,9 +132,121 @@ public interface ThriftStoreRepository extends JpaRepository<ThriftStore, UUID>
             end,
             locate(lower(:q), lower(t.name)),
             length(t.name),
-            t.createdAt desc
+            t.createdAt desc,
+            t.id desc
         """)
-  Page<ThriftStore> searchRanked(@Param("q") String q, Pageable pageable);
+  Slice<ThriftStore> searchRanked(@Param("q") String q, Pageable pageable);
+
+  /**
+   * Postgres variant of {@link #searchRanked}: the filters are served by the pg_trgm GIN indexes on
+   * the unaccented, lowered columns, so only matching rows are ranked; ties within a tier go to the
+   * closest trigram similarity. {@code q} must already be normalized (lowercase, no accents).
+   */
+  @Query(
+      value =
+          """
+          select t.* from thrift_store t
+          where meer_unaccent(lower(t.name)) like concat('%', :q, '%')
+             or meer_unaccent(lower(t.description)) like concat('%', :q, '%')
+             or meer_unaccent(lower(t.neighborhood)) like concat('%', :q, '%')
+          order by
+              case
+                  when meer_unaccent(lower(t.name)) = :q then 0
+                  when meer_unaccent(lower(t.name)) like concat(:q, '%') then 1
+                  when meer_unaccent(lower(t.name)) like concat('%', :q, '%') then 2
+                  when meer_unaccent(lower(t.description)) like concat('%', :q, '%') then 3
+                  else 4
+              end,
+              similarity(meer_unaccent(lower(t.name)), :q) desc,
+              t.created_at desc,
+              t.id desc
+          """,
+      nativeQuery = true)
+  Slice<ThriftStore> searchTrigram(@Param("q") String q, Pageable pageable);
+
+  /**
+   * Typo-tolerant fallback for {@link #searchTrigram}: stores with a name or neighborhood word
+   * trigram-similar to {@code q} ({@code <%}, word_similarity above pg_trgm's threshold), most
+   * similar first.
+   */
+  @Query(
+      value =
+          """
+          select t.* from thrift_store t
+          where :q <% meer_unaccent(lower(t.name))
+             or :q <% meer_unaccent(lower(t.neighborhood))
+          order by
+              greatest(
+                  word_similarity(:q, meer_unaccent(lower(t.name))),
+                  word_similarity(:q, coalesce(meer_unaccent(lower(t.neighborhood)), ''))) desc,
+              t.created_at desc,
+              t.id desc
+          """,
+      nativeQuery = true)
+  Slice<ThriftStore> searchTrigramSimilar(@Param("q") String q, Pageable pageable);
 
   List<ThriftStore> findByOwnerId(UUID ownerId);
+
+  /** Coordinates of every geolocated store; feeds the in-memory nearby index. */
+  @Query(
+      "select t.id as id, t.latitude as latitude, t.longitude as longitude from ThriftStore t"
+          + " where t.latitude is not null and t.longitude is not null")
+  List<GeoPointView> findAllGeoPoints();
+
+  /** Text fields of every store; feeds the in-memory search index. */
+  @Query(
+      "select t.id as id, t.name as name, t.neighborhood as neighborhood,"
+          + " t.description as description, t.createdAt as createdAt from ThriftStore t")
+  List<SearchDocumentView> findAllSearchDocuments();
+
+  @Modifying
+  @Transactional
+  @Query(
+      "update ThriftStore t set t.ratingSum = t.ratingSum + :sumDelta, t.ratingCount = t.ratingCount + :countDelta where t.id = :storeId")
+  void adjustRatingTotals(
+      @Param("storeId") UUID storeId,
+      @Param("sumDelta") long sumDelta,
+      @Param("countDelta") long countDelta);
+
+  /** Takes a user's scored feedback out of the totals of every store they rated. */
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          """
+          update thrift_store t
+          set rating_sum = t.rating_sum
+                - coalesce(
+                    (select sum(f.score) from store_feedback f
+                     where f.thrift_store_id = t.id and f.auth_user_id = :userId), 0),
+              rating_count = t.rating_count
+                - (select count(f.score) from store_feedback f
+                   where f.thrift_store_id = t.id and f.auth_user_id = :userId)
+          where t.id in (
+            select f.thrift_store_id from store_feedback f
+            where f.auth_user_id = :userId and f.score is not null)
+          """,
+      nativeQuery = true)
+  void subtractRatingsByUserId(@Param("userId") UUID userId);
+
+  /** Recomputes the rating totals that drifted from store_feedback; returns the stores fixed. */
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          """
+          update thrift_store t
+          set rating_sum =
+                coalesce(
+                  (select sum(f.score) from store_feedback f where f.thrift_store_id = t.id), 0),
+              rating_count =
+                (select count(f.score) from store_feedback f where f.thrift_store_id = t.id)
+          where t.rating_sum
+                  <> coalesce(
+                    (select sum(f.score) from store_feedback f where f.thrift_store_id = t.id), 0)
+             or t.rating_count
+                  <> (select count(f.score) from store_feedback f where f.thrift_store_id = t.id)
+          """,
+      nativeQuery = true)
+  int repairRatingTotals();
 }
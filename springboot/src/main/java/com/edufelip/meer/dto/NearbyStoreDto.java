@@ -1,6 +1,7 @@
 package com.edufelip.meer.dto;
 
 import com.edufelip.meer.core.store.ThriftStore;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -74,6 +75,9 @@ public record NearbyStoreDto(
     Double distanceMeters =
         StoreDtoCalculations.distanceMeters(
             originLat, originLng, store.getLatitude(), store.getLongitude());
+    // copied so the DTO outlives the session: the home feed builds it on a fan-out thread
+    List<String> categories =
+        store.getCategories() != null ? new ArrayList<>(store.getCategories()) : null;
     return new NearbyStoreParts(
         store.getId(),
         store.getName(),
@@ -84,7 +88,7 @@ public record NearbyStoreDto(
         store.getLongitude(),
         store.getNeighborhood(),
         isFavorite,
-        store.getCategories(),
+        categories,
         rating,
         reviewCount,
         distanceMeters,
@@ -1,5 +1,19 @@
 package com.edufelip.meer.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 
-public record PageResponse<T>(List<T> items, int page, boolean hasNext) {}
+/**
+ * {@code nextCursor} is only set by endpoints that support keyset pagination, and only when there
+ * is a next page; it is omitted from the JSON otherwise.
+ */
+public record PageResponse<T>(
+    List<T> items,
+    int page,
+    boolean hasNext,
+    @JsonInclude(JsonInclude.Include.NON_NULL) String nextCursor) {
+
+  public PageResponse(List<T> items, int page, boolean hasNext) {
+    this(items, page, hasNext, null);
+  }
+}
@@ -43,7 +43,7 @@ public final class StoreDtoCalculations {
     return R * c * 1000.0;
   }
 
-  static Integer walkMinutes(Double distanceMeters) {
+  public static Integer walkMinutes(Double distanceMeters) {
     return distanceMeters != null ? (int) Math.round(distanceMeters / 80.0) : null;
   }
 }
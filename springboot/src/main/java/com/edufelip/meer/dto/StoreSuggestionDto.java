@@ -0,0 +1,6 @@
+package com.edufelip.meer.dto;
+
+import java.util.UUID;
+
+/** Autocomplete entry; {@code storeId} is null for {@code NEIGHBORHOOD} suggestions. */
+public record StoreSuggestionDto(String type, String label, UUID storeId) {}
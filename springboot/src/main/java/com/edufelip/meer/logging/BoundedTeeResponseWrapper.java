@@ -0,0 +1,143 @@
+package com.edufelip.meer.logging;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Passes the response body straight through to the client and keeps a copy of only its first {@code
+ * limit} bytes (or characters, when written through {@link #getWriter()}) for logging. Unlike
+ * {@link org.springframework.web.util.ContentCachingResponseWrapper}, nothing is held back until
+ * the request completes.
+ */
+final class BoundedTeeResponseWrapper extends HttpServletResponseWrapper {
+
+  /** What was captured: raw bytes from the output stream or text from the writer. */
+  record Captured(byte[] bytes, String text, boolean truncated) {}
+
+  private final int limit;
+  private final byte[] bytes;
+  private int byteCount;
+  private final StringBuilder text = new StringBuilder();
+  private long total;
+  private ServletOutputStream outputStream;
+  private PrintWriter writer;
+
+  BoundedTeeResponseWrapper(HttpServletResponse response, int limit) {
+    super(response);
+    this.limit = Math.max(0, limit);
+    this.bytes = new byte[this.limit];
+  }
+
+  @Override
+  public ServletOutputStream getOutputStream() throws IOException {
+    if (outputStream == null) {
+      outputStream = new TeeOutputStream(super.getOutputStream());
+    }
+    return outputStream;
+  }
+
+  @Override
+  public PrintWriter getWriter() throws IOException {
+    if (writer == null) {
+      writer = new TeeWriter(super.getWriter());
+    }
+    return writer;
+  }
+
+  /** Copies the captured prefix; call on the request thread before the response is recycled. */
+  Captured captured() {
+    return new Captured(
+        writer != null ? null : Arrays.copyOf(bytes, byteCount),
+        writer != null ? text.toString() : null,
+        total > limit);
+  }
+
+  private void captureBytes(byte[] b, int off, int len) {
+    total += len;
+    int room = limit - byteCount;
+    if (room > 0) {
+      int n = Math.min(room, len);
+      System.arraycopy(b, off, bytes, byteCount, n);
+      byteCount += n;
+    }
+  }
+
+  private void captureText(CharSequence s, int off, int len) {
+    total += len;
+    int room = limit - text.length();
+    if (room > 0) text.append(s, off, off + Math.min(room, len));
+  }
+
+  private final class TeeOutputStream extends ServletOutputStream {
+    private final ServletOutputStream delegate;
+
+    TeeOutputStream(ServletOutputStream delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      delegate.write(b);
+      total++;
+      if (byteCount < limit) bytes[byteCount++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      delegate.write(b, off, len);
+      captureBytes(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      delegate.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      delegate.close();
+    }
+
+    @Override
+    public boolean isReady() {
+      return delegate.isReady();
+    }
+
+    @Override
+    public void setWriteListener(WriteListener listener) {
+      delegate.setWriteListener(listener);
+    }
+  }
+
+  private final class TeeWriter extends PrintWriter {
+
+    TeeWriter(PrintWriter delegate) {
+      super(delegate);
+    }
+
+    @Override
+    public void write(int c) {
+      super.write(c);
+      total++;
+      if (text.length() < limit) text.append((char) c);
+    }
+
+    @Override
+    public void write(char[] buf, int off, int len) {
+      super.write(buf, off, len);
+      captureText(CharBuffer.wrap(buf), off, len);
+    }
+
+    @Override
+    public void write(String s, int off, int len) {
+      super.write(s, off, len);
+      captureText(s, off, len);
+    }
+  }
+}
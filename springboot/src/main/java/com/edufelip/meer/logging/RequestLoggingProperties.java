@@ -0,0 +1,87 @@
+package com.edufelip.meer.logging;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Which requests {@link RequestResponseLoggingFilter} logs. Responses with a status of at least
+ * {@code alwaysLogFromStatus} are always logged; others are sampled at the rate of the first entry
+ * in {@code routeSampleRates} whose path prefix matches, or at {@code successSampleRate}.
+ */
+@ConfigurationProperties(prefix = "meer.request-logging")
+public class RequestLoggingProperties {
+  private boolean enabled = true;
+
+  /** Bytes of each request and response body kept for the log line. */
+  private int maxBodyBytes = 4000;
+
+  private int alwaysLogFromStatus = 400;
+
+  private double successSampleRate = 0.01;
+
+  /** Path prefix to sample rate for responses below {@code alwaysLogFromStatus}. */
+  private Map<String, Double> routeSampleRates = new LinkedHashMap<>();
+
+  /** Records waiting to be written; further records are dropped while the queue is full. */
+  private int queueCapacity = 1024;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public int getMaxBodyBytes() {
+    return maxBodyBytes;
+  }
+
+  public void setMaxBodyBytes(int maxBodyBytes) {
+    this.maxBodyBytes = maxBodyBytes;
+  }
+
+  public int getAlwaysLogFromStatus() {
+    return alwaysLogFromStatus;
+  }
+
+  public void setAlwaysLogFromStatus(int alwaysLogFromStatus) {
+    this.alwaysLogFromStatus = alwaysLogFromStatus;
+  }
+
+  public double getSuccessSampleRate() {
+    return successSampleRate;
+  }
+
+  public void setSuccessSampleRate(double successSampleRate) {
+    this.successSampleRate = successSampleRate;
+  }
+
+  public Map<String, Double> getRouteSampleRates() {
+    return routeSampleRates;
+  }
+
+  public void setRouteSampleRates(Map<String, Double> routeSampleRates) {
+    this.routeSampleRates = routeSampleRates;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  public double sampleRate(String path) {
+    if (path != null && !routeSampleRates.isEmpty()) {
+      String lower = path.toLowerCase(Locale.ROOT);
+      for (Map.Entry<String, Double> entry : routeSampleRates.entrySet()) {
+        if (lower.startsWith(entry.getKey().toLowerCase(Locale.ROOT))) return entry.getValue();
+      }
+    }
+    return successSampleRate;
+  }
+}
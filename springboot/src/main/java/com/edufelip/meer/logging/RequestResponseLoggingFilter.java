@@ -8,6 +8,10 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
@@ -15,112 +19,203 @@ import org.springframework.http.MediaType;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 /**
  * Logs request headers/body and response status/body for debugging. Masks Authorization header and
  * truncates large payloads to avoid log bloat.
+ *
+ * <p>Error responses are always logged and successful ones sampled (see {@link
+ * RequestLoggingProperties}). Only the first {@code maxBodyBytes} of each body are copied; the
+ * response streams to the client as it is written. The request thread only snapshots what it needs
+ * and hands the record to {@code executor}; formatting and writing happen there, and records are
+ * dropped rather than waited on when its queue is full.
  */
 public class RequestResponseLoggingFilter extends OncePerRequestFilter {
 
   private static final Logger log = LoggerFactory.getLogger(RequestResponseLoggingFilter.class);
 
-  private static final int MAX_LOG_BYTES = 4000; // per body
+  private final RequestLoggingProperties properties;
+  private final Executor executor;
+  private final AtomicLong dropped = new AtomicLong();
+
+  public RequestResponseLoggingFilter(RequestLoggingProperties properties, Executor executor) {
+    this.properties = properties;
+    this.executor = executor;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !properties.isEnabled();
+  }
 
   @Override
   protected void doFilterInternal(
       HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
-
-    var wrappedRequest = new ContentCachingRequestWrapper(request, MAX_LOG_BYTES);
-    var wrappedResponse = new ContentCachingResponseWrapper(response);
+    int maxBodyBytes = properties.getMaxBodyBytes();
+    var wrappedRequest = new ContentCachingRequestWrapper(request, maxBodyBytes);
+    var wrappedResponse = new BoundedTeeResponseWrapper(response, maxBodyBytes);
 
     long start = System.nanoTime();
+    boolean failed = true;
     try {
       filterChain.doFilter(wrappedRequest, wrappedResponse);
+      failed = false;
     } finally {
       long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
-      logRequestAndResponse(wrappedRequest, wrappedResponse, elapsedMs);
-      wrappedResponse.copyBodyToResponse();
+      // An exception propagating from the chain becomes a 500 further out
+      int status = failed ? 500 : wrappedResponse.getStatus();
+      if (shouldLog(request.getRequestURI(), status)) {
+        submit(snapshot(wrappedRequest, wrappedResponse, status, elapsedMs));
+      }
+    }
+  }
+
+  private boolean shouldLog(String path, int status) {
+    if (status >= properties.getAlwaysLogFromStatus()) return true;
+    double rate = properties.sampleRate(path);
+    return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+  }
+
+  private void submit(LogRecord record) {
+    try {
+      executor.execute(() -> write(record));
+    } catch (RejectedExecutionException ex) {
+      dropped.incrementAndGet();
     }
   }
 
-  private void logRequestAndResponse(
+  long droppedRecords() {
+    return dropped.get();
+  }
+
+  private record LogRecord(
+      String method,
+      String uri,
+      int status,
+      long elapsedMs,
+      Map<String, String> requestHeaders,
+      byte[] requestBody,
+      String requestEncoding,
+      String requestContentType,
+      Map<String, String> responseHeaders,
+      BoundedTeeResponseWrapper.Captured responseBody,
+      String responseEncoding,
+      String responseContentType,
+      boolean skipBody) {}
+
+  /** Copies everything the log line needs while the request and response are still live. */
+  private LogRecord snapshot(
       ContentCachingRequestWrapper request,
-      ContentCachingResponseWrapper response,
+      BoundedTeeResponseWrapper response,
+      int status,
       long elapsedMs) {
-    String method = request.getMethod();
     String uri = request.getRequestURI();
     boolean skipBody = isSensitivePath(uri);
+    return new LogRecord(
+        request.getMethod(),
+        uri,
+        status,
+        elapsedMs,
+        requestHeaders(request),
+        skipBody ? null : request.getContentAsByteArray(),
+        request.getCharacterEncoding(),
+        request.getContentType(),
+        responseHeaders(response),
+        skipBody ? null : response.captured(),
+        response.getCharacterEncoding(),
+        response.getContentType(),
+        skipBody);
+  }
+
+  private void write(LogRecord record) {
+    long droppedSoFar = dropped.getAndSet(0);
+    if (droppedSoFar > 0) {
+      log.warn("Dropped {} request log records while the log queue was full", droppedSoFar);
+    }
 
-    String reqHeaders = headersToString(Collections.list(request.getHeaderNames()), request);
     String reqBody =
         bodyToString(
-            request.getContentAsByteArray(),
-            request.getCharacterEncoding(),
-            request.getContentType(),
-            skipBody);
+            record.requestBody(),
+            record.requestBody() != null && record.requestBody().length > maxBodyBytes(),
+            record.requestEncoding(),
+            record.requestContentType(),
+            record.skipBody());
 
-    String resHeaders = headersToString(response.getHeaderNames(), response);
+    BoundedTeeResponseWrapper.Captured captured = record.responseBody();
     String resBody =
-        bodyToString(
-            response.getContentAsByteArray(),
-            response.getCharacterEncoding(),
-            response.getContentType(),
-            skipBody);
+        captured != null && captured.text() != null
+            ? textToString(captured.text(), captured.truncated(), record.responseContentType())
+            : bodyToString(
+                captured != null ? captured.bytes() : null,
+                captured != null && captured.truncated(),
+                record.responseEncoding(),
+                record.responseContentType(),
+                record.skipBody());
 
     log.info(
         "HTTP {} {} | status={} | {} ms\nreqHeaders={}\nreqBody={}\nresHeaders={}\nresBody={}",
-        method,
-        uri,
-        response.getStatus(),
-        elapsedMs,
-        reqHeaders,
+        record.method(),
+        record.uri(),
+        record.status(),
+        record.elapsedMs(),
+        record.requestHeaders(),
         reqBody,
-        resHeaders,
+        record.responseHeaders(),
         resBody);
   }
 
-  private String headersToString(Collection<String> names, HttpServletRequest request) {
+  private int maxBodyBytes() {
+    return properties.getMaxBodyBytes();
+  }
+
+  private Map<String, String> requestHeaders(HttpServletRequest request) {
     Map<String, String> map = new LinkedHashMap<>();
-    for (String name : names) {
+    for (String name : Collections.list(request.getHeaderNames())) {
       String value = request.getHeader(name);
       if (HttpHeaders.AUTHORIZATION.equalsIgnoreCase(name)) {
         value = "***masked***";
       }
       map.put(name, value);
     }
-    return map.toString();
+    return map;
   }
 
-  private String headersToString(Collection<String> names, HttpServletResponse response) {
+  private Map<String, String> responseHeaders(HttpServletResponse response) {
     Map<String, String> map = new LinkedHashMap<>();
-    for (String name : names) {
+    for (String name : response.getHeaderNames()) {
       String value = String.join(",", response.getHeaders(name));
       map.put(name, value);
     }
-    return map.toString();
+    return map;
   }
 
   private String bodyToString(
-      byte[] content, String encoding, String contentType, boolean skipBody) {
+      byte[] content, boolean truncated, String encoding, String contentType, boolean skipBody) {
     if (skipBody) return "<skipped>";
     if (content == null || content.length == 0) return "<empty>";
-    if (contentType != null) {
-      // Avoid logging multipart/binary bodies
-      if (contentType.toLowerCase(Locale.ROOT).startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) {
-        return "<multipart skipped>";
-      }
-    }
-    int length = Math.min(content.length, MAX_LOG_BYTES);
+    if (isMultipart(contentType)) return "<multipart skipped>";
+    int length = Math.min(content.length, maxBodyBytes());
     String charset = StringUtils.hasText(encoding) ? encoding : Charset.defaultCharset().name();
     String body = new String(content, 0, length, Charset.forName(charset));
-    if (content.length > MAX_LOG_BYTES) {
+    if (truncated) {
       body = body + "...<truncated>";
     }
     return body;
   }
 
+  private String textToString(String text, boolean truncated, String contentType) {
+    if (text.isEmpty()) return "<empty>";
+    if (isMultipart(contentType)) return "<multipart skipped>";
+    return truncated ? text + "...<truncated>" : text;
+  }
+
+  private boolean isMultipart(String contentType) {
+    // Avoid logging multipart/binary bodies
+    return contentType != null
+        && contentType.toLowerCase(Locale.ROOT).startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+  }
+
   private boolean isSensitivePath(String path) {
     if (path == null) return false;
     String lower = path.toLowerCase(Locale.ROOT);
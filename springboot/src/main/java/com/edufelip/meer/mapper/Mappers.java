@@ -17,6 +17,7 @@ import com.edufelip.meer.dto.DashboardCommentDto;
 import com.edufelip.meer.dto.GuideContentCommentDto;
 import com.edufelip.meer.dto.GuideContentDto;
 import com.edufelip.meer.dto.ImageModerationDto;
+import com.edufelip.meer.dto.NearbyStoreDto;
 import com.edufelip.meer.dto.PhotoRegisterRequest;
 import com.edufelip.meer.dto.PhotoUploadResponse;
 import com.edufelip.meer.dto.PhotoUploadSlot;
@@ -52,8 +53,8 @@ public class Mappers {
         summary.thriftStoreId() == null ? "Guia Brechó" : summary.thriftStoreName(),
         summary.thriftStoreCoverImageUrl(),
         summary.createdAt(),
-        0L,
-        0L,
+        summary.likeCount() != null ? summary.likeCount() : 0L,
+        summary.commentCount() != null ? summary.commentCount() : 0L,
         false);
   }
 
@@ -89,6 +90,45 @@ public class Mappers {
         likedByMe != null ? likedByMe : false);
   }
 
+  public static NearbyStoreDto withFavorite(NearbyStoreDto base, Boolean isFavorite) {
+    return new NearbyStoreDto(
+        base.id(),
+        base.name(),
+        base.description(),
+        base.coverImageUrl(),
+        base.addressLine(),
+        base.latitude(),
+        base.longitude(),
+        base.neighborhood(),
+        isFavorite != null ? isFavorite : false,
+        base.categories(),
+        base.rating(),
+        base.reviewCount(),
+        base.distanceMeters(),
+        base.walkTimeMinutes());
+  }
+
+  /** Re-derives distance and walk time of {@code base} from another origin. */
+  public static NearbyStoreDto withOrigin(NearbyStoreDto base, double lat, double lng) {
+    Double distanceMeters =
+        StoreDtoCalculations.distanceMeters(lat, lng, base.latitude(), base.longitude());
+    return new NearbyStoreDto(
+        base.id(),
+        base.name(),
+        base.description(),
+        base.coverImageUrl(),
+        base.addressLine(),
+        base.latitude(),
+        base.longitude(),
+        base.neighborhood(),
+        base.isFavorite(),
+        base.categories(),
+        base.rating(),
+        base.reviewCount(),
+        distanceMeters,
+        StoreDtoCalculations.walkMinutes(distanceMeters));
+  }
+
   public static StoreRatingDto toDto(StoreRatingView view) {
     if (view == null) return null;
     return new StoreRatingDto(
@@ -0,0 +1,81 @@
+package com.edufelip.meer.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JDBC statements executed and rows fetched within one scope, usually an HTTP request. Counts come
+ * from {@link QueryCountingDataSource} on threads where the scope is current: the opening thread,
+ * and executor threads whose tasks were wrapped with {@link #propagate(Runnable)}.
+ *
+ * <pre>{@code
+ * try (JdbcRequestStats stats = JdbcRequestStats.open()) {
+ *   ...
+ *   stats.statements();
+ * }
+ * }</pre>
+ */
+public final class JdbcRequestStats implements AutoCloseable {
+  private static final ThreadLocal<JdbcRequestStats> CURRENT = new ThreadLocal<>();
+
+  private final AtomicInteger statements = new AtomicInteger();
+  private final AtomicLong rows = new AtomicLong();
+  private final JdbcRequestStats previous;
+
+  private JdbcRequestStats(JdbcRequestStats previous) {
+    this.previous = previous;
+  }
+
+  /** Starts counting on this thread until {@link #close()}; nested scopes count separately. */
+  public static JdbcRequestStats open() {
+    JdbcRequestStats stats = new JdbcRequestStats(CURRENT.get());
+    CURRENT.set(stats);
+    return stats;
+  }
+
+  /** Runs {@code task} in the scope current on the submitting thread, if any. */
+  public static Runnable propagate(Runnable task) {
+    JdbcRequestStats captured = CURRENT.get();
+    if (captured == null) return task;
+    return () -> {
+      JdbcRequestStats outer = CURRENT.get();
+      CURRENT.set(captured);
+      try {
+        task.run();
+      } finally {
+        restore(outer);
+      }
+    };
+  }
+
+  public int statements() {
+    return statements.get();
+  }
+
+  public long rows() {
+    return rows.get();
+  }
+
+  @Override
+  public void close() {
+    restore(previous);
+  }
+
+  static void statementExecuted() {
+    JdbcRequestStats stats = CURRENT.get();
+    if (stats != null) stats.statements.incrementAndGet();
+  }
+
+  static void rowFetched() {
+    JdbcRequestStats stats = CURRENT.get();
+    if (stats != null) stats.rows.incrementAndGet();
+  }
+
+  private static void restore(JdbcRequestStats stats) {
+    if (stats != null) {
+      CURRENT.set(stats);
+    } else {
+      CURRENT.remove();
+    }
+  }
+}
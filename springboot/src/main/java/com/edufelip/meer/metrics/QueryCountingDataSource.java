@@ -0,0 +1,81 @@
+package com.edufelip.meer.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Counts executed statements and fetched rows into the current {@link JdbcRequestStats}. Covers
+ * everything that goes through the pool: JPA, Spring Data native queries and {@code JdbcTemplate}.
+ * Calls outside a stats scope only pay for the proxy hop and a thread-local lookup.
+ */
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+  public QueryCountingDataSource(DataSource target) {
+    super(target);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return proxy(Connection.class, super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return proxy(Connection.class, super.getConnection(username, password));
+  }
+
+  private static <T> T proxy(Class<T> type, T target) {
+    if (target == null) return null;
+    Object proxy =
+        Proxy.newProxyInstance(
+            QueryCountingDataSource.class.getClassLoader(),
+            new Class<?>[] {type},
+            new CountingHandler(target));
+    return type.cast(proxy);
+  }
+
+  private record CountingHandler(Object target) implements InvocationHandler {
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if (name.equals("equals") && args != null && args.length == 1) return proxy == args[0];
+      if (name.equals("hashCode") && args == null) return System.identityHashCode(proxy);
+
+      Object result;
+      try {
+        result = method.invoke(target, args);
+      } catch (InvocationTargetException ex) {
+        throw ex.getCause();
+      }
+
+      if (target instanceof ResultSet) {
+        if (name.equals("next") && Boolean.TRUE.equals(result)) JdbcRequestStats.rowFetched();
+        return result;
+      }
+      if (target instanceof Statement && name.startsWith("execute")) {
+        JdbcRequestStats.statementExecuted();
+      }
+      // statements from the connection, result sets from statements
+      Class<?> returnType = method.getReturnType();
+      if ((returnType == ResultSet.class || Statement.class.isAssignableFrom(returnType))
+          && returnType.isInstance(result)) {
+        return proxy(uncheckedType(returnType), result);
+      }
+      return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<Object> uncheckedType(Class<?> type) {
+      return (Class<Object>) type;
+    }
+  }
+}
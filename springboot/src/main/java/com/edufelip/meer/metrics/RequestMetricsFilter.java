@@ -0,0 +1,97 @@
+package com.edufelip.meer.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records the JDBC statements and rows of each request, tagged like {@code http.server.requests} by
+ * method and URI template:
+ *
+ * <ul>
+ *   <li>{@code meer.http.jdbc.statements} and {@code meer.http.jdbc.rows}: distributions per
+ *       request.
+ *   <li>{@code meer.http.jdbc.budget.exceeded}: requests that ran more than {@code statementBudget}
+ *       statements, each also logged as a likely N+1.
+ * </ul>
+ */
+public class RequestMetricsFilter extends OncePerRequestFilter {
+  private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+  private static final double[] STATEMENT_BUCKETS = {1, 2, 5, 10, 20, 50, 100};
+  private static final double[] ROW_BUCKETS = {1, 10, 100, 1_000, 10_000};
+
+  private final MeterRegistry registry;
+  private final RequestMetricsProperties properties;
+
+  public RequestMetricsFilter(MeterRegistry registry, RequestMetricsProperties properties) {
+    this.registry = registry;
+    this.properties = properties;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !properties.isEnabled();
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    JdbcRequestStats stats = JdbcRequestStats.open();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      stats.close();
+      record(request, stats);
+    }
+  }
+
+  private void record(HttpServletRequest request, JdbcRequestStats stats) {
+    String method = request.getMethod();
+    String uri = uriTemplate(request);
+    DistributionSummary.builder("meer.http.jdbc.statements")
+        .description("JDBC statements executed per request")
+        .tags("method", method, "uri", uri)
+        .serviceLevelObjectives(STATEMENT_BUCKETS)
+        .register(registry)
+        .record(stats.statements());
+    DistributionSummary.builder("meer.http.jdbc.rows")
+        .description("JDBC rows fetched per request")
+        .tags("method", method, "uri", uri)
+        .serviceLevelObjectives(ROW_BUCKETS)
+        .register(registry)
+        .record(stats.rows());
+
+    int budget = properties.getStatementBudget();
+    if (budget > 0 && stats.statements() > budget) {
+      Counter.builder("meer.http.jdbc.budget.exceeded")
+          .description("Requests that ran more JDBC statements than the budget")
+          .tags("method", method, "uri", uri)
+          .register(registry)
+          .increment();
+      log.warn(
+          "{} {} ran {} JDBC statements (budget {}, {} rows); likely N+1",
+          method,
+          uri,
+          stats.statements(),
+          budget,
+          stats.rows());
+    }
+  }
+
+  /** The matched mapping, so path variables do not create a time series per id. */
+  private static String uriTemplate(HttpServletRequest request) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return pattern != null ? pattern.toString() : "UNKNOWN";
+  }
+}
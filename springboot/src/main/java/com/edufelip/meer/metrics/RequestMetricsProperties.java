@@ -0,0 +1,28 @@
+package com.edufelip.meer.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** JDBC counters per request, recorded by {@link RequestMetricsFilter}. */
+@ConfigurationProperties(prefix = "meer.request-metrics")
+public class RequestMetricsProperties {
+  private boolean enabled = true;
+
+  /** Statements one request may run before it is logged as a likely N+1. */
+  private int statementBudget = 20;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public int getStatementBudget() {
+    return statementBudget;
+  }
+
+  public void setStatementBudget(int statementBudget) {
+    this.statementBudget = statementBudget;
+  }
+}
@@ -5,7 +5,10 @@ import java.util.Optional;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 
-/** Utility to access the admin user placed on the request by DashboardAdminGuardFilter. */
+/**
+ * Utility to access the admin user of a dashboard request: the one placed on the request as {@code
+ * adminUser}, else the user of the principal DashboardAdminGuardFilter verified.
+ */
 public final class AdminContext {
   private static final String KEY = "adminUser";
 
@@ -18,6 +21,6 @@ public final class AdminContext {
       if (cached instanceof AuthUser user) return Optional.of(user);
     } catch (IllegalStateException ignored) {
     }
-    return Optional.empty();
+    return AuthPrincipal.current().flatMap(AuthPrincipal::user);
   }
 }
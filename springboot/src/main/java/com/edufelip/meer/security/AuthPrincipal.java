@@ -0,0 +1,99 @@
+package com.edufelip.meer.security;
+
+import com.edufelip.meer.core.auth.AuthUser;
+import com.edufelip.meer.domain.repo.AuthUserRepository;
+import com.edufelip.meer.security.token.TokenPayload;
+import com.edufelip.meer.security.token.TokenProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Optional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * The caller's verified access token for the current request. The first component that checks the
+ * {@code Authorization} header (a guard filter, or {@link AuthUserResolver} on routes without one)
+ * verifies the token once and stores the principal as a request attribute; later lookups for the
+ * same token reuse the parsed payload and the user, which is loaded at most once, on first use.
+ *
+ * <p>The user is loaded through the request's open {@code EntityManager} (see {@code
+ * openEntityManagerInViewFilter}), so an instance loaded by a filter stays managed for controllers.
+ */
+public final class AuthPrincipal {
+  private static final String KEY = AuthPrincipal.class.getName();
+
+  private final String token;
+  private final TokenPayload payload;
+  private final AuthUserRepository authUserRepository;
+  private Optional<AuthUser> user;
+
+  private AuthPrincipal(String token, TokenPayload payload, AuthUserRepository repository) {
+    this.token = token;
+    this.payload = payload;
+    this.authUserRepository = repository;
+  }
+
+  /**
+   * Returns the principal already stored on {@code request} for {@code token}, or verifies the
+   * token and stores a new one.
+   *
+   * @throws RuntimeException whatever {@link TokenProvider#parseAccessToken} throws for a bad token
+   */
+  public static AuthPrincipal resolve(
+      HttpServletRequest request,
+      String token,
+      TokenProvider tokenProvider,
+      AuthUserRepository authUserRepository) {
+    if (request.getAttribute(KEY) instanceof AuthPrincipal cached && cached.token.equals(token)) {
+      return cached;
+    }
+    AuthPrincipal principal = parse(token, tokenProvider, authUserRepository);
+    request.setAttribute(KEY, principal);
+    return principal;
+  }
+
+  /**
+   * Like {@link #resolve(HttpServletRequest, String, TokenProvider, AuthUserRepository)}, for
+   * callers without the servlet request at hand. Outside a request nothing is stored.
+   */
+  static AuthPrincipal resolve(
+      String token, TokenProvider tokenProvider, AuthUserRepository authUserRepository) {
+    RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+    if (attrs != null
+        && attrs.getAttribute(KEY, RequestAttributes.SCOPE_REQUEST) instanceof AuthPrincipal cached
+        && cached.token.equals(token)) {
+      return cached;
+    }
+    AuthPrincipal principal = parse(token, tokenProvider, authUserRepository);
+    if (attrs != null) attrs.setAttribute(KEY, principal, RequestAttributes.SCOPE_REQUEST);
+    return principal;
+  }
+
+  /** The principal already stored on the current request, if any. */
+  static Optional<AuthPrincipal> current() {
+    RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+    if (attrs != null
+        && attrs.getAttribute(KEY, RequestAttributes.SCOPE_REQUEST) instanceof AuthPrincipal p) {
+      return Optional.of(p);
+    }
+    return Optional.empty();
+  }
+
+  private static AuthPrincipal parse(
+      String token, TokenProvider tokenProvider, AuthUserRepository authUserRepository) {
+    TokenPayload payload = tokenProvider.parseAccessToken(token);
+    if (payload == null) throw new IllegalArgumentException("Empty token payload");
+    return new AuthPrincipal(token, payload, authUserRepository);
+  }
+
+  public TokenPayload payload() {
+    return payload;
+  }
+
+  /** The user named by the token; empty if it no longer exists. Loaded on first call only. */
+  public synchronized Optional<AuthUser> user() {
+    if (user == null) {
+      user = authUserRepository.findById(payload.getUserId());
+    }
+    return user;
+  }
+}
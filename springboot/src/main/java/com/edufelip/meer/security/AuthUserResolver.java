@@ -19,7 +19,7 @@ public class AuthUserResolver {
   }
 
   public AuthUser requireUser(String authHeader) {
-    return loadUser(requirePayload(authHeader));
+    return requirePrincipal(authHeader).user().orElseThrow(InvalidTokenException::new);
   }
 
   public AuthUser optionalUser(String authHeader) {
@@ -28,7 +28,7 @@ public class AuthUserResolver {
   }
 
   public TokenPayload requirePayload(String authHeader) {
-    return parsePayload(requireBearer(authHeader));
+    return requirePrincipal(authHeader).payload();
   }
 
   public TokenPayload optionalPayload(String authHeader) {
@@ -48,17 +48,13 @@ public class AuthUserResolver {
     return requireBearer(authHeader);
   }
 
-  private TokenPayload parsePayload(String token) {
+  /** Reuses the principal a guard filter already verified for this request's token. */
+  private AuthPrincipal requirePrincipal(String authHeader) {
+    String token = requireBearer(authHeader);
     try {
-      TokenPayload payload = tokenProvider.parseAccessToken(token);
-      if (payload == null) throw new InvalidTokenException();
-      return payload;
+      return AuthPrincipal.resolve(token, tokenProvider, authUserRepository);
     } catch (RuntimeException ex) {
       throw new InvalidTokenException();
     }
   }
-
-  private AuthUser loadUser(TokenPayload payload) {
-    return authUserRepository.findById(payload.getUserId()).orElseThrow(InvalidTokenException::new);
-  }
 }
@@ -0,0 +1,35 @@
+package com.edufelip.meer.security;
+
+import com.edufelip.meer.domain.auth.AuthUserStatus;
+import com.edufelip.meer.domain.repo.AuthUserRepository;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Whether a user exists, and its role, for the request guards. Entries, including "not found", live
+ * for a few seconds in the {@value #CACHE_NAME} cache, so a client's burst of requests checks
+ * {@code auth_user} once. Writes that change what is cached ({@code DeleteUserUseCase}, {@code
+ * AcceptTermsUseCase}) evict the user's entry; the TTL bounds staleness for anything else.
+ */
+@Component
+public class AuthUserStatusCache {
+  public static final String CACHE_NAME = "authUserStatus";
+
+  private final AuthUserRepository authUserRepository;
+  private final Cache cache;
+
+  public AuthUserStatusCache(AuthUserRepository authUserRepository, CacheManager cacheManager) {
+    this.authUserRepository = authUserRepository;
+    this.cache = cacheManager != null ? cacheManager.getCache(CACHE_NAME) : null;
+  }
+
+  /** The user's status; empty if the user does not exist. */
+  public Optional<AuthUserStatus> get(UUID userId) {
+    if (cache == null) return authUserRepository.findStatusById(userId);
+    return Optional.ofNullable(
+        cache.get(userId, () -> authUserRepository.findStatusById(userId).orElse(null)));
+  }
+}
@@ -33,6 +33,8 @@ public class DashboardAdminAuthorizer {
       }
     } catch (IllegalStateException ignored) {
     }
+    var principalUser = AuthPrincipal.current().flatMap(AuthPrincipal::user);
+    if (principalUser.isPresent()) return principalUser.get();
     throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing admin context");
   }
 }
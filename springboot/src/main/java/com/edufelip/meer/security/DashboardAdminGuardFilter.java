@@ -2,6 +2,7 @@ package com.edufelip.meer.security;
 
 import com.edufelip.meer.core.auth.Role;
 import com.edufelip.meer.domain.repo.AuthUserRepository;
+import com.edufelip.meer.security.guards.ScrapeTokenGuard;
 import com.edufelip.meer.security.token.InvalidTokenException;
 import com.edufelip.meer.security.token.TokenPayload;
 import com.edufelip.meer.security.token.TokenProvider;
@@ -10,18 +11,30 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Locale;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-/** Ensures all /dashboard/** routes (except /dashboard/login) are accessed by ADMIN users only. */
+/**
+ * Ensures all /dashboard/** routes (except /dashboard/login) and actuator endpoints other than
+ * health and info are accessed by ADMIN users only. The Prometheus scrape may instead present the
+ * static token checked by {@link ScrapeTokenGuard}.
+ */
 public class DashboardAdminGuardFilter extends OncePerRequestFilter {
 
   private final TokenProvider tokenProvider;
   private final AuthUserRepository authUserRepository;
+  private final AuthUserStatusCache userStatusCache;
+  private final ScrapeTokenGuard scrapeTokenGuard;
 
   public DashboardAdminGuardFilter(
-      TokenProvider tokenProvider, AuthUserRepository authUserRepository) {
+      TokenProvider tokenProvider,
+      AuthUserRepository authUserRepository,
+      AuthUserStatusCache userStatusCache,
+      SecurityProperties securityProps) {
     this.tokenProvider = tokenProvider;
     this.authUserRepository = authUserRepository;
+    this.userStatusCache = userStatusCache;
+    this.scrapeTokenGuard = new ScrapeTokenGuard(securityProps);
   }
 
   @Override
@@ -30,7 +43,7 @@ public class DashboardAdminGuardFilter extends OncePerRequestFilter {
       return true; // always allow preflight
     }
     String path = request.getServletPath();
-    return path == null || !isDashboardPath(path);
+    return path == null || !isAdminPath(path) || scrapeTokenGuard.matches(request);
   }
 
   @Override
@@ -46,25 +59,26 @@ public class DashboardAdminGuardFilter extends OncePerRequestFilter {
 
     String token = authHeader.substring("Bearer ".length()).trim();
     try {
-      TokenPayload payload = tokenProvider.parseAccessToken(token);
-      var userOpt = authUserRepository.findById(payload.getUserId());
-      if (userOpt.isEmpty()) {
+      AuthPrincipal principal =
+          AuthPrincipal.resolve(request, token, tokenProvider, authUserRepository);
+      TokenPayload payload = principal.payload();
+      var status = userStatusCache.get(payload.getUserId());
+      if (status.isEmpty()) {
         sendError(response, HttpServletResponse.SC_UNAUTHORIZED, "User not found");
         return;
       }
-      var user = userOpt.get();
 
       Role role =
-          user.getRole() != null
-              ? user.getRole()
+          status.get().role() != null
+              ? status.get().role()
               : (payload.getRole() != null ? payload.getRole() : Role.USER);
       if (role != Role.ADMIN) {
         sendError(response, HttpServletResponse.SC_FORBIDDEN, "Admin only");
         return;
       }
 
-      // make user available downstream to avoid re-querying
-      request.setAttribute("adminUser", user);
+      // the admin entity is loaded from the principal only when a controller asks for it
+      // (DashboardAdminAuthorizer, AdminContext)
       filterChain.doFilter(request, response);
     } catch (InvalidTokenException ex) {
       sendError(response, HttpServletResponse.SC_UNAUTHORIZED, ex.getMessage());
@@ -73,10 +87,14 @@ public class DashboardAdminGuardFilter extends OncePerRequestFilter {
     }
   }
 
-  private boolean isDashboardPath(String path) {
+  private boolean isAdminPath(String path) {
     if (path == null) return false;
-    String lower = path.toLowerCase();
+    String lower = path.toLowerCase(Locale.ROOT);
     if ("/dashboard/login".equals(lower)) return false; // public dashboard auth
+    if (lower.startsWith("/actuator/")) {
+      // metrics and the Prometheus scrape; health and info stay public
+      return !lower.startsWith("/actuator/health") && !"/actuator/info".equals(lower);
+    }
     return lower.startsWith("/dashboard");
   }
 
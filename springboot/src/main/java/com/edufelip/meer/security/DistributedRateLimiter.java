@@ -0,0 +1,95 @@
+package com.edufelip.meer.security;
+
+import com.edufelip.meer.domain.port.RateLimitLeasePort;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.TransactionException;
+
+/**
+ * One policy's cluster-wide budget: {@code capacity} requests per key per fixed {@code period}
+ * window, shared by all nodes through {@link RateLimitLeasePort}. Each node reserves tokens in
+ * chunks of {@code leaseSize} and spends them locally, so the shared store is written once per
+ * chunk rather than per request. Tokens a node leased but did not spend are lost when the window
+ * ends, so the effective limit errs on the strict side by at most {@code leaseSize - 1} per node.
+ *
+ * <p>If the store fails, the key falls back to local-only limiting for the rest of the window
+ * instead of failing requests.
+ */
+public final class DistributedRateLimiter {
+  private static final Logger log = LoggerFactory.getLogger(DistributedRateLimiter.class);
+
+  private record Lease(long window, AtomicInteger remaining, boolean exhausted) {}
+
+  private static final class LeaseHolder {
+    private volatile Lease current;
+  }
+
+  private final String policyName;
+  private final int capacity;
+  private final long periodMillis;
+  private final int leaseSize;
+  private final Clock clock;
+  private final RateLimitLeasePort leasePort;
+  private final Cache<String, LeaseHolder> holders;
+
+  public DistributedRateLimiter(
+      String policyName,
+      int capacity,
+      Duration period,
+      int leaseSize,
+      int maxKeys,
+      Clock clock,
+      RateLimitLeasePort leasePort) {
+    this.policyName = policyName;
+    this.capacity = capacity;
+    this.periodMillis = Math.max(1, period.toMillis());
+    this.leaseSize = Math.max(1, Math.min(leaseSize, capacity));
+    this.clock = clock;
+    this.leasePort = leasePort;
+    this.holders = Caffeine.newBuilder().maximumSize(maxKeys).expireAfterAccess(period).build();
+  }
+
+  /** Spends one token of {@code key}'s window, reserving a new chunk when the local one is used. */
+  public boolean tryAcquire(String key) {
+    long window = clock.millis() / periodMillis;
+    LeaseHolder holder = holders.get(key, k -> new LeaseHolder());
+    Lease lease = holder.current;
+    if (lease != null && lease.window() == window && lease.remaining().getAndDecrement() > 0) {
+      return true;
+    }
+    synchronized (holder) {
+      lease = holder.current;
+      if (lease != null && lease.window() == window) {
+        // another thread may have renewed the lease while this one waited
+        if (lease.remaining().getAndDecrement() > 0) return true;
+        if (lease.exhausted()) return false;
+      }
+      Lease renewed = reserve(key, window);
+      holder.current = renewed;
+      return renewed.remaining().getAndDecrement() > 0;
+    }
+  }
+
+  private Lease reserve(String key, long window) {
+    String bucketId = policyName + "|" + key + "|" + window;
+    Instant windowEnd = Instant.ofEpochMilli((window + 1) * periodMillis);
+    try {
+      int granted = leasePort.reserve(bucketId, windowEnd, leaseSize, capacity);
+      return new Lease(window, new AtomicInteger(granted), granted < leaseSize);
+    } catch (DataAccessException | TransactionException ex) {
+      // an unreachable database surfaces from the transactional proxy as a TransactionException
+      log.warn(
+          "Rate-limit lease for policy {} unavailable, limiting locally: {}",
+          policyName,
+          ex.getMessage());
+      return new Lease(window, new AtomicInteger(capacity), true);
+    }
+  }
+}
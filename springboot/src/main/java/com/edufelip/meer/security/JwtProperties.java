@@ -7,6 +7,7 @@ public class JwtProperties {
   private String secret = "change-me-please-change-me-please-change-me-123456789012345678901234";
   private long accessTtlMinutes = 60;
   private long refreshTtlDays = 7;
+  private long verifiedCacheSize = 10_000;
 
   public String getSecret() {
     return secret;
@@ -31,4 +32,12 @@ public class JwtProperties {
   public void setRefreshTtlDays(long refreshTtlDays) {
     this.refreshTtlDays = refreshTtlDays;
   }
+
+  public long getVerifiedCacheSize() {
+    return verifiedCacheSize;
+  }
+
+  public void setVerifiedCacheSize(long verifiedCacheSize) {
+    this.verifiedCacheSize = verifiedCacheSize;
+  }
 }
@@ -1,23 +1,30 @@
 package com.edufelip.meer.security;
 
+import com.edufelip.meer.domain.port.RateLimitPort;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.time.Clock;
-import java.time.Instant;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import org.springframework.core.Ordered;
-import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
-import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-@Component
-@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+/**
+ * Limits POSTs to the auth endpoints per guarded path and client IP. Logins, token refreshes and
+ * password resets each have their own policy ("auth-login", "auth-refresh", "auth-password-reset");
+ * the remaining paths share "auth". Registered in AppConfig.
+ *
+ * <p>The key is built only from values the client cannot vary freely: the guarded path the URI
+ * matched (not the URI itself) and a SHA-256 digest of the remote address. Neither a URI suffix nor
+ * a different {@code Authorization} header opens a fresh bucket, and the key has a fixed length, so
+ * it always fits the shared {@code rate_limit_lease} table.
+ */
 public class RateLimitFilter extends OncePerRequestFilter {
 
   private static final Set<String> GUARDED_POST_PATHS =
@@ -31,41 +38,16 @@ public class RateLimitFilter extends OncePerRequestFilter {
           "/auth/apple",
           "/dashboard/login");
 
-  private static final int WINDOW_SECONDS = 60;
-  private static final int MAX_REQUESTS = 10;
+  private static final Set<String> LOGIN_PATHS =
+      Set.of("/auth/login", "/auth/google", "/auth/apple", "/dashboard/login");
 
-  private static class Counter {
-    int count;
-    long windowStartEpochSec;
-  }
-
-  private final Map<String, Counter> counters = new ConcurrentHashMap<>();
-  private final Clock clock;
+  private static final Set<String> PASSWORD_RESET_PATHS =
+      Set.of("/auth/forgot-password", "/auth/reset-password");
 
-  public RateLimitFilter(Clock clock) {
-    this.clock = clock;
-  }
+  private final RateLimitPort rateLimitPort;
 
-  private boolean isAllowed(String key) {
-    long now = Instant.now(clock).getEpochSecond();
-    Counter c =
-        counters.computeIfAbsent(
-            key,
-            k -> {
-              Counter n = new Counter();
-              n.windowStartEpochSec = now;
-              n.count = 0;
-              return n;
-            });
-
-    synchronized (c) {
-      if (now - c.windowStartEpochSec >= WINDOW_SECONDS) {
-        c.windowStartEpochSec = now;
-        c.count = 0;
-      }
-      c.count++;
-      return c.count <= MAX_REQUESTS;
-    }
+  public RateLimitFilter(RateLimitPort rateLimitPort) {
+    this.rateLimitPort = rateLimitPort;
   }
 
   @Override
@@ -73,8 +55,7 @@ public class RateLimitFilter extends OncePerRequestFilter {
     if (!"POST".equalsIgnoreCase(request.getMethod())) {
       return true;
     }
-    String path = request.getRequestURI();
-    return GUARDED_POST_PATHS.stream().noneMatch(path::startsWith);
+    return guardedPath(request.getRequestURI()).isEmpty();
   }
 
   @Override
@@ -82,16 +63,10 @@ public class RateLimitFilter extends OncePerRequestFilter {
       HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
 
-    String path = request.getRequestURI();
-    String ip = request.getRemoteAddr();
-    String token = request.getHeader("Authorization");
+    String path = guardedPath(request.getRequestURI()).orElseThrow();
+    String key = path + "|" + clientDigest(request.getRemoteAddr());
 
-    String key = path + "|" + ip;
-    if (token != null && !token.isBlank()) {
-      key = key + "|" + token.hashCode();
-    }
-
-    if (!isAllowed(key)) {
+    if (!allow(path, key)) {
       response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
       response.getWriter().write("Too many requests. Please try again later.");
       return;
@@ -99,4 +74,36 @@ public class RateLimitFilter extends OncePerRequestFilter {
 
     filterChain.doFilter(request, response);
   }
+
+  private boolean allow(String path, String key) {
+    if (path.equals("/auth/refresh")) {
+      return rateLimitPort.allowTokenRefresh(key);
+    }
+    if (PASSWORD_RESET_PATHS.contains(path)) {
+      return rateLimitPort.allowPasswordReset(key);
+    }
+    if (LOGIN_PATHS.contains(path)) {
+      return rateLimitPort.allowLoginAttempt(key);
+    }
+    return rateLimitPort.allowAuthAttempt(key);
+  }
+
+  private static Optional<String> guardedPath(String uri) {
+    if (uri == null) {
+      return Optional.empty();
+    }
+    return GUARDED_POST_PATHS.stream().filter(uri::startsWith).findFirst();
+  }
+
+  /** Hex SHA-256 of the client address: 64 characters whatever the address looks like. */
+  static String clientDigest(String remoteAddr) {
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      byte[] hash =
+          sha256.digest((remoteAddr == null ? "" : remoteAddr).getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
 }
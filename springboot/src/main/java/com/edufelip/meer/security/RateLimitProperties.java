@@ -0,0 +1,128 @@
+package com.edufelip.meer.security;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Token-bucket policies for {@link RateLimitService}, by name. A policy allows {@code capacity}
+ * requests per {@code period} per key, refilled continuously, so a client can burst up to {@code
+ * capacity} and then continues at {@code capacity / period}. Policies missing from configuration
+ * use the defaults in {@link #defaultPolicy(String)}.
+ */
+@ConfigurationProperties(prefix = "meer.rate-limit")
+public class RateLimitProperties {
+  /** Auth POSTs without a policy of their own, e.g. signup. */
+  public static final String AUTH = "auth";
+
+  public static final String AUTH_LOGIN = "auth-login";
+  public static final String AUTH_REFRESH = "auth-refresh";
+  public static final String AUTH_PASSWORD_RESET = "auth-password-reset";
+  public static final String COMMENT_CREATE = "comment-create";
+  public static final String COMMENT_EDIT = "comment-edit";
+  public static final String CONTENT_LIKE = "content-like";
+  public static final String SUPPORT_CONTACT = "support-contact";
+
+  /** Keys tracked per policy; the least valuable are evicted beyond this. */
+  private int maxKeysPerPolicy = 100_000;
+
+  private Map<String, Policy> policies = new LinkedHashMap<>();
+
+  private Distributed distributed = new Distributed();
+
+  public int getMaxKeysPerPolicy() {
+    return maxKeysPerPolicy;
+  }
+
+  public void setMaxKeysPerPolicy(int maxKeysPerPolicy) {
+    this.maxKeysPerPolicy = maxKeysPerPolicy;
+  }
+
+  public Map<String, Policy> getPolicies() {
+    return policies;
+  }
+
+  public void setPolicies(Map<String, Policy> policies) {
+    this.policies = policies;
+  }
+
+  public Distributed getDistributed() {
+    return distributed;
+  }
+
+  public void setDistributed(Distributed distributed) {
+    this.distributed = distributed;
+  }
+
+  public Policy policy(String name) {
+    Policy configured = policies.get(name);
+    return configured != null ? configured : defaultPolicy(name);
+  }
+
+  static Policy defaultPolicy(String name) {
+    return switch (name) {
+      case AUTH -> new Policy(10, Duration.ofMinutes(1));
+      case AUTH_LOGIN -> new Policy(10, Duration.ofMinutes(1));
+      case AUTH_REFRESH -> new Policy(30, Duration.ofMinutes(1));
+      case AUTH_PASSWORD_RESET -> new Policy(5, Duration.ofMinutes(15));
+      case COMMENT_CREATE -> new Policy(10, Duration.ofMinutes(1));
+      case COMMENT_EDIT -> new Policy(20, Duration.ofMinutes(1));
+      case CONTENT_LIKE -> new Policy(60, Duration.ofMinutes(1));
+      case SUPPORT_CONTACT -> new Policy(3, Duration.ofHours(1));
+      default -> throw new IllegalArgumentException("Unknown rate limit policy: " + name);
+    };
+  }
+
+  public static class Policy {
+    private int capacity;
+    private Duration period;
+
+    public Policy() {}
+
+    public Policy(int capacity, Duration period) {
+      this.capacity = capacity;
+      this.period = period;
+    }
+
+    public int getCapacity() {
+      return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+      this.capacity = capacity;
+    }
+
+    public Duration getPeriod() {
+      return period;
+    }
+
+    public void setPeriod(Duration period) {
+      this.period = period;
+    }
+  }
+
+  /** Cluster-wide limits through {@code rate_limit_lease}, on top of the per-node buckets. */
+  public static class Distributed {
+    private boolean enabled = true;
+
+    /** Tokens a node reserves from the shared budget at a time (capped at the policy capacity). */
+    private int leaseSize = 5;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getLeaseSize() {
+      return leaseSize;
+    }
+
+    public void setLeaseSize(int leaseSize) {
+      this.leaseSize = leaseSize;
+    }
+  }
+}
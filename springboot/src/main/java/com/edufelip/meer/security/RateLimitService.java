@@ -1,50 +1,99 @@
 package com.edufelip.meer.security;
 
+import com.edufelip.meer.domain.port.RateLimitLeasePort;
 import com.edufelip.meer.domain.port.RateLimitPort;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import java.time.Duration;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.stereotype.Service;
 
+/**
+ * Every rate limit in the app, per named policy of {@link RateLimitProperties}, created on first
+ * use. A request must pass this node's {@link TokenBucketRateLimiter} (the lock-free fast path,
+ * which also absorbs bursts without touching the database) and, when {@code
+ * meer.rate-limit.distributed.enabled}, the policy's cluster-wide {@link DistributedRateLimiter}.
+ */
 @Service
 public class RateLimitService implements RateLimitPort {
 
-  private static final int COMMENT_CREATE_LIMIT = 10;
-  private static final int COMMENT_EDIT_LIMIT = 20;
-  private static final int LIKE_LIMIT = 60;
-  private static final int SUPPORT_CONTACT_LIMIT = 3;
+  private record PolicyLimiter(TokenBucketRateLimiter local, DistributedRateLimiter shared) {
+    boolean tryAcquire(String key) {
+      return local.tryAcquire(key) && (shared == null || shared.tryAcquire(key));
+    }
+  }
+
+  private final RateLimitProperties properties;
+  private final Clock clock;
+  private final RateLimitLeasePort leasePort;
+  private final Map<String, PolicyLimiter> limiters = new ConcurrentHashMap<>();
+
+  public RateLimitService(
+      RateLimitProperties properties, Clock clock, RateLimitLeasePort leasePort) {
+    this.properties = properties;
+    this.clock = clock;
+    this.leasePort = leasePort;
+  }
+
+  @Override
+  public boolean allowAuthAttempt(String clientKey) {
+    return tryAcquire(RateLimitProperties.AUTH, clientKey);
+  }
+
+  @Override
+  public boolean allowLoginAttempt(String clientKey) {
+    return tryAcquire(RateLimitProperties.AUTH_LOGIN, clientKey);
+  }
 
-  private final Cache<String, AtomicInteger> perMinuteCache =
-      Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(1)).maximumSize(100_000).build();
+  @Override
+  public boolean allowTokenRefresh(String clientKey) {
+    return tryAcquire(RateLimitProperties.AUTH_REFRESH, clientKey);
+  }
 
-  private final Cache<String, AtomicInteger> perHourCache =
-      Caffeine.newBuilder().expireAfterWrite(Duration.ofHours(1)).maximumSize(50_000).build();
+  @Override
+  public boolean allowPasswordReset(String clientKey) {
+    return tryAcquire(RateLimitProperties.AUTH_PASSWORD_RESET, clientKey);
+  }
 
   @Override
   public boolean allowCommentCreate(String userKey) {
-    return incrementWithinLimit(perMinuteCache, "comment:create:" + userKey, COMMENT_CREATE_LIMIT);
+    return tryAcquire(RateLimitProperties.COMMENT_CREATE, userKey);
   }
 
   @Override
   public boolean allowCommentEdit(String userKey) {
-    return incrementWithinLimit(perMinuteCache, "comment:edit:" + userKey, COMMENT_EDIT_LIMIT);
+    return tryAcquire(RateLimitProperties.COMMENT_EDIT, userKey);
   }
 
   @Override
   public boolean allowLikeAction(String userKey) {
-    return incrementWithinLimit(perMinuteCache, "content:like:" + userKey, LIKE_LIMIT);
+    return tryAcquire(RateLimitProperties.CONTENT_LIKE, userKey);
   }
 
   @Override
   public boolean allowSupportContact(String clientKey) {
-    return incrementWithinLimit(
-        perHourCache, "support:contact:" + clientKey, SUPPORT_CONTACT_LIMIT);
+    return tryAcquire(RateLimitProperties.SUPPORT_CONTACT, clientKey);
+  }
+
+  private boolean tryAcquire(String policyName, String key) {
+    return limiters.computeIfAbsent(policyName, this::newLimiter).tryAcquire(key);
   }
 
-  private boolean incrementWithinLimit(Cache<String, AtomicInteger> cache, String key, int limit) {
-    AtomicInteger counter = cache.get(key, k -> new AtomicInteger(0));
-    int count = counter.incrementAndGet();
-    return count <= limit;
+  private PolicyLimiter newLimiter(String policyName) {
+    RateLimitProperties.Policy policy = properties.policy(policyName);
+    int maxKeys = properties.getMaxKeysPerPolicy();
+    var local =
+        new TokenBucketRateLimiter(policy.getCapacity(), policy.getPeriod(), maxKeys, clock);
+    RateLimitProperties.Distributed distributed = properties.getDistributed();
+    if (!distributed.isEnabled() || leasePort == null) return new PolicyLimiter(local, null);
+    var shared =
+        new DistributedRateLimiter(
+            policyName,
+            policy.getCapacity(),
+            policy.getPeriod(),
+            distributed.getLeaseSize(),
+            maxKeys,
+            clock,
+            leasePort);
+    return new PolicyLimiter(local, shared);
   }
 }
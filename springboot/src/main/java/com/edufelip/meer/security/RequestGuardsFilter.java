@@ -4,6 +4,7 @@ import com.edufelip.meer.domain.repo.AuthUserRepository;
 import com.edufelip.meer.security.guards.AppHeaderGuard;
 import com.edufelip.meer.security.guards.FirebaseAuthGuard;
 import com.edufelip.meer.security.guards.GuardException;
+import com.edufelip.meer.security.guards.ScrapeTokenGuard;
 import com.edufelip.meer.security.token.TokenProvider;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,13 +15,17 @@ public class RequestGuardsFilter extends OncePerRequestFilter {
 
   private final AppHeaderGuard appHeaderGuard;
   private final FirebaseAuthGuard authGuard;
+  private final ScrapeTokenGuard scrapeTokenGuard;
 
   public RequestGuardsFilter(
       SecurityProperties securityProps,
       TokenProvider tokenProvider,
-      AuthUserRepository authUserRepository) {
+      AuthUserRepository authUserRepository,
+      AuthUserStatusCache userStatusCache) {
     this.appHeaderGuard = new AppHeaderGuard(securityProps);
-    this.authGuard = new FirebaseAuthGuard(securityProps, tokenProvider, authUserRepository);
+    this.authGuard =
+        new FirebaseAuthGuard(securityProps, tokenProvider, authUserRepository, userStatusCache);
+    this.scrapeTokenGuard = new ScrapeTokenGuard(securityProps);
   }
 
   @Override
@@ -32,6 +37,11 @@ public class RequestGuardsFilter extends OncePerRequestFilter {
       filterChain.doFilter(request, response);
       return;
     }
+    // the scraper sends neither the app header nor a user JWT
+    if (scrapeTokenGuard.matches(request)) {
+      filterChain.doFilter(request, response);
+      return;
+    }
 
     try {
       if (isPublicPath(request)) {
@@ -65,6 +75,7 @@ public class RequestGuardsFilter extends OncePerRequestFilter {
           || path.equals("/nearby")
           || path.equals("/stores")
           || path.equals("/stores/search")
+          || path.equals("/stores/suggest")
           || path.equals("/categories")) {
         return true;
       }
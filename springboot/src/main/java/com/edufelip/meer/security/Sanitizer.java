@@ -1,27 +1,72 @@
 package com.edufelip.meer.security;
 
 import java.text.Normalizer;
+import java.util.regex.Pattern;
 
 public final class Sanitizer {
 
+  private static final Pattern SCRIPT_OPEN = Pattern.compile("(?i)<\\s*script[^>]*>");
+  private static final Pattern SCRIPT_CLOSE = Pattern.compile("(?i)</\\s*script\\s*>");
+
   private Sanitizer() {}
 
   /**
    * Light-weight input sanitizer to strip control chars and basic script tags. Does not HTML-escape
    * (so stored text stays readable) but removes common XSS vectors.
+   *
+   * <p>Printable ASCII without {@code <} (almost every header and parameter) is returned trimmed
+   * after a single scan; the script-tag patterns are precompiled and only run when a {@code <} is
+   * present.
    */
   public static String sanitize(String input) {
     if (input == null) return null;
+    if (isPlain(input)) return input.trim();
 
-    String value = Normalizer.normalize(input, Normalizer.Form.NFKC).trim();
+    String value =
+        isAscii(input) ? input.trim() : Normalizer.normalize(input, Normalizer.Form.NFKC).trim();
 
     // Remove non-printable control chars except CR/LF/TAB
-    value = value.replaceAll("[\\p{Cntrl}&&[^\\r\\n\\t]]", "");
+    value = removeControlChars(value);
 
     // Strip <script> and </script> tags case-insensitively
-    value = value.replaceAll("(?i)<\\s*script[^>]*>", "");
-    value = value.replaceAll("(?i)</\\s*script\\s*>", "");
+    if (value.indexOf('<') >= 0) {
+      value = SCRIPT_OPEN.matcher(value).replaceAll("");
+      value = SCRIPT_CLOSE.matcher(value).replaceAll("");
+    }
 
     return value;
   }
+
+  /** True when sanitizing would at most trim {@code input}. */
+  private static boolean isPlain(String input) {
+    for (int i = 0, n = input.length(); i < n; i++) {
+      char c = input.charAt(i);
+      if (c > 0x7E || c == '<' || isControl(c)) return false;
+    }
+    return true;
+  }
+
+  private static boolean isAscii(String input) {
+    for (int i = 0, n = input.length(); i < n; i++) {
+      if (input.charAt(i) > 0x7F) return false;
+    }
+    return true;
+  }
+
+  private static String removeControlChars(String value) {
+    StringBuilder out = null;
+    for (int i = 0, n = value.length(); i < n; i++) {
+      char c = value.charAt(i);
+      if (isControl(c)) {
+        if (out == null) out = new StringBuilder(n).append(value, 0, i);
+      } else if (out != null) {
+        out.append(c);
+      }
+    }
+    return out != null ? out.toString() : value;
+  }
+
+  private static boolean isControl(char c) {
+    return (c < 0x20 && c != '\r' && c != '\n' && c != '\t') || c == 0x7F;
+  }
 }
@@ -2,9 +2,15 @@ package com.edufelip.meer.security;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
+import java.util.HashMap;
+import java.util.Map;
 
 public class SanitizingHttpServletRequestWrapper extends HttpServletRequestWrapper {
 
+  // Guards, the rate limiter, logging and controllers all read the same few headers; sanitize each
+  // once per request. Headers are immutable for the request's lifetime.
+  private final Map<String, String> sanitizedHeaders = new HashMap<>();
+
   public SanitizingHttpServletRequestWrapper(HttpServletRequest request) {
     super(request);
   }
@@ -27,6 +33,10 @@ public class SanitizingHttpServletRequestWrapper extends HttpServletRequestWrapp
 
   @Override
   public String getHeader(String name) {
-    return Sanitizer.sanitize(super.getHeader(name));
+    String cached = sanitizedHeaders.get(name);
+    if (cached != null || sanitizedHeaders.containsKey(name)) return cached;
+    String sanitized = Sanitizer.sanitize(super.getHeader(name));
+    sanitizedHeaders.put(name, sanitized);
+    return sanitized;
   }
 }
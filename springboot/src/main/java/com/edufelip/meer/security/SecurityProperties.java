@@ -8,6 +8,9 @@ public class SecurityProperties {
   private boolean disableAuth = false;
   private String appPackage = "com.edufelip.meer";
 
+  /** Static bearer token for the Prometheus scrape; blank keeps the scrape admin-only. */
+  private String metricsScrapeToken;
+
   public boolean isRequireAppHeader() {
     return requireAppHeader;
   }
@@ -31,4 +34,12 @@ public class SecurityProperties {
   public void setAppPackage(String appPackage) {
     this.appPackage = appPackage;
   }
+
+  public String getMetricsScrapeToken() {
+    return metricsScrapeToken;
+  }
+
+  public void setMetricsScrapeToken(String metricsScrapeToken) {
+    this.metricsScrapeToken = metricsScrapeToken;
+  }
 }
@@ -0,0 +1,61 @@
+package com.edufelip.meer.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket per key, kept as a single "theoretical arrival time" (the GCRA form of a token
+ * bucket): each allowed request pushes it forward by {@code period / capacity}, and a request is
+ * refused when that would put it more than {@code period} ahead of now. Updating a bucket is one
+ * compare-and-set, with no lock and no shared counter; refused requests do not consume tokens.
+ *
+ * <p>Buckets live in a Caffeine cache bounded by {@code maxKeys}. An entry is dropped after {@code
+ * period} without requests, at which point its bucket would be full again anyway.
+ */
+public final class TokenBucketRateLimiter {
+  private final Clock clock;
+  private final long emissionIntervalNanos;
+  private final long burstNanos;
+  private final Cache<String, AtomicLong> buckets;
+
+  public TokenBucketRateLimiter(int capacity, Duration period, int maxKeys, Clock clock) {
+    if (capacity < 1) throw new IllegalArgumentException("capacity must be at least 1");
+    if (period == null || period.isNegative() || period.isZero()) {
+      throw new IllegalArgumentException("period must be positive");
+    }
+    this.clock = clock;
+    this.emissionIntervalNanos = Math.max(1, period.toNanos() / capacity);
+    this.burstNanos = emissionIntervalNanos * capacity;
+    this.buckets =
+        Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterAccess(period.toNanos(), TimeUnit.NANOSECONDS)
+            .build();
+  }
+
+  /** Takes one token from {@code key}'s bucket; false (and nothing taken) if it is empty. */
+  public boolean tryAcquire(String key) {
+    long now = nanos(clock.instant());
+    AtomicLong arrival = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+    while (true) {
+      long current = arrival.get();
+      long next = Math.max(current, now) + emissionIntervalNanos;
+      if (next - now > burstNanos) return false;
+      if (arrival.compareAndSet(current, next)) return true;
+    }
+  }
+
+  long trackedKeys() {
+    buckets.cleanUp();
+    return buckets.estimatedSize();
+  }
+
+  private static long nanos(Instant instant) {
+    return TimeUnit.SECONDS.toNanos(instant.getEpochSecond()) + instant.getNano();
+  }
+}
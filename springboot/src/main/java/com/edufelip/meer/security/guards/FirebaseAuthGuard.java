@@ -1,8 +1,9 @@
 package com.edufelip.meer.security.guards;
 
 import com.edufelip.meer.domain.repo.AuthUserRepository;
+import com.edufelip.meer.security.AuthPrincipal;
+import com.edufelip.meer.security.AuthUserStatusCache;
 import com.edufelip.meer.security.SecurityProperties;
-import com.edufelip.meer.security.token.TokenPayload;
 import com.edufelip.meer.security.token.TokenProvider;
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -11,14 +12,17 @@ public class FirebaseAuthGuard {
   private final SecurityProperties props;
   private final TokenProvider tokenProvider;
   private final AuthUserRepository authUserRepository;
+  private final AuthUserStatusCache userStatusCache;
 
   public FirebaseAuthGuard(
       SecurityProperties props,
       TokenProvider tokenProvider,
-      AuthUserRepository authUserRepository) {
+      AuthUserRepository authUserRepository,
+      AuthUserStatusCache userStatusCache) {
     this.props = props;
     this.tokenProvider = tokenProvider;
     this.authUserRepository = authUserRepository;
+    this.userStatusCache = userStatusCache;
   }
 
   public void validate(HttpServletRequest request) {
@@ -32,8 +36,10 @@ public class FirebaseAuthGuard {
       throw new GuardException("Missing or invalid " + AUTH_HEADER + " header");
     }
     try {
-      TokenPayload payload = tokenProvider.parseAccessToken(token);
-      if (authUserRepository.findById(payload.getUserId()).isEmpty()) {
+      AuthPrincipal principal =
+          AuthPrincipal.resolve(request, token, tokenProvider, authUserRepository);
+      // only existence matters here; the entity is loaded later if a controller needs it
+      if (userStatusCache.get(principal.payload().getUserId()).isEmpty()) {
         throw new GuardException("User not found");
       }
     } catch (GuardException ex) {
@@ -0,0 +1,35 @@
+package com.edufelip.meer.security.guards;
+
+import com.edufelip.meer.security.SecurityProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Recognizes the Prometheus scraper: a GET of {@value #SCRAPE_PATH} carrying the static bearer
+ * token in {@code security.metricsScrapeToken}. The token opens that one path only; with no token
+ * configured the scrape needs an admin JWT like the other actuator endpoints.
+ */
+public class ScrapeTokenGuard {
+  public static final String SCRAPE_PATH = "/actuator/prometheus";
+  private static final String BEARER = "Bearer ";
+
+  private final SecurityProperties props;
+
+  public ScrapeTokenGuard(SecurityProperties props) {
+    this.props = props;
+  }
+
+  public boolean matches(HttpServletRequest request) {
+    String expected = props.getMetricsScrapeToken();
+    if (expected == null || expected.isBlank()) return false;
+    if (!"GET".equalsIgnoreCase(request.getMethod())) return false;
+    // exact match: actuator paths are case-sensitive, and lowercasing would follow the locale
+    if (!SCRAPE_PATH.equals(request.getServletPath())) return false;
+    String header = request.getHeader(FirebaseAuthGuard.AUTH_HEADER);
+    if (header == null || !header.startsWith(BEARER)) return false;
+    String presented = header.substring(BEARER.length()).trim();
+    return MessageDigest.isEqual(
+        expected.getBytes(StandardCharsets.UTF_8), presented.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -3,28 +3,71 @@ package com.edufelip.meer.security.token;
 import com.edufelip.meer.core.auth.AuthUser;
 import com.edufelip.meer.core.auth.Role;
 import com.edufelip.meer.security.JwtProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.UUID;
 
+/**
+ * HS256 access/refresh tokens. Verified access tokens are cached by SHA-256 digest until their
+ * {@code exp}, so a client reusing its token for the whole access TTL pays for signature checking
+ * and claims decoding once; the cache never outlives a token, since every hit re-checks {@code exp}
+ * against the provider's clock.
+ */
 public class JwtTokenProvider implements TokenProvider {
+  private record VerifiedToken(TokenPayload payload, Instant expiresAt) {}
+
   private final JwtProperties props;
   private final Key key;
   private final Clock clock;
-  private final io.jsonwebtoken.Clock jjwtClock;
+  private final JwtParser parser;
+  private final Cache<String, VerifiedToken> verifiedAccessTokens;
 
   public JwtTokenProvider(JwtProperties props, Clock clock) {
     this.props = props;
     this.clock = clock;
     this.key = buildKey(props.getSecret());
-    this.jjwtClock = () -> Date.from(Instant.now(clock));
+    io.jsonwebtoken.Clock jjwtClock = () -> Date.from(Instant.now(clock));
+    this.parser = Jwts.parserBuilder().setSigningKey(key).setClock(jjwtClock).build();
+    this.verifiedAccessTokens =
+        Caffeine.newBuilder()
+            .maximumSize(Math.max(0, props.getVerifiedCacheSize()))
+            .expireAfter(
+                new Expiry<String, VerifiedToken>() {
+                  @Override
+                  public long expireAfterCreate(String digest, VerifiedToken token, long now) {
+                    Duration left = Duration.between(Instant.now(clock), token.expiresAt());
+                    return Math.max(0, left.toNanos());
+                  }
+
+                  @Override
+                  public long expireAfterUpdate(
+                      String digest, VerifiedToken token, long now, long current) {
+                    return current;
+                  }
+
+                  @Override
+                  public long expireAfterRead(
+                      String digest, VerifiedToken token, long now, long current) {
+                    return current;
+                  }
+                })
+            .build();
   }
 
   @Override
@@ -60,25 +103,21 @@ public class JwtTokenProvider implements TokenProvider {
 
   @Override
   public TokenPayload parseAccessToken(String token) {
+    if (token == null || token.isEmpty()) throw new InvalidTokenException();
+    String digest = digest(token);
+    VerifiedToken cached = verifiedAccessTokens.getIfPresent(digest);
+    if (cached != null) {
+      if (Instant.now(clock).isBefore(cached.expiresAt())) return cached.payload();
+      verifiedAccessTokens.invalidate(digest);
+    }
     try {
-      var claims =
-          Jwts.parserBuilder()
-              .setSigningKey(key)
-              .setClock(jjwtClock)
-              .build()
-              .parseClaimsJws(token)
-              .getBody();
-      UUID userId = UUID.fromString(claims.getSubject());
-      Role role = Role.USER;
-      Object roleClaim = claims.get("role");
-      if (roleClaim instanceof String s) {
-        try {
-          role = Role.valueOf(s);
-        } catch (IllegalArgumentException ignored) {
-        }
+      var claims = parser.parseClaimsJws(token).getBody();
+      TokenPayload payload = toPayload(claims);
+      if (claims.getExpiration() != null) {
+        verifiedAccessTokens.put(
+            digest, new VerifiedToken(payload, claims.getExpiration().toInstant()));
       }
-      return new TokenPayload(
-          userId, (String) claims.get("email"), (String) claims.get("name"), role);
+      return payload;
     } catch (JwtException | IllegalArgumentException ex) {
       throw new InvalidTokenException();
     }
@@ -87,30 +126,38 @@ public class JwtTokenProvider implements TokenProvider {
   @Override
   public TokenPayload parseRefreshToken(String token) {
     try {
-      var claims =
-          Jwts.parserBuilder()
-              .setSigningKey(key)
-              .setClock(jjwtClock)
-              .build()
-              .parseClaimsJws(token)
-              .getBody();
+      var claims = parser.parseClaimsJws(token).getBody();
       if (!"refresh".equals(claims.get("type"))) throw new InvalidRefreshTokenException();
-      UUID userId = UUID.fromString(claims.getSubject());
-      Role role = Role.USER;
-      Object roleClaim = claims.get("role");
-      if (roleClaim instanceof String s) {
-        try {
-          role = Role.valueOf(s);
-        } catch (IllegalArgumentException ignored) {
-        }
-      }
-      return new TokenPayload(
-          userId, (String) claims.get("email"), (String) claims.get("name"), role);
+      return toPayload(claims);
     } catch (JwtException | IllegalArgumentException ex) {
       throw new InvalidRefreshTokenException();
     }
   }
 
+  private static TokenPayload toPayload(Claims claims) {
+    UUID userId = UUID.fromString(claims.getSubject());
+    Role role = Role.USER;
+    Object roleClaim = claims.get("role");
+    if (roleClaim instanceof String s) {
+      try {
+        role = Role.valueOf(s);
+      } catch (IllegalArgumentException ignored) {
+      }
+    }
+    return new TokenPayload(
+        userId, (String) claims.get("email"), (String) claims.get("name"), role);
+  }
+
+  private static String digest(String token) {
+    try {
+      byte[] hash =
+          MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(hash);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 not available", ex);
+    }
+  }
+
   private Key buildKey(String secret) {
     byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
     if (bytes.length * 8 < 256) {
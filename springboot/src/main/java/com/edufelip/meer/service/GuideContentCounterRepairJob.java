@@ -0,0 +1,56 @@
+package com.edufelip.meer.service;
+
+import com.edufelip.meer.domain.repo.GuideContentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Walks {@code guide_content} in id order, a batch at a time, and fixes {@code like_count} / {@code
+ * comment_count} values that drifted from the like and comment tables.
+ */
+@Service
+public class GuideContentCounterRepairJob {
+  private static final Logger log = LoggerFactory.getLogger(GuideContentCounterRepairJob.class);
+
+  private final GuideContentRepository guideContentRepository;
+  private final boolean enabled;
+  private final int batchSize;
+
+  public GuideContentCounterRepairJob(
+      GuideContentRepository guideContentRepository,
+      @Value("${meer.content-counters.repair.enabled:true}") boolean enabled,
+      @Value("${meer.content-counters.repair.batch-size:500}") int batchSize) {
+    this.guideContentRepository = guideContentRepository;
+    this.enabled = enabled;
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  @Scheduled(
+      fixedDelayString = "${meer.content-counters.repair.delay-ms:3600000}",
+      initialDelayString = "${meer.content-counters.repair.initial-delay-ms:120000}")
+  public void repair() {
+    if (!enabled) return;
+    int repaired = 0;
+    Integer afterId = 0;
+    try {
+      while (true) {
+        var ids = guideContentRepository.findIdsAfter(afterId, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) break;
+        Integer lastId = ids.get(ids.size() - 1);
+        repaired += guideContentRepository.repairCounters(ids.get(0), lastId);
+        if (ids.size() < batchSize) break;
+        afterId = lastId;
+      }
+    } catch (DataAccessException ex) {
+      log.warn("Guide content counter repair stopped after id={}: {}", afterId, ex.getMessage());
+    }
+    if (repaired > 0) {
+      log.warn("Repaired drifted like/comment counters on {} guide contents", repaired);
+    }
+  }
+}
@@ -1,58 +1,107 @@
 package com.edufelip.meer.service;
 
-import com.edufelip.meer.domain.repo.GuideContentCommentRepository;
+import com.edufelip.meer.core.content.GuideContent;
+import com.edufelip.meer.domain.GuideContentSummary;
 import com.edufelip.meer.domain.repo.GuideContentLikeRepository;
+import com.edufelip.meer.domain.repo.GuideContentRepository;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import org.springframework.stereotype.Service;
 
+/**
+ * Like/comment counts come from the {@code like_count}/{@code comment_count} counters already
+ * loaded with the content (entity or summary projection); only {@code likedByMe} needs a query, and
+ * only for authenticated callers.
+ */
 @Service
 public class GuideContentEngagementService {
 
   public record EngagementSummary(long likeCount, long commentCount, boolean likedByMe) {}
 
+  private final GuideContentRepository guideContentRepository;
   private final GuideContentLikeRepository guideContentLikeRepository;
-  private final GuideContentCommentRepository guideContentCommentRepository;
 
   public GuideContentEngagementService(
-      GuideContentLikeRepository guideContentLikeRepository,
-      GuideContentCommentRepository guideContentCommentRepository) {
+      GuideContentRepository guideContentRepository,
+      GuideContentLikeRepository guideContentLikeRepository) {
+    this.guideContentRepository = guideContentRepository;
     this.guideContentLikeRepository = guideContentLikeRepository;
-    this.guideContentCommentRepository = guideContentCommentRepository;
   }
 
-  public Map<Integer, EngagementSummary> getEngagement(List<Integer> contentIds, UUID userId) {
+  /**
+   * For contents whose loaded counters may be stale (e.g. cached entities): reads the live counters
+   * of all ids in a single query.
+   */
+  public Map<Integer, EngagementSummary> getEngagementByIds(List<Integer> contentIds, UUID userId) {
     Map<Integer, EngagementSummary> result = new HashMap<>();
     if (contentIds == null || contentIds.isEmpty()) return result;
-
-    Map<Integer, Long> likeCounts = new HashMap<>();
-    for (GuideContentLikeRepository.CountView view :
-        guideContentLikeRepository.countByContentIds(contentIds)) {
-      likeCounts.put(view.getContentId(), view.getCnt());
+    Set<Integer> likedIds = findLikedIds(contentIds, userId);
+    for (GuideContentRepository.CounterView view :
+        guideContentRepository.findCountersByIds(contentIds)) {
+      result.put(
+          view.getId(),
+          new EngagementSummary(
+              orZero(view.getLikeCount()),
+              orZero(view.getCommentCount()),
+              likedIds.contains(view.getId())));
     }
+    return result;
+  }
 
-    Map<Integer, Long> commentCounts = new HashMap<>();
-    for (GuideContentCommentRepository.CountView view :
-        guideContentCommentRepository.countByContentIds(contentIds)) {
-      commentCounts.put(view.getContentId(), view.getCnt());
+  public Map<Integer, EngagementSummary> getEngagement(
+      Collection<GuideContent> contents, UUID userId) {
+    Map<Integer, EngagementSummary> result = new HashMap<>();
+    if (contents == null || contents.isEmpty()) return result;
+    Set<Integer> likedIds =
+        findLikedIds(
+            contents.stream().filter(Objects::nonNull).map(GuideContent::getId).toList(), userId);
+    for (GuideContent content : contents) {
+      if (content == null || content.getId() == null) continue;
+      result.put(
+          content.getId(),
+          new EngagementSummary(
+              orZero(content.getLikeCount()),
+              orZero(content.getCommentCount()),
+              likedIds.contains(content.getId())));
     }
+    return result;
+  }
 
-    Set<Integer> likedIds = new HashSet<>();
-    if (userId != null) {
-      likedIds.addAll(guideContentLikeRepository.findLikedContentIds(userId, contentIds));
+  public Map<Integer, EngagementSummary> getSummaryEngagement(
+      Collection<GuideContentSummary> summaries, UUID userId) {
+    Map<Integer, EngagementSummary> result = new HashMap<>();
+    if (summaries == null || summaries.isEmpty()) return result;
+    Set<Integer> likedIds =
+        findLikedIds(
+            summaries.stream().filter(Objects::nonNull).map(GuideContentSummary::id).toList(),
+            userId);
+    for (GuideContentSummary summary : summaries) {
+      if (summary == null || summary.id() == null) continue;
+      result.put(
+          summary.id(),
+          new EngagementSummary(
+              orZero(summary.likeCount()),
+              orZero(summary.commentCount()),
+              likedIds.contains(summary.id())));
     }
+    return result;
+  }
 
-    for (Integer contentId : contentIds) {
-      long likes = likeCounts.getOrDefault(contentId, 0L);
-      long comments = commentCounts.getOrDefault(contentId, 0L);
-      boolean likedByMe = userId != null && likedIds.contains(contentId);
-      result.put(contentId, new EngagementSummary(likes, comments, likedByMe));
-    }
+  /** Ids among {@code contentIds} liked by {@code userId}; empty for anonymous callers. */
+  public Set<Integer> findLikedIds(List<Integer> contentIds, UUID userId) {
+    if (userId == null) return Set.of();
+    List<Integer> ids = contentIds.stream().filter(Objects::nonNull).toList();
+    if (ids.isEmpty()) return Set.of();
+    return new HashSet<>(guideContentLikeRepository.findLikedContentIds(userId, ids));
+  }
 
-    return result;
+  private static long orZero(Long value) {
+    return value != null ? value : 0L;
   }
 }
@@ -32,7 +32,9 @@ public class GuideContentModerationService {
   }
 
   @Transactional
-  @CacheEvict(cacheNames = "guideTop10", allEntries = true)
+  @CacheEvict(
+      cacheNames = {"guideTop10", "homeFeed"},
+      allEntries = true)
   public GuideContent softDeleteContent(GuideContent content, AuthUser actor, String reason) {
     if (content.getDeletedAt() == null) {
       content.setDeletedAt(Instant.now(clock));
@@ -53,7 +55,9 @@ public class GuideContentModerationService {
   }
 
   @Transactional
-  @CacheEvict(cacheNames = "guideTop10", allEntries = true)
+  @CacheEvict(
+      cacheNames = {"guideTop10", "homeFeed"},
+      allEntries = true)
   public GuideContent restoreContent(GuideContent content) {
     if (content.getDeletedAt() != null) {
       content.setDeletedAt(null);
@@ -0,0 +1,238 @@
+package com.edufelip.meer.service;
+
+import com.edufelip.meer.core.auth.AuthUser;
+import com.edufelip.meer.core.store.ThriftStore;
+import com.edufelip.meer.domain.GetThriftStoresUseCase;
+import com.edufelip.meer.domain.repo.GuideContentRepository;
+import com.edufelip.meer.domain.repo.ThriftStoreRepository;
+import com.edufelip.meer.dto.FeaturedStoreDto;
+import com.edufelip.meer.dto.GuideContentDto;
+import com.edufelip.meer.dto.HomeResponse;
+import com.edufelip.meer.dto.NearbyStoreDto;
+import com.edufelip.meer.mapper.Mappers;
+import com.edufelip.meer.service.GuideContentEngagementService.EngagementSummary;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Assembles {@code GET /home} in three parts:
+ *
+ * <ul>
+ *   <li>The featured and content sections are the same for everyone. They are built once into a
+ *       {@link Snapshot} held in the {@value #CACHE_NAME} cache, rebuilt ahead of expiry by {@link
+ *       #refresh()} and evicted by the store/content writes that already evict {@code
+ *       featuredTop10}/{@code guideTop10}. A cold cache is filled by a single loader per key.
+ *   <li>The nearby section depends only on the coordinates; it runs on {@code homeFeedExecutor}
+ *       while the request thread reads the snapshot and the caller's likes. Concurrent requests
+ *       whose coordinates round to the same 1/{@value #NEARBY_STEPS_PER_DEGREE} degree cell share
+ *       one computation; each caller then gets distances from its own position, in that order.
+ *   <li>Live values are overlaid last on copies of the shared DTOs: the content like/comment
+ *       counters and {@code likedByMe} in one by-ids read, and the caller's favorite stores.
+ * </ul>
+ */
+@Service
+public class HomeFeedService {
+  private static final Logger log = LoggerFactory.getLogger(HomeFeedService.class);
+
+  public static final String CACHE_NAME = "homeFeed";
+  private static final String SNAPSHOT_KEY = "snapshot";
+  private static final int SECTION_SIZE = 10;
+
+  /** Nearby grid resolution: 1000 steps per degree is roughly 110 m of latitude. */
+  static final int NEARBY_STEPS_PER_DEGREE = 1000;
+
+  /** The non-personalized sections; content DTOs carry {@code likedByMe=false}. */
+  public record Snapshot(List<FeaturedStoreDto> featured, List<GuideContentDto> content) {}
+
+  private record NearbyKey(long latStep, long lngStep) {
+    static NearbyKey of(double lat, double lng) {
+      return new NearbyKey(
+          Math.round(lat * NEARBY_STEPS_PER_DEGREE), Math.round(lng * NEARBY_STEPS_PER_DEGREE));
+    }
+
+    double lat() {
+      return latStep / (double) NEARBY_STEPS_PER_DEGREE;
+    }
+
+    double lng() {
+      return lngStep / (double) NEARBY_STEPS_PER_DEGREE;
+    }
+  }
+
+  private final GetThriftStoresUseCase getThriftStoresUseCase;
+  private final ThriftStoreRepository thriftStoreRepository;
+  private final GuideContentRepository guideContentRepository;
+  private final StoreFeedbackService storeFeedbackService;
+  private final GuideContentEngagementService guideContentEngagementService;
+  private final Cache cache;
+  private final TransactionTemplate readOnlyTransaction;
+  private final Executor executor;
+  private final boolean precomputeEnabled;
+  private final ConcurrentHashMap<NearbyKey, CompletableFuture<List<NearbyStoreDto>>>
+      nearbyInFlight = new ConcurrentHashMap<>();
+
+  public HomeFeedService(
+      GetThriftStoresUseCase getThriftStoresUseCase,
+      ThriftStoreRepository thriftStoreRepository,
+      GuideContentRepository guideContentRepository,
+      StoreFeedbackService storeFeedbackService,
+      GuideContentEngagementService guideContentEngagementService,
+      CacheManager cacheManager,
+      PlatformTransactionManager transactionManager,
+      @Qualifier("homeFeedExecutor") Executor executor,
+      @Value("${meer.home-feed.precompute.enabled:true}") boolean precomputeEnabled) {
+    this.getThriftStoresUseCase = getThriftStoresUseCase;
+    this.thriftStoreRepository = thriftStoreRepository;
+    this.guideContentRepository = guideContentRepository;
+    this.storeFeedbackService = storeFeedbackService;
+    this.guideContentEngagementService = guideContentEngagementService;
+    this.cache = cacheManager.getCache(CACHE_NAME);
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.executor = executor;
+    this.precomputeEnabled = precomputeEnabled;
+  }
+
+  public HomeResponse assemble(double lat, double lng, AuthUser user) {
+    CompletableFuture<List<NearbyStoreDto>> nearby = nearby(lat, lng);
+
+    Snapshot snapshot = snapshot();
+    // the snapshot lives up to a minute and likes/comments do not evict it, so the counters are
+    // read live next to likedByMe and stay consistent with it
+    Map<Integer, EngagementSummary> engagement =
+        guideContentEngagementService.getEngagementByIds(
+            snapshot.content().stream().map(GuideContentDto::id).toList(),
+            user != null ? user.getId() : null);
+    List<GuideContentDto> content =
+        snapshot.content().stream()
+            .map(
+                dto -> {
+                  EngagementSummary live = engagement.get(dto.id());
+                  return live == null
+                      ? dto
+                      : Mappers.withCounts(
+                          dto, live.likeCount(), live.commentCount(), live.likedByMe());
+                })
+            .toList();
+
+    // the shared list is ordered from the cell origin; order it from the caller's position
+    List<NearbyStoreDto> nearbyDtos =
+        await(nearby).stream()
+            .map(dto -> Mappers.withOrigin(dto, lat, lng))
+            .sorted(
+                Comparator.comparing(
+                    NearbyStoreDto::distanceMeters,
+                    Comparator.nullsLast(Comparator.naturalOrder())))
+            .map(
+                dto ->
+                    user == null
+                        ? dto
+                        : Mappers.withFavorite(dto, Mappers.isFavorite(user, dto.id())))
+            .toList();
+
+    return new HomeResponse(snapshot.featured(), nearbyDtos, content);
+  }
+
+  /** Rebuilds the shared sections before the cached snapshot expires. */
+  @Scheduled(
+      fixedDelayString = "${meer.home-feed.refresh-ms:60000}",
+      initialDelayString = "${meer.home-feed.initial-delay-ms:5000}")
+  public void refresh() {
+    if (!precomputeEnabled || cache == null) return;
+    try {
+      cache.put(SNAPSHOT_KEY, buildSnapshot());
+    } catch (DataAccessException ex) {
+      // requests keep the previous snapshot until it expires, then load it themselves
+      log.warn("Home feed refresh failed: {}", ex.getMessage());
+    }
+  }
+
+  private Snapshot snapshot() {
+    if (cache == null) return buildSnapshot();
+    return cache.get(SNAPSHOT_KEY, this::buildSnapshot);
+  }
+
+  private Snapshot buildSnapshot() {
+    return readOnlyTransaction.execute(
+        status -> {
+          var featured =
+              thriftStoreRepository.findTop10ByOrderByCreatedAtDesc().stream()
+                  .map(FeaturedStoreDto::new)
+                  .toList();
+          var sort =
+              Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+          var content =
+              guideContentRepository
+                  .findAllSummariesActive(PageRequest.of(0, SECTION_SIZE, sort))
+                  .getContent()
+                  .stream()
+                  .map(Mappers::toDto)
+                  .toList();
+          return new Snapshot(featured, content);
+        });
+  }
+
+  private CompletableFuture<List<NearbyStoreDto>> nearby(double lat, double lng) {
+    NearbyKey key = NearbyKey.of(lat, lng);
+    CompletableFuture<List<NearbyStoreDto>> flight = new CompletableFuture<>();
+    CompletableFuture<List<NearbyStoreDto>> existing = nearbyInFlight.putIfAbsent(key, flight);
+    if (existing != null) return existing;
+    // computed from the cell's origin so the shared result does not depend on who asked first
+    CompletableFuture.supplyAsync(() -> computeNearby(key.lat(), key.lng()), executor)
+        .whenComplete(
+            (result, error) -> {
+              nearbyInFlight.remove(key, flight);
+              if (error != null) flight.completeExceptionally(error);
+              else flight.complete(result);
+            });
+    return flight;
+  }
+
+  private List<NearbyStoreDto> computeNearby(double lat, double lng) {
+    return readOnlyTransaction.execute(
+        status -> {
+          List<ThriftStore> stores =
+              getThriftStoresUseCase.executeNearby(lat, lng, 0, SECTION_SIZE).getContent();
+          var summaries = storeFeedbackService.getSummaries(stores);
+          return stores.stream()
+              .map(
+                  store -> {
+                    var summary = summaries.get(store.getId());
+                    Double rating = summary != null ? summary.rating() : null;
+                    Integer reviewCount =
+                        summary != null && summary.reviewCount() != null
+                            ? summary.reviewCount().intValue()
+                            : null;
+                    return new NearbyStoreDto(store, lat, lng, false, rating, reviewCount);
+                  })
+              .toList();
+        });
+  }
+
+  private static <T> T await(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) throw cause;
+      throw ex;
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.edufelip.meer.service;
+
+import com.edufelip.meer.domain.port.RateLimitLeasePort;
+import com.edufelip.meer.domain.repo.RateLimitLeaseRepository;
+import com.edufelip.meer.security.RateLimitProperties;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Postgres-backed token budget shared by all nodes: one {@code rate_limit_lease} row per policy,
+ * key and window. Nodes reserve tokens in chunks ({@code meer.rate-limit.distributed.lease-size})
+ * and spend them locally, so the table sees one write per chunk rather than per request. On
+ * Postgres a chunk is a single {@code insert ... on conflict do update ... returning} round trip;
+ * other databases (H2 in tests) take the portable insert, update and read.
+ */
+@Service
+public class RateLimitLeaseService implements RateLimitLeasePort {
+  private static final Logger log = LoggerFactory.getLogger(RateLimitLeaseService.class);
+  // nodes whose clock lags still reserve from a window that just ended; keep it a little longer
+  private static final Duration PURGE_GRACE = Duration.ofMinutes(5);
+
+  private final RateLimitLeaseRepository repository;
+  private final Clock clock;
+  private final RateLimitProperties properties;
+  private final boolean postgres;
+
+  public RateLimitLeaseService(
+      RateLimitLeaseRepository repository,
+      Clock clock,
+      RateLimitProperties properties,
+      @Value("${spring.datasource.url:}") String datasourceUrl) {
+    this.repository = repository;
+    this.clock = clock;
+    this.properties = properties;
+    this.postgres = datasourceUrl != null && datasourceUrl.contains("postgresql");
+  }
+
+  @Override
+  @Transactional
+  public int reserve(String bucketId, Instant windowEnd, int requested, int capacity) {
+    if (postgres) {
+      return repository.upsertGrant(bucketId, windowEnd, requested, capacity);
+    }
+    repository.insertIfAbsent(bucketId, windowEnd);
+    // the update locks the row, so the read below sees this transaction's grant
+    repository.grant(bucketId, requested, capacity);
+    return repository.findLastGrant(bucketId);
+  }
+
+  /** Drops the rows of windows that have ended. */
+  @Scheduled(
+      fixedDelayString = "${meer.rate-limit.distributed.purge-ms:600000}",
+      initialDelayString = "${meer.rate-limit.distributed.purge-ms:600000}")
+  @Transactional
+  public void purgeEndedWindows() {
+    if (!properties.getDistributed().isEnabled()) return;
+    try {
+      int deleted = repository.deleteEndedBefore(clock.instant().minus(PURGE_GRACE));
+      if (deleted > 0) log.debug("Purged {} ended rate-limit windows", deleted);
+    } catch (DataAccessException ex) {
+      log.warn("Rate-limit lease purge failed: {}", ex.getMessage());
+    }
+  }
+}
@@ -4,16 +4,18 @@ import com.edufelip.meer.core.auth.AuthUser;
 import com.edufelip.meer.core.store.StoreFeedback;
 import com.edufelip.meer.core.store.ThriftStore;
 import com.edufelip.meer.domain.repo.StoreFeedbackRepository;
+import com.edufelip.meer.domain.repo.ThriftStoreRepository;
 import java.time.Clock;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class StoreFeedbackService {
@@ -21,33 +23,42 @@ public class StoreFeedbackService {
   public record Summary(Double rating, Long reviewCount) {}
 
   private final StoreFeedbackRepository repository;
+  private final ThriftStoreRepository thriftStoreRepository;
   private final Clock clock;
 
-  public StoreFeedbackService(StoreFeedbackRepository repository, Clock clock) {
+  public StoreFeedbackService(
+      StoreFeedbackRepository repository,
+      ThriftStoreRepository thriftStoreRepository,
+      Clock clock) {
     this.repository = repository;
+    this.thriftStoreRepository = thriftStoreRepository;
     this.clock = clock;
   }
 
-  @Cacheable(
-      value = "storeRatings",
-      key = "#storeIds",
-      unless = "#storeIds == null || #storeIds.isEmpty() || #storeIds.size() > 50")
-  public Map<UUID, Summary> getSummaries(List<UUID> storeIds) {
-    if (storeIds == null || storeIds.isEmpty()) return Map.of();
-    var aggregates = repository.aggregateByStoreIds(storeIds);
+  /** Reads the rating totals kept on each store row; stores without scored feedback are omitted. */
+  public Map<UUID, Summary> getSummaries(Collection<ThriftStore> stores) {
+    if (stores == null || stores.isEmpty()) return Map.of();
     Map<UUID, Summary> map = new HashMap<>();
-    for (StoreFeedbackRepository.AggregateView view : aggregates) {
-      map.put(view.getStoreId(), new Summary(view.getAvgScore(), view.getCnt()));
+    for (ThriftStore store : stores) {
+      if (store == null || store.getId() == null) continue;
+      long count = store.getRatingCount() != null ? store.getRatingCount() : 0;
+      long sum = store.getRatingSum() != null ? store.getRatingSum() : 0;
+      if (count > 0) {
+        map.put(store.getId(), new Summary((double) sum / count, count));
+      }
     }
     return map;
   }
 
-  @CacheEvict(cacheNames = "storeRatings", allEntries = true)
+  // the cached featured stores are entities carrying the rating totals this write changes
+  @Transactional
+  @CacheEvict(cacheNames = "featuredTop10", allEntries = true)
   public StoreFeedback upsert(AuthUser user, ThriftStore store, Integer score, String body) {
     if (score != null && (score < 1 || score > 5)) {
       throw new IllegalArgumentException("score must be between 1 and 5");
     }
     var existing = repository.findByUserIdAndThriftStoreId(user.getId(), store.getId());
+    Integer previousScore = existing.map(StoreFeedback::getScore).orElse(null);
     StoreFeedback fb = existing.orElseGet(() -> new StoreFeedback(user, store, null, null));
     Instant now = Instant.now(clock);
     fb.setScore(score);
@@ -56,16 +67,31 @@ public class StoreFeedbackService {
     fb.setThriftStore(store);
     fb.setCreatedAt(now);
     fb.setUpdatedAt(now);
-    return repository.save(fb);
+    var saved = repository.save(fb);
+    adjustRatingTotals(store.getId(), previousScore, score);
+    return saved;
   }
 
-  @CacheEvict(cacheNames = "storeRatings", allEntries = true)
   public Optional<StoreFeedback> find(UUID userId, UUID storeId) {
     return repository.findByUserIdAndThriftStoreId(userId, storeId);
   }
 
-  @CacheEvict(cacheNames = "storeRatings", allEntries = true)
+  @Transactional
+  @CacheEvict(cacheNames = "featuredTop10", allEntries = true)
   public void delete(UUID userId, UUID storeId) {
-    repository.findByUserIdAndThriftStoreId(userId, storeId).ifPresent(repository::delete);
+    repository
+        .findByUserIdAndThriftStoreId(userId, storeId)
+        .ifPresent(
+            feedback -> {
+              repository.delete(feedback);
+              adjustRatingTotals(storeId, feedback.getScore(), null);
+            });
+  }
+
+  private void adjustRatingTotals(UUID storeId, Integer oldScore, Integer newScore) {
+    if (Objects.equals(oldScore, newScore)) return;
+    long sumDelta = (newScore != null ? newScore : 0) - (oldScore != null ? oldScore : 0);
+    long countDelta = (newScore != null ? 1 : 0) - (oldScore != null ? 1 : 0);
+    thriftStoreRepository.adjustRatingTotals(storeId, sumDelta, countDelta);
   }
 }
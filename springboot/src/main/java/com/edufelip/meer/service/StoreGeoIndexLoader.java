@@ -0,0 +1,54 @@
+package com.edufelip.meer.service;
+
+import com.edufelip.meer.domain.StoreGeoIndex;
+import com.edufelip.meer.domain.repo.ThriftStoreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Warms the nearby-store index shortly after startup and rebuilds it periodically so stores written
+ * by other nodes (or outside the store use cases) eventually show up.
+ */
+@Service
+public class StoreGeoIndexLoader {
+  private static final Logger log = LoggerFactory.getLogger(StoreGeoIndexLoader.class);
+
+  private final ThriftStoreRepository thriftStoreRepository;
+  private final StoreGeoIndex storeGeoIndex;
+  private final boolean enabled;
+
+  public StoreGeoIndexLoader(
+      ThriftStoreRepository thriftStoreRepository,
+      StoreGeoIndex storeGeoIndex,
+      @Value("${meer.geo-index.enabled:true}") boolean enabled) {
+    this.thriftStoreRepository = thriftStoreRepository;
+    this.storeGeoIndex = storeGeoIndex;
+    this.enabled = enabled;
+  }
+
+  @Scheduled(
+      fixedDelayString = "${meer.geo-index.refresh-ms:300000}",
+      initialDelayString = "${meer.geo-index.initial-delay-ms:5000}")
+  public void refresh() {
+    if (!enabled) return;
+    try {
+      // loaded inside rebuild so store writes racing the query are replayed on top of it
+      storeGeoIndex.rebuild(
+          () ->
+              thriftStoreRepository.findAllGeoPoints().stream()
+                  .map(
+                      view ->
+                          new StoreGeoIndex.GeoPoint(
+                              view.getId(), view.getLatitude(), view.getLongitude()))
+                  .toList());
+      log.debug("Store geo index rebuilt size={}", storeGeoIndex.size());
+    } catch (DataAccessException ex) {
+      // keep serving from the previous snapshot, or from the database while still cold
+      log.warn("Store geo index rebuild failed: {}", ex.getMessage());
+    }
+  }
+}
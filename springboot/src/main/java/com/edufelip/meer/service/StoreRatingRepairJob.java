@@ -0,0 +1,50 @@
+package com.edufelip.meer.service;
+
+import com.edufelip.meer.domain.repo.ThriftStoreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Recomputes the rating totals on {@code thrift_store} from {@code store_feedback} and fixes the
+ * rows that drifted (e.g. feedback removed by a bulk delete or a manual database edit).
+ */
+@Service
+public class StoreRatingRepairJob {
+  private static final Logger log = LoggerFactory.getLogger(StoreRatingRepairJob.class);
+
+  private final ThriftStoreRepository thriftStoreRepository;
+  private final CacheManager cacheManager;
+  private final boolean enabled;
+
+  public StoreRatingRepairJob(
+      ThriftStoreRepository thriftStoreRepository,
+      CacheManager cacheManager,
+      @Value("${meer.store-ratings.repair.enabled:true}") boolean enabled) {
+    this.thriftStoreRepository = thriftStoreRepository;
+    this.cacheManager = cacheManager;
+    this.enabled = enabled;
+  }
+
+  @Scheduled(
+      fixedDelayString = "${meer.store-ratings.repair.delay-ms:3600000}",
+      initialDelayString = "${meer.store-ratings.repair.initial-delay-ms:60000}")
+  public void repair() {
+    if (!enabled) return;
+    try {
+      int repaired = thriftStoreRepository.repairRatingTotals();
+      if (repaired > 0) {
+        log.warn("Repaired drifted rating totals on {} stores", repaired);
+        Cache featured = cacheManager.getCache("featuredTop10");
+        if (featured != null) featured.clear();
+      }
+    } catch (DataAccessException ex) {
+      log.warn("Store rating repair failed: {}", ex.getMessage());
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package com.edufelip.meer.service;
+
+import com.edufelip.meer.domain.StoreSearchIndex;
+import com.edufelip.meer.domain.repo.ThriftStoreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Warms the in-memory store search index (text search off Postgres, autocomplete everywhere) and
+ * rebuilds it periodically so stores written by other nodes eventually become searchable.
+ */
+@Service
+public class StoreSearchIndexLoader {
+  private static final Logger log = LoggerFactory.getLogger(StoreSearchIndexLoader.class);
+
+  private final ThriftStoreRepository thriftStoreRepository;
+  private final StoreSearchIndex storeSearchIndex;
+  private final boolean enabled;
+
+  public StoreSearchIndexLoader(
+      ThriftStoreRepository thriftStoreRepository,
+      StoreSearchIndex storeSearchIndex,
+      @Value("${meer.search-index.enabled:true}") boolean enabled) {
+    this.thriftStoreRepository = thriftStoreRepository;
+    this.storeSearchIndex = storeSearchIndex;
+    this.enabled = enabled;
+  }
+
+  @Scheduled(
+      fixedDelayString = "${meer.search-index.refresh-ms:300000}",
+      initialDelayString = "${meer.search-index.initial-delay-ms:5000}")
+  public void refresh() {
+    if (!enabled) return;
+    try {
+      // loaded inside rebuild so store writes racing the query are replayed on top of it
+      storeSearchIndex.rebuild(
+          () ->
+              thriftStoreRepository.findAllSearchDocuments().stream()
+                  .map(
+                      view ->
+                          new StoreSearchIndex.Document(
+                              view.getId(),
+                              view.getName(),
+                              view.getNeighborhood(),
+                              view.getDescription(),
+                              view.getCreatedAt()))
+                  .toList());
+      log.debug("Store search index rebuilt size={}", storeSearchIndex.size());
+    } catch (DataAccessException ex) {
+      // keep serving from the previous content, or from the database while still cold
+      log.warn("Store search index rebuild failed: {}", ex.getMessage());
+    }
+  }
+}
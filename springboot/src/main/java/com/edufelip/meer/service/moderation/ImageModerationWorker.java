@@ -4,20 +4,25 @@ import com.edufelip.meer.config.ModerationProperties;
 import com.edufelip.meer.core.moderation.ImageModeration;
 import com.edufelip.meer.core.moderation.ModerationStatus;
 import com.edufelip.meer.domain.repo.ImageModerationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
 /**
- * Background worker that processes pending image moderation tasks. Uses a dedicated thread pool and
- * scheduled polling to ensure images are verified without blocking user requests.
+ * Safety-net poller for image moderation. New records are pushed by the {@link
+ * ModerationDispatcher}; this worker only sweeps up PENDING rows the push path missed (full queue,
+ * failed NOTIFY, restart), requeues FAILED ones for retry and returns PROCESSING rows whose lease
+ * expired (a node died mid-inference) to PENDING.
  */
 @Service
 @ConditionalOnProperty(
@@ -30,41 +35,69 @@ public class ImageModerationWorker {
 
   private static final int BATCH_SIZE = 10;
   private static final int MAX_RETRIES = 3;
+  private static final int LEASE_BATCH_SIZE = 100;
 
   private final ImageModerationRepository imageModerationRepository;
-  private final ModerationPolicyService moderationPolicyService;
+  private final ModerationDispatcher moderationDispatcher;
   private final ModerationProperties properties;
   private final TransactionTemplate transactionTemplate;
+  private final Clock clock;
+  private final Counter expiredLeases;
+  // grows while polls come back full (a backlog), shrinks back once they don't
+  private final AtomicInteger pollBatchSize;
 
   public ImageModerationWorker(
       ImageModerationRepository imageModerationRepository,
-      ModerationPolicyService moderationPolicyService,
+      ModerationDispatcher moderationDispatcher,
       ModerationProperties properties,
-      PlatformTransactionManager transactionManager) {
+      PlatformTransactionManager transactionManager,
+      Clock clock,
+      MeterRegistry meterRegistry) {
     this.imageModerationRepository = imageModerationRepository;
-    this.moderationPolicyService = moderationPolicyService;
+    this.moderationDispatcher = moderationDispatcher;
     this.properties = properties;
     this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.clock = clock;
+    this.expiredLeases =
+        Counter.builder("meer.moderation.lease.expired")
+            .description("PROCESSING rows returned to PENDING after their lease expired")
+            .register(meterRegistry);
+    this.pollBatchSize = new AtomicInteger(minPollBatch());
   }
 
   /**
-   * Scheduled task that polls for PENDING moderation records and processes them. Runs every 30
-   * seconds to maintain low latency without overwhelming the system.
+   * Scheduled safety net that claims PENDING records the push path did not deliver. Runs every
+   * {@code moderation.nsfw.dispatch.poll-interval-ms} (2 minutes by default); a full batch doubles
+   * the next one up to {@code poll-max-batch}, anything less halves it back towards {@code
+   * poll-min-batch}. Never claims more rows than the dispatcher has free capacity for.
    */
-  @Scheduled(fixedDelay = 30_000, initialDelay = 10_000)
+  @Scheduled(
+      fixedDelayString = "${moderation.nsfw.dispatch.poll-interval-ms:120000}",
+      initialDelay = 10_000)
   public void processPendingImages() {
     if (!properties.isEnabled()) {
       return;
     }
     try {
-      List<Long> pendingIds = claimPendingIds();
+      int batchSize = pollBatchSize.get();
+      int reserved = moderationDispatcher.reserve(batchSize);
+      if (reserved == 0) {
+        log.debug("Moderation pool is full; skipping pending poll");
+        return;
+      }
+      List<Long> pendingIds;
+      try {
+        pendingIds = claimPendingIds(reserved);
+      } catch (RuntimeException e) {
+        moderationDispatcher.release(reserved);
+        throw e;
+      }
+      moderationDispatcher.release(reserved - pendingIds.size());
+      pollBatchSize.set(nextPollBatchSize(batchSize, pendingIds.size()));
 
       if (!pendingIds.isEmpty()) {
         log.info("Found {} pending images for moderation", pendingIds.size());
-
-        for (Long moderationId : pendingIds) {
-          processImageAsync(moderationId);
-        }
+        moderationDispatcher.submitClaimed(pendingIds);
       }
     } catch (Exception e) {
       log.error("Error in processPendingImages scheduled task", e);
@@ -73,7 +106,8 @@ public class ImageModerationWorker {
 
   /**
    * Scheduled task that retries FAILED moderation records (up to MAX_RETRIES). Runs every 5 minutes
-   * to give failed tasks time to recover from transient issues.
+   * to give failed tasks time to recover from transient issues; requeued records are pushed to the
+   * dispatcher rather than left for the next poll.
    */
   @Scheduled(fixedDelay = 300_000, initialDelay = 60_000)
   public void retryFailedImages() {
@@ -85,6 +119,7 @@ public class ImageModerationWorker {
 
       if (!failedIds.isEmpty()) {
         log.info("Found {} failed images for retry", failedIds.size());
+        moderationDispatcher.publish(failedIds);
       }
     } catch (Exception e) {
       log.error("Error in retryFailedImages scheduled task", e);
@@ -92,20 +127,29 @@ public class ImageModerationWorker {
   }
 
   /**
-   * Processes a single image moderation task asynchronously in the dedicated moderation thread
-   * pool. This ensures image verification doesn't block user-facing API requests.
-   *
-   * @param moderation The moderation record to process
+   * Scheduled task that returns PROCESSING records claimed more than {@code
+   * moderation.nsfw.dispatch.lease-timeout-ms} ago to PENDING and pushes them again. A record whose
+   * inference is merely slow may then be moderated twice, which is harmless.
    */
-  @Async("moderationTaskExecutor")
-  public void processImageAsync(Long moderationId) {
+  @Scheduled(
+      fixedDelayString = "${moderation.nsfw.dispatch.lease-check-ms:60000}",
+      initialDelay = 30_000)
+  public void releaseExpiredLeases() {
+    if (!properties.isEnabled()) {
+      return;
+    }
     try {
-      Optional<ImageModeration> moderation = imageModerationRepository.findById(moderationId);
-      moderation.ifPresentOrElse(
-          moderationPolicyService::processImage,
-          () -> log.warn("Moderation record not found for id={}", moderationId));
+      Instant claimedBefore =
+          clock.instant().minusMillis(properties.getDispatch().getLeaseTimeoutMs());
+      List<Long> expiredIds = requeueExpiredLeases(claimedBefore);
+
+      if (!expiredIds.isEmpty()) {
+        expiredLeases.increment(expiredIds.size());
+        log.warn("Returned {} images with expired moderation leases to PENDING", expiredIds.size());
+        moderationDispatcher.publish(expiredIds);
+      }
     } catch (Exception e) {
-      log.error("Unexpected error processing image moderation: id={}", moderationId, e);
+      log.error("Error in releaseExpiredLeases scheduled task", e);
     }
   }
 
@@ -117,17 +161,46 @@ public class ImageModerationWorker {
    */
   public void submitForProcessing(ImageModeration moderation) {
     log.info("Submitting image for immediate processing: id={}", moderation.getId());
-    processImageAsync(moderation.getId());
+    moderationDispatcher.dispatchAfterCommit(moderation.getId());
+  }
+
+  int nextPollBatchSize(int current, int claimed) {
+    if (claimed >= current) {
+      return Math.min(maxPollBatch(), current * 2);
+    }
+    return Math.max(minPollBatch(), current / 2);
+  }
+
+  private int minPollBatch() {
+    return Math.max(1, properties.getDispatch().getPollMinBatch());
+  }
+
+  private int maxPollBatch() {
+    return Math.max(minPollBatch(), properties.getDispatch().getPollMaxBatch());
+  }
+
+  private List<Long> claimPendingIds(int limit) {
+    List<Long> ids =
+        transactionTemplate.execute(
+            status -> {
+              List<Long> lockedIds = imageModerationRepository.lockPendingIdsForProcessing(limit);
+              if (!lockedIds.isEmpty()) {
+                imageModerationRepository.markProcessing(lockedIds, clock.instant());
+              }
+              return lockedIds;
+            });
+    return ids == null ? List.of() : ids;
   }
 
-  private List<Long> claimPendingIds() {
+  private List<Long> requeueExpiredLeases(Instant claimedBefore) {
     List<Long> ids =
         transactionTemplate.execute(
             status -> {
               List<Long> lockedIds =
-                  imageModerationRepository.lockPendingIdsForProcessing(BATCH_SIZE);
+                  imageModerationRepository.lockExpiredProcessingIds(
+                      claimedBefore, LEASE_BATCH_SIZE);
               if (!lockedIds.isEmpty()) {
-                imageModerationRepository.updateStatusByIds(ModerationStatus.PROCESSING, lockedIds);
+                imageModerationRepository.updateStatusByIds(ModerationStatus.PENDING, lockedIds);
               }
               return lockedIds;
             });
@@ -1,6 +1,11 @@
 package com.edufelip.meer.service.moderation;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
 import java.io.IOException;
 import java.nio.FloatBuffer;
 import net.coobird.thumbnailator.Thumbnails;
@@ -13,6 +18,11 @@ public class ImagePreprocessor {
   private static final float[] MEAN = {0.485f, 0.456f, 0.406f};
   private static final float[] STD = {0.229f, 0.224f, 0.225f};
 
+  // Normalized value for every channel byte, so the pixel loop is three table lookups
+  private static final float[] RED = lookupTable(0);
+  private static final float[] GREEN = lookupTable(1);
+  private static final float[] BLUE = lookupTable(2);
+
   /**
    * Preprocesses an image to NCHW format (batch, channels, height, width) Expected by most vision
    * transformers: - Resize to target dimensions - Convert to RGB - Normalize with mean/std - Return
@@ -24,32 +34,40 @@ public class ImagePreprocessor {
    * @return Float array in NCHW format [1, 3, height, width]
    */
   public float[] toNchwFloatRgb(BufferedImage input, int width, int height) throws IOException {
-    // Resize image to model input size
-    BufferedImage resized = Thumbnails.of(input).size(width, height).asBufferedImage();
-
-    int hw = width * height;
-    float[] chw = new float[3 * hw];
-
-    // Convert to NCHW: separate channels (R, G, B) in contiguous blocks
-    int idx = 0;
-    for (int y = 0; y < height; y++) {
-      for (int x = 0; x < width; x++) {
-        int rgb = resized.getRGB(x, y);
-
-        // Extract RGB channels (0-255) and normalize to [0, 1]
-        float r = ((rgb >> 16) & 0xFF) / 255.0f;
-        float g = ((rgb >> 8) & 0xFF) / 255.0f;
-        float b = (rgb & 0xFF) / 255.0f;
+    float[] chw = new float[3 * width * height];
+    writeNchwFloatRgb(input, width, height, FloatBuffer.wrap(chw));
+    return chw;
+  }
 
-        int i = idx++;
+  /**
+   * Same as {@link #toNchwFloatRgb} but writes the {@code 3 * height * width} values into {@code
+   * out}, starting at its current position, so callers can fill a pooled direct buffer that ONNX
+   * Runtime reads without copying. The resized image's backing array is read in bulk when its
+   * layout is one of the common packed-int or interleaved-byte ones.
+   *
+   * @param out Buffer with at least {@code 3 * height * width} floats remaining; its position is
+   *     left unchanged
+   */
+  public void writeNchwFloatRgb(BufferedImage input, int width, int height, FloatBuffer out)
+      throws IOException {
+    // Resize image to model input size (stretched, as the model expects exactly width x height)
+    BufferedImage resized =
+        input.getWidth() == width && input.getHeight() == height
+            ? input
+            : Thumbnails.of(input).forceSize(width, height).asBufferedImage();
 
-        // Apply ImageNet normalization: (value - mean) / std
-        chw[i] = (r - MEAN[0]) / STD[0]; // Red channel
-        chw[hw + i] = (g - MEAN[1]) / STD[1]; // Green channel
-        chw[2 * hw + i] = (b - MEAN[2]) / STD[2]; // Blue channel
+    int hw = width * height;
+    if (out.remaining() < 3 * hw) {
+      throw new IllegalArgumentException(
+          "Buffer has " + out.remaining() + " floats remaining, needs " + 3 * hw);
+    }
+    int base = out.position();
+    if (!writeFromIntRaster(resized, out, base, hw) && !writeFromByteRaster(resized, out, base)) {
+      int[] rgb = resized.getRGB(0, 0, width, height, null, 0, width);
+      for (int i = 0; i < hw; i++) {
+        putPacked(out, base, hw, i, rgb[i], 16, 8, 0);
       }
     }
-    return chw;
   }
 
   /**
@@ -61,4 +79,99 @@ public class ImagePreprocessor {
   public FloatBuffer wrapAsBuffer(float[] chw) {
     return FloatBuffer.wrap(chw);
   }
+
+  /** TYPE_INT_RGB, TYPE_INT_ARGB and TYPE_INT_BGR: one packed int per pixel. */
+  private static boolean writeFromIntRaster(
+      BufferedImage image, FloatBuffer out, int base, int hw) {
+    int redShift;
+    int blueShift;
+    switch (image.getType()) {
+      case BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB -> {
+        redShift = 16;
+        blueShift = 0;
+      }
+      case BufferedImage.TYPE_INT_BGR -> {
+        redShift = 0;
+        blueShift = 16;
+      }
+      default -> {
+        return false;
+      }
+    }
+    Raster raster = image.getRaster();
+    if (!(raster.getDataBuffer() instanceof DataBufferInt buffer)
+        || !(raster.getSampleModel() instanceof SinglePixelPackedSampleModel model)
+        || buffer.getNumBanks() != 1) {
+      return false;
+    }
+    int[] data = buffer.getData();
+    int stride = model.getScanlineStride();
+    int origin =
+        buffer.getOffset()
+            - raster.getSampleModelTranslateY() * stride
+            - raster.getSampleModelTranslateX();
+    int width = image.getWidth();
+    int i = 0;
+    for (int y = 0; y < image.getHeight(); y++) {
+      int row = origin + y * stride;
+      for (int x = 0; x < width; x++) {
+        putPacked(out, base, hw, i++, data[row + x], redShift, 8, blueShift);
+      }
+    }
+    return true;
+  }
+
+  /** TYPE_3BYTE_BGR (what ImageIO decodes JPEGs to) and TYPE_4BYTE_ABGR: interleaved bytes. */
+  private static boolean writeFromByteRaster(BufferedImage image, FloatBuffer out, int base) {
+    int type = image.getType();
+    if (type != BufferedImage.TYPE_3BYTE_BGR && type != BufferedImage.TYPE_4BYTE_ABGR) {
+      return false;
+    }
+    Raster raster = image.getRaster();
+    if (!(raster.getDataBuffer() instanceof DataBufferByte buffer)
+        || !(raster.getSampleModel() instanceof ComponentSampleModel model)
+        || buffer.getNumBanks() != 1) {
+      return false;
+    }
+    byte[] data = buffer.getData();
+    int pixelStride = model.getPixelStride();
+    int stride = model.getScanlineStride();
+    int[] bandOffsets = model.getBandOffsets();
+    int origin =
+        buffer.getOffset()
+            - raster.getSampleModelTranslateY() * stride
+            - raster.getSampleModelTranslateX() * pixelStride;
+    // bands are R, G, B(, A) in both types; the offsets place them in BGR / ABGR order
+    int r = bandOffsets[0];
+    int g = bandOffsets[1];
+    int b = bandOffsets[2];
+    int width = image.getWidth();
+    int hw = width * image.getHeight();
+    int i = 0;
+    for (int y = 0; y < image.getHeight(); y++) {
+      int p = origin + y * stride;
+      for (int x = 0; x < width; x++, p += pixelStride, i++) {
+        out.put(base + i, RED[data[p + r] & 0xFF]);
+        out.put(base + hw + i, GREEN[data[p + g] & 0xFF]);
+        out.put(base + 2 * hw + i, BLUE[data[p + b] & 0xFF]);
+      }
+    }
+    return true;
+  }
+
+  private static void putPacked(
+      FloatBuffer out, int base, int hw, int i, int pixel, int rShift, int gShift, int bShift) {
+    out.put(base + i, RED[(pixel >> rShift) & 0xFF]);
+    out.put(base + hw + i, GREEN[(pixel >> gShift) & 0xFF]);
+    out.put(base + 2 * hw + i, BLUE[(pixel >> bShift) & 0xFF]);
+  }
+
+  private static float[] lookupTable(int channel) {
+    float[] table = new float[256];
+    for (int v = 0; v < 256; v++) {
+      // Same arithmetic as normalizing per pixel: (value / 255 - mean) / std
+      table[v] = (v / 255.0f - MEAN[channel]) / STD[channel];
+    }
+    return table;
+  }
 }
@@ -0,0 +1,166 @@
+package com.edufelip.meer.service.moderation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Groups concurrent inference requests into micro-batches without a thread of its own. Callers
+ * enqueue their preprocessed input and the first one to find no leader collecting becomes the
+ * leader: it waits up to {@code maxWaitMillis} for the queue to reach {@code maxBatchSize}, takes
+ * the batch, gives up the leader role and runs the batch through the {@link Runner}, handing each
+ * caller its score. The next caller can lead a new batch while that one runs, so batches on one
+ * runner overlap instead of queueing behind each other. Everyone else blocks until their score is
+ * ready or the leader role frees up.
+ */
+final class InferenceBatcher<T> {
+
+  /** Scores a batch of inputs; the result has one entry per input, in order. */
+  @FunctionalInterface
+  interface Runner<T> {
+    double[] run(List<T> inputs) throws Exception;
+  }
+
+  private final Runner<T> runner;
+  private final int maxBatchSize;
+  private final long maxWaitMillis;
+
+  private final Object monitor = new Object();
+  private final ArrayDeque<Pending<T>> queue = new ArrayDeque<>();
+  // a leader is waiting for its batch to fill; running batches do not hold the role
+  private boolean leaderActive;
+
+  InferenceBatcher(Runner<T> runner, int maxBatchSize, long maxWaitMillis) {
+    this.runner = runner;
+    this.maxBatchSize = Math.max(1, maxBatchSize);
+    this.maxWaitMillis = Math.max(0, maxWaitMillis);
+  }
+
+  int maxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * Scores one input, possibly together with inputs submitted concurrently by other threads. Does
+   * not return, even when interrupted, while a running batch still reads {@code input}.
+   *
+   * @throws Exception the failure of the batch this input ran in
+   */
+  double score(T input) throws Exception {
+    Pending<T> mine = new Pending<>(input);
+    synchronized (monitor) {
+      queue.addLast(mine);
+      monitor.notifyAll();
+    }
+    while (true) {
+      List<Pending<T>> batch;
+      synchronized (monitor) {
+        try {
+          while (!mine.done && (mine.taken || leaderActive)) {
+            monitor.wait();
+          }
+        } catch (InterruptedException e) {
+          if (!queue.remove(mine)) {
+            // a leader already holds the input; don't hand it back while the batch still reads it
+            awaitUninterruptibly(mine);
+          }
+          throw e;
+        }
+        if (mine.done) {
+          return mine.result();
+        }
+        leaderActive = true;
+        batch = collect();
+        leaderActive = false;
+        monitor.notifyAll();
+      }
+      run(batch);
+    }
+  }
+
+  private void awaitUninterruptibly(Pending<T> pending) {
+    while (!pending.done) {
+      try {
+        monitor.wait();
+      } catch (InterruptedException ignored) {
+        // already failing with an interrupt
+      }
+    }
+  }
+
+  /** Waits (holding the monitor) until the batch is full or the deadline passes, then drains. */
+  private List<Pending<T>> collect() {
+    long deadline = System.nanoTime() + maxWaitMillis * 1_000_000L;
+    try {
+      while (queue.size() < maxBatchSize) {
+        long remainingMillis = (deadline - System.nanoTime()) / 1_000_000L;
+        if (remainingMillis <= 0) {
+          break;
+        }
+        monitor.wait(remainingMillis);
+      }
+    } catch (InterruptedException e) {
+      // run what has been collected so far; the caller sees the flag on its next wait
+      Thread.currentThread().interrupt();
+    }
+    List<Pending<T>> batch = new ArrayList<>(Math.min(queue.size(), maxBatchSize));
+    while (batch.size() < maxBatchSize && !queue.isEmpty()) {
+      Pending<T> pending = queue.pollFirst();
+      pending.taken = true;
+      batch.add(pending);
+    }
+    return batch;
+  }
+
+  private void run(List<Pending<T>> batch) {
+    double[] scores = null;
+    Exception failure = null;
+    try {
+      List<T> inputs = new ArrayList<>(batch.size());
+      for (Pending<T> pending : batch) {
+        inputs.add(pending.input);
+      }
+      scores = runner.run(inputs);
+      if (scores.length != batch.size()) {
+        throw new IllegalStateException(
+            "Expected " + batch.size() + " scores from batch but got " + scores.length);
+      }
+    } catch (Exception e) {
+      failure = e;
+    } finally {
+      synchronized (monitor) {
+        for (int i = 0; i < batch.size(); i++) {
+          Pending<T> pending = batch.get(i);
+          if (failure != null || scores == null) {
+            pending.failure = failure != null ? failure : new IllegalStateException("Batch failed");
+          } else {
+            pending.score = scores[i];
+          }
+          pending.done = true;
+        }
+        monitor.notifyAll();
+      }
+    }
+  }
+
+  /** One caller's input and, once its batch has run, its score or failure. */
+  private static final class Pending<T> {
+    private final T input;
+    private double score;
+    private Exception failure;
+    // in a batch that is running; its caller waits for the result instead of leading
+    private boolean taken;
+    private boolean done;
+
+    private Pending(T input) {
+      this.input = input;
+    }
+
+    private double result() throws Exception {
+      if (failure != null) {
+        throw failure;
+      }
+      return score;
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.edufelip.meer.service.moderation;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opens the connection the moderation LISTEN thread keeps for as long as the node runs. It comes
+ * straight from the driver with the {@code spring.datasource} settings, outside the Hikari pool, so
+ * holding it never takes a connection away from request threads.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "moderation.nsfw.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class ListenConnectionFactory {
+
+  private final String url;
+  private final String username;
+  private final String password;
+
+  public ListenConnectionFactory(
+      @Value("${spring.datasource.url:}") String url,
+      @Value("${spring.datasource.username:}") String username,
+      @Value("${spring.datasource.password:}") String password) {
+    this.url = url;
+    this.username = username;
+    this.password = password;
+  }
+
+  /** A new connection owned by the caller, who must close it. */
+  public Connection open() throws SQLException {
+    return DriverManager.getConnection(url, username, password);
+  }
+}
@@ -0,0 +1,448 @@
+package com.edufelip.meer.service.moderation;
+
+import com.edufelip.meer.config.ModerationProperties;
+import com.edufelip.meer.core.moderation.ImageModeration;
+import com.edufelip.meer.core.moderation.ModerationStatus;
+import com.edufelip.meer.domain.repo.ImageModerationRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Pushes newly enqueued moderation records to the worker pool instead of waiting for the PENDING
+ * poll. Ids are offered to a bounded in-memory queue once their transaction commits and announced
+ * to the other nodes with a Postgres {@code NOTIFY}; a dispatcher thread claims each batch (PENDING
+ * to PROCESSING, skipping rows another node locked) and hands the claimed ids to the {@code
+ * moderationTaskExecutor}. Anything dropped on the way stays PENDING for the poll.
+ *
+ * <p>Admission is explicit: {@code moderation.nsfw.worker.max-in-flight} permits cover every row
+ * between claim and completion, and both this dispatcher and the poll reserve permits before they
+ * claim, so no more rows turn PROCESSING than the pool can take.
+ */
+@Service
+@ConditionalOnProperty(
+    name = "moderation.nsfw.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class ModerationDispatcher implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(ModerationDispatcher.class);
+
+  private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+  // how long a LISTEN wait blocks before re-checking shutdown, and the reconnect back-off
+  private static final int LISTEN_WAIT_MS = 5_000;
+  // Postgres rejects NOTIFY payloads of 8000 bytes or more
+  static final int MAX_NOTIFY_BYTES = 7999;
+
+  private final ImageModerationRepository imageModerationRepository;
+  private final ModerationPolicyService moderationPolicyService;
+  private final ModerationProperties.Dispatch properties;
+  private final TransactionTemplate transactionTemplate;
+  private final Executor moderationTaskExecutor;
+  private final DataSource dataSource;
+  private final ListenConnectionFactory listenConnections;
+  private final JdbcTemplate jdbcTemplate;
+  private final Clock clock;
+
+  private final String nodeId = UUID.randomUUID().toString();
+  private final BlockingQueue<Long> queue;
+  private final AtomicLong dropped = new AtomicLong();
+  private final int maxInFlight;
+  private final Semaphore capacity;
+
+  private volatile boolean running;
+  private volatile boolean notifyEnabled;
+  private volatile Thread dispatchThread;
+  private volatile Thread listenThread;
+
+  public ModerationDispatcher(
+      ImageModerationRepository imageModerationRepository,
+      ModerationPolicyService moderationPolicyService,
+      ModerationProperties properties,
+      PlatformTransactionManager transactionManager,
+      @Qualifier("moderationTaskExecutor") Executor moderationTaskExecutor,
+      DataSource dataSource,
+      ListenConnectionFactory listenConnections,
+      JdbcTemplate jdbcTemplate,
+      Clock clock,
+      MeterRegistry meterRegistry) {
+    this.imageModerationRepository = imageModerationRepository;
+    this.moderationPolicyService = moderationPolicyService;
+    this.properties = properties.getDispatch();
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.moderationTaskExecutor = moderationTaskExecutor;
+    this.dataSource = dataSource;
+    this.listenConnections = listenConnections;
+    this.jdbcTemplate = jdbcTemplate;
+    this.clock = clock;
+    this.queue = new LinkedBlockingQueue<>(Math.max(1, this.properties.getQueueCapacity()));
+    ModerationProperties.Worker worker = properties.getWorker();
+    // never more than the executor can hold, so a submission within a permit is not rejected
+    this.maxInFlight =
+        Math.max(
+            1,
+            Math.min(
+                worker.getMaxInFlight(), worker.getThreadPoolSize() + worker.getQueueCapacity()));
+    this.capacity = new Semaphore(maxInFlight);
+    registerGauges(meterRegistry);
+    if (!CHANNEL_NAME.matcher(this.properties.getChannel()).matches()) {
+      throw new IllegalArgumentException(
+          "moderation.nsfw.dispatch.channel must be a plain identifier: "
+              + this.properties.getChannel());
+    }
+  }
+
+  /**
+   * Dispatches a moderation record once the current transaction commits, or right away when there
+   * is none, so the worker never looks for a row that is not visible yet.
+   */
+  public void dispatchAfterCommit(Long moderationId) {
+    if (moderationId == null) {
+      return;
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              publish(List.of(moderationId));
+            }
+          });
+    } else {
+      publish(List.of(moderationId));
+    }
+  }
+
+  /** Offers committed PENDING ids to this node's queue and wakes the other nodes. */
+  public void publish(Collection<Long> moderationIds) {
+    if (moderationIds.isEmpty()) {
+      return;
+    }
+    offerLocal(moderationIds);
+    notifyOtherNodes(moderationIds);
+  }
+
+  /**
+   * Reserves up to {@code wanted} in-flight slots without blocking.
+   *
+   * @return slots granted, possibly 0; give back what is not used with {@link #release}
+   */
+  public int reserve(int wanted) {
+    while (wanted > 0) {
+      int granted = Math.min(wanted, capacity.availablePermits());
+      if (granted <= 0) {
+        return 0;
+      }
+      if (capacity.tryAcquire(granted)) {
+        return granted;
+      }
+    }
+    return 0;
+  }
+
+  /** Returns reserved slots that were not used for a claimed row. */
+  public void release(int unused) {
+    if (unused > 0) {
+      capacity.release(unused);
+    }
+  }
+
+  /**
+   * Hands ids already claimed as PROCESSING to the moderation pool, one task per image. Each id
+   * must hold a slot from {@link #reserve}; the slot is freed when its task ends. An id the
+   * executor rejects gets its slot back and returns to PENDING rather than staying PROCESSING.
+   */
+  public void submitClaimed(List<Long> moderationIds) {
+    List<Long> rejected = new ArrayList<>();
+    for (Long moderationId : moderationIds) {
+      try {
+        moderationTaskExecutor.execute(
+            () -> {
+              try {
+                process(moderationId);
+              } finally {
+                capacity.release();
+              }
+            });
+      } catch (RejectedExecutionException e) {
+        capacity.release();
+        rejected.add(moderationId);
+      }
+    }
+    if (!rejected.isEmpty()) {
+      log.warn("Moderation pool rejected {} claimed ids; back to PENDING", rejected.size());
+      transactionTemplate.executeWithoutResult(
+          status ->
+              imageModerationRepository.updateStatusByIds(ModerationStatus.PENDING, rejected));
+    }
+  }
+
+  /** Ids this node could not queue because the queue was full; the poll picks them up. */
+  public long droppedCount() {
+    return dropped.get();
+  }
+
+  private void process(Long moderationId) {
+    try {
+      Optional<ImageModeration> moderation = imageModerationRepository.findById(moderationId);
+      moderation.ifPresentOrElse(
+          moderationPolicyService::processImage,
+          () -> log.warn("Moderation record not found for id={}", moderationId));
+    } catch (Exception e) {
+      log.error("Unexpected error processing image moderation: id={}", moderationId, e);
+    }
+  }
+
+  private void offerLocal(Collection<Long> moderationIds) {
+    for (Long moderationId : moderationIds) {
+      if (!queue.offer(moderationId)) {
+        dropped.incrementAndGet();
+        log.debug("Moderation dispatch queue full; id={} left for the poll", moderationId);
+      }
+    }
+  }
+
+  private void notifyOtherNodes(Collection<Long> moderationIds) {
+    if (!notifyEnabled) {
+      return;
+    }
+    try {
+      for (String payload : notifyPayloads(moderationIds)) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", properties.getChannel(), payload);
+      }
+    } catch (DataAccessException e) {
+      log.warn("Moderation NOTIFY failed; other nodes will see the ids on their poll", e);
+    }
+  }
+
+  /**
+   * Splits ids into {@code nodeId:id,id,...} payloads of at most {@link #MAX_NOTIFY_BYTES} bytes
+   * each, the node id prefix included.
+   */
+  List<String> notifyPayloads(Collection<Long> moderationIds) {
+    String prefix = nodeId + ":";
+    int prefixBytes = prefix.getBytes(StandardCharsets.UTF_8).length;
+    List<String> payloads = new ArrayList<>();
+    StringBuilder payload = new StringBuilder(prefix);
+    int bytes = prefixBytes;
+    for (Long moderationId : moderationIds) {
+      // ids are ASCII digits, one byte per char
+      String id = moderationId.toString();
+      boolean first = bytes == prefixBytes;
+      int needed = id.length() + (first ? 0 : 1);
+      if (!first && bytes + needed > MAX_NOTIFY_BYTES) {
+        payloads.add(payload.toString());
+        payload.setLength(prefix.length());
+        bytes = prefixBytes;
+        first = true;
+        needed = id.length();
+      }
+      payload.append(first ? "" : ",").append(id);
+      bytes += needed;
+    }
+    if (bytes > prefixBytes) {
+      payloads.add(payload.toString());
+    }
+    return payloads;
+  }
+
+  private void dispatchLoop() {
+    int claimBatchSize = Math.max(1, properties.getClaimBatchSize());
+    List<Long> batch = new ArrayList<>(claimBatchSize);
+    while (running) {
+      try {
+        batch.add(queue.take());
+        // wait for one free slot, then take as many more ids as there are free slots
+        capacity.acquire();
+        int reserved = 1 + reserve(claimBatchSize - 1);
+        queue.drainTo(batch, reserved - 1);
+        List<Long> claimed;
+        try {
+          claimed = claim(batch);
+        } catch (RuntimeException e) {
+          release(reserved);
+          throw e;
+        }
+        release(reserved - claimed.size());
+        submitClaimed(claimed);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        log.warn("Moderation dispatch failed; ids stay PENDING for the poll: {}", e.getMessage());
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private List<Long> claim(List<Long> candidates) {
+    List<Long> ids =
+        transactionTemplate.execute(
+            status -> {
+              List<Long> lockedIds = imageModerationRepository.lockPendingIdsIn(candidates);
+              if (!lockedIds.isEmpty()) {
+                imageModerationRepository.markProcessing(lockedIds, clock.instant());
+              }
+              return lockedIds;
+            });
+    return ids == null ? List.of() : ids;
+  }
+
+  private void listenLoop() {
+    String channel = properties.getChannel();
+    while (running) {
+      // a dedicated connection: the pool never loses one to a thread that holds it for good
+      try (Connection connection = listenConnections.open()) {
+        PGConnection pg = connection.unwrap(PGConnection.class);
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + channel);
+        }
+        if (!connection.getAutoCommit()) {
+          connection.commit();
+        }
+        log.info("Listening for moderation notifications on channel {}", channel);
+        while (running) {
+          PGNotification[] notifications = pg.getNotifications(LISTEN_WAIT_MS);
+          if (notifications != null) {
+            for (PGNotification notification : notifications) {
+              onNotification(notification.getParameter());
+            }
+          }
+        }
+      } catch (SQLException e) {
+        if (!running) {
+          return;
+        }
+        log.warn(
+            "Moderation LISTEN connection failed; retrying in {} ms: {}",
+            LISTEN_WAIT_MS,
+            e.getMessage());
+        try {
+          Thread.sleep(LISTEN_WAIT_MS);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  void onNotification(String payload) {
+    int separator = payload == null ? -1 : payload.indexOf(':');
+    if (separator < 0 || payload.startsWith(nodeId + ":")) {
+      // our own ids are already in the local queue
+      return;
+    }
+    List<Long> ids = new ArrayList<>();
+    for (String id : payload.substring(separator + 1).split(",")) {
+      try {
+        ids.add(Long.parseLong(id));
+      } catch (NumberFormatException e) {
+        log.debug("Ignoring malformed moderation notification: {}", payload);
+        return;
+      }
+    }
+    offerLocal(ids);
+  }
+
+  private void registerGauges(MeterRegistry registry) {
+    Gauge.builder("meer.moderation.queue.depth", queue, BlockingQueue::size)
+        .description("Moderation ids waiting to be claimed or handed to the pool")
+        .tag("stage", "dispatch")
+        .register(registry);
+    if (moderationTaskExecutor instanceof ThreadPoolTaskExecutor pool) {
+      Gauge.builder("meer.moderation.queue.depth", pool, ThreadPoolTaskExecutor::getQueueSize)
+          .description("Moderation ids waiting to be claimed or handed to the pool")
+          .tag("stage", "executor")
+          .register(registry);
+      Gauge.builder("meer.moderation.active", pool, ThreadPoolTaskExecutor::getActiveCount)
+          .description("Moderation tasks currently running")
+          .register(registry);
+    }
+    Gauge.builder("meer.moderation.in.flight", capacity, c -> maxInFlight - c.availablePermits())
+        .description("Claimed moderation rows not yet finished (queued on the pool or running)")
+        .register(registry);
+    Gauge.builder("meer.moderation.capacity.free", capacity, Semaphore::availablePermits)
+        .description("Rows that can still be claimed before the pool is full")
+        .register(registry);
+    FunctionCounter.builder("meer.moderation.dispatch.dropped", dropped, AtomicLong::get)
+        .description("Ids not queued because the dispatch queue was full (left for the poll)")
+        .register(registry);
+  }
+
+  private boolean isPostgres() {
+    try (Connection connection = dataSource.getConnection()) {
+      return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+    } catch (SQLException e) {
+      log.warn("Could not detect the database; moderation LISTEN/NOTIFY stays off", e);
+      return false;
+    }
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    notifyEnabled = properties.isListenNotify() && isPostgres();
+    dispatchThread = daemon("moderation-dispatcher", this::dispatchLoop);
+    if (notifyEnabled) {
+      listenThread = daemon("moderation-listener", this::listenLoop);
+    }
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    notifyEnabled = false;
+    for (Thread thread : new Thread[] {dispatchThread, listenThread}) {
+      if (thread != null) {
+        thread.interrupt();
+      }
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private static Thread daemon(String name, Runnable task) {
+    Thread thread = new Thread(task, name);
+    thread.setDaemon(true);
+    thread.start();
+    return thread;
+  }
+}
@@ -30,6 +30,8 @@ public class ModerationPolicyService {
   private final ModerationProperties properties;
   private final NsfwInferenceService nsfwInferenceService;
   private final ImageModerationRepository imageModerationRepository;
+  // resolved on use: the dispatcher itself depends on this service
+  private final ObjectProvider<ModerationDispatcher> moderationDispatcherProvider;
   private final Storage storage;
   private final String bucket;
 
@@ -37,18 +39,20 @@ public class ModerationPolicyService {
       ModerationProperties properties,
       ObjectProvider<NsfwInferenceService> nsfwInferenceServiceProvider,
       ImageModerationRepository imageModerationRepository,
+      ObjectProvider<ModerationDispatcher> moderationDispatcherProvider,
       Storage storage,
       @org.springframework.beans.factory.annotation.Value("${storage.gcs.bucket}") String bucket) {
     this.properties = properties;
     this.nsfwInferenceService = nsfwInferenceServiceProvider.getIfAvailable();
     this.imageModerationRepository = imageModerationRepository;
+    this.moderationDispatcherProvider = moderationDispatcherProvider;
     this.storage = storage;
     this.bucket = bucket;
   }
 
   /**
-   * Enqueues an image for moderation. Creates a PENDING record that will be picked up by the
-   * worker.
+   * Enqueues an image for moderation. Creates a PENDING record and, once the surrounding
+   * transaction commits, pushes it to the {@link ModerationDispatcher}.
    *
    * @param imageUrl Public URL of the image
    * @param entityType Type of entity (store photo, avatar, etc.)
@@ -85,6 +89,10 @@ public class ModerationPolicyService {
         entityType,
         entityId);
 
+    ModerationDispatcher dispatcher = moderationDispatcherProvider.getIfAvailable();
+    if (dispatcher != null) {
+      dispatcher.dispatchAfterCommit(saved.getId());
+    }
     return saved;
   }
 
@@ -104,6 +112,9 @@ public class ModerationPolicyService {
         return imageModerationRepository.save(moderation);
       }
       moderation.setStatus(ModerationStatus.PROCESSING);
+      if (moderation.getClaimedAt() == null) {
+        moderation.setClaimedAt(java.time.Instant.now());
+      }
       moderation = imageModerationRepository.save(moderation);
 
       log.info(
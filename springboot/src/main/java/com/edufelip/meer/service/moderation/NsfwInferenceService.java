@@ -1,12 +1,17 @@
 package com.edufelip.meer.service.moderation;
 
+import ai.onnxruntime.NodeInfo;
 import ai.onnxruntime.OnnxTensor;
 import ai.onnxruntime.OrtEnvironment;
 import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
+import ai.onnxruntime.TensorInfo;
 import com.edufelip.meer.config.ModerationProperties;
 import java.awt.image.BufferedImage;
 import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,7 +20,9 @@ import org.springframework.stereotype.Service;
 
 /**
  * Service for running NSFW content detection inference using ONNX Runtime. This service is
- * thread-safe as it reuses a singleton OrtSession.
+ * thread-safe: each call runs on the least busy session of the {@link OrtSessionPool}, and
+ * concurrent calls on a session are grouped into micro-batches so it runs one {@code [N, 3, H, W]}
+ * tensor instead of N single-image ones.
  */
 @Service
 @ConditionalOnProperty(
@@ -27,23 +34,70 @@ public class NsfwInferenceService {
   private static final Logger log = LoggerFactory.getLogger(NsfwInferenceService.class);
 
   private final OrtEnvironment env;
+  private final OrtSessionPool sessions;
+  // All sessions load the same model; this one answers metadata questions (names, shapes)
   private final OrtSession session;
   private final ImagePreprocessor preprocessor;
   private final ModerationProperties properties;
+  private final List<InferenceBatcher<FloatBuffer>> batchers;
+  private final TensorBufferPool imageBuffers;
+  private final TensorBufferPool batchBuffers;
 
   public NsfwInferenceService(
       OrtEnvironment env,
-      OrtSession session,
+      OrtSessionPool sessions,
       ImagePreprocessor preprocessor,
       ModerationProperties properties) {
     this.env = env;
-    this.session = session;
+    this.sessions = sessions;
+    this.session = sessions.session(0);
     this.preprocessor = preprocessor;
     this.properties = properties;
+    ModerationProperties.Batch batch = properties.getBatch();
+    int maxBatchSize = batch.getMaxSize();
+    if (maxBatchSize > 1 && !hasDynamicBatchDimension()) {
+      log.info("NSFW model input has a fixed batch dimension; running one image per inference");
+      maxBatchSize = 1;
+    }
+    // Only worker threads call in and the pool spreads them evenly, so a session never sees more
+    // concurrent callers than its share; a larger batch could never fill and every leader would
+    // sit out the full max wait.
+    int threads = Math.max(1, properties.getWorker().getThreadPoolSize());
+    int callersPerSession = (threads + sessions.size() - 1) / sessions.size();
+    if (maxBatchSize > callersPerSession) {
+      log.info(
+          "NSFW batch max-size {} exceeds the {} worker thread(s) per session; using {}",
+          maxBatchSize,
+          callersPerSession,
+          callersPerSession);
+      maxBatchSize = callersPerSession;
+    }
+    List<InferenceBatcher<FloatBuffer>> perSession = new ArrayList<>(sessions.size());
+    for (int slot = 0; slot < sessions.size(); slot++) {
+      OrtSession pooled = sessions.session(slot);
+      perSession.add(
+          new InferenceBatcher<>(
+              images -> runBatch(pooled, images), maxBatchSize, batch.getMaxWaitMs()));
+    }
+    this.batchers = List.copyOf(perSession);
+
+    // Each worker thread holds at most one image buffer; only a batch leader needs a batch one,
+    // and batches on a session may run side by side, at most one per maxBatchSize threads
+    ModerationProperties.Model model = properties.getModel();
+    int imageSize = 3 * model.getInputWidth() * model.getInputHeight();
+    this.imageBuffers = new TensorBufferPool(imageSize, threads);
+    this.batchBuffers =
+        new TensorBufferPool(maxBatchSize * imageSize, (threads + maxBatchSize - 1) / maxBatchSize);
+
+    if (properties.getSession().isWarmUp()) {
+      warmUp(maxBatchSize);
+    }
   }
 
   /**
-   * Runs NSFW inference on a BufferedImage and returns the probability score.
+   * Runs NSFW inference on a BufferedImage and returns the probability score. Preprocessing runs on
+   * the calling thread; the model itself runs once per micro-batch of images submitted concurrently
+   * (see {@code moderation.nsfw.batch}).
    *
    * @param image The image to analyze
    * @return Probability score between 0.0 (safe) and 1.0 (NSFW)
@@ -53,37 +107,121 @@ public class NsfwInferenceService {
     int width = properties.getModel().getInputWidth();
     int height = properties.getModel().getInputHeight();
 
-    // Preprocess image to model input format
-    float[] chw = preprocessor.toNchwFloatRgb(image, width, height);
-    FloatBuffer buffer = preprocessor.wrapAsBuffer(chw);
+    // Preprocess image to model input format, straight into a pooled direct buffer
+    FloatBuffer chw = imageBuffers.acquire();
+    try {
+      preprocessor.writeNchwFloatRgb(image, width, height, chw);
+      int slot = sessions.acquire();
+      try {
+        return batchers.get(slot).score(chw);
+      } finally {
+        sessions.release(slot);
+      }
+    } finally {
+      imageBuffers.release(chw);
+    }
+  }
 
-    // Get input tensor name from config or use first available
-    String inputName = properties.getModel().getInputName();
-    if (inputName == null || inputName.isEmpty()) {
-      inputName = session.getInputNames().iterator().next();
+  /**
+   * Runs one {@code [N, 3, H, W]} tensor through a pooled session and returns N scores. A single
+   * image is passed through in its own buffer; a larger batch is laid out back to back in a pooled
+   * batch buffer, one bulk copy per image. Either way the tensor is a view of the direct buffer.
+   */
+  private double[] runBatch(OrtSession pooled, List<FloatBuffer> images) {
+    int width = properties.getModel().getInputWidth();
+    int height = properties.getModel().getInputHeight();
+
+    FloatBuffer buffer;
+    if (images.size() == 1) {
+      buffer = images.get(0).duplicate().clear();
+    } else {
+      buffer = batchBuffers.acquire();
+      for (FloatBuffer chw : images) {
+        buffer.put(chw.duplicate().clear());
+      }
+      buffer.flip();
     }
 
-    long[] shape = new long[] {1, 3, height, width};
+    long[] shape = new long[] {images.size(), 3, height, width};
 
     try (OnnxTensor inputTensor = OnnxTensor.createTensor(env, buffer, shape)) {
-      Map<String, OnnxTensor> inputs = Map.of(inputName, inputTensor);
+      Map<String, OnnxTensor> inputs = Map.of(inputName(), inputTensor);
 
-      try (OrtSession.Result result = session.run(inputs)) {
-        // Extract probability from output
-        return extractNsfwProbability(result);
+      try (OrtSession.Result result = pooled.run(inputs)) {
+        // Extract probabilities from output
+        return extractNsfwProbabilities(result, images.size());
       }
     } catch (OrtException e) {
-      log.error("ONNX Runtime inference failed", e);
+      log.error("ONNX Runtime inference failed for batch of {}", images.size(), e);
       throw new RuntimeException("Failed to run NSFW inference", e);
+    } finally {
+      if (images.size() > 1) {
+        batchBuffers.release(buffer);
+      }
+    }
+  }
+
+  /**
+   * Runs a full batch of blank images through every session, so graph optimization, kernel
+   * selection and arena growth happen at startup instead of on the first uploads.
+   */
+  private void warmUp(int batchSize) {
+    List<FloatBuffer> blanks = new ArrayList<>(batchSize);
+    for (int i = 0; i < batchSize; i++) {
+      FloatBuffer blank = imageBuffers.acquire();
+      for (int j = 0; j < blank.capacity(); j++) {
+        blank.put(j, 0f);
+      }
+      blanks.add(blank);
+    }
+    try {
+      for (int slot = 0; slot < sessions.size(); slot++) {
+        long start = System.nanoTime();
+        runBatch(sessions.session(slot), blanks);
+        log.info(
+            "Warmed up ONNX session {} with a batch of {} in {} ms",
+            slot,
+            batchSize,
+            (System.nanoTime() - start) / 1_000_000);
+      }
+    } catch (RuntimeException e) {
+      log.warn("NSFW model warm-up failed; the first images will pay for initialization", e);
+    } finally {
+      blanks.forEach(imageBuffers::release);
+    }
+  }
+
+  // Get input tensor name from config or use first available
+  private String inputName() {
+    String inputName = properties.getModel().getInputName();
+    if (inputName == null || inputName.isEmpty()) {
+      inputName = session.getInputNames().iterator().next();
+    }
+    return inputName;
+  }
+
+  /** Whether the model accepts any batch size (first input dimension is symbolic, i.e. -1). */
+  private boolean hasDynamicBatchDimension() {
+    try {
+      NodeInfo input = session.getInputInfo().get(inputName());
+      if (input != null && input.getInfo() instanceof TensorInfo tensorInfo) {
+        long[] shape = tensorInfo.getShape();
+        return shape.length > 0 && shape[0] < 0;
+      }
+      return false;
+    } catch (OrtException | RuntimeException e) {
+      log.warn("Could not read NSFW model input shape; running one image per inference", e);
+      return false;
     }
   }
 
   /**
-   * Extracts the NSFW probability from the model output. This method handles different output
-   * formats: - Single logit (apply sigmoid) - Two-class logits (apply softmax and take index 1) -
-   * Pre-computed probability
+   * Extracts one NSFW probability per image from the model output. The output is split into equal
+   * rows, one per image, and each row is read as: - Single logit (apply sigmoid) - Two-class logits
+   * (apply softmax and take index 1) - Pre-computed probability
    */
-  private double extractNsfwProbability(OrtSession.Result result) throws OrtException {
+  private double[] extractNsfwProbabilities(OrtSession.Result result, int batchSize)
+      throws OrtException {
     // Get first output (most models have single output)
     String outputName = session.getOutputNames().iterator().next();
     OnnxTensor outputTensor = (OnnxTensor) result.get(outputName).orElseThrow();
@@ -94,6 +232,20 @@ public class NsfwInferenceService {
     if (values.length == 0) {
       throw new IllegalStateException("Empty output from NSFW model");
     }
+    if (values.length % batchSize != 0) {
+      throw new IllegalStateException(
+          "NSFW model output of " + values.length + " values does not split into " + batchSize);
+    }
+    int rowLength = values.length / batchSize;
+    double[] probabilities = new double[batchSize];
+    for (int i = 0; i < batchSize; i++) {
+      double[] row = Arrays.copyOfRange(values, i * rowLength, (i + 1) * rowLength);
+      probabilities[i] = toProbability(row, shape);
+    }
+    return probabilities;
+  }
+
+  private double toProbability(double[] values, long[] shape) {
     if (values.length == 1) {
       // Single logit - apply sigmoid: σ(x) = 1 / (1 + e^(-x))
       return sigmoid(values[0]);
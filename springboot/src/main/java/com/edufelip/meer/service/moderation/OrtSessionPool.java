@@ -0,0 +1,83 @@
+package com.edufelip.meer.service.moderation;
+
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One or more sessions over the same NSFW model. Each inference acquires the session with the
+ * fewest callers in flight and releases it when done, so with {@code
+ * moderation.nsfw.session.pool-size} sessions that many inferences can run at once, each on its own
+ * intra-op thread pool, and no session ever has more than {@code ceil(callers / pool-size)}
+ * concurrent callers however the worker threads come and go.
+ */
+public final class OrtSessionPool implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(OrtSessionPool.class);
+
+  private final List<OrtSession> sessions;
+  // callers between acquire and release, per slot; guarded by this
+  private final int[] inUse;
+  // where the next scan starts, so idle sessions take turns instead of slot 0 doing all the work
+  private int nextSlot;
+
+  public OrtSessionPool(List<OrtSession> sessions) {
+    if (sessions.isEmpty()) {
+      throw new IllegalArgumentException("Session pool needs at least one session");
+    }
+    this.sessions = List.copyOf(sessions);
+    this.inUse = new int[this.sessions.size()];
+  }
+
+  public int size() {
+    return sessions.size();
+  }
+
+  public OrtSession session(int slot) {
+    return sessions.get(slot);
+  }
+
+  /**
+   * Reserves the least busy session and returns its index. Every call must be paired with {@link
+   * #release(int)}.
+   */
+  public synchronized int acquire() {
+    int size = inUse.length;
+    int best = nextSlot;
+    for (int i = 1; i < size; i++) {
+      int slot = (nextSlot + i) % size;
+      if (inUse[slot] < inUse[best]) {
+        best = slot;
+      }
+    }
+    inUse[best]++;
+    nextSlot = (best + 1) % size;
+    return best;
+  }
+
+  /** Hands back a session reserved by {@link #acquire()}. */
+  public synchronized void release(int slot) {
+    if (inUse[slot] <= 0) {
+      throw new IllegalStateException("Session " + slot + " released more often than acquired");
+    }
+    inUse[slot]--;
+  }
+
+  /** Callers currently holding the session at {@code slot}. */
+  synchronized int inUse(int slot) {
+    return inUse[slot];
+  }
+
+  @Override
+  public void close() {
+    for (OrtSession session : sessions) {
+      try {
+        session.close();
+      } catch (OrtException e) {
+        log.warn("Failed to close ONNX session", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.edufelip.meer.service.moderation;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reusable native-order direct {@link FloatBuffer}s of one fixed capacity. ONNX Runtime builds a
+ * tensor over a direct buffer in place, whereas a heap buffer is first copied off-heap, so pooling
+ * them keeps each inference free of both the copy and a fresh multi-hundred-KB allocation.
+ */
+final class TensorBufferPool {
+
+  private final int capacity;
+  private final int maxRetained;
+  private final ConcurrentLinkedDeque<FloatBuffer> free = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger retained = new AtomicInteger();
+
+  TensorBufferPool(int capacity, int maxRetained) {
+    this.capacity = capacity;
+    this.maxRetained = maxRetained;
+  }
+
+  /** Returns a cleared buffer of {@code capacity} floats, reused when one is free. */
+  FloatBuffer acquire() {
+    FloatBuffer buffer = free.pollFirst();
+    if (buffer == null) {
+      return ByteBuffer.allocateDirect(capacity * Float.BYTES)
+          .order(ByteOrder.nativeOrder())
+          .asFloatBuffer();
+    }
+    retained.decrementAndGet();
+    return buffer.clear();
+  }
+
+  /** Hands a buffer back; past {@code maxRetained} idle buffers it is left to the GC instead. */
+  void release(FloatBuffer buffer) {
+    if (buffer.capacity() != capacity) {
+      return;
+    }
+    if (retained.incrementAndGet() > maxRetained) {
+      retained.decrementAndGet();
+      return;
+    }
+    free.offerFirst(buffer);
+  }
+}
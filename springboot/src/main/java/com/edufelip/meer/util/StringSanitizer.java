@@ -1,9 +1,17 @@
 package com.edufelip.meer.util;
 
 import java.text.Normalizer;
+import java.util.regex.Pattern;
 
 public final class StringSanitizer {
   private static final int MAX_CONSECUTIVE_NEWLINES = 3;
+  private static final String COLLAPSED_NEWLINES = "\n".repeat(MAX_CONSECUTIVE_NEWLINES);
+
+  private static final Pattern SCRIPT_BLOCK =
+      Pattern.compile("(?i)<\\s*script[^>]*>.*?</\\s*script\\s*>");
+  private static final Pattern SCRIPT_OPEN = Pattern.compile("(?i)<\\s*script[^>]*>");
+  private static final Pattern HTML_TAG = Pattern.compile("<[^>]*>");
+  private static final Pattern HTML_ENTITY = Pattern.compile("&[#\\w]+;");
 
   private StringSanitizer() {}
 
@@ -11,37 +19,37 @@ public final class StringSanitizer {
    * Sanitizes input by removing HTML tags and script content while preserving line breaks. Protects
    * against XSS attacks while maintaining text formatting.
    *
+   * <p>Plain ASCII text without markup, entities, control characters or long newline runs (most
+   * request fields) is only scanned and trimmed. Otherwise the precompiled tag and entity patterns
+   * run only when their trigger character is present, and control-character removal and newline
+   * collapsing share one final pass.
+   *
    * @param value the input string to sanitize
    * @return sanitized string with preserved newlines, or null if input is null
    */
   public static String sanitize(String value) {
     if (value == null) return null;
+    if (isPlain(value)) return value.trim();
 
-    // Normalize Unicode characters
-    String normalized = Normalizer.normalize(value, Normalizer.Form.NFKC);
-
-    // Remove script tags and their content (case-insensitive)
-    normalized = normalized.replaceAll("(?i)<\\s*script[^>]*>.*?</\\s*script\\s*>", "");
-    normalized = normalized.replaceAll("(?i)<\\s*script[^>]*>", "");
-
-    // Remove all HTML tags but keep the content
-    normalized = normalized.replaceAll("<[^>]*>", "");
+    // Normalize Unicode characters (ASCII is already NFKC)
+    String normalized = isAscii(value) ? value : Normalizer.normalize(value, Normalizer.Form.NFKC);
 
-    // Remove any remaining < or > characters (potential XSS vectors)
-    normalized = normalized.replaceAll("[<>]", "");
+    if (normalized.indexOf('<') >= 0 || normalized.indexOf('>') >= 0) {
+      // Remove script tags and their content, then all other tags, keeping the text between them
+      normalized = SCRIPT_BLOCK.matcher(normalized).replaceAll("");
+      normalized = SCRIPT_OPEN.matcher(normalized).replaceAll("");
+      normalized = HTML_TAG.matcher(normalized).replaceAll("");
+      // Remove any remaining < or > characters (potential XSS vectors)
+      normalized = removeAngleBrackets(normalized);
+    }
 
     // Remove HTML entities that could be used for XSS
-    normalized = normalized.replaceAll("&[#\\w]+;", "");
-
-    // Remove control characters EXCEPT newline (\n), carriage return (\r), and tab (\t)
-    normalized = normalized.replaceAll("[\\p{Cntrl}&&[^\\r\\n\\t]]", "");
-
-    // Limit excessive consecutive newlines (max 3 in a row)
-    normalized =
-        normalized.replaceAll("(\\r?\\n){" + (MAX_CONSECUTIVE_NEWLINES + 1) + ",}", "\n\n\n");
+    if (normalized.indexOf('&') >= 0) {
+      normalized = HTML_ENTITY.matcher(normalized).replaceAll("");
+    }
 
     // Trim leading/trailing whitespace but preserve internal newlines
-    return normalized.trim();
+    return stripControlsAndCollapseNewlines(normalized).trim();
   }
 
   /**
@@ -59,4 +67,91 @@ public final class StringSanitizer {
     }
     return cleaned;
   }
+
+  /**
+   * True when sanitizing would at most trim {@code value}: printable ASCII, CR, LF and TAB only, no
+   * {@code <}, {@code >} or {@code &}, and no run of more than {@value #MAX_CONSECUTIVE_NEWLINES}
+   * line breaks.
+   */
+  private static boolean isPlain(String value) {
+    int newlines = 0;
+    for (int i = 0, n = value.length(); i < n; i++) {
+      char c = value.charAt(i);
+      if (c == '\n') {
+        if (++newlines > MAX_CONSECUTIVE_NEWLINES) return false;
+      } else if (c == '\r') {
+        // "\r\n" is one line break; a lone CR ends the run
+        if (i + 1 == n || value.charAt(i + 1) != '\n') newlines = 0;
+      } else if (c > 0x7E || c == '<' || c == '>' || c == '&' || (c < 0x20 && c != '\t')) {
+        return false;
+      } else {
+        newlines = 0;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isAscii(String value) {
+    for (int i = 0, n = value.length(); i < n; i++) {
+      if (value.charAt(i) > 0x7F) return false;
+    }
+    return true;
+  }
+
+  private static String removeAngleBrackets(String value) {
+    StringBuilder out = null;
+    for (int i = 0, n = value.length(); i < n; i++) {
+      char c = value.charAt(i);
+      if (c == '<' || c == '>') {
+        if (out == null) out = new StringBuilder(n).append(value, 0, i);
+      } else if (out != null) {
+        out.append(c);
+      }
+    }
+    return out != null ? out.toString() : value;
+  }
+
+  /**
+   * Drops control characters other than CR, LF and TAB, and replaces every run of more than {@value
+   * #MAX_CONSECUTIVE_NEWLINES} line breaks ({@code \n} or {@code \r\n}) with {@value
+   * #MAX_CONSECUTIVE_NEWLINES} {@code \n}. Control characters are dropped first, so they neither
+   * split nor shorten a run.
+   */
+  private static String stripControlsAndCollapseNewlines(String value) {
+    int n = value.length();
+    StringBuilder out = new StringBuilder(n);
+    int runStart = -1;
+    int runEnd = -1;
+    int runLength = 0;
+    boolean pendingCr = false;
+    for (int i = 0; i < n; i++) {
+      char c = value.charAt(i);
+      if (isControl(c)) continue;
+      if (c == '\n') {
+        if (runLength == 0) runStart = pendingCr ? out.length() - 1 : out.length();
+        out.append(c);
+        runEnd = out.length();
+        runLength++;
+        pendingCr = false;
+        continue;
+      }
+      if (pendingCr || c != '\r') {
+        // a lone CR or any other character ends the current run
+        collapseRun(out, runStart, runEnd, runLength);
+        runLength = 0;
+      }
+      pendingCr = c == '\r';
+      out.append(c);
+    }
+    collapseRun(out, runStart, runEnd, runLength);
+    return out.length() == n ? value : out.toString();
+  }
+
+  private static void collapseRun(StringBuilder out, int start, int end, int length) {
+    if (length > MAX_CONSECUTIVE_NEWLINES) out.replace(start, end, COLLAPSED_NEWLINES);
+  }
+
+  private static boolean isControl(char c) {
+    return (c < 0x20 && c != '\r' && c != '\n' && c != '\t') || c == 0x7F;
+  }
 }
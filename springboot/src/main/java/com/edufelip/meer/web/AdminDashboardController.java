@@ -105,11 +105,10 @@ public class AdminDashboardController {
         (q != null && !q.isBlank())
             ? guideContentRepository.searchSummariesActive(q, pageable)
             : guideContentRepository.findAllSummariesActive(pageable);
-    var items = slice.getContent().stream().map(Mappers::toDto).toList();
-    var ids = items.stream().map(GuideContentDto::id).toList();
-    var engagement = guideContentEngagementService.getEngagement(ids, null);
+    var engagement = guideContentEngagementService.getSummaryEngagement(slice.getContent(), null);
     var enriched =
-        items.stream()
+        slice.getContent().stream()
+            .map(Mappers::toDto)
             .map(
                 item -> {
                   var summary =
@@ -132,7 +131,7 @@ public class AdminDashboardController {
             .findByIdAndDeletedAtIsNull(id)
             .orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Content not found"));
-    var engagement = guideContentEngagementService.getEngagement(List.of(content.getId()), null);
+    var engagement = guideContentEngagementService.getEngagement(List.of(content), null);
     var summary =
         engagement.getOrDefault(
             content.getId(), new GuideContentEngagementService.EngagementSummary(0L, 0L, false));
@@ -162,7 +161,7 @@ public class AdminDashboardController {
             .orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Content not found"));
     var restored = guideContentModerationService.restoreContent(content);
-    var engagement = guideContentEngagementService.getEngagement(List.of(restored.getId()), null);
+    var engagement = guideContentEngagementService.getEngagement(List.of(restored), null);
     var summary =
         engagement.getOrDefault(
             restored.getId(), new GuideContentEngagementService.EngagementSummary(0L, 0L, false));
@@ -46,8 +46,7 @@ public class FavoritesController {
       @RequestParam(name = "lat", required = false) Double lat,
       @RequestParam(name = "lng", required = false) Double lng) {
     AuthUser user = authUserResolver.requireUser(authHeader);
-    var ids = user.getFavorites().stream().map(f -> f.getId()).toList();
-    var summaries = storeFeedbackService.getSummaries(ids);
+    var summaries = storeFeedbackService.getSummaries(user.getFavorites());
     return user.getFavorites().stream()
         .map(
             store -> {
@@ -8,6 +8,8 @@ import com.edufelip.meer.domain.CreateGuideContentCommentUseCase;
 import com.edufelip.meer.domain.CreateOwnedGuideContentUseCase;
 import com.edufelip.meer.domain.DeleteGuideContentUseCase;
 import com.edufelip.meer.domain.GetGuideContentUseCase;
+import com.edufelip.meer.domain.GuideContentSummary;
+import com.edufelip.meer.domain.KeysetCursor;
 import com.edufelip.meer.domain.LikeGuideContentUseCase;
 import com.edufelip.meer.domain.RequestGuideContentImageUploadUseCase;
 import com.edufelip.meer.domain.UnlikeGuideContentUseCase;
@@ -28,11 +30,11 @@ import com.edufelip.meer.service.GuideContentEngagementService;
 import com.edufelip.meer.service.GuideContentModerationService;
 import jakarta.validation.Valid;
 import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -109,26 +111,78 @@ public class GuideContentController {
       @RequestParam(required = false) String q,
       @RequestParam(defaultValue = "newest") String sort,
       @RequestParam(required = false) UUID storeId,
+      @RequestParam(required = false) String cursor,
       @RequestHeader(name = "Authorization", required = false) String authHeader) {
     if (page < 0 || pageSize < 1 || pageSize > 100) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid pagination params");
     }
+    boolean search = q != null && !q.isBlank();
+    if (cursor != null && search) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "cursor is not supported together with q");
+    }
     var user = authUserResolver.optionalUser(authHeader);
-    Sort.Direction direction =
-        "oldest".equalsIgnoreCase(sort) ? Sort.Direction.ASC : Sort.Direction.DESC;
-    Sort s = Sort.by(direction, "createdAt").and(Sort.by(direction, "id"));
-    Pageable pageable = PageRequest.of(page, pageSize, s);
-    var slice =
-        (q != null && !q.isBlank())
-            ? (storeId != null
-                ? guideContentRepository.searchSummariesByStoreIdActive(storeId, q, pageable)
-                : guideContentRepository.searchSummariesActive(q, pageable))
-            : (storeId != null
-                ? guideContentRepository.findAllSummariesByStoreIdActive(storeId, pageable)
-                : guideContentRepository.findAllSummariesActive(pageable));
-    var summaries = slice.getContent().stream().map(Mappers::toDto).toList();
-    var items = enrichContentDtos(summaries, user);
-    return new PageResponse<>(items, page, slice.hasNext());
+    boolean oldest = "oldest".equalsIgnoreCase(sort);
+    Slice<GuideContentSummary> slice;
+    if (cursor != null) {
+      slice =
+          listAfterCursor(
+              KeysetCursor.fromRequest(cursor, Integer::valueOf), oldest, storeId, pageSize);
+    } else {
+      Sort.Direction direction = oldest ? Sort.Direction.ASC : Sort.Direction.DESC;
+      Sort s = Sort.by(direction, "createdAt").and(Sort.by(direction, "id"));
+      Pageable pageable = PageRequest.of(page, pageSize, s);
+      slice =
+          search
+              ? (storeId != null
+                  ? guideContentRepository.searchSummariesByStoreIdActive(storeId, q, pageable)
+                  : guideContentRepository.searchSummariesActive(q, pageable))
+              : (storeId != null
+                  ? guideContentRepository.findAllSummariesByStoreIdActive(storeId, pageable)
+                  : guideContentRepository.findAllSummariesActive(pageable));
+    }
+    var engagement =
+        guideContentEngagementService.getSummaryEngagement(
+            slice.getContent(), user != null ? user.getId() : null);
+    var items =
+        slice.getContent().stream()
+            .map(Mappers::toDto)
+            .map(
+                item -> {
+                  var summary =
+                      engagement.getOrDefault(
+                          item.id(),
+                          new GuideContentEngagementService.EngagementSummary(0L, 0L, false));
+                  return Mappers.withCounts(
+                      item, summary.likeCount(), summary.commentCount(), summary.likedByMe());
+                })
+            .toList();
+    // offset pages of the feed hand out a cursor too, so clients can switch after the first page
+    String nextCursor =
+        !search && slice.hasNext() && !slice.getContent().isEmpty()
+            ? cursorAfter(slice.getContent().get(slice.getContent().size() - 1))
+            : null;
+    return new PageResponse<>(items, page, slice.hasNext(), nextCursor);
+  }
+
+  private Slice<GuideContentSummary> listAfterCursor(
+      KeysetCursor<Integer> cursor, boolean oldest, UUID storeId, int pageSize) {
+    Pageable pageable = PageRequest.of(0, pageSize);
+    if (storeId != null) {
+      return oldest
+          ? guideContentRepository.findSummariesByStoreIdActiveAfter(
+              storeId, cursor.createdAt(), cursor.id(), pageable)
+          : guideContentRepository.findSummariesByStoreIdActiveBefore(
+              storeId, cursor.createdAt(), cursor.id(), pageable);
+    }
+    return oldest
+        ? guideContentRepository.findSummariesActiveAfter(cursor.createdAt(), cursor.id(), pageable)
+        : guideContentRepository.findSummariesActiveBefore(
+            cursor.createdAt(), cursor.id(), pageable);
+  }
+
+  private static String cursorAfter(GuideContentSummary last) {
+    return new KeysetCursor<>(last.createdAt(), last.id()).encode();
   }
 
   @GetMapping("/{id:\\d+}")
@@ -142,7 +196,7 @@ public class GuideContentController {
     }
     var engagement =
         guideContentEngagementService.getEngagement(
-            Collections.singletonList(content.getId()), user != null ? user.getId() : null);
+            Collections.singletonList(content), user != null ? user.getId() : null);
     var summary =
         engagement.getOrDefault(
             content.getId(), new GuideContentEngagementService.EngagementSummary(0L, 0L, false));
@@ -293,7 +347,7 @@ public class GuideContentController {
     var content = updateGuideContentUseCase.execute(user, id, command);
     var engagement =
         guideContentEngagementService.getEngagement(
-            Collections.singletonList(content.getId()), user != null ? user.getId() : null);
+            Collections.singletonList(content), user != null ? user.getId() : null);
     var summary =
         engagement.getOrDefault(
             content.getId(), new GuideContentEngagementService.EngagementSummary(0L, 0L, false));
@@ -314,24 +368,6 @@ public class GuideContentController {
         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Content not found"));
   }
 
-  private List<GuideContentDto> enrichContentDtos(List<GuideContentDto> base, AuthUser user) {
-    if (base == null || base.isEmpty()) return base;
-    var ids = base.stream().map(GuideContentDto::id).toList();
-    var engagement =
-        guideContentEngagementService.getEngagement(ids, user != null ? user.getId() : null);
-    return base.stream()
-        .map(
-            item -> {
-              var summary =
-                  engagement.getOrDefault(
-                      item.id(),
-                      new GuideContentEngagementService.EngagementSummary(0L, 0L, false));
-              return Mappers.withCounts(
-                  item, summary.likeCount(), summary.commentCount(), summary.likedByMe());
-            })
-        .toList();
-  }
-
   private boolean canModerateComment(AuthUser user, GuideContentComment comment) {
     if (user == null) return false;
     if (user.getRole() == Role.ADMIN) return true;
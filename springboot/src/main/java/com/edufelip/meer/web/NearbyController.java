@@ -45,8 +45,7 @@ public class NearbyController {
     var page = getThriftStoresUseCase.executeNearby(lat, lng, pageIndex, pageSize);
     List<ThriftStore> stores = page.getContent();
 
-    var summaries =
-        storeFeedbackService.getSummaries(stores.stream().map(ThriftStore::getId).toList());
+    var summaries = storeFeedbackService.getSummaries(stores);
 
     var items =
         stores.stream()
@@ -1,12 +1,14 @@
 package com.edufelip.meer.web;
 
-import com.edufelip.meer.domain.repo.ThriftStoreRepository;
+import com.edufelip.meer.domain.GetThriftStoresUseCase;
+import com.edufelip.meer.domain.StoreSearchIndex;
 import com.edufelip.meer.dto.PageResponse;
+import com.edufelip.meer.dto.StoreSuggestionDto;
 import com.edufelip.meer.dto.ThriftStoreDto;
 import com.edufelip.meer.mapper.Mappers;
 import com.edufelip.meer.security.AuthUserResolver;
 import com.edufelip.meer.service.StoreFeedbackService;
-import org.springframework.data.domain.PageRequest;
+import java.util.List;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
@@ -17,15 +19,15 @@ import org.springframework.web.server.ResponseStatusException;
 @RestController
 public class StoreSearchController {
 
-  private final ThriftStoreRepository thriftStoreRepository;
+  private final GetThriftStoresUseCase getThriftStoresUseCase;
   private final AuthUserResolver authUserResolver;
   private final StoreFeedbackService storeFeedbackService;
 
   public StoreSearchController(
-      ThriftStoreRepository thriftStoreRepository,
+      GetThriftStoresUseCase getThriftStoresUseCase,
       AuthUserResolver authUserResolver,
       StoreFeedbackService storeFeedbackService) {
-    this.thriftStoreRepository = thriftStoreRepository;
+    this.getThriftStoresUseCase = getThriftStoresUseCase;
     this.authUserResolver = authUserResolver;
     this.storeFeedbackService = storeFeedbackService;
   }
@@ -43,12 +45,9 @@ public class StoreSearchController {
     }
     var user = authUserResolver.optionalUser(authHeader);
 
-    var pageable = PageRequest.of(page - 1, pageSize);
-    var result = thriftStoreRepository.search(q, pageable);
+    var result = getThriftStoresUseCase.executeSearch(q.trim(), page - 1, pageSize);
 
-    var ids =
-        result.getContent().stream().map(com.edufelip.meer.core.store.ThriftStore::getId).toList();
-    var summaries = storeFeedbackService.getSummaries(ids);
+    var summaries = storeFeedbackService.getSummaries(result.getContent());
 
     var items =
         result.getContent().stream()
@@ -72,4 +71,18 @@ public class StoreSearchController {
 
     return new PageResponse<>(items, page, result.hasNext());
   }
+
+  @GetMapping("/stores/suggest")
+  public List<StoreSuggestionDto> suggest(
+      @RequestParam(name = "q") String q,
+      @RequestParam(name = "limit", defaultValue = "8") int limit) {
+    if (q == null || q.isBlank())
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q is required");
+    if (limit < 1 || limit > StoreSearchIndex.MAX_SUGGESTIONS) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid limit");
+    }
+    return getThriftStoresUseCase.suggest(q, limit).stream()
+        .map(s -> new StoreSuggestionDto(s.type().name(), s.label(), s.storeId()))
+        .toList();
+  }
 }
@@ -72,11 +72,13 @@ public class ThriftStoreController {
       @RequestHeader(name = "Authorization", required = false) String authHeader,
       @RequestParam(name = "q", required = false) String q,
       @RequestParam(name = "lat", required = false) Double lat,
-      @RequestParam(name = "lng", required = false) Double lng) {
+      @RequestParam(name = "lng", required = false) Double lng,
+      @RequestParam(name = "cursor", required = false) String cursor) {
     var user = authUserResolver.optionalUser(authHeader);
     var result =
         getStoreListingsUseCase.execute(
-            new GetStoreListingsUseCase.ListingQuery(type, categoryId, q, lat, lng, page, pageSize),
+            new GetStoreListingsUseCase.ListingQuery(
+                type, categoryId, q, lat, lng, page, pageSize, cursor),
             user);
     var items =
         result.items().stream()
@@ -90,7 +92,7 @@ public class ThriftStoreController {
                         item.reviewCount(),
                         item.distanceMeters()))
             .toList();
-    return new PageResponse<>(items, page, result.hasNext());
+    return new PageResponse<>(items, page, result.hasNext(), result.nextCursor());
   }
 
   @GetMapping("/{id}")
@@ -0,0 +1,14 @@
+-- Running rating totals per store, kept in sync by the feedback write paths.
+ALTER TABLE public.thrift_store ADD COLUMN rating_sum BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE public.thrift_store ADD COLUMN rating_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE public.thrift_store t
+SET rating_sum = agg.score_sum,
+    rating_count = agg.score_count
+FROM (
+    SELECT thrift_store_id, SUM(score) AS score_sum, COUNT(score) AS score_count
+    FROM public.store_feedback
+    WHERE score IS NOT NULL
+    GROUP BY thrift_store_id
+) agg
+WHERE agg.thrift_store_id = t.id;
@@ -0,0 +1,4 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- The store search trigram indexes are created by V17, over the accent-stripped expressions the
+-- search queries use, so the table is indexed once rather than built here and rebuilt there.
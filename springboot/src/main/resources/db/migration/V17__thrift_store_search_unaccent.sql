@@ -0,0 +1,18 @@
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() is only STABLE (it depends on the search path); pinning the dictionary makes the
+-- wrapper safe to use in index expressions.
+CREATE OR REPLACE FUNCTION public.meer_unaccent(text)
+    RETURNS text
+    LANGUAGE sql
+    IMMUTABLE PARALLEL SAFE STRICT
+AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$;
+
+CREATE INDEX IF NOT EXISTS idx_thrift_store_name_unaccent_trgm
+    ON public.thrift_store USING gin (public.meer_unaccent(lower(name)) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_thrift_store_description_unaccent_trgm
+    ON public.thrift_store USING gin (public.meer_unaccent(lower(description)) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_thrift_store_neighborhood_unaccent_trgm
+    ON public.thrift_store USING gin (public.meer_unaccent(lower(neighborhood)) gin_trgm_ops);
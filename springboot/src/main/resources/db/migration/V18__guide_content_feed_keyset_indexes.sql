@@ -0,0 +1,8 @@
+-- Keyset pagination of the public content feed: (created_at, id) in feed order, active rows only.
+CREATE INDEX IF NOT EXISTS idx_guide_content_active_created_at_id
+    ON public.guide_content (created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_guide_content_store_active_created_at_id
+    ON public.guide_content (thrift_store_id, created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
@@ -0,0 +1,3 @@
+-- Newest-first store listing (GET /stores): offset pages and keyset pages both walk (created_at, id).
+CREATE INDEX IF NOT EXISTS idx_thrift_store_created_at_id
+    ON public.thrift_store (created_at DESC, id DESC);
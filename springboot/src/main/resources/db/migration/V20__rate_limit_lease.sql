@@ -0,0 +1,11 @@
+-- Shared rate-limit budget: tokens handed out per policy/key/window across all nodes.
+-- Counters are short-lived and rebuilt on demand, so the table skips the WAL.
+CREATE UNLOGGED TABLE IF NOT EXISTS public.rate_limit_lease (
+    bucket_id VARCHAR(512) PRIMARY KEY,
+    window_end TIMESTAMPTZ NOT NULL,
+    granted INTEGER NOT NULL DEFAULT 0,
+    last_grant INTEGER NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_rate_limit_lease_window_end
+    ON public.rate_limit_lease (window_end);
@@ -0,0 +1,12 @@
+-- Lease start for PROCESSING rows: rows claimed longer ago than the lease timeout are returned
+-- to PENDING, so work lost when a node dies mid-inference is picked up again.
+ALTER TABLE image_moderation
+    ADD COLUMN claimed_at TIMESTAMP;
+
+-- Rows already PROCESSING get a fresh lease rather than being treated as expired at once
+UPDATE image_moderation SET claimed_at = CURRENT_TIMESTAMP WHERE status = 'PROCESSING';
+
+CREATE INDEX idx_image_moderation_processing_claimed_at
+    ON image_moderation(claimed_at) WHERE status = 'PROCESSING';
+
+COMMENT ON COLUMN image_moderation.claimed_at IS 'Lease start: when the row was last claimed as PROCESSING';
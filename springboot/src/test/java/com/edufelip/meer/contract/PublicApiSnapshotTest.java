@@ -289,10 +289,13 @@ class PublicApiSnapshotTest {
             storeId,
             "Store",
             "https://cover",
-            createdAt);
+            createdAt,
+            0L,
+            0L);
     var slice = new SliceImpl<>(List.of(summary), PageRequest.of(0, 20), false);
     when(guideContentRepository.findAllSummariesActive(any())).thenReturn(slice);
-    when(guideContentEngagementService.getEngagement(any(), any())).thenReturn(java.util.Map.of());
+    when(guideContentEngagementService.getSummaryEngagement(any(), any()))
+        .thenReturn(java.util.Map.of());
 
     String body =
         mockMvc
@@ -19,7 +19,9 @@ class CreateThriftStoreUseCaseTest {
   void createsStoreWithNormalizedCategoriesAndSocial() {
     ThriftStoreRepository repo = Mockito.mock(ThriftStoreRepository.class);
     AuthUserRepository authUserRepository = Mockito.mock(AuthUserRepository.class);
-    CreateThriftStoreUseCase useCase = new CreateThriftStoreUseCase(repo, authUserRepository);
+    CreateThriftStoreUseCase useCase =
+        new CreateThriftStoreUseCase(
+            repo, authUserRepository, new StoreGeoIndex(), new StoreSearchIndex());
 
     when(repo.save(Mockito.any(ThriftStore.class)))
         .thenAnswer(inv -> inv.getArgument(0, ThriftStore.class));
@@ -56,7 +58,9 @@ class CreateThriftStoreUseCaseTest {
   void createsStoreWithoutPhone() {
     ThriftStoreRepository repo = Mockito.mock(ThriftStoreRepository.class);
     AuthUserRepository authUserRepository = Mockito.mock(AuthUserRepository.class);
-    CreateThriftStoreUseCase useCase = new CreateThriftStoreUseCase(repo, authUserRepository);
+    CreateThriftStoreUseCase useCase =
+        new CreateThriftStoreUseCase(
+            repo, authUserRepository, new StoreGeoIndex(), new StoreSearchIndex());
 
     when(repo.save(Mockito.any(ThriftStore.class)))
         .thenAnswer(inv -> inv.getArgument(0, ThriftStore.class));
@@ -2,6 +2,7 @@ package com.edufelip.meer.domain;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.edufelip.meer.core.auth.AuthUser;
@@ -10,11 +11,15 @@ import com.edufelip.meer.core.store.ThriftStore;
 import com.edufelip.meer.domain.repo.StoreFeedbackRepository;
 import com.edufelip.meer.service.GuideContentEngagementService;
 import com.edufelip.meer.service.StoreFeedbackService;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
@@ -32,7 +37,7 @@ class GetStoreDetailsUseCaseTest {
     store.setId(storeId);
 
     when(getThriftStoreUseCase.execute(storeId)).thenReturn(store);
-    when(storeFeedbackService.getSummaries(List.of(storeId)))
+    when(storeFeedbackService.getSummaries(List.of(store)))
         .thenReturn(Map.of(storeId, new StoreFeedbackService.Summary(4.0, 3L)));
 
     AuthUser user = new AuthUser();
@@ -73,4 +78,82 @@ class GetStoreDetailsUseCaseTest {
 
     verify(getStoreContentsUseCase).execute(storeId, user.getId());
   }
+
+  @Test
+  void fansOutLookupsOnExecutorAndJoinsThem() {
+    GetThriftStoreUseCase getThriftStoreUseCase = Mockito.mock(GetThriftStoreUseCase.class);
+    StoreFeedbackService storeFeedbackService = Mockito.mock(StoreFeedbackService.class);
+    StoreFeedbackRepository storeFeedbackRepository = Mockito.mock(StoreFeedbackRepository.class);
+    GetStoreContentsUseCase getStoreContentsUseCase = Mockito.mock(GetStoreContentsUseCase.class);
+
+    UUID storeId = UUID.randomUUID();
+    ThriftStore store = new ThriftStore();
+    store.setId(storeId);
+    AuthUser user = new AuthUser();
+    user.setId(UUID.randomUUID());
+    user.setFavorites(Set.of());
+
+    Set<String> lookupThreads = ConcurrentHashMap.newKeySet();
+    when(getThriftStoreUseCase.execute(storeId)).thenReturn(store);
+    when(storeFeedbackService.getSummaries(List.of(store))).thenReturn(Map.of());
+    StoreFeedback feedback = new StoreFeedback();
+    feedback.setScore(4);
+    when(storeFeedbackRepository.findByUserIdAndThriftStoreId(user.getId(), storeId))
+        .thenAnswer(
+            invocation -> {
+              lookupThreads.add(Thread.currentThread().getName());
+              return Optional.of(feedback);
+            });
+    when(getStoreContentsUseCase.execute(storeId, user.getId()))
+        .thenAnswer(
+            invocation -> {
+              lookupThreads.add(Thread.currentThread().getName());
+              return List.of();
+            });
+
+    ExecutorService executor = Executors.newFixedThreadPool(2, r -> new Thread(r, "fan-out"));
+    try {
+      GetStoreDetailsUseCase useCase =
+          new GetStoreDetailsUseCase(
+              getThriftStoreUseCase,
+              storeFeedbackService,
+              storeFeedbackRepository,
+              getStoreContentsUseCase,
+              executor,
+              null);
+
+      var details = useCase.execute(storeId, user);
+
+      assertThat(details.myRating()).isEqualTo(4);
+      assertThat(details.contents()).isEmpty();
+      assertThat(details.isFavorite()).isFalse();
+      assertThat(lookupThreads).containsExactly("fan-out");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void returnsNullWithoutFanningOutWhenStoreIsMissing() {
+    GetThriftStoreUseCase getThriftStoreUseCase = Mockito.mock(GetThriftStoreUseCase.class);
+    GetStoreContentsUseCase getStoreContentsUseCase = Mockito.mock(GetStoreContentsUseCase.class);
+    StoreFeedbackRepository storeFeedbackRepository = Mockito.mock(StoreFeedbackRepository.class);
+    UUID storeId = UUID.randomUUID();
+    AuthUser user = new AuthUser();
+    user.setId(UUID.randomUUID());
+    List<Runnable> submitted = new ArrayList<>();
+
+    GetStoreDetailsUseCase useCase =
+        new GetStoreDetailsUseCase(
+            getThriftStoreUseCase,
+            Mockito.mock(StoreFeedbackService.class),
+            storeFeedbackRepository,
+            getStoreContentsUseCase,
+            submitted::add,
+            null);
+
+    assertThat(useCase.execute(storeId, user)).isNull();
+    assertThat(submitted).isEmpty();
+    verifyNoInteractions(getStoreContentsUseCase, storeFeedbackRepository);
+  }
 }
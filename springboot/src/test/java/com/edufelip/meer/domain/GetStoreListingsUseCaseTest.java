@@ -2,6 +2,8 @@ package com.edufelip.meer.domain;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -10,6 +12,7 @@ import com.edufelip.meer.core.store.ThriftStore;
 import com.edufelip.meer.domain.repo.CategoryRepository;
 import com.edufelip.meer.domain.repo.ThriftStoreRepository;
 import com.edufelip.meer.service.StoreFeedbackService;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -17,6 +20,8 @@ import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -36,7 +41,7 @@ class GetStoreListingsUseCaseTest {
     store.setLongitude(10.0);
 
     when(getThriftStoresUseCase.executePaged(1, 20)).thenReturn(new PageImpl<>(List.of(store)));
-    when(storeFeedbackService.getSummaries(List.of(storeId)))
+    when(storeFeedbackService.getSummaries(List.of(store)))
         .thenReturn(Map.of(storeId, new StoreFeedbackService.Summary(4.5, 2L)));
 
     AuthUser user = new AuthUser();
@@ -51,7 +56,8 @@ class GetStoreListingsUseCaseTest {
 
     var result =
         useCase.execute(
-            new GetStoreListingsUseCase.ListingQuery(null, null, null, 10.0, 10.0, 2, 20), user);
+            new GetStoreListingsUseCase.ListingQuery(null, null, null, 10.0, 10.0, 2, 20, null),
+            user);
 
     assertThat(result.items()).hasSize(1);
     var item = result.items().get(0);
@@ -60,7 +66,7 @@ class GetStoreListingsUseCaseTest {
     assertThat(item.reviewCount()).isEqualTo(2);
     assertThat(item.distanceMeters()).isEqualTo(0.0);
     verify(getThriftStoresUseCase).executePaged(1, 20);
-    verify(storeFeedbackService).getSummaries(List.of(storeId));
+    verify(storeFeedbackService).getSummaries(List.of(store));
   }
 
   @Test
@@ -75,7 +81,8 @@ class GetStoreListingsUseCaseTest {
     assertThatThrownBy(
             () ->
                 useCase.execute(
-                    new GetStoreListingsUseCase.ListingQuery(null, null, null, null, null, 0, 10),
+                    new GetStoreListingsUseCase.ListingQuery(
+                        null, null, null, null, null, 0, 10, null),
                     null))
         .isInstanceOf(ResponseStatusException.class)
         .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
@@ -95,7 +102,7 @@ class GetStoreListingsUseCaseTest {
             () ->
                 useCase.execute(
                     new GetStoreListingsUseCase.ListingQuery(
-                        "nearby", null, null, null, 10.0, 1, 10),
+                        "nearby", null, null, null, 10.0, 1, 10, null),
                     null))
         .isInstanceOf(ResponseStatusException.class)
         .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
@@ -118,10 +125,74 @@ class GetStoreListingsUseCaseTest {
             () ->
                 useCase.execute(
                     new GetStoreListingsUseCase.ListingQuery(
-                        null, "missing", null, null, null, 1, 10),
+                        null, "missing", null, null, null, 1, 10, null),
                     null))
         .isInstanceOf(ResponseStatusException.class)
         .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
         .isEqualTo(HttpStatus.NOT_FOUND);
   }
+
+  @Test
+  void continuesDefaultListingFromCursorAndReturnsNextCursor() {
+    GetThriftStoresUseCase getThriftStoresUseCase = Mockito.mock(GetThriftStoresUseCase.class);
+    StoreFeedbackService storeFeedbackService = Mockito.mock(StoreFeedbackService.class);
+
+    ThriftStore store = new ThriftStore();
+    store.setId(UUID.randomUUID());
+    store.setCreatedAt(Instant.parse("2024-02-01T10:00:00Z"));
+    var cursor = new KeysetCursor<>(Instant.parse("2024-03-01T10:00:00Z"), UUID.randomUUID());
+
+    when(getThriftStoresUseCase.executeNewestAfter(cursor, 1))
+        .thenReturn(new SliceImpl<>(List.of(store), PageRequest.of(0, 1), true));
+    when(storeFeedbackService.getSummaries(List.of(store))).thenReturn(Map.of());
+
+    GetStoreListingsUseCase useCase =
+        new GetStoreListingsUseCase(
+            getThriftStoresUseCase,
+            Mockito.mock(ThriftStoreRepository.class),
+            storeFeedbackService,
+            Mockito.mock(CategoryRepository.class));
+
+    var result =
+        useCase.execute(
+            new GetStoreListingsUseCase.ListingQuery(
+                null, null, null, null, null, 1, 1, cursor.encode()),
+            null);
+
+    assertThat(result.items()).hasSize(1);
+    assertThat(result.hasNext()).isTrue();
+    assertThat(KeysetCursor.decode(result.nextCursor(), UUID::fromString))
+        .isEqualTo(new KeysetCursor<>(store.getCreatedAt(), store.getId()));
+    verify(getThriftStoresUseCase, never()).executePaged(anyInt(), anyInt());
+  }
+
+  @Test
+  void rejectsCursorOutsideDefaultListing() {
+    GetStoreListingsUseCase useCase =
+        new GetStoreListingsUseCase(
+            Mockito.mock(GetThriftStoresUseCase.class),
+            Mockito.mock(ThriftStoreRepository.class),
+            Mockito.mock(StoreFeedbackService.class),
+            Mockito.mock(CategoryRepository.class));
+    String cursor = new KeysetCursor<>(Instant.now(), UUID.randomUUID()).encode();
+
+    assertThatThrownBy(
+            () ->
+                useCase.execute(
+                    new GetStoreListingsUseCase.ListingQuery(
+                        null, null, "brecho", null, null, 1, 10, cursor),
+                    null))
+        .isInstanceOf(ResponseStatusException.class)
+        .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+        .isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThatThrownBy(
+            () ->
+                useCase.execute(
+                    new GetStoreListingsUseCase.ListingQuery(
+                        null, null, null, null, null, 1, 10, "not-a-cursor"),
+                    null))
+        .isInstanceOf(ResponseStatusException.class)
+        .extracting(ex -> ((ResponseStatusException) ex).getStatusCode())
+        .isEqualTo(HttpStatus.BAD_REQUEST);
+  }
 }
@@ -0,0 +1,38 @@
+package com.edufelip.meer.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+class KeysetCursorTest {
+
+  private static final Instant SEEN_AT = Instant.parse("2024-03-01T10:00:00.123456Z");
+
+  @Test
+  void roundTripsEachFeedIdType() {
+    var store = new KeysetCursor<>(SEEN_AT, UUID.randomUUID());
+    var content = new KeysetCursor<>(SEEN_AT, 42);
+
+    assertThat(KeysetCursor.decode(store.encode(), UUID::fromString)).isEqualTo(store);
+    assertThat(KeysetCursor.decode(content.encode(), Integer::valueOf)).isEqualTo(content);
+    assertThat(store.encode()).doesNotContain("=", "+", "/");
+  }
+
+  @Test
+  void rejectsTokensItDidNotIssue() {
+    String wrongIdType = new KeysetCursor<>(SEEN_AT, UUID.randomUUID()).encode();
+
+    for (String token : new String[] {"not base64!", "bm8tc2VwYXJhdG9y", wrongIdType}) {
+      assertThatThrownBy(() -> KeysetCursor.decode(token, Integer::valueOf))
+          .as(token)
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+    assertThatThrownBy(() -> KeysetCursor.fromRequest(wrongIdType, Integer::valueOf))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("Invalid cursor");
+  }
+}
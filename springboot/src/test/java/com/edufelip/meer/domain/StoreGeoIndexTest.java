@@ -0,0 +1,146 @@
+package com.edufelip.meer.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class StoreGeoIndexTest {
+
+  @Test
+  void staysColdUntilRebuilt() {
+    StoreGeoIndex index = new StoreGeoIndex();
+    index.upsert(UUID.randomUUID(), -23.0, -46.0);
+
+    assertThat(index.isWarm()).isFalse();
+
+    index.rebuild(List.of());
+    assertThat(index.isWarm()).isTrue();
+    assertThat(index.size()).isZero();
+  }
+
+  @Test
+  void pagesMatchBruteForceDistanceOrder() {
+    Random random = new Random(42);
+    List<StoreGeoIndex.GeoPoint> points = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      points.add(
+          new StoreGeoIndex.GeoPoint(
+              UUID.randomUUID(), -24.0 + random.nextDouble() * 2, -47.0 + random.nextDouble() * 2));
+    }
+    StoreGeoIndex index = new StoreGeoIndex();
+    index.rebuild(points);
+
+    double lat = -23.5;
+    double lng = -46.6;
+    List<UUID> expected =
+        points.stream()
+            .sorted(
+                Comparator.comparingDouble((StoreGeoIndex.GeoPoint p) -> haversineKm(lat, lng, p))
+                    .thenComparing(StoreGeoIndex.GeoPoint::storeId))
+            .map(StoreGeoIndex.GeoPoint::storeId)
+            .toList();
+
+    var first = index.nearest(lat, lng, 0, 10);
+    var third = index.nearest(lat, lng, 20, 10);
+
+    assertThat(first.total()).isEqualTo(500);
+    assertThat(first.storeIds()).containsExactlyElementsOf(expected.subList(0, 10));
+    assertThat(third.storeIds()).containsExactlyElementsOf(expected.subList(20, 30));
+  }
+
+  @Test
+  void fallsBackToLinearScanWhenOriginIsFarFromStores() {
+    UUID near = UUID.randomUUID();
+    UUID far = UUID.randomUUID();
+    StoreGeoIndex index = new StoreGeoIndex();
+    index.rebuild(
+        List.of(
+            new StoreGeoIndex.GeoPoint(far, -30.0, -51.0),
+            new StoreGeoIndex.GeoPoint(near, -23.0, -46.0)));
+
+    var page = index.nearest(40.0, -74.0, 0, 10);
+
+    assertThat(page.storeIds()).containsExactly(near, far);
+  }
+
+  @Test
+  void upsertMovesAndRemoveDropsStores() {
+    UUID storeId = UUID.randomUUID();
+    UUID other = UUID.randomUUID();
+    StoreGeoIndex index = new StoreGeoIndex();
+    index.rebuild(
+        List.of(
+            new StoreGeoIndex.GeoPoint(storeId, -23.0, -46.0),
+            new StoreGeoIndex.GeoPoint(other, -23.1, -46.1)));
+
+    index.upsert(storeId, -25.0, -49.0);
+    assertThat(index.nearest(-23.0, -46.0, 0, 1).storeIds()).containsExactly(other);
+
+    index.upsert(other, null, null);
+    assertThat(index.nearest(-23.0, -46.0, 0, 10).storeIds()).containsExactly(storeId);
+
+    index.remove(storeId);
+    assertThat(index.nearest(-23.0, -46.0, 0, 10).storeIds()).isEmpty();
+    assertThat(index.nearest(-23.0, -46.0, 0, 10).total()).isZero();
+  }
+
+  @Test
+  void writesMadeWhileRebuildLoadsAreNotLost() {
+    UUID created = UUID.randomUUID();
+    UUID deleted = UUID.randomUUID();
+    UUID moved = UUID.randomUUID();
+    StoreGeoIndex index = new StoreGeoIndex();
+    index.rebuild(List.of());
+
+    index.rebuild(
+        () -> {
+          // the loader has already read these rows when the writes land
+          List<StoreGeoIndex.GeoPoint> stale =
+              List.of(
+                  new StoreGeoIndex.GeoPoint(deleted, -23.0, -46.0),
+                  new StoreGeoIndex.GeoPoint(moved, -23.0, -46.0));
+          index.upsert(created, -23.0, -46.0);
+          index.remove(deleted);
+          index.upsert(moved, -30.0, -51.0);
+          return stale;
+        });
+
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.nearest(-23.0, -46.0, 0, 10).storeIds()).containsExactly(created, moved);
+  }
+
+  @Test
+  void failedRebuildKeepsTheCurrentContent() {
+    UUID storeId = UUID.randomUUID();
+    StoreGeoIndex index = new StoreGeoIndex();
+    index.rebuild(List.of(new StoreGeoIndex.GeoPoint(storeId, -23.0, -46.0)));
+
+    assertThatThrownBy(
+            () ->
+                index.rebuild(
+                    () -> {
+                      throw new IllegalStateException("db down");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+
+    assertThat(index.nearest(-23.0, -46.0, 0, 10).storeIds()).containsExactly(storeId);
+  }
+
+  private static double haversineKm(double lat, double lng, StoreGeoIndex.GeoPoint p) {
+    double dLat = Math.toRadians(p.latitude() - lat);
+    double dLon = Math.toRadians(p.longitude() - lng);
+    double a =
+        Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat))
+                * Math.cos(Math.toRadians(p.latitude()))
+                * Math.sin(dLon / 2)
+                * Math.sin(dLon / 2);
+    return 6371.0 * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+  }
+}
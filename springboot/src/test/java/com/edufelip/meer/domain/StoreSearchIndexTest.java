@@ -0,0 +1,222 @@
+package com.edufelip.meer.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class StoreSearchIndexTest {
+
+  @Test
+  void staysColdUntilRebuilt() {
+    StoreSearchIndex index = new StoreSearchIndex();
+    index.upsert(doc(UUID.randomUUID(), "Brecho", "Centro", null, 0));
+
+    assertThat(index.isWarm()).isFalse();
+    assertThat(index.size()).isZero();
+
+    index.rebuild(List.of());
+    assertThat(index.isWarm()).isTrue();
+  }
+
+  @Test
+  void ranksExactPrefixSubstringDescriptionAndNeighborhoodMatches() {
+    UUID exact = UUID.randomUUID();
+    UUID prefix = UUID.randomUUID();
+    UUID contains = UUID.randomUUID();
+    UUID description = UUID.randomUUID();
+    UUID neighborhood = UUID.randomUUID();
+    UUID unrelated = UUID.randomUUID();
+    StoreSearchIndex index = new StoreSearchIndex();
+    index.rebuild(
+        List.of(
+            doc(neighborhood, "Loja Azul", "Vila Vintage", null, 1),
+            doc(description, "Bazar", "Centro", "Roupas vintage e discos", 2),
+            doc(contains, "Casa Vintage", "Centro", null, 3),
+            doc(prefix, "Vintage Store", "Centro", null, 4),
+            doc(exact, "  VINTAGE ", "Centro", null, 5),
+            doc(unrelated, "Sebo", "Centro", "Livros", 6)));
+
+    var page = index.search("vintage", 0, 10);
+
+    assertThat(page.total()).isEqualTo(5);
+    assertThat(page.storeIds()).containsExactly(exact, prefix, contains, description, neighborhood);
+  }
+
+  @Test
+  void breaksTiesByNameLengthThenNewestAndPagesResults() {
+    UUID longer = UUID.randomUUID();
+    UUID older = UUID.randomUUID();
+    UUID newer = UUID.randomUUID();
+    StoreSearchIndex index = new StoreSearchIndex();
+    index.rebuild(
+        List.of(
+            doc(longer, "Brecho da Maria", null, null, 9),
+            doc(older, "Brecho Ana", null, null, 1),
+            doc(newer, "Brecho Bia", null, null, 2)));
+
+    assertThat(index.search("brecho", 0, 10).storeIds()).containsExactly(newer, older, longer);
+    var second = index.search("brecho", 1, 1);
+    assertThat(second.storeIds()).containsExactly(older);
+    assertThat(second.total()).isEqualTo(3);
+  }
+
+  @Test
+  void shortQueriesScanAllEntries() {
+    UUID storeId = UUID.randomUUID();
+    StoreSearchIndex index = new StoreSearchIndex();
+    index.rebuild(List.of(doc(storeId, "Ox", "Centro", null, 0)));
+
+    assertThat(index.search("ox", 0, 10).storeIds()).containsExactly(storeId);
+    assertThat(index.search("zz", 0, 10).total()).isZero();
+  }
+
+  @Test
+  void upsertReindexesAndRemoveDropsStores() {
+    UUID storeId = UUID.randomUUID();
+    StoreSearchIndex index = new StoreSearchIndex();
+    index.rebuild(List.of(doc(storeId, "Brecho Antigo", "Centro", null, 0)));
+
+    index.upsert(doc(storeId, "Garimpo Novo", "Centro", null, 0));
+    assertThat(index.search("antigo", 0, 10).storeIds()).isEmpty();
+    assertThat(index.search("garimpo", 0, 10).storeIds()).containsExactly(storeId);
+
+    index.remove(storeId);
+    assertThat(index.search("garimpo", 0, 10).total()).isZero();
+    assertThat(index.size()).isZero();
+  }
+
+  @Test
+  void matchesIgnoringAccentsAndCase() {
+    UUID storeId = UUID.randomUUID();
+    StoreSearchIndex index = new StoreSearchIndex();
+    index.rebuild(List.of(doc(storeId, "Brechó  Estação", "São Paulo", null, 0)));
+
+    assertThat(index.search("BRECHO estacao", 0, 10).storeIds()).containsExactly(storeId);
+    assertThat(index.search("sao paulo", 0, 10).storeIds()).containsExactly(storeId);
+    assertThat(index.search("estação", 0, 10).storeIds()).containsExactly(storeId);
+  }
+
+  @Test
+  void fallsBackToSimilarWordsWhenNothingMatchesLiterally() {
+    UUID brecho = UUID.randomUUID();
+    UUID sebo = UUID.randomUUID();
+    StoreSearchIndex index = new StoreSearchIndex();
+    index.rebuild(
+        List.of(
+            doc(brecho, "Brechó da Maria", "Pinheiros", null, 0),
+            doc(sebo, "Sebo Central", "Consolação", null, 1)));
+
+    var typo = index.search("brchó", 0, 10);
+    assertThat(typo.storeIds()).containsExactly(brecho);
+    assertThat(typo.total()).isEqualTo(1);
+    assertThat(index.search("consolacao", 0, 10).storeIds()).containsExactly(sebo);
+    assertThat(index.search("xyzw", 0, 10).total()).isZero();
+  }
+
+  @Test
+  void suggestsStoresAndNeighborhoodsByWordPrefix() {
+    UUID maria = UUID.randomUUID();
+    UUID bonita = UUID.randomUUID();
+    StoreSearchIndex index = new StoreSearchIndex();
+    index.rebuild(
+        List.of(
+            doc(maria, "Brechó da Maria", "Vila Mariana", null, 0),
+            doc(bonita, "Maria Bonita", "vila mariana", null, 1)));
+
+    assertThat(index.suggest("mari", 10))
+        .containsExactly(
+            new StoreSearchIndex.Suggestion(
+                StoreSearchIndex.SuggestionType.STORE, "Maria Bonita", bonita),
+            new StoreSearchIndex.Suggestion(
+                StoreSearchIndex.SuggestionType.NEIGHBORHOOD, "Vila Mariana", null),
+            new StoreSearchIndex.Suggestion(
+                StoreSearchIndex.SuggestionType.STORE, "Brechó da Maria", maria));
+    assertThat(index.suggest("BRECHO d", 10))
+        .extracting(StoreSearchIndex.Suggestion::storeId)
+        .containsExactly(maria);
+    assertThat(index.suggest("mari", 1)).hasSize(1);
+    assertThat(index.suggest("zzz", 10)).isEmpty();
+  }
+
+  @Test
+  void suggestToleratesOneTypoAndFollowsWrites() {
+    UUID storeId = UUID.randomUUID();
+    UUID other = UUID.randomUUID();
+    StoreSearchIndex index = new StoreSearchIndex();
+    index.rebuild(
+        List.of(
+            doc(storeId, "Garimpo Vintage", "Centro", null, 0),
+            doc(other, "Bazar", "Centro", null, 1)));
+
+    assertThat(index.suggest("garimo", 10))
+        .extracting(StoreSearchIndex.Suggestion::storeId)
+        .containsExactly(storeId);
+
+    index.upsert(doc(storeId, "Achados", "Lapa", null, 0));
+    assertThat(index.suggest("garim", 10)).isEmpty();
+    assertThat(index.suggest("acha", 10))
+        .extracting(StoreSearchIndex.Suggestion::storeId)
+        .containsExactly(storeId);
+    assertThat(index.suggest("cent", 10))
+        .extracting(StoreSearchIndex.Suggestion::label)
+        .containsExactly("Centro");
+
+    index.remove(other);
+    assertThat(index.suggest("cent", 10)).isEmpty();
+    assertThat(index.suggest("lapa", 10))
+        .extracting(StoreSearchIndex.Suggestion::type)
+        .containsExactly(StoreSearchIndex.SuggestionType.NEIGHBORHOOD);
+  }
+
+  @Test
+  void writesMadeWhileRebuildLoadsAreNotLost() {
+    UUID created = UUID.randomUUID();
+    UUID deleted = UUID.randomUUID();
+    UUID renamed = UUID.randomUUID();
+    StoreSearchIndex index = new StoreSearchIndex();
+
+    index.rebuild(
+        () -> {
+          // the loader has already read these rows when the writes land
+          List<StoreSearchIndex.Document> stale =
+              List.of(
+                  doc(deleted, "Brecho Antigo", "Centro", null, 0),
+                  doc(renamed, "Brecho Velho", "Centro", null, 0));
+          index.upsert(doc(created, "Brecho Novo", "Centro", null, 2));
+          index.remove(deleted);
+          index.upsert(doc(renamed, "Brecho Renovado", "Centro", null, 1));
+          return stale;
+        });
+
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.search("brecho", 0, 10).storeIds()).containsExactly(created, renamed);
+    assertThat(index.search("velho", 0, 10).storeIds()).isEmpty();
+  }
+
+  @Test
+  void failedRebuildKeepsTheCurrentContent() {
+    UUID storeId = UUID.randomUUID();
+    StoreSearchIndex index = new StoreSearchIndex();
+    index.rebuild(List.of(doc(storeId, "Brecho", "Centro", null, 0)));
+
+    assertThatThrownBy(
+            () ->
+                index.rebuild(
+                    () -> {
+                      throw new IllegalStateException("db down");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+
+    assertThat(index.search("brecho", 0, 10).storeIds()).containsExactly(storeId);
+  }
+
+  private static StoreSearchIndex.Document doc(
+      UUID id, String name, String neighborhood, String description, long createdAtSeconds) {
+    return new StoreSearchIndex.Document(
+        id, name, neighborhood, description, Instant.ofEpochSecond(createdAtSeconds));
+  }
+}
@@ -23,7 +23,9 @@ class UpdateThriftStoreUseCaseTest {
   void updateMergesSocialFields() {
     ThriftStoreRepository repo = Mockito.mock(ThriftStoreRepository.class);
     StoreOwnershipService ownershipService = Mockito.mock(StoreOwnershipService.class);
-    UpdateThriftStoreUseCase useCase = new UpdateThriftStoreUseCase(repo, ownershipService);
+    UpdateThriftStoreUseCase useCase =
+        new UpdateThriftStoreUseCase(
+            repo, ownershipService, new StoreGeoIndex(), new StoreSearchIndex());
 
     UUID storeId = UUID.randomUUID();
     ThriftStore store = new ThriftStore();
@@ -55,7 +57,9 @@ class UpdateThriftStoreUseCaseTest {
   void updateClearsExplicitNullSocialFields() {
     ThriftStoreRepository repo = Mockito.mock(ThriftStoreRepository.class);
     StoreOwnershipService ownershipService = Mockito.mock(StoreOwnershipService.class);
-    UpdateThriftStoreUseCase useCase = new UpdateThriftStoreUseCase(repo, ownershipService);
+    UpdateThriftStoreUseCase useCase =
+        new UpdateThriftStoreUseCase(
+            repo, ownershipService, new StoreGeoIndex(), new StoreSearchIndex());
 
     UUID storeId = UUID.randomUUID();
     ThriftStore store = new ThriftStore();
@@ -86,7 +90,9 @@ class UpdateThriftStoreUseCaseTest {
   void updateRejectsWebsiteWithoutDotCom() {
     ThriftStoreRepository repo = Mockito.mock(ThriftStoreRepository.class);
     StoreOwnershipService ownershipService = Mockito.mock(StoreOwnershipService.class);
-    UpdateThriftStoreUseCase useCase = new UpdateThriftStoreUseCase(repo, ownershipService);
+    UpdateThriftStoreUseCase useCase =
+        new UpdateThriftStoreUseCase(
+            repo, ownershipService, new StoreGeoIndex(), new StoreSearchIndex());
 
     UUID storeId = UUID.randomUUID();
     ThriftStore store = new ThriftStore();
@@ -0,0 +1,85 @@
+package com.edufelip.meer.domain.repo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.edufelip.meer.core.content.GuideContent;
+import com.edufelip.meer.core.store.ThriftStore;
+import com.edufelip.meer.domain.GuideContentSummary;
+import com.edufelip.meer.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class GuideContentRepositoryTest {
+
+  private static final Instant SAME = Instant.parse("2024-01-02T10:00:00Z");
+  private static final Instant OLDER = Instant.parse("2024-01-01T10:00:00Z");
+
+  @Autowired private GuideContentRepository guideContentRepository;
+  @Autowired private ThriftStoreRepository thriftStoreRepository;
+  @Autowired private EntityManager entityManager;
+
+  @Test
+  void keysetPagesWalkTiesOnCreatedAtById() {
+    ThriftStore store = thriftStoreRepository.save(TestFixtures.store("Keyset Store"));
+    List<Integer> ids = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      ids.add(save(store, i < 4 ? SAME : OLDER));
+    }
+    entityManager.clear();
+
+    List<Integer> walked = new ArrayList<>();
+    Instant createdAt = SAME.plusSeconds(1);
+    Integer id = Integer.MAX_VALUE;
+    Slice<GuideContentSummary> page;
+    do {
+      page = guideContentRepository.findSummariesActiveBefore(createdAt, id, PageRequest.of(0, 2));
+      for (GuideContentSummary summary : page.getContent()) {
+        walked.add(summary.id());
+        createdAt = summary.createdAt();
+        id = summary.id();
+      }
+    } while (page.hasNext());
+
+    // four rows share created_at and are ordered by id; the older row comes last
+    assertThat(walked).containsExactly(ids.get(3), ids.get(2), ids.get(1), ids.get(0), ids.get(4));
+
+    var byStore =
+        guideContentRepository.findSummariesByStoreIdActiveBefore(
+            store.getId(), SAME, ids.get(2), PageRequest.of(0, 10));
+    assertThat(byStore.getContent())
+        .extracting(GuideContentSummary::id)
+        .containsExactly(ids.get(1), ids.get(0), ids.get(4));
+
+    var newer =
+        guideContentRepository.findSummariesActiveAfter(OLDER, ids.get(4), PageRequest.of(0, 10));
+    assertThat(newer.getContent())
+        .extracting(GuideContentSummary::id)
+        .containsExactly(ids.get(0), ids.get(1), ids.get(2), ids.get(3));
+  }
+
+  private Integer save(ThriftStore store, Instant createdAt) {
+    GuideContent content =
+        guideContentRepository.save(
+            new GuideContent(null, "Title", "Description", "general", "article", "img", store));
+    entityManager.flush();
+    // created_at is set by Hibernate on insert; pin it so rows can tie
+    entityManager
+        .createNativeQuery("update guide_content set created_at = :createdAt where id = :id")
+        .setParameter("createdAt", createdAt)
+        .setParameter("id", content.getId())
+        .executeUpdate();
+    return content.getId();
+  }
+}
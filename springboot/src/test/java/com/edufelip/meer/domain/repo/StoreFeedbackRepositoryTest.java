@@ -6,6 +6,7 @@ import com.edufelip.meer.core.auth.AuthUser;
 import com.edufelip.meer.core.store.StoreFeedback;
 import com.edufelip.meer.core.store.ThriftStore;
 import com.edufelip.meer.support.TestFixtures;
+import jakarta.persistence.EntityManager;
 import java.time.Instant;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -23,6 +24,7 @@ class StoreFeedbackRepositoryTest {
   @Autowired private StoreFeedbackRepository storeFeedbackRepository;
   @Autowired private ThriftStoreRepository thriftStoreRepository;
   @Autowired private AuthUserRepository authUserRepository;
+  @Autowired private EntityManager entityManager;
 
   @Test
   void findRatingsByStoreIdOrdersByCreatedAtAndSkipsNullScores() {
@@ -75,6 +77,27 @@ class StoreFeedbackRepositoryTest {
     StoreFeedbackRepository.AggregateView view = results.get(0);
     assertThat(view.getStoreId()).isEqualTo(store.getId());
     assertThat(view.getCnt()).isEqualTo(2);
+    assertThat(view.getScoreSum()).isEqualTo(6);
     assertThat(view.getAvgScore()).isEqualTo(3.0);
   }
+
+  @Test
+  void ratingTotalsAreRepairedAndReleasedWithTheUsersFeedback() {
+    ThriftStore store = thriftStoreRepository.save(TestFixtures.store("Totals Store"));
+    AuthUser user1 = authUserRepository.save(TestFixtures.user("f@example.com", "F"));
+    AuthUser user2 = authUserRepository.save(TestFixtures.user("g@example.com", "G"));
+    storeFeedbackRepository.save(new StoreFeedback(user1, store, 5, "great"));
+    storeFeedbackRepository.save(new StoreFeedback(user2, store, 2, "meh"));
+    entityManager.flush();
+
+    assertThat(thriftStoreRepository.repairRatingTotals()).isEqualTo(1);
+    assertThat(thriftStoreRepository.repairRatingTotals()).isZero();
+
+    thriftStoreRepository.subtractRatingsByUserId(user1.getId());
+    entityManager.clear();
+
+    ThriftStore reloaded = thriftStoreRepository.findById(store.getId()).orElseThrow();
+    assertThat(reloaded.getRatingSum()).isEqualTo(2);
+    assertThat(reloaded.getRatingCount()).isEqualTo(1);
+  }
 }
@@ -0,0 +1,65 @@
+package com.edufelip.meer.domain.repo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.edufelip.meer.core.store.ThriftStore;
+import com.edufelip.meer.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ThriftStoreRepositoryTest {
+
+  @Autowired private ThriftStoreRepository thriftStoreRepository;
+  @Autowired private EntityManager entityManager;
+
+  @Test
+  void newestKeysetPagesMatchTheOffsetOrderAcrossTies() {
+    Instant same = Instant.parse("2099-01-02T10:00:00Z");
+    for (int i = 0; i < 5; i++) {
+      save("Store " + i, i < 4 ? same : same.minusSeconds(60));
+    }
+    entityManager.clear();
+    List<UUID> expected =
+        thriftStoreRepository.findAllByOrderByCreatedAtDescIdDesc(PageRequest.of(0, 5)).stream()
+            .map(ThriftStore::getId)
+            .toList();
+
+    List<UUID> walked = new ArrayList<>();
+    Slice<ThriftStore> page =
+        thriftStoreRepository.findAllByOrderByCreatedAtDescIdDesc(PageRequest.of(0, 2));
+    do {
+      page.getContent().forEach(store -> walked.add(store.getId()));
+      ThriftStore last = page.getContent().get(page.getNumberOfElements() - 1);
+      page =
+          thriftStoreRepository.findNewestBefore(
+              last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+    } while (walked.size() < expected.size());
+
+    // the four tied rows and the older one come back once each, in the offset order
+    assertThat(walked).containsExactlyElementsOf(expected);
+  }
+
+  private void save(String name, Instant createdAt) {
+    ThriftStore store = thriftStoreRepository.save(TestFixtures.store(name));
+    entityManager.flush();
+    // created_at is set by Hibernate on insert; pin it so rows can tie
+    entityManager
+        .createNativeQuery("update thrift_store set created_at = :createdAt where id = :id")
+        .setParameter("createdAt", createdAt)
+        .setParameter("id", store.getId())
+        .executeUpdate();
+  }
+}
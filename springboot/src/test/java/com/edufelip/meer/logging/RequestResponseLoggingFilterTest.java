@@ -0,0 +1,127 @@
+package com.edufelip.meer.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RequestResponseLoggingFilterTest {
+
+  private final List<Runnable> queued = new ArrayList<>();
+  private final Executor queueingExecutor = queued::add;
+
+  @Test
+  void responseStreamsThroughWithoutBuffering() throws ServletException, IOException {
+    RequestLoggingProperties props = properties(1.0);
+    props.setMaxBodyBytes(16);
+    var filter = new RequestResponseLoggingFilter(props, queueingExecutor);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    byte[] body = "x".repeat(10_000).getBytes(StandardCharsets.UTF_8);
+    List<Integer> seenByClient = new ArrayList<>();
+
+    FilterChain chain =
+        (req, res) -> {
+          res.getOutputStream().write(body);
+          seenByClient.add(response.getContentAsByteArray().length);
+        };
+    filter.doFilter(new MockHttpServletRequest("GET", "/stores"), response, chain);
+
+    assertThat(seenByClient).containsExactly(10_000);
+    assertThat(response.getContentAsByteArray()).isEqualTo(body);
+    assertThat(queued).hasSize(1);
+  }
+
+  @Test
+  void sampledOutSuccessIsNotLoggedButErrorsAlwaysAre() throws ServletException, IOException {
+    var filter = new RequestResponseLoggingFilter(properties(0.0), queueingExecutor);
+
+    filter.doFilter(
+        new MockHttpServletRequest("GET", "/stores"),
+        new MockHttpServletResponse(),
+        (req, res) -> res.getWriter().write("ok"));
+    assertThat(queued).isEmpty();
+
+    filter.doFilter(
+        new MockHttpServletRequest("GET", "/stores"),
+        new MockHttpServletResponse(),
+        (req, res) -> ((HttpServletResponse) res).setStatus(404));
+    assertThat(queued).hasSize(1);
+
+    FilterChain failing =
+        (req, res) -> {
+          throw new IllegalStateException("boom");
+        };
+    assertThatThrownBy(
+            () ->
+                filter.doFilter(
+                    new MockHttpServletRequest("GET", "/stores"),
+                    new MockHttpServletResponse(),
+                    failing))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(queued).hasSize(2);
+  }
+
+  @Test
+  void routeRateOverridesDefault() throws ServletException, IOException {
+    RequestLoggingProperties props = properties(0.0);
+    props.getRouteSampleRates().put("/dashboard", 1.0);
+    var filter = new RequestResponseLoggingFilter(props, queueingExecutor);
+
+    filter.doFilter(
+        new MockHttpServletRequest("GET", "/dashboard/stores"),
+        new MockHttpServletResponse(),
+        (req, res) -> {});
+    filter.doFilter(
+        new MockHttpServletRequest("GET", "/stores"),
+        new MockHttpServletResponse(),
+        (req, res) -> {});
+
+    assertThat(queued).hasSize(1);
+  }
+
+  @Test
+  void fullQueueDropsRecordInsteadOfBlocking() throws ServletException, IOException {
+    Executor full =
+        task -> {
+          throw new RejectedExecutionException("queue full");
+        };
+    var filter = new RequestResponseLoggingFilter(properties(1.0), full);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilter(
+        new MockHttpServletRequest("GET", "/stores"),
+        response,
+        (req, res) -> res.getWriter().write("ok"));
+
+    assertThat(response.getContentAsString()).isEqualTo("ok");
+    assertThat(filter.droppedRecords()).isEqualTo(1);
+  }
+
+  @Test
+  void teeKeepsOnlyTheFirstBytes() throws IOException {
+    var wrapper = new BoundedTeeResponseWrapper(new MockHttpServletResponse(), 4);
+
+    wrapper.getOutputStream().write("abcdefgh".getBytes(StandardCharsets.UTF_8));
+
+    BoundedTeeResponseWrapper.Captured captured = wrapper.captured();
+    assertThat(new String(captured.bytes(), StandardCharsets.UTF_8)).isEqualTo("abcd");
+    assertThat(captured.truncated()).isTrue();
+  }
+
+  private static RequestLoggingProperties properties(double successSampleRate) {
+    RequestLoggingProperties props = new RequestLoggingProperties();
+    props.setSuccessSampleRate(successSampleRate);
+    return props;
+  }
+}
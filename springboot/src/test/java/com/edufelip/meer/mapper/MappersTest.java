@@ -5,6 +5,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.edufelip.meer.core.store.ThriftStore;
 import com.edufelip.meer.dto.NearbyStoreDto;
 import com.edufelip.meer.dto.ThriftStoreDto;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 
@@ -26,6 +28,19 @@ class MappersTest {
     assertThat(dto.addressLine()).isEqualTo("Centro");
   }
 
+  @Test
+  void nearbyStoreDtoOwnsItsCategoryList() {
+    ThriftStore store = new ThriftStore();
+    store.setId(UUID.randomUUID());
+    List<String> categories = new ArrayList<>(List.of("vintage", "kids"));
+    store.setCategories(categories);
+
+    NearbyStoreDto dto = new NearbyStoreDto(store, 0.0, 0.0, false, null, null);
+    categories.clear();
+
+    assertThat(dto.categories()).containsExactly("vintage", "kids");
+  }
+
   @Test
   void toDtoMasksAddressForOnlineStore() {
     ThriftStore store = new ThriftStore();
@@ -0,0 +1,69 @@
+package com.edufelip.meer.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.edufelip.meer.config.TestClockConfig;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestClockConfig.class)
+class QueryCountingDataSourceTest {
+
+  private static final String TWO_ROWS = "select 1 as n union all select 2 as n";
+
+  @Autowired private DataSource dataSource;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void countsStatementsAndRowsInsideScopeOnly() {
+    assertThat(dataSource).isInstanceOf(QueryCountingDataSource.class);
+    jdbcTemplate.queryForList(TWO_ROWS);
+
+    try (JdbcRequestStats stats = JdbcRequestStats.open()) {
+      jdbcTemplate.queryForList(TWO_ROWS);
+      jdbcTemplate.queryForList(TWO_ROWS + " union all select 3 as n");
+
+      assertThat(stats.statements()).isEqualTo(2);
+      assertThat(stats.rows()).isEqualTo(5);
+    }
+  }
+
+  @Test
+  void nestedScopeDoesNotLeakIntoOuter() {
+    try (JdbcRequestStats outer = JdbcRequestStats.open()) {
+      jdbcTemplate.queryForList(TWO_ROWS);
+      try (JdbcRequestStats inner = JdbcRequestStats.open()) {
+        jdbcTemplate.queryForList(TWO_ROWS);
+        assertThat(inner.statements()).isEqualTo(1);
+      }
+      jdbcTemplate.queryForList(TWO_ROWS);
+
+      assertThat(outer.statements()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void propagatedTasksCountTowardsSubmittingScope() throws Exception {
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    try (JdbcRequestStats stats = JdbcRequestStats.open()) {
+      CompletableFuture.runAsync(
+              JdbcRequestStats.propagate(() -> jdbcTemplate.queryForList(TWO_ROWS)), pool)
+          .get();
+
+      assertThat(stats.statements()).isEqualTo(1);
+      assertThat(stats.rows()).isEqualTo(2);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+}
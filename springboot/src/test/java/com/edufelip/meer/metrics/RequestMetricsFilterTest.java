@@ -0,0 +1,66 @@
+package com.edufelip.meer.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+class RequestMetricsFilterTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void recordsStatementsPerUriTemplateAndFlagsBudgetOverruns()
+      throws ServletException, IOException {
+    RequestMetricsProperties props = new RequestMetricsProperties();
+    props.setStatementBudget(2);
+    var filter = new RequestMetricsFilter(registry, props);
+
+    filter.doFilter(request("/stores/1"), new MockHttpServletResponse(), statements(1));
+    filter.doFilter(request("/stores/2"), new MockHttpServletResponse(), statements(3));
+
+    var statements =
+        registry.get("meer.http.jdbc.statements").tag("uri", "/stores/{storeId}").summary();
+    assertThat(statements.count()).isEqualTo(2);
+    assertThat(statements.totalAmount()).isEqualTo(4);
+    assertThat(statements.max()).isEqualTo(3);
+    assertThat(
+            registry
+                .get("meer.http.jdbc.budget.exceeded")
+                .tag("uri", "/stores/{storeId}")
+                .counter()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void statementsOutsideTheRequestAreNotCounted() throws ServletException, IOException {
+    var filter = new RequestMetricsFilter(registry, new RequestMetricsProperties());
+
+    filter.doFilter(request("/stores/1"), new MockHttpServletResponse(), statements(2));
+    JdbcRequestStats.statementExecuted();
+
+    assertThat(registry.get("meer.http.jdbc.statements").summary().totalAmount()).isEqualTo(2);
+  }
+
+  private static MockHttpServletRequest request(String path) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/stores/{storeId}");
+    return request;
+  }
+
+  private static FilterChain statements(int count) {
+    return (req, res) -> {
+      for (int i = 0; i < count; i++) {
+        JdbcRequestStats.statementExecuted();
+        JdbcRequestStats.rowFetched();
+      }
+    };
+  }
+}
@@ -5,69 +5,259 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.edufelip.meer.core.auth.AuthUser;
+import com.edufelip.meer.core.content.GuideContent;
 import com.edufelip.meer.core.store.StoreFeedback;
 import com.edufelip.meer.core.store.ThriftStore;
 import com.edufelip.meer.domain.repo.AuthUserRepository;
+import com.edufelip.meer.domain.repo.GuideContentRepository;
 import com.edufelip.meer.domain.repo.StoreFeedbackRepository;
 import com.edufelip.meer.domain.repo.ThriftStoreRepository;
+import com.edufelip.meer.metrics.JdbcRequestStats;
+import com.edufelip.meer.metrics.RequestMetricsProperties;
 import com.edufelip.meer.security.token.TokenProvider;
+import com.edufelip.meer.service.StoreGeoIndexLoader;
+import com.edufelip.meer.service.StoreSearchIndexLoader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-@SpringBootTest
+/**
+ * Guardrails run by {@code ./gradlew perfTest}. Each read endpoint must run exactly the pinned
+ * number of SQL statements, before and after the data behind it grows (an N+1 regression makes the
+ * count grow with the data), and stay within the production statement budget. Counts are taken with
+ * empty caches and freshly rebuilt in-memory indexes, so every query a cold request needs is
+ * counted and the indexes see the rows added in between. Latency is reported as p50/p95/p99.
+ */
+// the scheduled snapshot refresh would refill the home feed cache between clear and measurement
+@SpringBootTest(properties = "meer.home-feed.precompute.enabled=false")
 @AutoConfigureMockMvc(addFilters = false)
 @ActiveProfiles("test")
 @Tag("perf")
 class PerformanceGuardrailsTest {
 
+  private static final int WARMUP = 5;
+  private static final int ITERATIONS = 50;
+
+  /**
+   * Statements per cold request. The request threads share one open-in-view EntityManager, so lazy
+   * photos and categories are one batched select per page. The home nearby section and the store
+   * contents run on fan-out threads and are counted too.
+   */
+  private static final Map<String, Integer> EXPECTED_STATEMENTS =
+      Map.of(
+          // nearby stores by id, their photos; top 10 with photos; categories of both;
+          // contents page, live content counters
+          "GET /home", 6,
+          // caller, stores by id, favorites, photos, categories
+          "GET /stores", 5,
+          // store, photos, categories; contents with their store
+          "GET /stores/{id}", 4,
+          // one summary page
+          "GET /contents", 1,
+          // caller, favorites, photos
+          "GET /favorites", 3,
+          // caller, store, ratings page
+          "GET /stores/{id}/ratings", 3);
+
   @Autowired private MockMvc mockMvc;
   @Autowired private AuthUserRepository authUserRepository;
   @Autowired private ThriftStoreRepository thriftStoreRepository;
   @Autowired private StoreFeedbackRepository storeFeedbackRepository;
+  @Autowired private GuideContentRepository guideContentRepository;
   @Autowired private TokenProvider tokenProvider;
+  @Autowired private RequestMetricsProperties requestMetricsProperties;
+  @Autowired private PlatformTransactionManager transactionManager;
+  @Autowired private CacheManager cacheManager;
+  @Autowired private StoreGeoIndexLoader storeGeoIndexLoader;
+  @Autowired private StoreSearchIndexLoader storeSearchIndexLoader;
 
   private String authHeader;
+  private AuthUser user;
   private UUID storeId;
+  private List<ThriftStore> stores;
+  private int favoriteCount;
 
   @BeforeEach
   void setup() {
     storeFeedbackRepository.deleteAll();
+    guideContentRepository.deleteAll();
+    authUserRepository.deleteAll(); // also clears auth_user_favorites
     thriftStoreRepository.deleteAll();
-    authUserRepository.deleteAll();
 
-    AuthUser user = new AuthUser();
+    user = new AuthUser();
     user.setEmail("perf@example.com");
     user.setDisplayName("Perf User");
     user.setPasswordHash("hash");
     user = authUserRepository.save(user);
     authHeader = "Bearer " + tokenProvider.generateAccessToken(user);
 
-    List<ThriftStore> stores = new ArrayList<>();
-    for (int i = 0; i < 50; i++) {
+    stores = new ArrayList<>();
+    favoriteCount = 0;
+    addStores(50);
+    storeId = stores.get(0).getId();
+    addFeedback(30);
+    addContents(5);
+    addFavorites(3);
+  }
+
+  @Test
+  void statementCountsDoNotGrowWithData() throws Exception {
+    Map<String, Supplier<RequestBuilder>> endpoints = new LinkedHashMap<>();
+    endpoints.put("GET /home", () -> get("/home").param("lat", "-23.0").param("lng", "-46.0"));
+    endpoints.put("GET /stores", this::nearbySearch);
+    endpoints.put("GET /stores/{id}", () -> get("/stores/{id}", storeId));
+    endpoints.put("GET /contents", () -> get("/contents"));
+    endpoints.put("GET /favorites", () -> get("/favorites").header("Authorization", authHeader));
+    endpoints.put("GET /stores/{id}/ratings", this::ratingsPage);
+
+    Map<String, Integer> before = statementCounts(endpoints);
+
+    addStores(30);
+    addFeedback(30);
+    addContents(20);
+    addFavorites(10);
+    Map<String, Integer> after = statementCounts(endpoints);
+
+    int budget = requestMetricsProperties.getStatementBudget();
+    StringBuilder report = new StringBuilder("SQL statements per request (budget " + budget + ")");
+    endpoints
+        .keySet()
+        .forEach(
+            name ->
+                report.append(
+                    String.format(
+                        "%n  %-26s %3d -> %3d", name, before.get(name), after.get(name))));
+    System.out.println(report);
+
+    assertThat(before).as("statements per cold request").isEqualTo(EXPECTED_STATEMENTS);
+    assertThat(after).as("statements after growing the data set").isEqualTo(EXPECTED_STATEMENTS);
+    assertThat(EXPECTED_STATEMENTS.values())
+        .allSatisfy(count -> assertThat(count).isLessThanOrEqualTo(budget));
+  }
+
+  @Test
+  void ratingsListLatencyUnderGuardrail() throws Exception {
+    Percentiles latency = latency("GET /stores/{id}/ratings", this::ratingsPage);
+    assertThat(latency.p95()).isLessThan(500);
+  }
+
+  @Test
+  void storeSearchLatencyUnderGuardrail() throws Exception {
+    Percentiles latency = latency("GET /stores?type=nearby", this::nearbySearch);
+    assertThat(latency.p95()).isLessThan(700);
+  }
+
+  private RequestBuilder ratingsPage() {
+    return get("/stores/{storeId}/ratings", storeId)
+        .header("Authorization", authHeader)
+        .param("page", "1")
+        .param("pageSize", "10");
+  }
+
+  private RequestBuilder nearbySearch() {
+    return get("/stores")
+        .header("Authorization", authHeader)
+        .param("type", "nearby")
+        .param("page", "1")
+        .param("pageSize", "10")
+        .param("lat", "-23.0")
+        .param("lng", "-46.0");
+  }
+
+  /**
+   * Statements of one request per endpoint, including its fan-out lookups. The indexes are rebuilt
+   * from the current rows first; each endpoint is warmed up and then measured with empty caches.
+   */
+  private Map<String, Integer> statementCounts(Map<String, Supplier<RequestBuilder>> endpoints)
+      throws Exception {
+    storeGeoIndexLoader.refresh();
+    storeSearchIndexLoader.refresh();
+    Map<String, Integer> counts = new LinkedHashMap<>();
+    for (var endpoint : endpoints.entrySet()) {
+      warmup(endpoint.getValue());
+      clearCaches();
+      try (JdbcRequestStats stats = JdbcRequestStats.open()) {
+        mockMvc.perform(endpoint.getValue().get()).andExpect(status().isOk());
+        counts.put(endpoint.getKey(), stats.statements());
+      }
+    }
+    return counts;
+  }
+
+  private void clearCaches() {
+    cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+  }
+
+  private record Percentiles(long p50, long p95, long p99) {}
+
+  private Percentiles latency(String name, Supplier<RequestBuilder> request) throws Exception {
+    warmup(request);
+    long[] micros = new long[ITERATIONS];
+    for (int i = 0; i < ITERATIONS; i++) {
+      long start = System.nanoTime();
+      mockMvc.perform(request.get()).andExpect(status().isOk());
+      micros[i] = (System.nanoTime() - start) / 1_000;
+    }
+    Arrays.sort(micros);
+    Percentiles ms =
+        new Percentiles(
+            percentile(micros, 0.50) / 1_000,
+            percentile(micros, 0.95) / 1_000,
+            percentile(micros, 0.99) / 1_000);
+    System.out.printf(
+        "%s latency over %d requests: p50=%d ms p95=%d ms p99=%d ms%n",
+        name, ITERATIONS, ms.p50(), ms.p95(), ms.p99());
+    return ms;
+  }
+
+  /** Nearest-rank percentile of sorted samples. */
+  private static long percentile(long[] sorted, double quantile) {
+    int rank = (int) Math.ceil(quantile * sorted.length);
+    return sorted[Math.max(0, rank - 1)];
+  }
+
+  private void warmup(Supplier<RequestBuilder> request) throws Exception {
+    for (int i = 0; i < WARMUP; i++) {
+      mockMvc.perform(request.get()).andExpect(status().isOk());
+    }
+  }
+
+  private void addStores(int count) {
+    List<ThriftStore> added = new ArrayList<>();
+    for (int i = stores.size(); i < stores.size() + count; i++) {
       ThriftStore store = new ThriftStore();
       store.setName("Store " + i);
       store.setAddressLine("Road " + i);
       store.setLatitude(-23.0 + (i * 0.001));
       store.setLongitude(-46.0 + (i * 0.001));
-      stores.add(store);
+      added.add(store);
     }
-    stores = thriftStoreRepository.saveAll(stores);
-    storeId = stores.get(0).getId();
+    stores.addAll(thriftStoreRepository.saveAll(added));
+  }
 
+  private void addFeedback(int count) {
+    long existing = authUserRepository.count();
     List<AuthUser> raters = new ArrayList<>();
-    for (int i = 0; i < 30; i++) {
+    for (int i = 0; i < count; i++) {
       AuthUser rater = new AuthUser();
-      rater.setEmail("rater" + i + "@example.com");
-      rater.setDisplayName("Rater " + i);
+      rater.setEmail("rater" + (existing + i) + "@example.com");
+      rater.setDisplayName("Rater " + (existing + i));
       rater.setPasswordHash("hash");
       raters.add(rater);
     }
@@ -81,75 +271,35 @@ class PerformanceGuardrailsTest {
     storeFeedbackRepository.saveAll(feedbacks);
   }
 
-  @Test
-  void ratingsListAverageLatencyUnderGuardrail() throws Exception {
-    warmupRatings();
-    int iterations = 50;
-    long totalMs = 0;
-    for (int i = 0; i < iterations; i++) {
-      long start = System.nanoTime();
-      mockMvc
-          .perform(
-              get("/stores/{storeId}/ratings", storeId)
-                  .header("Authorization", authHeader)
-                  .param("page", "1")
-                  .param("pageSize", "10"))
-          .andExpect(status().isOk());
-      long elapsedMs = (System.nanoTime() - start) / 1_000_000;
-      totalMs += elapsedMs;
-    }
-    long avgMs = totalMs / iterations;
-    assertThat(avgMs).isLessThan(500);
-  }
-
-  @Test
-  void storeSearchAverageLatencyUnderGuardrail() throws Exception {
-    warmupSearch();
-    int iterations = 50;
-    long totalMs = 0;
-    for (int i = 0; i < iterations; i++) {
-      long start = System.nanoTime();
-      mockMvc
-          .perform(
-              get("/stores")
-                  .header("Authorization", authHeader)
-                  .param("type", "nearby")
-                  .param("page", "1")
-                  .param("pageSize", "10")
-                  .param("lat", "-23.0")
-                  .param("lng", "-46.0"))
-          .andExpect(status().isOk());
-      long elapsedMs = (System.nanoTime() - start) / 1_000_000;
-      totalMs += elapsedMs;
-    }
-    long avgMs = totalMs / iterations;
-    assertThat(avgMs).isLessThan(700);
-  }
-
-  private void warmupRatings() throws Exception {
-    for (int i = 0; i < 5; i++) {
-      mockMvc
-          .perform(
-              get("/stores/{storeId}/ratings", storeId)
-                  .header("Authorization", authHeader)
-                  .param("page", "1")
-                  .param("pageSize", "10"))
-          .andExpect(status().isOk());
+  private void addContents(int count) {
+    List<GuideContent> contents = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      ThriftStore store = stores.get(i % stores.size());
+      contents.add(
+          new GuideContent(
+              null,
+              "Guide " + i,
+              "Body " + i,
+              "tips",
+              "article",
+              "https://example.com/guide-" + i + ".jpg",
+              store));
     }
+    guideContentRepository.saveAll(contents);
   }
 
-  private void warmupSearch() throws Exception {
-    for (int i = 0; i < 5; i++) {
-      mockMvc
-          .perform(
-              get("/stores")
-                  .header("Authorization", authHeader)
-                  .param("type", "nearby")
-                  .param("page", "1")
-                  .param("pageSize", "10")
-                  .param("lat", "-23.0")
-                  .param("lng", "-46.0"))
-          .andExpect(status().isOk());
-    }
+  private void addFavorites(int count) {
+    int start = favoriteCount;
+    new TransactionTemplate(transactionManager)
+        .executeWithoutResult(
+            status -> {
+              AuthUser owner = authUserRepository.findById(user.getId()).orElseThrow();
+              for (int i = start; i < start + count; i++) {
+                owner
+                    .getFavorites()
+                    .add(thriftStoreRepository.getReferenceById(stores.get(i).getId()));
+              }
+            });
+    favoriteCount += count;
   }
 }
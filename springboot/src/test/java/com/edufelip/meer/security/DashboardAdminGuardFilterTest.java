@@ -0,0 +1,63 @@
+package com.edufelip.meer.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.edufelip.meer.domain.repo.AuthUserRepository;
+import com.edufelip.meer.security.guards.FirebaseAuthGuard;
+import com.edufelip.meer.security.token.TokenProvider;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class DashboardAdminGuardFilterTest {
+
+  private final TokenProvider tokenProvider = mock(TokenProvider.class);
+  private final AuthUserRepository authUserRepository = mock(AuthUserRepository.class);
+
+  @Test
+  void scrapeTokenPassesOnlyOnThePrometheusPath() throws Exception {
+    DashboardAdminGuardFilter filter = filter("scrape-secret");
+
+    assertThat(status(filter, "/actuator/prometheus", "Bearer scrape-secret")).isEqualTo(200);
+    verifyNoInteractions(tokenProvider);
+    assertThat(status(filter, "/actuator/prometheus", "Bearer wrong")).isEqualTo(401);
+    assertThat(status(filter, "/actuator/metrics", "Bearer scrape-secret")).isEqualTo(401);
+    // the path is compared exactly, as the actuator matches it, whatever the default locale
+    assertThat(status(filter, "/ACTUATOR/PROMETHEUS", "Bearer scrape-secret")).isEqualTo(401);
+    assertThat(status(filter, "/dashboard/stores", "Bearer scrape-secret")).isEqualTo(401);
+  }
+
+  @Test
+  void withoutConfiguredTokenTheScrapeNeedsAnAdmin() throws Exception {
+    DashboardAdminGuardFilter filter = filter(null);
+
+    assertThat(status(filter, "/actuator/prometheus", null)).isEqualTo(401);
+    assertThat(status(filter, "/actuator/health", null)).isEqualTo(200);
+  }
+
+  private DashboardAdminGuardFilter filter(String scrapeToken) {
+    SecurityProperties props = new SecurityProperties();
+    props.setMetricsScrapeToken(scrapeToken);
+    return new DashboardAdminGuardFilter(
+        tokenProvider,
+        authUserRepository,
+        new AuthUserStatusCache(
+            authUserRepository, new ConcurrentMapCacheManager(AuthUserStatusCache.CACHE_NAME)),
+        props);
+  }
+
+  private int status(DashboardAdminGuardFilter filter, String path, String authHeader)
+      throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+    request.setServletPath(path);
+    if (authHeader != null) request.addHeader(FirebaseAuthGuard.AUTH_HEADER, authHeader);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    AtomicBoolean chainCalled = new AtomicBoolean(false);
+    filter.doFilter(request, response, (req, res) -> chainCalled.set(true));
+    return chainCalled.get() ? 200 : response.getStatus();
+  }
+}
@@ -0,0 +1,85 @@
+package com.edufelip.meer.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.edufelip.meer.domain.port.RateLimitLeasePort;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+class DistributedRateLimiterTest {
+
+  /** Stands in for rate_limit_lease: one shared counter per bucket. */
+  private static final class InMemoryLeases implements RateLimitLeasePort {
+    final Map<String, AtomicInteger> granted = new ConcurrentHashMap<>();
+    final AtomicInteger reservations = new AtomicInteger();
+
+    @Override
+    public int reserve(String bucketId, Instant windowEnd, int requested, int capacity) {
+      reservations.incrementAndGet();
+      AtomicInteger counter = granted.computeIfAbsent(bucketId, id -> new AtomicInteger());
+      while (true) {
+        int current = counter.get();
+        int grant = Math.max(0, Math.min(requested, capacity - current));
+        if (counter.compareAndSet(current, current + grant)) return grant;
+      }
+    }
+  }
+
+  private final Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:10Z"), ZoneOffset.UTC);
+
+  @Test
+  void nodesShareOneBudgetAndReserveInChunks() {
+    InMemoryLeases leases = new InMemoryLeases();
+    var nodeA =
+        new DistributedRateLimiter("auth", 20, Duration.ofMinutes(1), 5, 1_000, clock, leases);
+    var nodeB =
+        new DistributedRateLimiter("auth", 20, Duration.ofMinutes(1), 5, 1_000, clock, leases);
+
+    int allowed = 0;
+    for (int i = 0; i < 30; i++) {
+      if (nodeA.tryAcquire("10.0.0.1")) allowed++;
+      if (nodeB.tryAcquire("10.0.0.1")) allowed++;
+    }
+
+    assertThat(allowed).isEqualTo(20);
+    // 4 chunks of 5, plus one empty reservation per node to learn the window is used up
+    assertThat(leases.reservations.get()).isEqualTo(6);
+  }
+
+  @Test
+  void newWindowGetsFreshBudget() {
+    InMemoryLeases leases = new InMemoryLeases();
+    var early =
+        new DistributedRateLimiter("auth", 2, Duration.ofMinutes(1), 5, 1_000, clock, leases);
+    assertThat(early.tryAcquire("k")).isTrue();
+    assertThat(early.tryAcquire("k")).isTrue();
+    assertThat(early.tryAcquire("k")).isFalse();
+
+    Clock nextMinute = Clock.offset(clock, Duration.ofMinutes(1));
+    var later =
+        new DistributedRateLimiter("auth", 2, Duration.ofMinutes(1), 5, 1_000, nextMinute, leases);
+
+    assertThat(later.tryAcquire("k")).isTrue();
+  }
+
+  @Test
+  void fallsBackToLocalLimitingWhenStoreFails() {
+    RateLimitLeasePort failing =
+        (bucketId, windowEnd, requested, capacity) -> {
+          throw new DataAccessResourceFailureException("database down");
+        };
+    var limiter =
+        new DistributedRateLimiter("auth", 3, Duration.ofMinutes(1), 5, 1_000, clock, failing);
+
+    assertThat(limiter.tryAcquire("k")).isTrue();
+    assertThat(limiter.tryAcquire("k")).isTrue();
+    assertThat(limiter.tryAcquire("k")).isTrue();
+  }
+}
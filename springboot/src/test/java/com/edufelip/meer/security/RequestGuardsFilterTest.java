@@ -2,10 +2,14 @@ package com.edufelip.meer.security;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.edufelip.meer.core.auth.AuthUser;
 import com.edufelip.meer.core.auth.Role;
+import com.edufelip.meer.domain.auth.AuthUserStatus;
 import com.edufelip.meer.domain.repo.AuthUserRepository;
 import com.edufelip.meer.security.guards.AppHeaderGuard;
 import com.edufelip.meer.security.guards.FirebaseAuthGuard;
@@ -13,13 +17,19 @@ import com.edufelip.meer.security.token.TokenPayload;
 import com.edufelip.meer.security.token.TokenProvider;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 class RequestGuardsFilterTest {
 
@@ -262,6 +272,106 @@ class RequestGuardsFilterTest {
     assertThat(response.getStatus()).isEqualTo(200);
   }
 
+  @Test
+  void resolverReusesPrincipalVerifiedByGuard() throws Exception {
+    SecurityProperties props = new SecurityProperties();
+    props.setRequireAppHeader(true);
+    props.setDisableAuth(false);
+    props.setAppPackage("com.edufelip.meer");
+    TokenProvider tokenProvider = mock(TokenProvider.class);
+    AuthUserRepository authUserRepository = mock(AuthUserRepository.class);
+    UUID userId = UUID.randomUUID();
+    when(tokenProvider.parseAccessToken("token"))
+        .thenReturn(new TokenPayload(userId, "user@example.com", "User", Role.USER));
+    AuthUser user = new AuthUser();
+    user.setId(userId);
+    when(authUserRepository.findById(userId)).thenReturn(Optional.of(user));
+    when(authUserRepository.findStatusById(userId))
+        .thenReturn(Optional.of(new AuthUserStatus(userId, Role.USER, null)));
+
+    RequestGuardsFilter filter =
+        new RequestGuardsFilter(
+            props, tokenProvider, authUserRepository, statusCache(authUserRepository));
+    AuthUserResolver resolver = new AuthUserResolver(tokenProvider, authUserRepository);
+    List<AuthUser> resolved = new ArrayList<>();
+    FilterChain chain =
+        (request, response) -> {
+          RequestContextHolder.setRequestAttributes(
+              new ServletRequestAttributes((HttpServletRequest) request));
+          try {
+            resolved.add(resolver.requireUser("Bearer token"));
+            resolved.add(resolver.optionalUser("Bearer token"));
+          } finally {
+            RequestContextHolder.resetRequestAttributes();
+          }
+        };
+
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/stores");
+    request.setServletPath("/stores");
+    request.addHeader(AppHeaderGuard.APP_HEADER, "com.edufelip.meer");
+    request.addHeader(FirebaseAuthGuard.AUTH_HEADER, "Bearer token");
+    filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+    assertThat(resolved).containsExactly(user, user);
+    verify(tokenProvider, times(1)).parseAccessToken("token");
+    verify(authUserRepository, times(1)).findById(userId);
+  }
+
+  @Test
+  void guardChecksUserStatusWithoutLoadingEntity() throws Exception {
+    SecurityProperties props = new SecurityProperties();
+    props.setRequireAppHeader(true);
+    props.setDisableAuth(false);
+    props.setAppPackage("com.edufelip.meer");
+    TokenProvider tokenProvider = mock(TokenProvider.class);
+    AuthUserRepository authUserRepository = mock(AuthUserRepository.class);
+    UUID userId = UUID.randomUUID();
+    when(tokenProvider.parseAccessToken("token"))
+        .thenReturn(new TokenPayload(userId, "user@example.com", "User", Role.USER));
+    when(authUserRepository.findStatusById(userId))
+        .thenReturn(Optional.of(new AuthUserStatus(userId, Role.USER, null)));
+    RequestGuardsFilter filter =
+        new RequestGuardsFilter(
+            props, tokenProvider, authUserRepository, statusCache(authUserRepository));
+
+    for (int i = 0; i < 3; i++) {
+      AtomicBoolean chainCalled = new AtomicBoolean(false);
+      MockHttpServletRequest request = new MockHttpServletRequest("GET", "/stores");
+      request.setServletPath("/stores");
+      request.addHeader(AppHeaderGuard.APP_HEADER, "com.edufelip.meer");
+      request.addHeader(FirebaseAuthGuard.AUTH_HEADER, "Bearer token");
+      filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> chainCalled.set(true));
+      assertThat(chainCalled.get()).isTrue();
+    }
+
+    verify(authUserRepository, times(1)).findStatusById(userId);
+    verify(authUserRepository, never()).findById(userId);
+  }
+
+  @Test
+  void scrapeTokenOpensThePrometheusPathWithoutAppHeader() throws Exception {
+    SecurityProperties props = new SecurityProperties();
+    props.setRequireAppHeader(true);
+    props.setMetricsScrapeToken("scrape-secret");
+    RequestGuardsFilter filter = buildFilter(props);
+
+    AtomicBoolean chainCalled = new AtomicBoolean(false);
+    MockHttpServletRequest scrape = new MockHttpServletRequest("GET", "/actuator/prometheus");
+    scrape.setServletPath("/actuator/prometheus");
+    scrape.addHeader(FirebaseAuthGuard.AUTH_HEADER, "Bearer scrape-secret");
+    filter.doFilter(scrape, new MockHttpServletResponse(), (req, res) -> chainCalled.set(true));
+    assertThat(chainCalled.get()).isTrue();
+
+    chainCalled.set(false);
+    MockHttpServletRequest metrics = new MockHttpServletRequest("GET", "/actuator/metrics");
+    metrics.setServletPath("/actuator/metrics");
+    metrics.addHeader(FirebaseAuthGuard.AUTH_HEADER, "Bearer scrape-secret");
+    MockHttpServletResponse metricsResponse = new MockHttpServletResponse();
+    filter.doFilter(metrics, metricsResponse, (req, res) -> chainCalled.set(true));
+    assertThat(chainCalled.get()).isFalse();
+    assertThat(metricsResponse.getStatus()).isEqualTo(401);
+  }
+
   private RequestGuardsFilter buildFilter(SecurityProperties props) {
     TokenProvider tokenProvider = mock(TokenProvider.class);
     AuthUserRepository authUserRepository = mock(AuthUserRepository.class);
@@ -273,6 +383,14 @@ class RequestGuardsFilterTest {
     user.setId(userId);
     user.setRole(Role.USER);
     when(authUserRepository.findById(userId)).thenReturn(Optional.of(user));
-    return new RequestGuardsFilter(props, tokenProvider, authUserRepository);
+    when(authUserRepository.findStatusById(userId))
+        .thenReturn(Optional.of(new AuthUserStatus(userId, Role.USER, null)));
+    return new RequestGuardsFilter(
+        props, tokenProvider, authUserRepository, statusCache(authUserRepository));
+  }
+
+  private static AuthUserStatusCache statusCache(AuthUserRepository authUserRepository) {
+    return new AuthUserStatusCache(
+        authUserRepository, new ConcurrentMapCacheManager(AuthUserStatusCache.CACHE_NAME));
   }
 }
@@ -0,0 +1,29 @@
+package com.edufelip.meer.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+
+class SanitizingHttpServletRequestWrapperTest {
+
+  @Test
+  void sanitizesEachHeaderOncePerRequest() {
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    when(request.getHeader("X-Name")).thenReturn("  <script>x</script>Ana\u0000 ");
+    when(request.getHeader("X-Missing")).thenReturn(null);
+    var wrapper = new SanitizingHttpServletRequestWrapper(request);
+
+    assertThat(wrapper.getHeader("X-Name")).isEqualTo("xAna");
+    assertThat(wrapper.getHeader("X-Name")).isEqualTo("xAna");
+    assertThat(wrapper.getHeader("X-Missing")).isNull();
+    assertThat(wrapper.getHeader("X-Missing")).isNull();
+
+    verify(request, times(1)).getHeader("X-Name");
+    verify(request, times(1)).getHeader("X-Missing");
+  }
+}
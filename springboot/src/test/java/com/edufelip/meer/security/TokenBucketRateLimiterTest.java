@@ -0,0 +1,132 @@
+package com.edufelip.meer.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+  @Test
+  void allowsBurstUpToCapacityThenRefillsContinuously() {
+    var limiter = new TokenBucketRateLimiter(10, Duration.ofMinutes(1), 1_000, clock);
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(limiter.tryAcquire("ip-1")).isTrue();
+    }
+    assertThat(limiter.tryAcquire("ip-1")).isFalse();
+    assertThat(limiter.tryAcquire("ip-2")).isTrue();
+
+    // one token every 6s, not a full reset at the next window boundary
+    clock.advance(Duration.ofSeconds(6));
+    assertThat(limiter.tryAcquire("ip-1")).isTrue();
+    assertThat(limiter.tryAcquire("ip-1")).isFalse();
+
+    clock.advance(Duration.ofMinutes(1));
+    for (int i = 0; i < 10; i++) {
+      assertThat(limiter.tryAcquire("ip-1")).isTrue();
+    }
+    assertThat(limiter.tryAcquire("ip-1")).isFalse();
+  }
+
+  @Test
+  void refusedRequestsDoNotConsumeTokens() {
+    var limiter = new TokenBucketRateLimiter(2, Duration.ofSeconds(10), 1_000, clock);
+    limiter.tryAcquire("k");
+    limiter.tryAcquire("k");
+    for (int i = 0; i < 50; i++) {
+      assertThat(limiter.tryAcquire("k")).isFalse();
+    }
+
+    clock.advance(Duration.ofSeconds(5));
+
+    assertThat(limiter.tryAcquire("k")).isTrue();
+  }
+
+  @Test
+  void grantsExactlyCapacityPerKeyUnderConcurrency() throws Exception {
+    int capacity = 5;
+    int keys = 2_000;
+    int threads = 16;
+    var limiter = new TokenBucketRateLimiter(capacity, Duration.ofHours(1), 10_000, clock);
+    AtomicInteger allowed = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(
+            pool.submit(
+                () -> {
+                  start.await();
+                  for (int k = 0; k < keys; k++) {
+                    if (limiter.tryAcquire("10.0." + (k / 256) + "." + (k % 256))) {
+                      allowed.incrementAndGet();
+                    }
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    assertThat(allowed.get()).isEqualTo(keys * capacity);
+  }
+
+  @Test
+  void keepsTrackedKeysBounded() {
+    var limiter = new TokenBucketRateLimiter(1, Duration.ofMinutes(1), 100, clock);
+
+    for (int i = 0; i < 5_000; i++) {
+      limiter.tryAcquire("client-" + i);
+    }
+
+    assertThat(limiter.trackedKeys()).isLessThanOrEqualTo(100);
+  }
+
+  private static final class MutableClock extends Clock {
+    private volatile Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.edufelip.meer.security.token;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.edufelip.meer.core.auth.AuthUser;
+import com.edufelip.meer.core.auth.Role;
+import com.edufelip.meer.security.JwtProperties;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class JwtTokenProviderTest {
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+  @Test
+  void reusedAccessTokenReturnsSamePayload() {
+    JwtTokenProvider provider = provider(10_000);
+    AuthUser user = user();
+    String token = provider.generateAccessToken(user);
+
+    TokenPayload first = provider.parseAccessToken(token);
+    TokenPayload second = provider.parseAccessToken(token);
+
+    assertThat(first.getUserId()).isEqualTo(user.getId());
+    assertThat(first.getRole()).isEqualTo(Role.ADMIN);
+    assertThat(second).isSameAs(first);
+  }
+
+  @Test
+  void cachedTokenIsRejectedOnceExpired() {
+    JwtTokenProvider provider = provider(10_000);
+    String token = provider.generateAccessToken(user());
+    provider.parseAccessToken(token);
+
+    clock.advance(Duration.ofMinutes(61));
+
+    assertThatThrownBy(() -> provider.parseAccessToken(token))
+        .isInstanceOf(InvalidTokenException.class);
+  }
+
+  @Test
+  void tamperedTokenIsRejectedEvenWhenOriginalIsCached() {
+    JwtTokenProvider provider = provider(10_000);
+    String token = provider.generateAccessToken(user());
+    provider.parseAccessToken(token);
+    int i = token.length() - 10;
+    char replacement = token.charAt(i) == 'A' ? 'B' : 'A';
+    String tampered = token.substring(0, i) + replacement + token.substring(i + 1);
+
+    assertThatThrownBy(() -> provider.parseAccessToken(tampered))
+        .isInstanceOf(InvalidTokenException.class);
+  }
+
+  @Test
+  void disabledCacheStillVerifiesTokens() {
+    JwtTokenProvider provider = provider(0);
+    AuthUser user = user();
+    String token = provider.generateAccessToken(user);
+
+    assertThat(provider.parseAccessToken(token).getUserId()).isEqualTo(user.getId());
+    assertThat(provider.parseAccessToken(token).getUserId()).isEqualTo(user.getId());
+  }
+
+  private JwtTokenProvider provider(long cacheSize) {
+    JwtProperties props = new JwtProperties();
+    props.setSecret("test-secret-test-secret-test-secret-test-secret-0123456789");
+    props.setAccessTtlMinutes(60);
+    props.setVerifiedCacheSize(cacheSize);
+    return new JwtTokenProvider(props, clock);
+  }
+
+  private static AuthUser user() {
+    AuthUser user = new AuthUser();
+    user.setId(UUID.randomUUID());
+    user.setEmail("ana@example.com");
+    user.setDisplayName("Ana");
+    user.setRole(Role.ADMIN);
+    return user;
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.edufelip.meer.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.edufelip.meer.domain.GuideContentSummary;
+import com.edufelip.meer.domain.repo.GuideContentLikeRepository;
+import com.edufelip.meer.domain.repo.GuideContentRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class GuideContentEngagementServiceTest {
+
+  private final GuideContentRepository guideContentRepository =
+      Mockito.mock(GuideContentRepository.class);
+  private final GuideContentLikeRepository guideContentLikeRepository =
+      Mockito.mock(GuideContentLikeRepository.class);
+  private final GuideContentEngagementService service =
+      new GuideContentEngagementService(guideContentRepository, guideContentLikeRepository);
+
+  @Test
+  void anonymousSummaryEngagementComesFromProjectedCounters() {
+    var engagement = service.getSummaryEngagement(List.of(summary(1, 3L, 2L)), null);
+
+    assertThat(engagement.get(1))
+        .isEqualTo(new GuideContentEngagementService.EngagementSummary(3L, 2L, false));
+    verifyNoInteractions(guideContentRepository, guideContentLikeRepository);
+  }
+
+  @Test
+  void authenticatedSummaryEngagementOnlyQueriesLikedIds() {
+    UUID userId = UUID.randomUUID();
+    when(guideContentLikeRepository.findLikedContentIds(userId, List.of(1, 2)))
+        .thenReturn(List.of(2));
+
+    var engagement =
+        service.getSummaryEngagement(List.of(summary(1, 0L, 0L), summary(2, 4L, 1L)), userId);
+
+    assertThat(engagement.get(1).likedByMe()).isFalse();
+    assertThat(engagement.get(2))
+        .isEqualTo(new GuideContentEngagementService.EngagementSummary(4L, 1L, true));
+    verify(guideContentLikeRepository).findLikedContentIds(userId, List.of(1, 2));
+    verifyNoInteractions(guideContentRepository);
+  }
+
+  private static GuideContentSummary summary(int id, Long likes, Long comments) {
+    return new GuideContentSummary(
+        id, "Title", "Desc", null, null, null, null, Instant.EPOCH, likes, comments);
+  }
+}
@@ -0,0 +1,215 @@
+package com.edufelip.meer.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.edufelip.meer.core.auth.AuthUser;
+import com.edufelip.meer.core.store.ThriftStore;
+import com.edufelip.meer.domain.GetThriftStoresUseCase;
+import com.edufelip.meer.domain.GuideContentSummary;
+import com.edufelip.meer.domain.repo.GuideContentRepository;
+import com.edufelip.meer.domain.repo.ThriftStoreRepository;
+import com.edufelip.meer.dto.HomeResponse;
+import com.edufelip.meer.dto.NearbyStoreDto;
+import com.edufelip.meer.dto.StoreDtoCalculations;
+import com.edufelip.meer.service.GuideContentEngagementService.EngagementSummary;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class HomeFeedServiceTest {
+
+  private final GetThriftStoresUseCase getThriftStoresUseCase =
+      Mockito.mock(GetThriftStoresUseCase.class);
+  private final ThriftStoreRepository thriftStoreRepository =
+      Mockito.mock(ThriftStoreRepository.class);
+  private final GuideContentRepository guideContentRepository =
+      Mockito.mock(GuideContentRepository.class);
+  private final GuideContentEngagementService engagementService =
+      Mockito.mock(GuideContentEngagementService.class);
+  private final StoreFeedbackService storeFeedbackService =
+      Mockito.mock(StoreFeedbackService.class);
+  private ExecutorService executor;
+  private HomeFeedService service;
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newFixedThreadPool(2);
+    service =
+        new HomeFeedService(
+            getThriftStoresUseCase,
+            thriftStoreRepository,
+            guideContentRepository,
+            storeFeedbackService,
+            engagementService,
+            new ConcurrentMapCacheManager(HomeFeedService.CACHE_NAME),
+            Mockito.mock(PlatformTransactionManager.class),
+            executor,
+            true);
+    when(storeFeedbackService.getSummaries(anyList())).thenReturn(Map.of());
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void overlaysPerUserFlagsOnSharedSnapshot() {
+    ThriftStore store = store();
+    GuideContentSummary liked = summary(1);
+    GuideContentSummary other = summary(2);
+    when(thriftStoreRepository.findTop10ByOrderByCreatedAtDesc()).thenReturn(List.of(store));
+    when(guideContentRepository.findAllSummariesActive(any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of(liked, other)));
+    when(getThriftStoresUseCase.executeNearby(10.0, 20.0, 0, 10))
+        .thenReturn(new SliceImpl<>(List.of(store), PageRequest.of(0, 10), false));
+
+    AuthUser user = new AuthUser();
+    user.setId(UUID.randomUUID());
+    user.setFavorites(Set.of(store));
+    // live counters differ from the 3 likes the cached snapshot was built with
+    when(engagementService.getEngagementByIds(List.of(1, 2), user.getId()))
+        .thenReturn(
+            Map.of(1, new EngagementSummary(5, 2, true), 2, new EngagementSummary(4, 1, false)));
+    when(engagementService.getEngagementByIds(anyList(), eq(null)))
+        .thenReturn(
+            Map.of(1, new EngagementSummary(5, 2, false), 2, new EngagementSummary(4, 1, false)));
+
+    HomeResponse personal = service.assemble(10.0, 20.0, user);
+    HomeResponse anonymous = service.assemble(10.0, 20.0, null);
+
+    assertThat(personal.featured()).singleElement().extracting("id").isEqualTo(store.getId());
+    assertThat(personal.nearby()).singleElement().extracting("isFavorite").isEqualTo(true);
+    assertThat(personal.content()).extracting("likedByMe").containsExactly(true, false);
+    assertThat(personal.content()).extracting("likeCount").containsExactly(5L, 4L);
+    assertThat(personal.content()).extracting("commentCount").containsExactly(2L, 1L);
+    assertThat(anonymous.nearby()).singleElement().extracting("isFavorite").isEqualTo(false);
+    assertThat(anonymous.content()).extracting("likedByMe").containsExactly(false, false);
+    assertThat(anonymous.content()).extracting("likeCount").containsExactly(5L, 4L);
+    // the shared sections are built once and reused
+    verify(thriftStoreRepository, times(1)).findTop10ByOrderByCreatedAtDesc();
+    verify(guideContentRepository, times(1)).findAllSummariesActive(any(Pageable.class));
+  }
+
+  @Test
+  void collapsesConcurrentNearbyRequestsForSameCoordinates() throws Exception {
+    ThriftStore store = store();
+    when(thriftStoreRepository.findTop10ByOrderByCreatedAtDesc()).thenReturn(List.of());
+    when(guideContentRepository.findAllSummariesActive(any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of()));
+
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(getThriftStoresUseCase.executeNearby(10.0, 20.0, 0, 10))
+        .thenAnswer(
+            invocation -> {
+              started.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return new SliceImpl<>(List.of(store), PageRequest.of(0, 10), false);
+            });
+
+    CompletableFuture<HomeResponse> first =
+        CompletableFuture.supplyAsync(() -> service.assemble(10.0, 20.0, null));
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    CompletableFuture<HomeResponse> second =
+        CompletableFuture.supplyAsync(() -> service.assemble(10.0, 20.0, null));
+    Thread.sleep(100);
+    release.countDown();
+
+    assertThat(first.get(5, TimeUnit.SECONDS).nearby()).hasSize(1);
+    assertThat(second.get(5, TimeUnit.SECONDS).nearby()).hasSize(1);
+    verify(getThriftStoresUseCase, times(1)).executeNearby(10.0, 20.0, 0, 10);
+  }
+
+  @Test
+  void nearbyRequestsInOneGridCellShareAFlightButKeepTheirOwnDistances() throws Exception {
+    ThriftStore store = store();
+    when(thriftStoreRepository.findTop10ByOrderByCreatedAtDesc()).thenReturn(List.of());
+    when(guideContentRepository.findAllSummariesActive(any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of()));
+
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(getThriftStoresUseCase.executeNearby(10.0, 20.0, 0, 10))
+        .thenAnswer(
+            invocation -> {
+              started.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return new SliceImpl<>(List.of(store), PageRequest.of(0, 10), false);
+            });
+
+    CompletableFuture<HomeResponse> first =
+        CompletableFuture.supplyAsync(() -> service.assemble(10.0001, 20.0001, null));
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    CompletableFuture<HomeResponse> second =
+        CompletableFuture.supplyAsync(() -> service.assemble(10.0004, 19.9996, null));
+    Thread.sleep(100);
+    release.countDown();
+
+    NearbyStoreDto near = first.get(5, TimeUnit.SECONDS).nearby().get(0);
+    NearbyStoreDto far = second.get(5, TimeUnit.SECONDS).nearby().get(0);
+    verify(getThriftStoresUseCase, times(1)).executeNearby(10.0, 20.0, 0, 10);
+    assertThat(near.distanceMeters())
+        .isCloseTo(StoreDtoCalculations.distanceMeters(10.0001, 20.0001, 10.0, 20.0), within(0.01));
+    assertThat(far.distanceMeters()).isGreaterThan(near.distanceMeters());
+  }
+
+  @Test
+  void nearbyStoresAreOrderedByTheCallersDistance() {
+    // from the cell origin (10.0, 20.0) east is closer; from the caller west is
+    ThriftStore east = store(10.0, 20.0005);
+    ThriftStore west = store(10.0, 19.9994);
+    when(thriftStoreRepository.findTop10ByOrderByCreatedAtDesc()).thenReturn(List.of());
+    when(guideContentRepository.findAllSummariesActive(any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of()));
+    when(getThriftStoresUseCase.executeNearby(10.0, 20.0, 0, 10))
+        .thenReturn(new SliceImpl<>(List.of(east, west), PageRequest.of(0, 10), false));
+
+    HomeResponse response = service.assemble(10.0004, 19.9996, null);
+
+    assertThat(response.nearby())
+        .extracting(NearbyStoreDto::id)
+        .containsExactly(west.getId(), east.getId());
+  }
+
+  private static ThriftStore store() {
+    return store(10.0, 20.0);
+  }
+
+  private static ThriftStore store(double lat, double lng) {
+    ThriftStore store = new ThriftStore();
+    store.setId(UUID.randomUUID());
+    store.setName("Brechó Central");
+    store.setLatitude(lat);
+    store.setLongitude(lng);
+    return store;
+  }
+
+  private static GuideContentSummary summary(int id) {
+    return new GuideContentSummary(
+        id, "Title " + id, "Body", null, null, null, null, Instant.now(), 3L, 1L);
+  }
+}
@@ -0,0 +1,48 @@
+package com.edufelip.meer.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.edufelip.meer.config.TestClockConfig;
+import com.edufelip.meer.domain.repo.RateLimitLeaseRepository;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestClockConfig.class)
+@Transactional
+class RateLimitLeaseServiceTest {
+
+  @Autowired private RateLimitLeaseService service;
+  @Autowired private RateLimitLeaseRepository repository;
+
+  @Test
+  void reservesChunksUntilWindowCapacityIsUsed() {
+    Instant windowEnd = TestClockConfig.FIXED_INSTANT.plusSeconds(60);
+
+    assertThat(service.reserve("auth|10.0.0.1|1", windowEnd, 5, 12)).isEqualTo(5);
+    assertThat(service.reserve("auth|10.0.0.1|1", windowEnd, 5, 12)).isEqualTo(5);
+    assertThat(service.reserve("auth|10.0.0.1|1", windowEnd, 5, 12)).isEqualTo(2);
+    assertThat(service.reserve("auth|10.0.0.1|1", windowEnd, 5, 12)).isZero();
+    assertThat(service.reserve("auth|10.0.0.2|1", windowEnd, 5, 12)).isEqualTo(5);
+  }
+
+  @Test
+  void purgesWindowsThatEnded() {
+    Instant ended = TestClockConfig.FIXED_INSTANT.minus(Duration.ofHours(1));
+    Instant current = TestClockConfig.FIXED_INSTANT.plusSeconds(60);
+    service.reserve("auth|old|1", ended, 1, 10);
+    service.reserve("auth|new|2", current, 1, 10);
+
+    service.purgeEndedWindows();
+
+    assertThat(repository.findById("auth|old|1")).isEmpty();
+    assertThat(repository.findById("auth|new|2")).isPresent();
+  }
+}
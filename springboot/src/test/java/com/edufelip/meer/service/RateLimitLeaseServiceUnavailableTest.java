@@ -0,0 +1,70 @@
+package com.edufelip.meer.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.edufelip.meer.config.TestClockConfig;
+import com.edufelip.meer.domain.repo.RateLimitLeaseRepository;
+import com.edufelip.meer.security.DistributedRateLimiter;
+import com.edufelip.meer.security.RateLimitProperties;
+import java.time.Clock;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+/** The lease service as the app wires it, behind its transactional proxy, with the DB down. */
+@SpringBootTest(
+    classes = {
+      RateLimitLeaseService.class,
+      RateLimitLeaseServiceUnavailableTest.TransactionTestConfig.class,
+      TestClockConfig.class
+    })
+class RateLimitLeaseServiceUnavailableTest {
+
+  @TestConfiguration
+  @EnableTransactionManagement(proxyTargetClass = true)
+  @EnableConfigurationProperties(RateLimitProperties.class)
+  static class TransactionTestConfig {}
+
+  @Autowired private RateLimitLeaseService service;
+  @Autowired private Clock clock;
+
+  @MockitoBean private RateLimitLeaseRepository repository;
+  @MockitoBean private PlatformTransactionManager transactionManager;
+
+  @BeforeEach
+  void databaseIsDown() {
+    when(transactionManager.getTransaction(any()))
+        .thenThrow(new CannotCreateTransactionException("Could not open JDBC Connection"));
+  }
+
+  @Test
+  void reserveFailsInTheProxyBeforeReachingTheRepository() {
+    assertThatThrownBy(
+            () -> service.reserve("auth|10.0.0.1|1", clock.instant().plusSeconds(60), 5, 10))
+        .isInstanceOf(CannotCreateTransactionException.class);
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void limiterFallsBackToLocalLimitingInsteadOfFailingTheRequest() {
+    var limiter =
+        new DistributedRateLimiter("auth", 3, Duration.ofMinutes(1), 2, 100, clock, service);
+
+    assertThat(limiter.tryAcquire("10.0.0.1")).isTrue();
+    assertThat(limiter.tryAcquire("10.0.0.1")).isTrue();
+    assertThat(limiter.tryAcquire("10.0.0.1")).isTrue();
+    assertThat(limiter.tryAcquire("10.0.0.1")).isFalse();
+  }
+}
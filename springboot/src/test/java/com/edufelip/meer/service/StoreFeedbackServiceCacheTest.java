@@ -1,6 +1,10 @@
 package com.edufelip.meer.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.edufelip.meer.config.CacheConfig;
@@ -9,9 +13,11 @@ import com.edufelip.meer.core.auth.AuthUser;
 import com.edufelip.meer.core.store.StoreFeedback;
 import com.edufelip.meer.core.store.ThriftStore;
 import com.edufelip.meer.domain.repo.StoreFeedbackRepository;
+import com.edufelip.meer.domain.repo.ThriftStoreRepository;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -19,8 +25,10 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @SpringBootTest(
     classes = {
@@ -39,94 +47,73 @@ class StoreFeedbackServiceCacheTest {
   @Autowired private CacheManager cacheManager;
 
   @MockitoBean private StoreFeedbackRepository storeFeedbackRepository;
+  @MockitoBean private ThriftStoreRepository thriftStoreRepository;
+
+  private Cache featured;
+
+  @BeforeEach
+  void primeFeaturedCache() {
+    featured = cacheManager.getCache("featuredTop10");
+    assertThat(featured).isNotNull();
+    featured.put(SimpleKey.EMPTY, List.of(store(UUID.randomUUID())));
+  }
+
+  @Test
+  void upsertEvictsCachedFeaturedStores() {
+    AuthUser user = user();
+    ThriftStore store = store(UUID.randomUUID());
+    when(storeFeedbackRepository.findByUserIdAndThriftStoreId(user.getId(), store.getId()))
+        .thenReturn(Optional.empty());
+    when(storeFeedbackRepository.save(any(StoreFeedback.class)))
+        .thenAnswer(inv -> inv.getArgument(0));
+
+    storeFeedbackService.upsert(user, store, 5, "Great");
+
+    assertThat(featured.get(SimpleKey.EMPTY)).isNull();
+    verify(thriftStoreRepository).adjustRatingTotals(store.getId(), 5, 1);
+  }
 
   @Test
-  void upsertEvictsStoreRatingsCache() {
+  void deleteEvictsCachedFeaturedStores() {
+    UUID userId = UUID.randomUUID();
     UUID storeId = UUID.randomUUID();
-    List<UUID> storeIds = List.of(storeId);
+    StoreFeedback feedback = new StoreFeedback(user(), store(storeId), 3, "ok");
+    when(storeFeedbackRepository.findByUserIdAndThriftStoreId(userId, storeId))
+        .thenReturn(Optional.of(feedback));
 
-    StoreFeedbackRepository.AggregateView view =
-        new StoreFeedbackRepository.AggregateView() {
-          @Override
-          public UUID getStoreId() {
-            return storeId;
-          }
+    storeFeedbackService.delete(userId, storeId);
 
-          @Override
-          public Double getAvgScore() {
-            return 4.5;
-          }
+    assertThat(featured.get(SimpleKey.EMPTY)).isNull();
+    verify(thriftStoreRepository).adjustRatingTotals(storeId, -3, -1);
+  }
 
-          @Override
-          public Long getCnt() {
-            return 2L;
-          }
-        };
+  @Test
+  void getSummariesNeedsNoFeedbackAggregateQuery() {
+    ThriftStore store = store(UUID.randomUUID());
+    ReflectionTestUtils.setField(store, "ratingSum", 9L);
+    ReflectionTestUtils.setField(store, "ratingCount", 2L);
 
-    when(storeFeedbackRepository.aggregateByStoreIds(storeIds)).thenReturn(List.of(view));
+    var summaries = storeFeedbackService.getSummaries(List.of(store));
 
-    Cache cache = cacheManager.getCache("storeRatings");
-    assertThat(cache).isNotNull();
-    storeFeedbackService.getSummaries(storeIds);
-    assertThat(cache.get(storeIds)).isNotNull();
+    assertThat(summaries.get(store.getId())).isEqualTo(new StoreFeedbackService.Summary(4.5, 2L));
+    verify(storeFeedbackRepository, never()).aggregateByStoreIds(anyList());
+    assertThat(featured.get(SimpleKey.EMPTY)).isNotNull();
+  }
 
+  private static AuthUser user() {
     AuthUser user = new AuthUser();
     user.setId(UUID.randomUUID());
     user.setEmail("user@example.com");
     user.setDisplayName("User");
     user.setPasswordHash("hash");
+    return user;
+  }
 
+  private static ThriftStore store(UUID storeId) {
     ThriftStore store = new ThriftStore();
     store.setId(storeId);
     store.setName("Store");
     store.setAddressLine("123 Road");
-
-    when(storeFeedbackRepository.findByUserIdAndThriftStoreId(user.getId(), storeId))
-        .thenReturn(Optional.empty());
-    when(storeFeedbackRepository.save(org.mockito.Mockito.any(StoreFeedback.class)))
-        .thenAnswer(inv -> inv.getArgument(0));
-
-    storeFeedbackService.upsert(user, store, 5, "Great");
-    assertThat(cache.get(storeIds)).isNull();
-  }
-
-  @Test
-  void deleteEvictsStoreRatingsCache() {
-    UUID storeId = UUID.randomUUID();
-    List<UUID> storeIds = List.of(storeId);
-
-    StoreFeedbackRepository.AggregateView view =
-        new StoreFeedbackRepository.AggregateView() {
-          @Override
-          public UUID getStoreId() {
-            return storeId;
-          }
-
-          @Override
-          public Double getAvgScore() {
-            return 3.0;
-          }
-
-          @Override
-          public Long getCnt() {
-            return 1L;
-          }
-        };
-
-    when(storeFeedbackRepository.aggregateByStoreIds(storeIds)).thenReturn(List.of(view));
-
-    Cache cache = cacheManager.getCache("storeRatings");
-    assertThat(cache).isNotNull();
-    storeFeedbackService.getSummaries(storeIds);
-    assertThat(cache.get(storeIds)).isNotNull();
-
-    UUID userId = UUID.randomUUID();
-    StoreFeedback feedback = new StoreFeedback();
-    feedback.setId(1);
-    when(storeFeedbackRepository.findByUserIdAndThriftStoreId(userId, storeId))
-        .thenReturn(Optional.of(feedback));
-
-    storeFeedbackService.delete(userId, storeId);
-    assertThat(cache.get(storeIds)).isNull();
+    return store;
   }
 }
@@ -1,6 +1,7 @@
 package com.edufelip.meer.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
@@ -8,21 +9,26 @@ import com.edufelip.meer.core.auth.AuthUser;
 import com.edufelip.meer.core.store.StoreFeedback;
 import com.edufelip.meer.core.store.ThriftStore;
 import com.edufelip.meer.domain.repo.StoreFeedbackRepository;
+import com.edufelip.meer.domain.repo.ThriftStoreRepository;
 import com.edufelip.meer.support.TestFixtures;
 import java.time.Clock;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
 
 class StoreFeedbackServiceTest {
 
   @Test
   void upsertRefreshesCreatedAtForExistingFeedback() {
     StoreFeedbackRepository repository = Mockito.mock(StoreFeedbackRepository.class);
+    ThriftStoreRepository thriftStoreRepository = Mockito.mock(ThriftStoreRepository.class);
     Clock clock = Clock.fixed(TestFixtures.fixedInstant(), java.time.ZoneOffset.UTC);
-    StoreFeedbackService service = new StoreFeedbackService(repository, clock);
+    StoreFeedbackService service =
+        new StoreFeedbackService(repository, thriftStoreRepository, clock);
 
     UUID userId = UUID.randomUUID();
     UUID storeId = UUID.randomUUID();
@@ -49,4 +55,60 @@ class StoreFeedbackServiceTest {
     assertNotEquals(originalCreatedAt, saved.getCreatedAt());
     assertEquals(TestFixtures.fixedInstant(), saved.getCreatedAt());
   }
+
+  @Test
+  void upsertAndDeleteAdjustStoreRatingTotals() {
+    StoreFeedbackRepository repository = Mockito.mock(StoreFeedbackRepository.class);
+    ThriftStoreRepository thriftStoreRepository = Mockito.mock(ThriftStoreRepository.class);
+    Clock clock = Clock.fixed(TestFixtures.fixedInstant(), java.time.ZoneOffset.UTC);
+    StoreFeedbackService service =
+        new StoreFeedbackService(repository, thriftStoreRepository, clock);
+
+    UUID userId = UUID.randomUUID();
+    UUID storeId = UUID.randomUUID();
+    AuthUser user = new AuthUser();
+    user.setId(userId);
+    ThriftStore store = new ThriftStore();
+    store.setId(storeId);
+
+    Mockito.when(repository.findByUserIdAndThriftStoreId(userId, storeId))
+        .thenReturn(Optional.empty());
+    Mockito.when(repository.save(Mockito.any(StoreFeedback.class)))
+        .thenAnswer(inv -> inv.getArgument(0, StoreFeedback.class));
+    service.upsert(user, store, 4, "first");
+    Mockito.verify(thriftStoreRepository).adjustRatingTotals(storeId, 4, 1);
+
+    StoreFeedback existing = new StoreFeedback(user, store, 4, "first");
+    Mockito.when(repository.findByUserIdAndThriftStoreId(userId, storeId))
+        .thenReturn(Optional.of(existing));
+    service.upsert(user, store, 2, "second");
+    Mockito.verify(thriftStoreRepository).adjustRatingTotals(storeId, -2, 0);
+
+    service.upsert(user, store, 2, "text edit only");
+    service.delete(userId, storeId);
+    Mockito.verify(thriftStoreRepository).adjustRatingTotals(storeId, -2, -1);
+    Mockito.verifyNoMoreInteractions(thriftStoreRepository);
+  }
+
+  @Test
+  void getSummariesReadsTotalsFromStores() {
+    StoreFeedbackService service =
+        new StoreFeedbackService(
+            Mockito.mock(StoreFeedbackRepository.class),
+            Mockito.mock(ThriftStoreRepository.class),
+            Clock.systemUTC());
+
+    ThriftStore rated = new ThriftStore();
+    rated.setId(UUID.randomUUID());
+    // the totals are read-only on the entity; the database writes them
+    ReflectionTestUtils.setField(rated, "ratingSum", 9L);
+    ReflectionTestUtils.setField(rated, "ratingCount", 2L);
+    ThriftStore unrated = new ThriftStore();
+    unrated.setId(UUID.randomUUID());
+
+    var summaries = service.getSummaries(List.of(rated, unrated));
+
+    assertEquals(new StoreFeedbackService.Summary(4.5, 2L), summaries.get(rated.getId()));
+    assertFalse(summaries.containsKey(unrated.getId()));
+  }
 }
@@ -0,0 +1,163 @@
+package com.edufelip.meer.service.moderation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.edufelip.meer.config.ModerationProperties;
+import com.edufelip.meer.core.moderation.ModerationStatus;
+import com.edufelip.meer.domain.repo.ImageModerationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class ImageModerationWorkerTest {
+
+  private final ImageModerationRepository repository = mock(ImageModerationRepository.class);
+  private final ModerationDispatcher dispatcher = mock(ModerationDispatcher.class);
+  private final ModerationProperties properties = new ModerationProperties();
+  private final Instant now = Instant.parse("2026-01-01T12:00:00Z");
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final ImageModerationWorker worker =
+      new ImageModerationWorker(
+          repository,
+          dispatcher,
+          properties,
+          mock(PlatformTransactionManager.class),
+          Clock.fixed(now, ZoneOffset.UTC),
+          registry);
+
+  @BeforeEach
+  void grantAllRequestedCapacity() {
+    when(dispatcher.reserve(anyInt())).thenAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  @Test
+  void pollBatchGrowsWhileFullAndShrinksBackWhenNot() {
+    when(repository.lockPendingIdsForProcessing(10)).thenReturn(ids(10));
+    when(repository.lockPendingIdsForProcessing(20)).thenReturn(ids(20));
+    when(repository.lockPendingIdsForProcessing(40)).thenReturn(ids(3));
+
+    worker.processPendingImages();
+    worker.processPendingImages();
+    worker.processPendingImages();
+    worker.processPendingImages();
+
+    InOrder order = Mockito.inOrder(repository);
+    order.verify(repository).lockPendingIdsForProcessing(10);
+    order.verify(repository).lockPendingIdsForProcessing(20);
+    order.verify(repository).lockPendingIdsForProcessing(40);
+    order.verify(repository).lockPendingIdsForProcessing(20);
+  }
+
+  @Test
+  void pollBatchStaysWithinConfiguredBounds() {
+    properties.getDispatch().setPollMinBatch(10);
+    properties.getDispatch().setPollMaxBatch(50);
+
+    assertThat(worker.nextPollBatchSize(40, 40)).isEqualTo(50);
+    assertThat(worker.nextPollBatchSize(50, 50)).isEqualTo(50);
+    assertThat(worker.nextPollBatchSize(12, 0)).isEqualTo(10);
+  }
+
+  @Test
+  void claimedIdsAreHandedToTheDispatcher() {
+    when(repository.lockPendingIdsForProcessing(10)).thenReturn(List.of(7L, 8L));
+
+    worker.processPendingImages();
+
+    verify(repository).markProcessing(List.of(7L, 8L), now);
+    verify(dispatcher).submitClaimed(List.of(7L, 8L));
+    verify(dispatcher).release(8);
+  }
+
+  @Test
+  void pollClaimsNoMoreThanFreeCapacity() {
+    when(dispatcher.reserve(10)).thenReturn(3);
+    when(repository.lockPendingIdsForProcessing(3)).thenReturn(List.of(1L, 2L, 3L));
+
+    worker.processPendingImages();
+
+    verify(repository).lockPendingIdsForProcessing(3);
+    verify(dispatcher).submitClaimed(List.of(1L, 2L, 3L));
+    verify(dispatcher).release(0);
+  }
+
+  @Test
+  void fullPoolSkipsThePoll() {
+    when(dispatcher.reserve(anyInt())).thenReturn(0);
+
+    worker.processPendingImages();
+
+    verify(repository, never()).lockPendingIdsForProcessing(anyInt());
+    verify(dispatcher, never()).submitClaimed(Mockito.anyList());
+  }
+
+  @Test
+  void failedClaimReleasesTheReservedCapacity() {
+    when(repository.lockPendingIdsForProcessing(10)).thenThrow(new IllegalStateException("db"));
+
+    worker.processPendingImages();
+
+    verify(dispatcher).release(10);
+    verify(dispatcher, never()).submitClaimed(Mockito.anyList());
+  }
+
+  @Test
+  void expiredLeasesGoBackToPendingAndArePushed() {
+    properties.getDispatch().setLeaseTimeoutMs(60_000);
+    Instant cutoff = now.minusMillis(60_000);
+    when(repository.lockExpiredProcessingIds(eq(cutoff), anyInt())).thenReturn(List.of(5L, 6L));
+
+    worker.releaseExpiredLeases();
+
+    verify(repository).updateStatusByIds(ModerationStatus.PENDING, List.of(5L, 6L));
+    verify(dispatcher).publish(List.of(5L, 6L));
+    assertThat(registry.counter("meer.moderation.lease.expired").count()).isEqualTo(2.0);
+  }
+
+  @Test
+  void noExpiredLeasesPublishesNothing() {
+    when(repository.lockExpiredProcessingIds(any(), anyInt())).thenReturn(List.of());
+
+    worker.releaseExpiredLeases();
+
+    verify(dispatcher, never()).publish(Mockito.anyCollection());
+  }
+
+  @Test
+  void emptyPollDispatchesNothing() {
+    when(repository.lockPendingIdsForProcessing(anyInt())).thenReturn(List.of());
+
+    worker.processPendingImages();
+
+    verify(dispatcher, never()).submitClaimed(Mockito.anyList());
+  }
+
+  @Test
+  void retriedIdsArePushedInsteadOfWaitingForThePoll() {
+    when(repository.lockFailedIdsForRetry(3, 10)).thenReturn(List.of(4L));
+
+    worker.retryFailedImages();
+
+    verify(repository).updateStatusByIds(ModerationStatus.PENDING, List.of(4L));
+    verify(dispatcher).publish(List.of(4L));
+  }
+
+  private static List<Long> ids(int count) {
+    return LongStream.rangeClosed(1, count).boxed().toList();
+  }
+}
@@ -0,0 +1,99 @@
+package com.edufelip.meer.service.moderation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ImagePreprocessorTest {
+
+  private static final float[] MEAN = {0.485f, 0.456f, 0.406f};
+  private static final float[] STD = {0.229f, 0.224f, 0.225f};
+
+  private final ImagePreprocessor preprocessor = new ImagePreprocessor();
+
+  @Test
+  void bulkReadMatchesPerPixelNormalizationForEveryLayout() throws Exception {
+    int[] types = {
+      BufferedImage.TYPE_INT_RGB,
+      BufferedImage.TYPE_INT_ARGB,
+      BufferedImage.TYPE_INT_BGR,
+      BufferedImage.TYPE_3BYTE_BGR,
+      BufferedImage.TYPE_4BYTE_ABGR,
+      BufferedImage.TYPE_USHORT_565_RGB
+    };
+    for (int type : types) {
+      BufferedImage image = randomImage(32, 24, type);
+
+      float[] chw = preprocessor.toNchwFloatRgb(image, 32, 24);
+
+      assertThat(chw).as("image type %d", type).containsExactly(perPixel(image));
+    }
+  }
+
+  @Test
+  void readsSubimageRasterAtItsOffset() throws Exception {
+    BufferedImage parent = randomImage(40, 40, BufferedImage.TYPE_3BYTE_BGR);
+    BufferedImage sub = parent.getSubimage(5, 7, 16, 16);
+
+    assertThat(preprocessor.toNchwFloatRgb(sub, 16, 16)).containsExactly(perPixel(sub));
+  }
+
+  @Test
+  void nonSquareImageIsStretchedToTheModelInput() throws Exception {
+    BufferedImage photo = randomImage(128, 96, BufferedImage.TYPE_3BYTE_BGR);
+
+    float[] chw = preprocessor.toNchwFloatRgb(photo, 32, 32);
+
+    assertThat(chw).hasSize(3 * 32 * 32);
+  }
+
+  @Test
+  void writesIntoDirectBufferFromItsPosition() throws Exception {
+    BufferedImage image = randomImage(8, 8, BufferedImage.TYPE_INT_RGB);
+    FloatBuffer direct =
+        ByteBuffer.allocateDirect(2 * 3 * 64 * Float.BYTES)
+            .order(ByteOrder.nativeOrder())
+            .asFloatBuffer();
+    direct.position(3 * 64);
+
+    preprocessor.writeNchwFloatRgb(image, 8, 8, direct);
+
+    assertThat(direct.position()).isEqualTo(3 * 64);
+    float[] second = new float[3 * 64];
+    direct.get(3 * 64, second);
+    assertThat(second).containsExactly(perPixel(image));
+    assertThat(direct.get(0)).isZero();
+  }
+
+  private static float[] perPixel(BufferedImage image) {
+    int width = image.getWidth();
+    int hw = width * image.getHeight();
+    float[] chw = new float[3 * hw];
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int x = 0; x < width; x++) {
+        int rgb = image.getRGB(x, y);
+        int i = y * width + x;
+        chw[i] = (((rgb >> 16) & 0xFF) / 255.0f - MEAN[0]) / STD[0];
+        chw[hw + i] = (((rgb >> 8) & 0xFF) / 255.0f - MEAN[1]) / STD[1];
+        chw[2 * hw + i] = ((rgb & 0xFF) / 255.0f - MEAN[2]) / STD[2];
+      }
+    }
+    return chw;
+  }
+
+  private static BufferedImage randomImage(int width, int height, int type) {
+    BufferedImage image = new BufferedImage(width, height, type);
+    Random random = new Random(7);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        image.setRGB(x, y, 0xFF000000 | random.nextInt(0x1000000));
+      }
+    }
+    return image;
+  }
+}
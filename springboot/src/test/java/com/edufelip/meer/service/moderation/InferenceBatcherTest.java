@@ -0,0 +1,133 @@
+package com.edufelip.meer.service.moderation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class InferenceBatcherTest {
+
+  @Test
+  void concurrentCallersShareOneRunAndGetTheirOwnScores() throws Exception {
+    List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    var batcher = new InferenceBatcher<float[]>(echoFirstValue(batchSizes), 4, 5_000);
+
+    List<Future<Double>> results = submitConcurrently(batcher, 4);
+
+    for (int i = 0; i < 4; i++) {
+      assertThat(results.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(i);
+    }
+    // a full batch does not wait for the 5s deadline
+    assertThat(batchSizes).containsExactly(4);
+  }
+
+  @Test
+  void loneCallerRunsAfterMaxWait() throws Exception {
+    List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    var batcher = new InferenceBatcher<float[]>(echoFirstValue(batchSizes), 8, 20);
+
+    long start = System.nanoTime();
+    double score = batcher.score(new float[] {7f});
+
+    assertThat(score).isEqualTo(7.0);
+    assertThat(batchSizes).containsExactly(1);
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(15);
+  }
+
+  @Test
+  void batchesNeverExceedMaxSize() throws Exception {
+    List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    var batcher = new InferenceBatcher<float[]>(echoFirstValue(batchSizes), 3, 50);
+
+    List<Future<Double>> results = submitConcurrently(batcher, 10);
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(results.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(i);
+    }
+    assertThat(batchSizes).allSatisfy(size -> assertThat(size).isBetween(1, 3));
+    assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(10);
+  }
+
+  @Test
+  void batchesOverlapInsteadOfQueueingBehindARunningOne() throws Exception {
+    // each run blocks until both are inside the runner, so serialized runs would never finish
+    CountDownLatch bothRunning = new CountDownLatch(2);
+    var batcher =
+        new InferenceBatcher<float[]>(
+            inputs -> {
+              bothRunning.countDown();
+              if (!bothRunning.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("runs were serialized");
+              }
+              return new double[] {inputs.get(0)[0]};
+            },
+            1,
+            5_000);
+
+    long start = System.nanoTime();
+    List<Future<Double>> results = submitConcurrently(batcher, 2);
+
+    assertThat(results.get(0).get(5, TimeUnit.SECONDS)).isEqualTo(0.0);
+    assertThat(results.get(1).get(5, TimeUnit.SECONDS)).isEqualTo(1.0);
+    // a batch of one never sits out the max wait
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5_000);
+  }
+
+  @Test
+  void failedRunFailsEveryCallerInTheBatch() throws Exception {
+    var batcher =
+        new InferenceBatcher<float[]>(
+            inputs -> {
+              throw new IllegalStateException("session closed");
+            },
+            2,
+            5_000);
+
+    List<Future<Double>> results = submitConcurrently(batcher, 2);
+
+    for (Future<Double> result : results) {
+      assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+          .hasCauseInstanceOf(IllegalStateException.class)
+          .hasMessageContaining("session closed");
+    }
+  }
+
+  private static InferenceBatcher.Runner<float[]> echoFirstValue(List<Integer> batchSizes) {
+    return inputs -> {
+      batchSizes.add(inputs.size());
+      double[] scores = new double[inputs.size()];
+      for (int i = 0; i < scores.length; i++) {
+        scores[i] = inputs.get(i)[0];
+      }
+      return scores;
+    };
+  }
+
+  private static List<Future<Double>> submitConcurrently(
+      InferenceBatcher<float[]> batcher, int callers) throws InterruptedException {
+    ExecutorService pool = Executors.newFixedThreadPool(callers);
+    CountDownLatch ready = new CountDownLatch(callers);
+    List<Future<Double>> results = new ArrayList<>();
+    for (int i = 0; i < callers; i++) {
+      float value = i;
+      results.add(
+          pool.submit(
+              () -> {
+                ready.countDown();
+                ready.await();
+                return batcher.score(new float[] {value});
+              }));
+    }
+    pool.shutdown();
+    assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    return results;
+  }
+}
@@ -0,0 +1,222 @@
+package com.edufelip.meer.service.moderation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.edufelip.meer.config.ModerationProperties;
+import com.edufelip.meer.core.moderation.ModerationStatus;
+import com.edufelip.meer.domain.repo.ImageModerationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+class ModerationDispatcherTest {
+
+  private final ImageModerationRepository repository = mock(ImageModerationRepository.class);
+  private final ModerationProperties properties = new ModerationProperties();
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void reserveGrantsOnlyFreeCapacity() {
+    properties.getWorker().setMaxInFlight(5);
+    ModerationDispatcher dispatcher = dispatcher(Runnable::run);
+
+    assertThat(dispatcher.reserve(3)).isEqualTo(3);
+    assertThat(dispatcher.reserve(3)).isEqualTo(2);
+    assertThat(dispatcher.reserve(1)).isZero();
+
+    dispatcher.release(4);
+
+    assertThat(dispatcher.reserve(10)).isEqualTo(4);
+  }
+
+  @Test
+  void capacityNeverExceedsWhatTheExecutorCanHold() {
+    properties.getWorker().setMaxInFlight(100);
+    properties.getWorker().setThreadPoolSize(2);
+    properties.getWorker().setQueueCapacity(3);
+
+    assertThat(dispatcher(Runnable::run).reserve(100)).isEqualTo(5);
+  }
+
+  @Test
+  void finishedTaskFreesItsSlot() {
+    properties.getWorker().setMaxInFlight(2);
+    List<Runnable> tasks = new ArrayList<>();
+    ModerationDispatcher dispatcher = dispatcher(tasks::add);
+    dispatcher.reserve(2);
+
+    dispatcher.submitClaimed(List.of(1L, 2L));
+
+    assertThat(registry.get("meer.moderation.in.flight").gauge().value()).isEqualTo(2.0);
+    tasks.forEach(Runnable::run);
+    assertThat(registry.get("meer.moderation.in.flight").gauge().value()).isZero();
+    assertThat(registry.get("meer.moderation.capacity.free").gauge().value()).isEqualTo(2.0);
+  }
+
+  @Test
+  void rejectedIdsGoBackToPendingAndFreeTheirSlots() {
+    properties.getWorker().setMaxInFlight(2);
+    ModerationDispatcher dispatcher =
+        dispatcher(
+            task -> {
+              throw new RejectedExecutionException("full");
+            });
+    dispatcher.reserve(2);
+
+    dispatcher.submitClaimed(List.of(1L, 2L));
+
+    verify(repository).updateStatusByIds(ModerationStatus.PENDING, List.of(1L, 2L));
+    assertThat(dispatcher.reserve(2)).isEqualTo(2);
+  }
+
+  @Test
+  void acceptedIdsAreNotRequeued() {
+    ModerationDispatcher dispatcher = dispatcher(Runnable::run);
+    dispatcher.reserve(1);
+
+    dispatcher.submitClaimed(List.of(1L));
+
+    verify(repository).findById(1L);
+    verify(repository, never()).updateStatusByIds(Mockito.any(), Mockito.anyList());
+  }
+
+  @Test
+  void idsArePublishedOnlyOnceTheirTransactionCommits() {
+    ModerationDispatcher dispatcher = dispatcher(Runnable::run);
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      dispatcher.dispatchAfterCommit(1L);
+      assertThat(dispatchQueueDepth()).isZero();
+      TransactionSynchronizationUtils.invokeAfterCommit(
+          TransactionSynchronizationManager.getSynchronizations());
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertThat(dispatchQueueDepth()).isEqualTo(1.0);
+  }
+
+  @Test
+  void rolledBackIdsAreNeverPublished() {
+    ModerationDispatcher dispatcher = dispatcher(Runnable::run);
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      dispatcher.dispatchAfterCommit(1L);
+      TransactionSynchronizationUtils.invokeAfterCompletion(
+          TransactionSynchronizationManager.getSynchronizations(),
+          TransactionSynchronization.STATUS_ROLLED_BACK);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertThat(dispatchQueueDepth()).isZero();
+  }
+
+  @Test
+  void notifyPayloadsStayUnderThePostgresLimitAndKeepEveryId() {
+    ModerationDispatcher dispatcher = dispatcher(Runnable::run);
+    List<Long> ids = LongStream.range(0, 2_000).map(i -> Long.MAX_VALUE - i).boxed().toList();
+
+    List<String> payloads = dispatcher.notifyPayloads(ids);
+
+    assertThat(payloads).hasSizeGreaterThan(1);
+    assertThat(payloads)
+        .allSatisfy(
+            payload ->
+                assertThat(payload.getBytes(StandardCharsets.UTF_8).length)
+                    .isLessThanOrEqualTo(ModerationDispatcher.MAX_NOTIFY_BYTES));
+    List<Long> parsed = new ArrayList<>();
+    for (String payload : payloads) {
+      for (String id : payload.substring(payload.indexOf(':') + 1).split(",")) {
+        parsed.add(Long.parseLong(id));
+      }
+    }
+    assertThat(parsed).isEqualTo(ids);
+  }
+
+  @Test
+  void notificationsFromOtherNodesAreQueuedAndOwnOnesSkipped() {
+    ModerationDispatcher dispatcher = dispatcher(Runnable::run);
+
+    dispatcher.onNotification("other-node:4,5,6");
+    assertThat(dispatchQueueDepth()).isEqualTo(3.0);
+
+    // our own ids are already queued locally when we publish them
+    dispatcher.notifyPayloads(List.of(7L, 8L)).forEach(dispatcher::onNotification);
+    assertThat(dispatchQueueDepth()).isEqualTo(3.0);
+
+    dispatcher.onNotification("other-node:9,oops");
+    dispatcher.onNotification("no separator");
+    dispatcher.onNotification(null);
+    assertThat(dispatchQueueDepth()).isEqualTo(3.0);
+  }
+
+  @Test
+  void onlyIdsTheClaimLockedAreHandedToThePool() throws Exception {
+    properties.getDispatch().setListenNotify(false);
+    // id 2 is locked by another node, so SKIP LOCKED leaves it out
+    when(repository.lockPendingIdsIn(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 3L));
+    BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+    ModerationDispatcher dispatcher = dispatcher(tasks::add);
+    dispatcher.publish(List.of(1L, 2L, 3L));
+
+    dispatcher.start();
+    try {
+      verify(repository, timeout(5_000)).markProcessing(eq(List.of(1L, 3L)), any());
+      for (int i = 0; i < 2; i++) {
+        tasks.poll(5, TimeUnit.SECONDS).run();
+      }
+    } finally {
+      dispatcher.stop();
+    }
+
+    verify(repository).findById(1L);
+    verify(repository).findById(3L);
+    verify(repository, never()).findById(2L);
+    assertThat(tasks).isEmpty();
+    assertThat(registry.get("meer.moderation.in.flight").gauge().value()).isZero();
+  }
+
+  private double dispatchQueueDepth() {
+    return registry.get("meer.moderation.queue.depth").tag("stage", "dispatch").gauge().value();
+  }
+
+  private ModerationDispatcher dispatcher(Executor executor) {
+    return new ModerationDispatcher(
+        repository,
+        mock(ModerationPolicyService.class),
+        properties,
+        mock(PlatformTransactionManager.class),
+        executor,
+        mock(DataSource.class),
+        mock(ListenConnectionFactory.class),
+        mock(JdbcTemplate.class),
+        Clock.systemUTC(),
+        registry);
+  }
+}
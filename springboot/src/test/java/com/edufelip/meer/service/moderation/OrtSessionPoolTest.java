@@ -0,0 +1,110 @@
+package com.edufelip.meer.service.moderation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class OrtSessionPoolTest {
+
+  @Test
+  void acquireTakesTheLeastBusySession() {
+    var pool = new OrtSessionPool(List.of(mock(OrtSession.class), mock(OrtSession.class)));
+
+    List<Integer> held = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      held.add(pool.acquire());
+    }
+    // four callers over two sessions: each session gets two of them
+    assertThat(held).containsExactlyInAnyOrder(0, 0, 1, 1);
+
+    // a caller leaving session 1 (say its worker thread timed out) makes it the next one taken
+    pool.release(1);
+    assertThat(pool.acquire()).isEqualTo(1);
+    assertThat(pool.inUse(0)).isEqualTo(2);
+    assertThat(pool.inUse(1)).isEqualTo(2);
+  }
+
+  @Test
+  void idleSessionsTakeTurns() {
+    var pool = new OrtSessionPool(List.of(mock(OrtSession.class), mock(OrtSession.class)));
+
+    List<Integer> taken = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      int slot = pool.acquire();
+      taken.add(slot);
+      pool.release(slot);
+    }
+
+    assertThat(taken).containsExactly(0, 1, 0, 1);
+  }
+
+  @Test
+  void concurrentCallersNeverPileOntoOneSession() throws Exception {
+    var pool = new OrtSessionPool(List.of(mock(OrtSession.class), mock(OrtSession.class)));
+    AtomicInteger worst = new AtomicInteger();
+
+    ExecutorService threads = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> runs = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        runs.add(
+            threads.submit(
+                () -> {
+                  int slot = pool.acquire();
+                  try {
+                    worst.accumulateAndGet(pool.inUse(slot), Math::max);
+                  } finally {
+                    pool.release(slot);
+                  }
+                }));
+      }
+      for (Future<?> run : runs) {
+        run.get();
+      }
+    } finally {
+      threads.shutdownNow();
+    }
+
+    // four threads over two sessions never put more than two on one of them
+    assertThat(worst.get()).isLessThanOrEqualTo(2);
+    assertThat(pool.inUse(0)).isZero();
+    assertThat(pool.inUse(1)).isZero();
+  }
+
+  @Test
+  void releaseWithoutAcquireFails() {
+    var pool = new OrtSessionPool(List.of(mock(OrtSession.class)));
+
+    assertThatThrownBy(() -> pool.release(0)).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void closeClosesEverySessionEvenIfOneFails() throws Exception {
+    OrtSession failing = mock(OrtSession.class);
+    OrtSession other = mock(OrtSession.class);
+    doThrow(new OrtException("boom")).when(failing).close();
+
+    new OrtSessionPool(List.of(failing, other)).close();
+
+    verify(failing).close();
+    verify(other).close();
+  }
+
+  @Test
+  void rejectsEmptyPool() {
+    assertThatThrownBy(() -> new OrtSessionPool(List.of()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
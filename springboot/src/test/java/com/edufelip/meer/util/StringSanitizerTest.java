@@ -189,4 +189,29 @@ class StringSanitizerTest {
     assertThat(result).contains("\n");
     assertThat(result).contains("\t");
   }
+
+  @Test
+  void returnsPlainAsciiInputUnchanged() {
+    String input = "Brecho Central\nRua das Flores, 42";
+    assertThat(StringSanitizer.sanitize(input)).isSameAs(input);
+  }
+
+  @Test
+  void limitsConsecutiveCrLfNewlines() {
+    String input = "Line 1\r\n\r\n\r\n\r\n\r\nLine 2\r\n\r\nLine 3";
+    String result = StringSanitizer.sanitize(input);
+    assertThat(result).isEqualTo("Line 1\n\n\nLine 2\r\n\r\nLine 3");
+  }
+
+  @Test
+  void controlCharactersDoNotSplitNewlineRuns() {
+    String input = "A\n\u0000\n\n\u0001\n\nB";
+    assertThat(StringSanitizer.sanitize(input)).isEqualTo("A\n\n\nB");
+  }
+
+  @Test
+  void normalizesFullwidthBracketsBeforeStrippingTags() {
+    String input = "\uFF1Cscript\uFF1Ealert(1)\uFF1C/script\uFF1EOk";
+    assertThat(StringSanitizer.sanitize(input)).isEqualTo("Ok");
+  }
 }
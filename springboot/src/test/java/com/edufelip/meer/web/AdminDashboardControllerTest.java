@@ -68,11 +68,13 @@ class AdminDashboardControllerTest {
             null,
             null,
             null,
-            java.time.Instant.parse("2024-01-01T00:00:00Z"));
+            java.time.Instant.parse("2024-01-01T00:00:00Z"),
+            5L,
+            7L);
 
     when(guideContentRepository.findAllSummariesActive(org.mockito.ArgumentMatchers.any()))
         .thenReturn(new SliceImpl<>(List.of(summary)));
-    when(guideContentEngagementService.getEngagement(eq(List.of(10)), eq(null)))
+    when(guideContentEngagementService.getSummaryEngagement(eq(List.of(summary)), eq(null)))
         .thenReturn(Map.of(10, new GuideContentEngagementService.EngagementSummary(5L, 7L, false)));
 
     mockMvc
@@ -97,7 +99,7 @@ class AdminDashboardControllerTest {
     content.setId(10);
 
     when(guideContentRepository.findByIdAndDeletedAtIsNull(10)).thenReturn(Optional.of(content));
-    when(guideContentEngagementService.getEngagement(eq(List.of(10)), eq(null)))
+    when(guideContentEngagementService.getEngagement(eq(List.of(content)), eq(null)))
         .thenReturn(Map.of(10, new GuideContentEngagementService.EngagementSummary(3L, 4L, false)));
 
     mockMvc
@@ -1,10 +1,13 @@
 package com.edufelip.meer.web;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -20,6 +23,8 @@ import com.edufelip.meer.domain.CreateGuideContentCommentUseCase;
 import com.edufelip.meer.domain.CreateOwnedGuideContentUseCase;
 import com.edufelip.meer.domain.DeleteGuideContentUseCase;
 import com.edufelip.meer.domain.GetGuideContentUseCase;
+import com.edufelip.meer.domain.GuideContentSummary;
+import com.edufelip.meer.domain.KeysetCursor;
 import com.edufelip.meer.domain.LikeGuideContentUseCase;
 import com.edufelip.meer.domain.RequestGuideContentImageUploadUseCase;
 import com.edufelip.meer.domain.UnlikeGuideContentUseCase;
@@ -36,6 +41,7 @@ import com.edufelip.meer.security.token.TokenProvider;
 import com.edufelip.meer.service.GuideContentEngagementService;
 import com.edufelip.meer.service.GuideContentModerationService;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
@@ -43,6 +49,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -430,4 +438,47 @@ class GuideContentControllerTest {
     verify(createOwnedGuideContentUseCase)
         .execute(org.mockito.ArgumentMatchers.eq(user), org.mockito.ArgumentMatchers.any());
   }
+
+  @Test
+  void listFollowsCursorWithKeysetQueryAndReturnsNextCursor() throws Exception {
+    UUID storeId = UUID.randomUUID();
+    Instant seenAt = Instant.parse("2024-01-02T10:15:30.123456Z");
+    String cursor = new KeysetCursor<>(seenAt, 7).encode();
+    var first =
+        new GuideContentSummary(6, "A", "d", "https://img", storeId, "Store", null, seenAt, 1L, 0L);
+    var second =
+        new GuideContentSummary(
+            5, "B", "d", "https://img", storeId, "Store", null, seenAt.minusSeconds(1), 0L, 2L);
+    when(guideContentRepository.findSummariesByStoreIdActiveBefore(
+            eq(storeId), eq(seenAt), eq(7), any()))
+        .thenReturn(new SliceImpl<>(List.of(first, second), PageRequest.of(0, 2), true));
+
+    mockMvc
+        .perform(
+            get("/contents")
+                .param("storeId", storeId.toString())
+                .param("pageSize", "2")
+                .param("cursor", cursor))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].id").value(6))
+        .andExpect(jsonPath("$.items[1].id").value(5))
+        .andExpect(jsonPath("$.hasNext").value(true))
+        .andExpect(
+            jsonPath("$.nextCursor").value(new KeysetCursor<>(seenAt.minusSeconds(1), 5).encode()));
+
+    verify(guideContentRepository, never()).findAllSummariesByStoreIdActive(any(), any());
+  }
+
+  @Test
+  void listRejectsMalformedCursorAndCursorWithSearch() throws Exception {
+    mockMvc
+        .perform(get("/contents").param("cursor", "not-a-cursor"))
+        .andExpect(status().isBadRequest());
+    mockMvc
+        .perform(
+            get("/contents")
+                .param("q", "thrift")
+                .param("cursor", new KeysetCursor<>(Instant.EPOCH, 1).encode()))
+        .andExpect(status().isBadRequest());
+  }
 }
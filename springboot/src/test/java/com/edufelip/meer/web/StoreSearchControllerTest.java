@@ -0,0 +1,67 @@
+package com.edufelip.meer.web;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.edufelip.meer.domain.GetThriftStoresUseCase;
+import com.edufelip.meer.domain.StoreSearchIndex;
+import com.edufelip.meer.domain.repo.AuthUserRepository;
+import com.edufelip.meer.security.AuthUserResolver;
+import com.edufelip.meer.security.token.TokenProvider;
+import com.edufelip.meer.service.StoreFeedbackService;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(StoreSearchController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import({RestExceptionHandler.class, AuthUserResolver.class})
+class StoreSearchControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockitoBean private TokenProvider tokenProvider;
+  @MockitoBean private AuthUserRepository authUserRepository;
+  @MockitoBean private GetThriftStoresUseCase getThriftStoresUseCase;
+  @MockitoBean private StoreFeedbackService storeFeedbackService;
+
+  @Test
+  void suggestReturnsStoresAndNeighborhoods() throws Exception {
+    UUID storeId = UUID.randomUUID();
+    when(getThriftStoresUseCase.suggest("mari", 5))
+        .thenReturn(
+            List.of(
+                new StoreSearchIndex.Suggestion(
+                    StoreSearchIndex.SuggestionType.STORE, "Brechó da Maria", storeId),
+                new StoreSearchIndex.Suggestion(
+                    StoreSearchIndex.SuggestionType.NEIGHBORHOOD, "Vila Mariana", null)));
+
+    mockMvc
+        .perform(get("/stores/suggest").param("q", "mari").param("limit", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].type").value("STORE"))
+        .andExpect(jsonPath("$[0].label").value("Brechó da Maria"))
+        .andExpect(jsonPath("$[0].storeId").value(storeId.toString()))
+        .andExpect(jsonPath("$[1].type").value("NEIGHBORHOOD"))
+        .andExpect(jsonPath("$[1].storeId").doesNotExist());
+  }
+
+  @Test
+  void suggestRejectsBlankQueryAndOversizedLimit() throws Exception {
+    mockMvc.perform(get("/stores/suggest").param("q", " ")).andExpect(status().isBadRequest());
+    mockMvc
+        .perform(get("/stores/suggest").param("q", "mari").param("limit", "21"))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(getThriftStoresUseCase);
+  }
+}